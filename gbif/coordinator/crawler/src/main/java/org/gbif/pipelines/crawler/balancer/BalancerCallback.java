@@ -30,6 +30,7 @@ public class BalancerCallback extends AbstractMessageCallback<PipelinesBalancerM
 
   @NonNull private final BalancerConfiguration config;
   private final MessagePublisher publisher;
+  @NonNull private final RunnerCostModel costModel;
 
   /** Handles a MQ {@link PipelinesBalancerMessage} message */
   @Override
@@ -41,13 +42,13 @@ public class BalancerCallback extends AbstractMessageCallback<PipelinesBalancerM
     // Select handler by message class name
     try {
       if (PipelinesVerbatimMessage.class.getSimpleName().equals(className)) {
-        VerbatimMessageHandler.handle(config, publisher, message);
+        VerbatimMessageHandler.handle(config, costModel, publisher, message);
       } else if (PipelinesInterpretedMessage.class.getSimpleName().equals(className)) {
-        InterpretedMessageHandler.handle(config, publisher, message);
+        InterpretedMessageHandler.handle(config, costModel, publisher, message);
       } else if (PipelinesIndexedMessage.class.getSimpleName().equals(className)) {
-        PipelinesIndexedMessageHandler.handle(publisher, message);
+        PipelinesIndexedMessageHandler.handle(costModel.getHistory(), publisher, message);
       } else if (PipelinesHdfsViewBuiltMessage.class.getSimpleName().equals(className)) {
-        PipelinesHdfsViewBuiltMessageHandler.handle(publisher, message);
+        PipelinesHdfsViewBuiltMessageHandler.handle(costModel.getHistory(), publisher, message);
       } else {
         log.error("Handler for {} wasn't found!", className);
       }
@@ -28,4 +28,19 @@ public class BalancerConfiguration {
   @NotNull
   @Min(1)
   public int switchRecordsNumber;
+
+  /**
+   * Local file with the step run history, relative to the working directory if the path is not
+   * absolute. An empty value keeps the history in memory only, so it is lost on every restart
+   */
+  @Parameter(names = "--runner-history-path")
+  public String runnerHistoryPath = "balancer-runner-history.tsv";
+
+  @Parameter(names = "--runner-history-min-runs")
+  @Min(1)
+  public int runnerHistoryMinRuns = 20;
+
+  /** Share of datasets sent to the runner which isn't the expected fastest one */
+  @Parameter(names = "--runner-exploration-rate")
+  public double runnerExplorationRate = 0.05d;
 }
@@ -31,8 +31,16 @@ public class BalancerService extends AbstractIdleService {
     listener = new MessageListener(stepConfig.messaging.getConnectionParameters(), 1);
     publisher = new DefaultMessagePublisher(stepConfig.messaging.getConnectionParameters());
 
+    RunnerCostModel costModel =
+        new RunnerCostModel(
+            StepRunHistory.create(config.runnerHistoryPath),
+            config.runnerHistoryMinRuns,
+            config.runnerExplorationRate);
+
     listener.listen(
-        stepConfig.queueName, stepConfig.poolSize, new BalancerCallback(config, publisher));
+        stepConfig.queueName,
+        stepConfig.poolSize,
+        new BalancerCallback(config, publisher, costModel));
   }
 
   @Override
@@ -0,0 +1,178 @@
+package org.gbif.pipelines.crawler.balancer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.gbif.api.model.pipelines.StepRunner;
+import org.gbif.api.model.pipelines.StepType;
+import org.gbif.pipelines.crawler.balancer.StepRunHistory.StepRun;
+
+/**
+ * Chooses the runner with the lowest expected wall time, using the runs in {@link StepRunHistory}.
+ *
+ * <p>For every step and runner the duration is fitted as a fixed cost plus a cost per record, the
+ * fixed cost is where Spark startup and the queue show up. A dataset which ran before is slower or
+ * faster per record than the fit, for example because of many extensions or heavy multimedia, the
+ * median of these ratios scales the cost per record of that dataset on both runners.
+ *
+ * <p>Until every step and runner has enough runs, no runner is chosen and the balancer falls back
+ * to the records number and file size thresholds. The same happens when the records number is
+ * outside of the records range a runner was fitted on, widened by {@link #RANGE_FACTOR}, so a fit
+ * is never extrapolated far from its runs. The thresholds route small datasets to STANDALONE and
+ * large ones to DISTRIBUTED, both ranges meet around the threshold and grow from there.
+ *
+ * <p>A share of datasets, the exploration rate, is sent to the runner which isn't the expected
+ * fastest one, so both fits keep getting new runs.
+ */
+@Slf4j
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class RunnerCostModel {
+
+  private static final double MIN_DATASET_FACTOR = 0.2;
+  private static final double MAX_DATASET_FACTOR = 5d;
+  private static final double RANGE_FACTOR = 2d;
+
+  private static final StepRunner[] RUNNERS = {StepRunner.STANDALONE, StepRunner.DISTRIBUTED};
+
+  @Getter private final StepRunHistory history;
+  private final int minRuns;
+  private final double explorationRate;
+  private final DoubleSupplier random;
+
+  public RunnerCostModel(StepRunHistory history, int minRuns, double explorationRate) {
+    this(history, minRuns, explorationRate, () -> ThreadLocalRandom.current().nextDouble());
+  }
+
+  /**
+   * @param steps steps which will run with the chosen runner, in parallel
+   * @return the runner with the lowest expected wall time, sometimes the other one to explore, or
+   *     empty when there are not enough runs for the records number
+   */
+  public Optional<StepRunner> chooseRunner(
+      String datasetId, Collection<StepType> steps, long records) {
+    if (steps.isEmpty()) {
+      return Optional.empty();
+    }
+
+    StepRunner best = null;
+    StepRunner other = null;
+    double bestMs = Double.MAX_VALUE;
+    for (StepRunner runner : RUNNERS) {
+      double expectedMs = 0;
+      for (StepType step : steps) {
+        Fit fit = fit(history.getRuns(step, runner));
+        if (fit == null || !fit.isInRange(records)) {
+          return Optional.empty();
+        }
+        double factor = datasetFactor(datasetId, step);
+        expectedMs = Math.max(expectedMs, fit.fixedMs + fit.perRecordMs * factor * records);
+      }
+      log.info(
+          "Dataset {}, records {}, runner {}, expected time {} ms",
+          datasetId,
+          records,
+          runner,
+          (long) expectedMs);
+      if (expectedMs < bestMs) {
+        bestMs = expectedMs;
+        other = best;
+        best = runner;
+      } else {
+        other = runner;
+      }
+    }
+
+    if (other != null && random.getAsDouble() < explorationRate) {
+      log.info("Dataset {}, exploring runner {} instead of {}", datasetId, other, best);
+      return Optional.of(other);
+    }
+    return Optional.ofNullable(best);
+  }
+
+  /** Median of observed to fitted cost per record over earlier runs of the dataset */
+  private double datasetFactor(String datasetId, StepType step) {
+    List<Double> ratios = new ArrayList<>();
+    for (StepRunner runner : RUNNERS) {
+      List<StepRun> runs = history.getRuns(step, runner);
+      Fit fit = fit(runs);
+      if (fit == null || fit.perRecordMs <= 0) {
+        continue;
+      }
+      for (StepRun run : runs) {
+        if (run.getDatasetId().equals(datasetId) && run.getRecords() > 0) {
+          double variableMs = Math.max(0d, run.getDurationMs() - fit.fixedMs);
+          ratios.add(variableMs / (fit.perRecordMs * run.getRecords()));
+        }
+      }
+    }
+    if (ratios.isEmpty()) {
+      return 1d;
+    }
+    Collections.sort(ratios);
+    double median = ratios.get(ratios.size() / 2);
+    return Math.min(MAX_DATASET_FACTOR, Math.max(MIN_DATASET_FACTOR, median));
+  }
+
+  /** Least squares fit of duration = fixedMs + perRecordMs * records, both non negative */
+  private Fit fit(List<StepRun> runs) {
+    int n = runs.size();
+    if (n < minRuns) {
+      return null;
+    }
+
+    double sumX = 0;
+    double sumY = 0;
+    double sumXX = 0;
+    double sumXY = 0;
+    long minRecords = Long.MAX_VALUE;
+    long maxRecords = 0;
+    for (StepRun run : runs) {
+      double x = run.getRecords();
+      double y = run.getDurationMs();
+      minRecords = Math.min(minRecords, run.getRecords());
+      maxRecords = Math.max(maxRecords, run.getRecords());
+      sumX += x;
+      sumY += y;
+      sumXX += x * x;
+      sumXY += x * y;
+    }
+
+    double varianceX = n * sumXX - sumX * sumX;
+    if (varianceX <= 0) {
+      return new Fit(sumY / n, 0d, minRecords, maxRecords);
+    }
+
+    double perRecordMs = (n * sumXY - sumX * sumY) / varianceX;
+    double fixedMs = (sumY - perRecordMs * sumX) / n;
+    if (perRecordMs < 0) {
+      return new Fit(sumY / n, 0d, minRecords, maxRecords);
+    }
+    if (fixedMs < 0) {
+      // Line through zero
+      return new Fit(0d, sumXY / sumXX, minRecords, maxRecords);
+    }
+    return new Fit(fixedMs, perRecordMs, minRecords, maxRecords);
+  }
+
+  @AllArgsConstructor
+  private static class Fit {
+
+    private final double fixedMs;
+    private final double perRecordMs;
+    private final long minRecords;
+    private final long maxRecords;
+
+    /** The records number is close enough to the runs the fit is based on */
+    private boolean isInRange(long records) {
+      return records >= minRecords / RANGE_FACTOR && records <= maxRecords * RANGE_FACTOR;
+    }
+  }
+}
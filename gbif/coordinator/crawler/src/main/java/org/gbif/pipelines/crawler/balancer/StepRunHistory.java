@@ -0,0 +1,195 @@
+package org.gbif.pipelines.crawler.balancer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.gbif.api.model.pipelines.StepRunner;
+import org.gbif.api.model.pipelines.StepType;
+
+/**
+ * Local history of step runs observed by the balancer. A run starts when the balancer sends a step
+ * message with the chosen runner and finishes when the message of the finished step comes back to
+ * the balancer, so the duration is the wall time including the queue and Spark startup.
+ *
+ * <p>Finished runs are kept per step and runner, only the latest {@link #MAX_RUNS} of them, and
+ * appended to a local tab separated file when a path is given, so the history survives a restart.
+ */
+@Slf4j
+public class StepRunHistory {
+
+  public static final int MAX_RUNS = 1_000;
+
+  /** A run without a finished message is dropped after this time */
+  private static final long PENDING_TTL_MS = Duration.ofDays(7).toMillis();
+
+  private final Map<String, PendingRun> pending = new HashMap<>();
+  private final Map<String, Deque<StepRun>> runs = new HashMap<>();
+  private final Path path;
+  private final LongSupplier clock;
+
+  StepRunHistory(Path path, LongSupplier clock) {
+    this.path = path;
+    this.clock = clock;
+    load();
+  }
+
+  /** @param path local file to keep the history in, or null to keep it in memory only */
+  public static StepRunHistory create(String path) {
+    return new StepRunHistory(
+        path == null || path.isEmpty() ? null : Paths.get(path), System::currentTimeMillis);
+  }
+
+  /** Marks the start of runs of the steps */
+  public synchronized void started(
+      String datasetId, int attempt, Collection<StepType> steps, StepRunner runner, long records) {
+    long now = clock.getAsLong();
+    pending.values().removeIf(p -> now - p.startedAt > PENDING_TTL_MS);
+    for (StepType step : steps) {
+      pending.put(key(datasetId, attempt, step), new PendingRun(runner, records, now));
+    }
+  }
+
+  /** Marks the end of a step run, a step without a started run is ignored */
+  public synchronized void finished(String datasetId, int attempt, StepType step) {
+    PendingRun p = pending.remove(key(datasetId, attempt, step));
+    if (p == null) {
+      return;
+    }
+    StepRun run =
+        new StepRun(datasetId, step, p.runner, p.records, clock.getAsLong() - p.startedAt);
+    add(run);
+    log.info("Step run has been finished - {}", run);
+    append(run);
+  }
+
+  /** Finished runs of the step with the runner, the oldest first */
+  public synchronized List<StepRun> getRuns(StepType step, StepRunner runner) {
+    Deque<StepRun> deque = runs.get(key(step, runner));
+    return deque == null ? Collections.emptyList() : new ArrayList<>(deque);
+  }
+
+  private void add(StepRun run) {
+    Deque<StepRun> deque = runs.computeIfAbsent(key(run.step, run.runner), k -> new ArrayDeque<>());
+    deque.addLast(run);
+    if (deque.size() > MAX_RUNS) {
+      deque.removeFirst();
+    }
+  }
+
+  private void load() {
+    if (path == null || !Files.exists(path)) {
+      return;
+    }
+    try {
+      int lines = 0;
+      for (String line : Files.readAllLines(path, UTF_8)) {
+        StepRun run = StepRun.parse(line);
+        if (run != null) {
+          add(run);
+          lines++;
+        }
+      }
+      log.info("Loaded {} step runs from {}", lines, path);
+
+      // Rewrite the file with the latest runs only
+      int kept = runs.values().stream().mapToInt(Deque::size).sum();
+      if (lines > kept * 2) {
+        List<String> latest = new ArrayList<>(kept);
+        runs.values().forEach(d -> d.forEach(r -> latest.add(r.format())));
+        Files.write(path, latest, UTF_8);
+      }
+    } catch (IOException ex) {
+      log.warn("Couldn't read step run history from {}", path, ex);
+    }
+  }
+
+  private void append(StepRun run) {
+    if (path == null) {
+      return;
+    }
+    try {
+      Files.write(
+          path,
+          Collections.singletonList(run.format()),
+          UTF_8,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND);
+    } catch (IOException ex) {
+      log.warn("Couldn't write step run history to {}", path, ex);
+    }
+  }
+
+  private static String key(String datasetId, int attempt, StepType step) {
+    return datasetId + "_" + attempt + "_" + step;
+  }
+
+  private static String key(StepType step, StepRunner runner) {
+    return step + "_" + runner;
+  }
+
+  /** A finished step run */
+  @Getter
+  @ToString
+  @AllArgsConstructor
+  public static class StepRun {
+
+    private final String datasetId;
+    private final StepType step;
+    private final StepRunner runner;
+    private final long records;
+    private final long durationMs;
+
+    private String format() {
+      return String.join(
+          "\t",
+          datasetId,
+          step.name(),
+          runner.name(),
+          Long.toString(records),
+          Long.toString(durationMs));
+    }
+
+    private static StepRun parse(String line) {
+      String[] values = line.split("\t");
+      if (values.length != 5) {
+        return null;
+      }
+      try {
+        return new StepRun(
+            values[0],
+            StepType.valueOf(values[1]),
+            StepRunner.valueOf(values[2]),
+            Long.parseLong(values[3]),
+            Long.parseLong(values[4]));
+      } catch (IllegalArgumentException ex) {
+        return null;
+      }
+    }
+  }
+
+  @AllArgsConstructor
+  private static class PendingRun {
+
+    private final StepRunner runner;
+    private final long records;
+    private final long startedAt;
+  }
+}
@@ -2,10 +2,15 @@ package org.gbif.pipelines.crawler.balancer.handler;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.gbif.api.model.pipelines.StepRunner;
+import org.gbif.api.model.pipelines.StepType;
 import org.gbif.common.messaging.api.MessagePublisher;
 import org.gbif.common.messaging.api.messages.PipelinesBalancerMessage;
 import org.gbif.common.messaging.api.messages.PipelinesInterpretedMessage;
@@ -15,6 +20,7 @@ import org.gbif.pipelines.common.PipelinesVariables.Pipeline.Conversion;
 import org.gbif.pipelines.common.configs.StepConfiguration;
 import org.gbif.pipelines.common.utils.HdfsUtils;
 import org.gbif.pipelines.crawler.balancer.BalancerConfiguration;
+import org.gbif.pipelines.crawler.balancer.RunnerCostModel;
 import org.gbif.pipelines.crawler.interpret.InterpreterConfiguration;
 
 /**
@@ -27,7 +33,10 @@ public class InterpretedMessageHandler {
 
   /** Main handler, basically computes the runner type and sends to the same consumer */
   public static void handle(
-      BalancerConfiguration config, MessagePublisher publisher, PipelinesBalancerMessage message)
+      BalancerConfiguration config,
+      RunnerCostModel costModel,
+      MessagePublisher publisher,
+      PipelinesBalancerMessage message)
       throws IOException {
 
     log.info("Process PipelinesInterpretedMessage - {}", message);
@@ -37,9 +46,12 @@ public class InterpretedMessageHandler {
     PipelinesInterpretedMessage m =
         mapper.readValue(message.getPayload(), PipelinesInterpretedMessage.class);
 
+    String datasetId = m.getDatasetUuid().toString();
+    costModel.getHistory().finished(datasetId, m.getAttempt(), StepType.VERBATIM_TO_INTERPRETED);
+
     long recordsNumber = getRecordNumber(config, m);
 
-    String runner = computeRunner(config, m, recordsNumber).name();
+    StepRunner runner = computeRunner(config, costModel, m, recordsNumber);
 
     PipelinesInterpretedMessage outputMessage =
         new PipelinesInterpretedMessage(
@@ -47,7 +59,7 @@ public class InterpretedMessageHandler {
             m.getAttempt(),
             m.getPipelineSteps(),
             recordsNumber,
-            runner,
+            runner.name(),
             m.isRepeatAttempt(),
             m.getResetPrefix(),
             m.getOnlyForStep(),
@@ -58,15 +70,23 @@ public class InterpretedMessageHandler {
 
     publisher.send(outputMessage);
 
+    costModel
+        .getHistory()
+        .started(datasetId, m.getAttempt(), getRunnerSteps(m), runner, recordsNumber);
+
     log.info("The message has been sent - {}", outputMessage);
   }
 
   /**
-   * Computes runner type: Strategy 1 - Chooses a runner type by number of records in a dataset
-   * Strategy 2 - Chooses a runner type by calculating verbatim.avro file size
+   * Computes runner type: Strategy 0 - Chooses a runner type by expected time of earlier runs,
+   * Strategy 1 - Chooses a runner type by number of records in a dataset Strategy 2 - Chooses a
+   * runner type by calculating verbatim.avro file size
    */
   private static StepRunner computeRunner(
-      BalancerConfiguration config, PipelinesInterpretedMessage message, long recordsNumber)
+      BalancerConfiguration config,
+      RunnerCostModel costModel,
+      PipelinesInterpretedMessage message,
+      long recordsNumber)
       throws IOException {
 
     String datasetId = message.getDatasetUuid().toString();
@@ -74,6 +94,17 @@ public class InterpretedMessageHandler {
 
     StepRunner runner;
 
+    // Strategy 0: Chooses a runner type by the expected time of earlier runs
+    if (recordsNumber > 0) {
+      Optional<StepRunner> expected =
+          costModel.chooseRunner(datasetId, getRunnerSteps(message), recordsNumber);
+      if (expected.isPresent()) {
+        runner = expected.get();
+        log.info("Records number - {}, expected fastest runner type - {}", recordsNumber, runner);
+        return runner;
+      }
+    }
+
     // Strategy 1: Chooses a runner type by number of records in a dataset
     if (recordsNumber > 0) {
       runner =
@@ -101,6 +132,13 @@ public class InterpretedMessageHandler {
     throw new IllegalStateException("Runner computation is failed " + datasetId);
   }
 
+  /** Steps which run with the computed runner, indexing and HDFS view run in parallel */
+  private static List<StepType> getRunnerSteps(PipelinesInterpretedMessage message) {
+    return Stream.of(StepType.INTERPRETED_TO_INDEX, StepType.HDFS_VIEW)
+        .filter(s -> message.getPipelineSteps().contains(s.name()))
+        .collect(Collectors.toList());
+  }
+
   /**
    * Reads number of records from a archive-to-avro metadata file, verbatim-to-interpreted contains
    * attempted records count, which is not accurate enough
@@ -5,9 +5,11 @@ import java.io.IOException;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.gbif.api.model.pipelines.StepType;
 import org.gbif.common.messaging.api.MessagePublisher;
 import org.gbif.common.messaging.api.messages.PipelinesBalancerMessage;
 import org.gbif.common.messaging.api.messages.PipelinesHdfsViewBuiltMessage;
+import org.gbif.pipelines.crawler.balancer.StepRunHistory;
 
 /**
  * Populates and sends the {@link PipelinesHdfsViewBuiltMessage} message, the main method is {@link
@@ -18,7 +20,8 @@ import org.gbif.common.messaging.api.messages.PipelinesHdfsViewBuiltMessage;
 public class PipelinesHdfsViewBuiltMessageHandler {
 
   /** Main handler, basically computes the runner type and sends to the same consumer */
-  public static void handle(MessagePublisher publisher, PipelinesBalancerMessage message)
+  public static void handle(
+      StepRunHistory history, MessagePublisher publisher, PipelinesBalancerMessage message)
       throws IOException {
 
     log.info("Process PipelinesIndexedMessage - {}", message);
@@ -27,6 +30,8 @@ public class PipelinesHdfsViewBuiltMessageHandler {
     PipelinesHdfsViewBuiltMessage m =
         mapper.readValue(message.getPayload(), PipelinesHdfsViewBuiltMessage.class);
 
+    history.finished(m.getDatasetUuid().toString(), m.getAttempt(), StepType.HDFS_VIEW);
+
     PipelinesHdfsViewBuiltMessage outputMessage =
         new PipelinesHdfsViewBuiltMessage(
             m.getDatasetUuid(),
@@ -2,11 +2,15 @@ package org.gbif.pipelines.crawler.balancer.handler;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.gbif.api.model.pipelines.StepRunner;
+import org.gbif.api.model.pipelines.StepType;
 import org.gbif.common.messaging.api.MessagePublisher;
 import org.gbif.common.messaging.api.messages.PipelinesBalancerMessage;
 import org.gbif.common.messaging.api.messages.PipelinesVerbatimMessage;
@@ -17,6 +21,7 @@ import org.gbif.pipelines.common.PipelinesVariables.Pipeline.Conversion;
 import org.gbif.pipelines.common.configs.StepConfiguration;
 import org.gbif.pipelines.common.utils.HdfsUtils;
 import org.gbif.pipelines.crawler.balancer.BalancerConfiguration;
+import org.gbif.pipelines.crawler.balancer.RunnerCostModel;
 import org.gbif.pipelines.crawler.dwca.DwcaToAvroConfiguration;
 
 /**
@@ -29,7 +34,10 @@ public class VerbatimMessageHandler {
 
   /** Main handler, basically computes the runner type and sends to the same consumer */
   public static void handle(
-      BalancerConfiguration config, MessagePublisher publisher, PipelinesBalancerMessage message)
+      BalancerConfiguration config,
+      RunnerCostModel costModel,
+      MessagePublisher publisher,
+      PipelinesBalancerMessage message)
       throws IOException {
 
     log.info("Process PipelinesVerbatimMessage - {}", message);
@@ -46,7 +54,7 @@ public class VerbatimMessageHandler {
     }
 
     long recordsNumber = getRecordNumber(config, m);
-    String runner = computeRunner(config, m, recordsNumber).name();
+    StepRunner runner = computeRunner(config, costModel, m, recordsNumber);
 
     ValidationResult result = m.getValidationResult();
     if (result.getNumberOfRecords() == null) {
@@ -59,7 +67,7 @@ public class VerbatimMessageHandler {
             m.getAttempt(),
             m.getInterpretTypes(),
             m.getPipelineSteps(),
-            runner,
+            runner.name(),
             m.getEndpointType(),
             m.getExtraPath(),
             result,
@@ -68,15 +76,24 @@ public class VerbatimMessageHandler {
 
     publisher.send(outputMessage);
 
+    String datasetId = m.getDatasetUuid().toString();
+    costModel
+        .getHistory()
+        .started(datasetId, m.getAttempt(), getRunnerSteps(m), runner, recordsNumber);
+
     log.info("The message has been sent - {}", outputMessage);
   }
 
   /**
-   * Computes runner type: Strategy 1 - Chooses a runner type by number of records in a dataset
-   * Strategy 2 - Chooses a runner type by calculating verbatim.avro file size
+   * Computes runner type: Strategy 0 - Chooses a runner type by expected time of earlier runs,
+   * Strategy 1 - Chooses a runner type by number of records in a dataset Strategy 2 - Chooses a
+   * runner type by calculating verbatim.avro file size
    */
   private static StepRunner computeRunner(
-      BalancerConfiguration config, PipelinesVerbatimMessage message, long recordsNumber)
+      BalancerConfiguration config,
+      RunnerCostModel costModel,
+      PipelinesVerbatimMessage message,
+      long recordsNumber)
       throws IOException {
 
     String datasetId = message.getDatasetUuid().toString();
@@ -84,6 +101,17 @@ public class VerbatimMessageHandler {
 
     StepRunner runner;
 
+    // Strategy 0: Chooses a runner type by the expected time of earlier runs
+    if (recordsNumber > 0) {
+      Optional<StepRunner> expected =
+          costModel.chooseRunner(datasetId, getRunnerSteps(message), recordsNumber);
+      if (expected.isPresent()) {
+        runner = expected.get();
+        log.info("Records number - {}, expected fastest runner type - {}", recordsNumber, runner);
+        return runner;
+      }
+    }
+
     // Strategy 1: Chooses a runner type by number of records in a dataset
     if (recordsNumber > 0) {
       runner =
@@ -111,6 +139,13 @@ public class VerbatimMessageHandler {
     throw new IllegalStateException("Runner computation is failed " + datasetId);
   }
 
+  /** Steps which run with the computed runner */
+  private static List<StepType> getRunnerSteps(PipelinesVerbatimMessage message) {
+    return message.getPipelineSteps().contains(StepType.VERBATIM_TO_INTERPRETED.name())
+        ? Collections.singletonList(StepType.VERBATIM_TO_INTERPRETED)
+        : Collections.emptyList();
+  }
+
   /** Reads number of records from a archive-to-avro metadata file */
   private static long getRecordNumber(
       BalancerConfiguration config, PipelinesVerbatimMessage message) throws IOException {
@@ -97,6 +97,7 @@ public class DwcaToAvroCallback extends AbstractMessageCallback<PipelinesDwcaMes
 
       // Run main conversion process
       DwcaToAvroConverter.create()
+          .converterParallelism(config.converterParallelism)
           .codecFactory(CodecFactory.fromString(config.avroConfig.compressionType))
           .syncInterval(config.avroConfig.syncInterval)
           .hdfsSiteConfig(config.stepConfig.hdfsSiteConfig)
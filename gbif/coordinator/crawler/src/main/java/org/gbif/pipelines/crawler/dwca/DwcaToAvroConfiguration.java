@@ -5,6 +5,7 @@ import com.beust.jcommander.ParametersDelegate;
 import java.util.Collections;
 import java.util.Set;
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import lombok.ToString;
 import org.gbif.pipelines.common.PipelinesVariables.Pipeline;
@@ -38,6 +39,10 @@ public class DwcaToAvroConfiguration implements BaseConfiguration {
   @NotNull
   public String fileName = Conversion.FILE_NAME + Pipeline.AVRO_EXTENSION;
 
+  @Parameter(names = "--converter-parallelism")
+  @Min(1)
+  public int converterParallelism = Runtime.getRuntime().availableProcessors();
+
   @Override
   public String getHdfsSiteConfig() {
     return stepConfig.hdfsSiteConfig;
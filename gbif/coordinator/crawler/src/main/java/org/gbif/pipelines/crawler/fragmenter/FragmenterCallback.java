@@ -101,7 +101,7 @@ public class FragmenterCallback extends AbstractMessageCallback<PipelinesInterpr
 
       boolean useSync = message.getNumberOfRecords() < config.asyncThreshold;
 
-      long result =
+      FragmentPersister persister =
           FragmentPersister.builder()
               .strategy(strategy)
               .endpointType(message.getEndpointType())
@@ -117,12 +117,13 @@ public class FragmenterCallback extends AbstractMessageCallback<PipelinesInterpr
               .useSyncMode(useSync)
               .backPressure(config.backPressure)
               .batchSize(config.batchSize)
-              .build()
-              .persist();
+              .skipUnchangedFragments(config.skipUnchangedFragments)
+              .build();
+      long result = persister.persist();
 
       createMetafile(datasetId.toString(), attempt.toString(), result);
 
-      log.info("Result - {} records", result);
+      log.info("Result - {} records, {} skipped as unchanged", result, persister.getSkippedCount());
     };
   }
 
@@ -60,6 +60,9 @@ public class FragmenterConfiguration implements BaseConfiguration {
   @Parameter(names = "--back-pressure")
   public Integer backPressure;
 
+  @Parameter(names = "--skip-unchanged-fragments")
+  public boolean skipUnchangedFragments = false;
+
   @Override
   public String getHdfsSiteConfig() {
     return stepConfig.hdfsSiteConfig;
@@ -169,7 +169,9 @@ public class InterpretationCallback extends AbstractMessageCallback<PipelinesVer
   private void runDistributed(PipelinesVerbatimMessage message, ProcessRunnerBuilderBuilder builder)
       throws IOException, InterruptedException {
     long recordsNumber = getRecordNumber(message);
-    int sparkExecutorNumbers = computeSparkExecutorNumbers(recordsNumber);
+    long extensionRowsNumber = getExtensionRowsNumber(message);
+    log.info("Records number - {}, extension rows number - {}", recordsNumber, extensionRowsNumber);
+    int sparkExecutorNumbers = computeSparkExecutorNumbers(recordsNumber + extensionRowsNumber);
 
     builder
         .sparkParallelism(computeSparkParallelism(sparkExecutorNumbers))
@@ -273,6 +275,30 @@ public class InterpretationCallback extends AbstractMessageCallback<PipelinesVer
     return messageNumber > Long.parseLong(fileNumber) ? messageNumber : Long.parseLong(fileNumber);
   }
 
+  /**
+   * Reads number of extension rows from archive-to-avro metadata file, datasets with many extension
+   * rows need more executors than the core records number suggests
+   */
+  private long getExtensionRowsNumber(PipelinesVerbatimMessage message) throws IOException {
+    if (!config.useExtensionRowsNumber) {
+      return 0L;
+    }
+    String datasetId = message.getDatasetUuid().toString();
+    String attempt = Integer.toString(message.getAttempt());
+    String metaFileName = new DwcaToAvroConfiguration().metaFileName;
+    String metaPath =
+        String.join("/", config.stepConfig.repositoryPath, datasetId, attempt, metaFileName);
+
+    String fileNumber =
+        HdfsUtils.getValueByKey(
+            config.stepConfig.hdfsSiteConfig,
+            config.stepConfig.coreSiteConfig,
+            metaPath,
+            Metrics.ARCHIVE_TO_EXTENSION_ROWS_COUNT);
+
+    return fileNumber == null || fileNumber.isEmpty() ? 0L : Long.parseLong(fileNumber);
+  }
+
   /** Checks if the directory exists */
   @SneakyThrows
   private boolean pathExists(PipelinesVerbatimMessage message) {
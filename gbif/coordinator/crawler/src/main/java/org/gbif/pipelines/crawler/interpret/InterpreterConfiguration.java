@@ -43,6 +43,10 @@ public class InterpreterConfiguration implements BaseConfiguration {
   @Parameter(names = "--use-beam-deprecated-read")
   public boolean useBeamDeprecatedRead = true;
 
+  /** Adds extension rows of the archive to the records number when sizing spark executors */
+  @Parameter(names = "--use-extension-rows-number")
+  public boolean useExtensionRowsNumber = false;
+
   @Override
   public String getHdfsSiteConfig() {
     return stepConfig.hdfsSiteConfig;
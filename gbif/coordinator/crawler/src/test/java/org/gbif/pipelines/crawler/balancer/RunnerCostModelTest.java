@@ -0,0 +1,164 @@
+package org.gbif.pipelines.crawler.balancer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.gbif.api.model.pipelines.StepRunner;
+import org.gbif.api.model.pipelines.StepType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RunnerCostModelTest {
+
+  private static final List<StepType> STEPS =
+      Collections.singletonList(StepType.VERBATIM_TO_INTERPRETED);
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  public void notEnoughRunsTest() {
+
+    // State
+    StepRunHistory history = new StepRunHistory(null, clock::get);
+    addRuns(history, "dataset", 1d);
+
+    // When
+    Optional<StepRunner> runner = model(history, 100, 0d).chooseRunner("new", STEPS, 10);
+
+    // Should
+    assertFalse(runner.isPresent());
+  }
+
+  @Test
+  public void fastestRunnerTest() {
+
+    // State
+    StepRunHistory history = new StepRunHistory(null, clock::get);
+    addRuns(history, "dataset", 1d);
+    RunnerCostModel model = model(history, 10, 0d);
+
+    // When
+    Optional<StepRunner> small = model.chooseRunner("new", STEPS, 100_000L);
+    Optional<StepRunner> large = model.chooseRunner("new", STEPS, 2_000_000L);
+
+    // Should
+    assertEquals(Optional.of(StepRunner.STANDALONE), small);
+    assertEquals(Optional.of(StepRunner.DISTRIBUTED), large);
+  }
+
+  @Test
+  public void heavyDatasetTest() {
+
+    // State
+    StepRunHistory history = new StepRunHistory(null, clock::get);
+    addRuns(history, "dataset", 1d);
+    addRuns(history, "heavy", 4d);
+    RunnerCostModel model = model(history, 10, 0d);
+
+    // When
+    Optional<StepRunner> normal = model.chooseRunner("dataset", STEPS, 300_000L);
+    Optional<StepRunner> heavy = model.chooseRunner("heavy", STEPS, 300_000L);
+
+    // Should
+    assertEquals(Optional.of(StepRunner.STANDALONE), normal);
+    assertEquals(Optional.of(StepRunner.DISTRIBUTED), heavy);
+  }
+
+  @Test
+  public void outOfRangeTest() {
+
+    // State, runs are between 50k and 1M records
+    StepRunHistory history = new StepRunHistory(null, clock::get);
+    addRuns(history, "dataset", 1d);
+    RunnerCostModel model = model(history, 10, 0d);
+
+    // When
+    Optional<StepRunner> tiny = model.chooseRunner("new", STEPS, 1_000L);
+    Optional<StepRunner> huge = model.chooseRunner("new", STEPS, 10_000_000L);
+
+    // Should
+    assertFalse(tiny.isPresent());
+    assertFalse(huge.isPresent());
+  }
+
+  @Test
+  public void explorationTest() {
+
+    // State
+    StepRunHistory history = new StepRunHistory(null, clock::get);
+    addRuns(history, "dataset", 1d);
+    RunnerCostModel model = model(history, 10, 0.05d);
+
+    // When
+    Optional<StepRunner> small = model.chooseRunner("new", STEPS, 100_000L);
+    Optional<StepRunner> large = model.chooseRunner("new", STEPS, 2_000_000L);
+
+    // Should
+    assertEquals(Optional.of(StepRunner.DISTRIBUTED), small);
+    assertEquals(Optional.of(StepRunner.STANDALONE), large);
+  }
+
+  @Test
+  public void historyFileTest() throws IOException {
+
+    // State
+    File file = new File(folder.getRoot(), "history.tsv");
+    StepRunHistory history = new StepRunHistory(file.toPath(), clock::get);
+
+    // When
+    history.started("dataset", 1, STEPS, StepRunner.DISTRIBUTED, 1_000L);
+    clock.addAndGet(5_000L);
+    history.finished("dataset", 1, StepType.VERBATIM_TO_INTERPRETED);
+    // Not started
+    history.finished("dataset", 2, StepType.VERBATIM_TO_INTERPRETED);
+
+    // Should
+    List<StepRunHistory.StepRun> runs =
+        new StepRunHistory(file.toPath(), clock::get)
+            .getRuns(StepType.VERBATIM_TO_INTERPRETED, StepRunner.DISTRIBUTED);
+    assertEquals(1, runs.size());
+    assertEquals("dataset", runs.get(0).getDatasetId());
+    assertEquals(1_000L, runs.get(0).getRecords());
+    assertEquals(5_000L, runs.get(0).getDurationMs());
+  }
+
+  /** The random value is always 0.01, so a rate of 0 never explores and 0.05 always does */
+  private static RunnerCostModel model(
+      StepRunHistory history, int minRuns, double explorationRate) {
+    return new RunnerCostModel(history, minRuns, explorationRate, () -> 0.01d);
+  }
+
+  /**
+   * Standalone costs 1s plus 0.1ms per record, distributed costs 60s plus 0.01ms per record, the
+   * cost per record multiplied by the factor
+   */
+  private void addRuns(StepRunHistory history, String datasetId, double factor) {
+    for (int i = 1; i <= 20; i++) {
+      long records = i * 50_000L;
+      addRun(history, datasetId, i, StepRunner.STANDALONE, records, 1_000L + factor * records / 10);
+      addRun(
+          history, datasetId, i, StepRunner.DISTRIBUTED, records, 60_000L + factor * records / 100);
+    }
+  }
+
+  private void addRun(
+      StepRunHistory history,
+      String datasetId,
+      int attempt,
+      StepRunner runner,
+      long records,
+      double durationMs) {
+    history.started(datasetId, attempt, STEPS, runner, records);
+    clock.addAndGet((long) durationMs);
+    history.finished(datasetId, attempt, StepType.VERBATIM_TO_INTERPRETED);
+  }
+}
@@ -6,7 +6,9 @@ import com.google.common.annotations.VisibleForTesting;
 import java.io.Serializable;
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -262,6 +264,146 @@ public class HBaseLockingKeyService implements Serializable {
     return generateKey(uniqueStrings, datasetId);
   }
 
+  /**
+   * Retrieves or creates keys for a batch of records. Lookup rows of the whole batch are read with
+   * one multi-get, records which already have keys don't take any locks. New keys come from the
+   * reserved counter range, keys and lock releases are written in batches. Records which hit a lock
+   * held by someone else fall back to {@link #generateKey(Set, String)}.
+   *
+   * @param uniqueStringsById map of record id to the unique strings of the record
+   * @return map of record id to the key, records with conflicting keys are absent
+   */
+  public Map<String, KeyLookupResult> generateKeys(
+      Map<String, Set<String>> uniqueStringsById, String scope) {
+    Map<String, KeyLookupResult> result = new HashMap<>(uniqueStringsById.size());
+    byte[] lockId = Bytes.toBytes(UUID.randomUUID().toString());
+
+    // all of our locks will have the same timestamp
+    long now = System.currentTimeMillis();
+
+    Map<String, Set<String>> lookupKeysById = new LinkedHashMap<>(uniqueStringsById.size());
+    uniqueStringsById.forEach(
+        (id, uniqueStrings) ->
+            lookupKeysById.put(id, OccurrenceKeyBuilder.buildKeys(uniqueStrings, scope)));
+
+    Set<String> allLookupKeys = new HashSet<>();
+    lookupKeysById.values().forEach(allLookupKeys::addAll);
+    Map<String, Result> rows = lookupTableStore.getRows(allLookupKeys);
+
+    Map<String, Long> keysToWrite = new HashMap<>();
+    List<String> locksToRelease = new ArrayList<>();
+    List<String> retryIds = new ArrayList<>();
+
+    for (Map.Entry<String, Set<String>> entry : lookupKeysById.entrySet()) {
+      String id = entry.getKey();
+      Set<String> lookupKeys = entry.getValue();
+      if (lookupKeys.isEmpty()) {
+        continue;
+      }
+
+      Long foundKey = null;
+      Map<String, byte[]> expectedLocks = new LinkedHashMap<>();
+      boolean failed = false;
+      boolean conflicted = false;
+      for (String lookupKey : lookupKeys) {
+        Result row = rows.get(lookupKey);
+        String rawStatus =
+            ResultReader.getString(
+                row, Columns.OCCURRENCE_COLUMN_FAMILY, Columns.LOOKUP_STATUS_COLUMN, null);
+        byte[] existingLock =
+            ResultReader.getBytes(
+                row, Columns.OCCURRENCE_COLUMN_FAMILY, Columns.LOOKUP_LOCK_COLUMN, null);
+        Long key =
+            ResultReader.getLong(
+                row, Columns.OCCURRENCE_COLUMN_FAMILY, Columns.LOOKUP_KEY_COLUMN, null);
+
+        if (rawStatus != null && KeyStatus.valueOf(rawStatus) == KeyStatus.ALLOCATED) {
+          if (foundKey != null && foundKey.longValue() != key.longValue()) {
+            conflicted = true;
+            break;
+          }
+          foundKey = key;
+        } else if (existingLock == null) {
+          expectedLocks.put(lookupKey, null);
+        } else {
+          Long existingLockTs =
+              ResultReader.getTimestamp(
+                  row, Columns.OCCURRENCE_COLUMN_FAMILY, Columns.LOOKUP_LOCK_COLUMN);
+          if (now - existingLockTs > STALE_LOCK_TIME) {
+            expectedLocks.put(lookupKey, existingLock);
+          } else {
+            failed = true;
+            break;
+          }
+        }
+      }
+
+      if (conflicted) {
+        log.warn("Found inconsistent occurrence keys in looking up unique identifiers of [{}]", id);
+        continue;
+      }
+      if (failed) {
+        log.debug("Hit valid, current lock for [{}], retrying later", id);
+        retryIds.add(id);
+        continue;
+      }
+
+      // HBase 1.x has no multi-row checkAndMutate, locks are taken row by row
+      List<String> heldLocks = new ArrayList<>(expectedLocks.size());
+      for (Map.Entry<String, byte[]> lock : expectedLocks.entrySet()) {
+        boolean gotLock =
+            lookupTableStore.checkAndPut(
+                lock.getKey(),
+                Columns.LOOKUP_LOCK_COLUMN,
+                lockId,
+                Columns.LOOKUP_LOCK_COLUMN,
+                lock.getValue(),
+                now);
+        if (!gotLock) {
+          failed = true;
+          break;
+        }
+        heldLocks.add(lock.getKey());
+      }
+      locksToRelease.addAll(heldLocks);
+
+      if (failed) {
+        log.debug("Failed to grab lock for [{}], retrying later", id);
+        retryIds.add(id);
+        continue;
+      }
+
+      long key = foundKey == null ? getNextKey() : foundKey;
+      heldLocks.forEach(lookupKey -> keysToWrite.put(lookupKey, key));
+      result.put(id, new KeyLookupResult(key, foundKey == null));
+    }
+
+    // write the keys, update status to ALLOCATED and release the locks
+    lookupTableStore.putLongStrings(
+        keysToWrite,
+        Columns.LOOKUP_KEY_COLUMN,
+        Columns.LOOKUP_STATUS_COLUMN,
+        KeyStatus.ALLOCATED.toString());
+    lookupTableStore.deleteAll(locksToRelease, Columns.LOOKUP_LOCK_COLUMN);
+
+    for (String id : retryIds) {
+      try {
+        result.put(id, generateKey(uniqueStringsById.get(id), scope));
+      } catch (IllegalStateException ex) {
+        log.warn(ex.getMessage());
+      }
+    }
+
+    log.debug("<< generateKeys (batch [{}] retried [{}])", lookupKeysById.size(), retryIds.size());
+
+    return result;
+  }
+
+  /** Retrieves or creates keys for a batch of records, see {@link #generateKeys(Map, String)} */
+  public Map<String, KeyLookupResult> generateKeys(Map<String, Set<String>> uniqueStringsById) {
+    return generateKeys(uniqueStringsById, datasetId);
+  }
+
   /**
    * Provides the next available key. Because throughput of an incrementColumnValue is limited by
    * HBase to a few thousand calls per second, this implementation reserves a batch of IDs at a
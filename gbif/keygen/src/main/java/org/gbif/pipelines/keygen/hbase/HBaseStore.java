@@ -5,6 +5,11 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.annotations.VisibleForTesting;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import javax.annotation.Nullable;
 import org.apache.hadoop.hbase.TableName;
 import org.apache.hadoop.hbase.client.Connection;
@@ -29,6 +34,7 @@ public class HBaseStore<T> {
 
   private static final String KEY_CANT_BE_NULL_MSG = "key can't be null";
   private static final String HBASE_READ_ERROR_MSG = "Could not read from HBase";
+  private static final String HBASE_WRITE_ERROR_MSG = "Could not write to HBase";
 
   private final TableName tableName;
   private final String cf;
@@ -85,7 +91,7 @@ public class HBaseStore<T> {
         result = table.incrementColumnValue(byteKey, cfBytes, Bytes.toBytes(columnName), value);
       }
     } catch (IOException e) {
-      throw new ServiceUnavailableException(HBASE_READ_ERROR_MSG, e);
+      throw new ServiceUnavailableException(HBASE_WRITE_ERROR_MSG, e);
     }
 
     return result;
@@ -103,7 +109,7 @@ public class HBaseStore<T> {
         table.put(put);
       }
     } catch (IOException e) {
-      throw new ServiceUnavailableException(HBASE_READ_ERROR_MSG, e);
+      throw new ServiceUnavailableException(HBASE_WRITE_ERROR_MSG, e);
     }
   }
 
@@ -119,7 +125,37 @@ public class HBaseStore<T> {
         table.put(put);
       }
     } catch (IOException e) {
-      throw new ServiceUnavailableException(HBASE_READ_ERROR_MSG, e);
+      throw new ServiceUnavailableException(HBASE_WRITE_ERROR_MSG, e);
+    }
+  }
+
+  /**
+   * Puts the same two columns for many rows in one batch, where the first column value differs per
+   * row and the second column value is the same for all rows.
+   *
+   * @param values map of row key to the value of the first column
+   * @throws ServiceUnavailableException if there are errors when communicating with HBase
+   */
+  public void putLongStrings(
+      Map<T, Long> values, String columnName, String columnName2, String value2) {
+    checkNotNull(values, "values can't be null");
+    if (values.isEmpty()) {
+      return;
+    }
+    List<Put> puts = new ArrayList<>(values.size());
+    for (Map.Entry<T, Long> entry : values.entrySet()) {
+      byte[] byteKey = convertKey(checkNotNull(entry.getKey(), KEY_CANT_BE_NULL_MSG));
+      if (byteKey != null) {
+        Put put = new Put(byteKey);
+        put.addColumn(cfBytes, Bytes.toBytes(columnName), Bytes.toBytes(entry.getValue()));
+        put.addColumn(cfBytes, Bytes.toBytes(columnName2), Bytes.toBytes(value2));
+        puts.add(put);
+      }
+    }
+    try (Table table = connection.getTable(tableName)) {
+      table.put(puts);
+    } catch (IOException e) {
+      throw new ServiceUnavailableException(HBASE_WRITE_ERROR_MSG, e);
     }
   }
 
@@ -175,6 +211,42 @@ public class HBaseStore<T> {
     return row;
   }
 
+  /**
+   * Returns HBase Result objects matching the given keys using one multi-get.
+   *
+   * @param keys the primary keys of the requested rows
+   * @return map of key to HBase Result, the Result is empty if the row doesn't exist
+   * @throws ServiceUnavailableException if there are errors when communicating with HBase
+   */
+  public Map<T, Result> getRows(Collection<T> keys) {
+    checkNotNull(keys, "keys can't be null");
+
+    List<T> rowKeys = new ArrayList<>(keys.size());
+    List<Get> gets = new ArrayList<>(keys.size());
+    for (T key : keys) {
+      byte[] byteKey = convertKey(checkNotNull(key, KEY_CANT_BE_NULL_MSG));
+      if (byteKey != null) {
+        rowKeys.add(key);
+        gets.add(new Get(byteKey));
+      }
+    }
+
+    Map<T, Result> rows = new HashMap<>(rowKeys.size());
+    if (gets.isEmpty()) {
+      return rows;
+    }
+    try (Table table = connection.getTable(tableName)) {
+      Result[] results = table.get(gets);
+      for (int i = 0; i < results.length; i++) {
+        rows.put(rowKeys.get(i), results[i]);
+      }
+    } catch (IOException e) {
+      throw new ServiceUnavailableException(HBASE_READ_ERROR_MSG, e);
+    }
+
+    return rows;
+  }
+
   /**
    * Do an HBase checkAndPut - a put that will only be attempted if the checkColumn contains the
    * expected checkValue.
@@ -213,7 +285,7 @@ public class HBaseStore<T> {
         success = table.checkAndPut(byteKey, cfBytes, Bytes.toBytes(checkColumn), checkValue, put);
       }
     } catch (IOException e) {
-      throw new ServiceUnavailableException(HBASE_READ_ERROR_MSG, e);
+      throw new ServiceUnavailableException(HBASE_WRITE_ERROR_MSG, e);
     }
 
     return success;
@@ -234,7 +306,33 @@ public class HBaseStore<T> {
         table.delete(delete);
       }
     } catch (IOException e) {
-      throw new ServiceUnavailableException(HBASE_READ_ERROR_MSG, e);
+      throw new ServiceUnavailableException(HBASE_WRITE_ERROR_MSG, e);
+    }
+  }
+
+  /** Deletes the columns of many rows in one batch */
+  public void deleteAll(Collection<T> keys, String... columns) {
+    checkNotNull(keys, "keys can't be null");
+    checkArgument(columns.length > 0, "columns can't be empty");
+    if (keys.isEmpty()) {
+      return;
+    }
+
+    List<Delete> deletes = new ArrayList<>(keys.size());
+    for (T key : keys) {
+      byte[] byteKey = convertKey(checkNotNull(key, KEY_CANT_BE_NULL_MSG));
+      if (byteKey != null) {
+        Delete delete = new Delete(byteKey);
+        for (String column : columns) {
+          delete.addColumn(cfBytes, Bytes.toBytes(column));
+        }
+        deletes.add(delete);
+      }
+    }
+    try (Table table = connection.getTable(tableName)) {
+      table.delete(deletes);
+    } catch (IOException e) {
+      throw new ServiceUnavailableException(HBASE_WRITE_ERROR_MSG, e);
     }
   }
 
@@ -9,7 +9,9 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -132,6 +134,44 @@ public class HBaseLockingKeyServiceIT {
     assertFalse(result.isCreated());
   }
 
+  @Test
+  public void testGenerateKeysBatch() {
+    // setup: one record already has a key
+    KeyLookupResult existing = keyService.generateKey(ImmutableSet.of(A), "boo");
+
+    Map<String, Set<String>> batch = new HashMap<>();
+    batch.put("1", ImmutableSet.of(A, "ABCD"));
+    batch.put("2", ImmutableSet.of(B));
+    batch.put("3", ImmutableSet.of(C));
+
+    // test: existing key is reused and extended with the new unique string, others are created
+    Map<String, KeyLookupResult> result = keyService.generateKeys(batch, "boo");
+    assertEquals(3, result.size());
+    assertEquals(existing.getKey(), result.get("1").getKey());
+    assertFalse(result.get("1").isCreated());
+    assertTrue(result.get("2").isCreated());
+    assertTrue(result.get("3").isCreated());
+    assertEquals(3, Sets.newHashSet(result.values()).size());
+
+    // test: the second call finds all keys
+    Map<String, KeyLookupResult> result2 = keyService.generateKeys(batch, "boo");
+    assertEquals(result.get("2").getKey(), result2.get("2").getKey());
+    assertFalse(result2.get("2").isCreated());
+    assertEquals(existing.getKey(), keyService.findKey(ImmutableSet.of("ABCD"), "boo").getKey());
+  }
+
+  @Test
+  public void testGenerateKeysBatchSharedUniqueString() {
+    Map<String, Set<String>> batch = new HashMap<>();
+    batch.put("1", ImmutableSet.of(A));
+    batch.put("2", ImmutableSet.of(A, B));
+
+    // test: both records share the lookup key and get the same key
+    Map<String, KeyLookupResult> result = keyService.generateKeys(batch, "boo");
+    assertEquals(2, result.size());
+    assertEquals(result.get("1").getKey(), result.get("2").getKey());
+  }
+
   @Test
   public void testSimpleIdContig() {
     KeyLookupResult result = null;
@@ -73,6 +73,10 @@ public class InterpretedToEsIndexExtendedPipeline {
     MDC.put("attempt", options.getAttempt().toString());
     MDC.put("step", StepType.INTERPRETED_TO_INDEX.name());
 
+    if (options.getEsIncrementalIndexing()) {
+      log.warn("Incremental indexing isn't supported by the beam pipeline, indexing all documents");
+    }
+
     run(options, () -> InterpretedToEsIndexPipeline.run(options));
 
     FsUtils.removeTmpDirectory(PathBuilder.getTempDir(options));
@@ -80,10 +84,19 @@ public class InterpretedToEsIndexExtendedPipeline {
   }
 
   public static void run(EsIndexingPipelineOptions options, Runnable pipeline) {
+    run(options, pipeline, false);
+  }
+
+  /**
+   * @param incremental the pipeline supports {@link
+   *     org.gbif.pipelines.ingest.utils.EsDocumentHashes}, records of the dataset can be kept
+   */
+  public static void run(
+      EsIndexingPipelineOptions options, Runnable pipeline, boolean incremental) {
     EsIndexUtils.createIndexAndAliasForDefault(options);
 
     // Returns indices names in case of swapping
-    Set<String> indices = EsIndexUtils.deleteRecordsByDatasetId(options);
+    Set<String> indices = EsIndexUtils.deleteRecordsByDatasetId(options, incremental);
 
     pipeline.run();
 
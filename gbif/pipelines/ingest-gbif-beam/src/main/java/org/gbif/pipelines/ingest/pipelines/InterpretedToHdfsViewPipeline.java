@@ -66,6 +66,7 @@ import org.gbif.pipelines.transforms.table.IdentifierTableTransform;
 import org.gbif.pipelines.transforms.table.LoanTableTransform;
 import org.gbif.pipelines.transforms.table.MaterialSampleTableTransform;
 import org.gbif.pipelines.transforms.table.MeasurementOrFactTableTransform;
+import org.gbif.pipelines.transforms.table.MultiTableTransform;
 import org.gbif.pipelines.transforms.table.OccurrenceHdfsRecordTransform;
 import org.gbif.pipelines.transforms.table.PermitTableTransform;
 import org.gbif.pipelines.transforms.table.PreparationTableTransform;
@@ -247,7 +248,7 @@ public class InterpretedToHdfsViewPipeline {
         .apply("Merge to HdfsRecord", hdfsRecordTransform.converter())
         .apply(hdfsRecordTransform.write(pathFn.apply(OCCURRENCE), numberOfShards));
 
-    // Table records
+    // Table records, all extension tables are converted in one pass
     PCollection<KV<String, CoGbkResult>> tableCollection =
         KeyedPCollectionTuple
             // Join
@@ -256,174 +257,161 @@ public class InterpretedToHdfsViewPipeline {
             // Apply
             .apply("Group table objects", CoGroupByKey.create());
 
-    AmplificationTableTransform.builder()
+    MultiTableTransform.builder()
         .extendedRecordTag(verbatimTransform.getTag())
         .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(AMPLIFICATION_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    IdentificationTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(IDENTIFICATION_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    MeasurementOrFactTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(MEASUREMENT_OR_FACT_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    ResourceRelationshipTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(RESOURCE_RELATIONSHIP_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    CloningTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(CLONING_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    GelImageTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(GEL_IMAGE_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    LoanTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(LOAN_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    MaterialSampleTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(MATERIAL_SAMPLE_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    PermitTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(PERMIT_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    PreparationTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(PREPARATION_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    PreservationTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(PRESERVATION_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    GermplasmMeasurementScoreTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(GERMPLASM_MEASUREMENT_SCORE_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    GermplasmMeasurementTraitTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(GERMPLASM_MEASUREMENT_TRAIT_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    GermplasmMeasurementTrialTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(GERMPLASM_MEASUREMENT_TRIAL_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    GermplasmAccessionTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(GERMPLASM_ACCESSION_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    ExtendedMeasurementOrFactTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(EXTENDED_MEASUREMENT_OR_FACT_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    ChronometricAgeTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(CHRONOMETRIC_AGE_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    ReferenceTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(REFERENCE_TABLE))
-        .types(types)
-        .build()
-        .write(tableCollection);
-
-    IdentifierTableTransform.builder()
-        .extendedRecordTag(verbatimTransform.getTag())
-        .basicRecordTag(basicTransform.getTag())
-        .numShards(numberOfShards)
-        .path(pathFn.apply(IDENTIFIER_TABLE))
-        .types(types)
+        .table(
+            AmplificationTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(AMPLIFICATION_TABLE))
+                .types(types)
+                .build())
+        .table(
+            IdentificationTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(IDENTIFICATION_TABLE))
+                .types(types)
+                .build())
+        .table(
+            MeasurementOrFactTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(MEASUREMENT_OR_FACT_TABLE))
+                .types(types)
+                .build())
+        .table(
+            ResourceRelationshipTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(RESOURCE_RELATIONSHIP_TABLE))
+                .types(types)
+                .build())
+        .table(
+            CloningTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(CLONING_TABLE))
+                .types(types)
+                .build())
+        .table(
+            GelImageTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(GEL_IMAGE_TABLE))
+                .types(types)
+                .build())
+        .table(
+            LoanTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(LOAN_TABLE))
+                .types(types)
+                .build())
+        .table(
+            MaterialSampleTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(MATERIAL_SAMPLE_TABLE))
+                .types(types)
+                .build())
+        .table(
+            PermitTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(PERMIT_TABLE))
+                .types(types)
+                .build())
+        .table(
+            PreparationTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(PREPARATION_TABLE))
+                .types(types)
+                .build())
+        .table(
+            PreservationTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(PRESERVATION_TABLE))
+                .types(types)
+                .build())
+        .table(
+            GermplasmMeasurementScoreTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(GERMPLASM_MEASUREMENT_SCORE_TABLE))
+                .types(types)
+                .build())
+        .table(
+            GermplasmMeasurementTraitTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(GERMPLASM_MEASUREMENT_TRAIT_TABLE))
+                .types(types)
+                .build())
+        .table(
+            GermplasmMeasurementTrialTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(GERMPLASM_MEASUREMENT_TRIAL_TABLE))
+                .types(types)
+                .build())
+        .table(
+            GermplasmAccessionTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(GERMPLASM_ACCESSION_TABLE))
+                .types(types)
+                .build())
+        .table(
+            ExtendedMeasurementOrFactTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(EXTENDED_MEASUREMENT_OR_FACT_TABLE))
+                .types(types)
+                .build())
+        .table(
+            ChronometricAgeTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(CHRONOMETRIC_AGE_TABLE))
+                .types(types)
+                .build())
+        .table(
+            ReferenceTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(REFERENCE_TABLE))
+                .types(types)
+                .build())
+        .table(
+            IdentifierTableTransform.builder()
+                .extendedRecordTag(verbatimTransform.getTag())
+                .basicRecordTag(basicTransform.getTag())
+                .numShards(numberOfShards)
+                .path(pathFn.apply(IDENTIFIER_TABLE))
+                .types(types)
+                .build())
         .build()
         .write(tableCollection);
 
@@ -51,6 +51,7 @@ import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.gbif.pipelines.io.avro.MetadataRecord;
 import org.gbif.pipelines.transforms.common.ExtensionFilterTransform;
 import org.gbif.pipelines.transforms.common.FilterRecordsTransform;
+import org.gbif.pipelines.transforms.common.FusedInterpretationTransform;
 import org.gbif.pipelines.transforms.common.UniqueGbifIdTransform;
 import org.gbif.pipelines.transforms.common.UniqueIdTransform;
 import org.gbif.pipelines.transforms.converters.OccurrenceExtensionTransform;
@@ -192,6 +193,7 @@ public class VerbatimToInterpretedPipeline {
             .isTripletValid(options.isTripletValid())
             .isOccurrenceIdValid(options.isOccurrenceIdValid())
             .useExtendedRecordId(options.isUseExtendedRecordId())
+            .keygenBatchSize(options.getKeygenBatchSize())
             .clusteringServiceSupplier(ClusteringServiceFactory.createSupplier(config))
             .useDynamicPropertiesInterpretation(true)
             .create();
@@ -202,7 +204,11 @@ public class VerbatimToInterpretedPipeline {
         TemporalTransform.builder().orderings(dateComponentOrdering).create();
 
     TaxonomyTransform taxonomyTransform =
-        TaxonomyTransform.builder().kvStoreSupplier(nameUsageMatchServiceSupplier).create();
+        TaxonomyTransform.builder()
+            .kvStoreSupplier(nameUsageMatchServiceSupplier)
+            .batchSize(options.getTaxonomyBatchSize())
+            .maxInFlight(options.getTaxonomyMaxInFlight())
+            .create();
 
     GrscicollTransform grscicollTransform =
         GrscicollTransform.builder().kvStoreSupplier(grscicollServiceSupplier).create();
@@ -305,50 +311,82 @@ public class VerbatimToInterpretedPipeline {
             .apply("Grouping objects", CoGroupByKey.create())
             .apply("Filter verbatim", filterRecordsTransform.filter());
 
-    PCollection<ExtendedRecord> filteredUniqueRecords =
-        filteredErBr.apply(
-            "Get the filtered extended records", filterRecordsTransform.extractExtendedRecords());
-
-    filteredUniqueRecords
-        .apply("Check verbatim transform condition", verbatimTransform.check(types))
-        .apply("Write verbatim to avro", verbatimTransform.write(pathFn));
-
-    filteredUniqueRecords
-        .apply("Check temporal transform condition", temporalTransform.check(types))
-        .apply("Interpret temporal", temporalTransform.interpret())
-        .apply("Write temporal to avro", temporalTransform.write(pathFn));
-
-    filteredUniqueRecords
-        .apply("Check multimedia transform condition", multimediaTransform.check(types))
-        .apply("Interpret multimedia", multimediaTransform.interpret())
-        .apply("Write multimedia to avro", multimediaTransform.write(pathFn));
-
-    filteredUniqueRecords
-        .apply("Check image transform condition", imageTransform.check(types))
-        .apply("Interpret image", imageTransform.interpret())
-        .apply("Write image to avro", imageTransform.write(pathFn));
-
-    filteredUniqueRecords
-        .apply("Check audubon transform condition", audubonTransform.check(types))
-        .apply("Interpret audubon", audubonTransform.interpret())
-        .apply("Write audubon to avro", audubonTransform.write(pathFn));
-
-    filteredUniqueRecords
-        .apply("Check taxonomy transform condition", taxonomyTransform.check(types))
-        .apply("Interpret taxonomy", taxonomyTransform.interpret())
-        .apply("Write taxon to avro", taxonomyTransform.write(pathFn));
-
-    filteredErBr
-        .apply(
-            "Check grscicoll transform condition",
-            grscicollTransform.check(types, ErBrContainer.class))
-        .apply("Interpret grscicoll", grscicollTransform.interpret())
-        .apply("Write grscicoll to avro", grscicollTransform.write(pathFn));
-
-    filteredUniqueRecords
-        .apply("Check location transform condition", locationTransform.check(types))
-        .apply("Interpret location", locationTransform.interpret())
-        .apply("Write location to avro", locationTransform.write(pathFn));
+    if (options.isFusedInterpretation()) {
+      // Batched name matching needs its own bundle buffer, taxonomy is fused only without batching
+      boolean fuseTaxonomy = options.getTaxonomyBatchSize() < 2;
+
+      FusedInterpretationTransform fusedTransform =
+          FusedInterpretationTransform.builder()
+              .types(types)
+              .metadataView(metadataView)
+              .verbatimTransform(verbatimTransform)
+              .temporalTransform(temporalTransform)
+              .taxonomyTransform(fuseTaxonomy ? taxonomyTransform : null)
+              .grscicollTransform(grscicollTransform)
+              .locationTransform(locationTransform)
+              .multimediaTransform(multimediaTransform)
+              .imageTransform(imageTransform)
+              .audubonTransform(audubonTransform)
+              .create();
+
+      PCollectionTuple interpreted = fusedTransform.interpret(filteredErBr);
+      fusedTransform.write(interpreted, pathFn);
+
+      if (!fuseTaxonomy) {
+        filteredErBr
+            .apply(
+                "Get the filtered extended records",
+                filterRecordsTransform.extractExtendedRecords())
+            .apply("Check taxonomy transform condition", taxonomyTransform.check(types))
+            .apply("Interpret taxonomy", taxonomyTransform.interpret())
+            .apply("Write taxon to avro", taxonomyTransform.write(pathFn));
+      }
+    } else {
+      PCollection<ExtendedRecord> filteredUniqueRecords =
+          filteredErBr.apply(
+              "Get the filtered extended records", filterRecordsTransform.extractExtendedRecords());
+
+      filteredUniqueRecords
+          .apply("Check verbatim transform condition", verbatimTransform.check(types))
+          .apply("Write verbatim to avro", verbatimTransform.write(pathFn));
+
+      filteredUniqueRecords
+          .apply("Check temporal transform condition", temporalTransform.check(types))
+          .apply("Interpret temporal", temporalTransform.interpret())
+          .apply("Write temporal to avro", temporalTransform.write(pathFn));
+
+      filteredUniqueRecords
+          .apply("Check multimedia transform condition", multimediaTransform.check(types))
+          .apply("Interpret multimedia", multimediaTransform.interpret())
+          .apply("Write multimedia to avro", multimediaTransform.write(pathFn));
+
+      filteredUniqueRecords
+          .apply("Check image transform condition", imageTransform.check(types))
+          .apply("Interpret image", imageTransform.interpret())
+          .apply("Write image to avro", imageTransform.write(pathFn));
+
+      filteredUniqueRecords
+          .apply("Check audubon transform condition", audubonTransform.check(types))
+          .apply("Interpret audubon", audubonTransform.interpret())
+          .apply("Write audubon to avro", audubonTransform.write(pathFn));
+
+      filteredUniqueRecords
+          .apply("Check taxonomy transform condition", taxonomyTransform.check(types))
+          .apply("Interpret taxonomy", taxonomyTransform.interpret())
+          .apply("Write taxon to avro", taxonomyTransform.write(pathFn));
+
+      filteredErBr
+          .apply(
+              "Check grscicoll transform condition",
+              grscicollTransform.check(types, ErBrContainer.class))
+          .apply("Interpret grscicoll", grscicollTransform.interpret())
+          .apply("Write grscicoll to avro", grscicollTransform.write(pathFn));
+
+      filteredUniqueRecords
+          .apply("Check location transform condition", locationTransform.check(types))
+          .apply("Interpret location", locationTransform.interpret())
+          .apply("Write location to avro", locationTransform.write(pathFn));
+    }
 
     log.info("Running the pipeline");
     PipelineResult result = p.run();
@@ -0,0 +1,238 @@
+package org.gbif.pipelines.ingest.utils;
+
+import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.AVRO_EXTENSION;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.file.SeekableInput;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.hadoop.fs.AvroFSInput;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.gbif.pipelines.common.beam.options.EsIndexingPipelineOptions;
+import org.gbif.pipelines.common.beam.utils.PathBuilder;
+import org.gbif.pipelines.core.converters.GbifJsonConverter;
+import org.gbif.pipelines.core.utils.FsUtils;
+
+/**
+ * Content hashes of the documents of a dataset in an Elasticsearch index, keyed by document id.
+ *
+ * <p>The hashes are kept in a side avro file per dataset and index, {@code
+ * {targetPath}/{datasetId}/es_hashes/{esIndexName}.avro}. The file describes the documents of the
+ * last successful indexing, a run which sends all documents again must delete it first, see {@link
+ * EsIndexUtils#deleteRecordsByDatasetId(EsIndexingPipelineOptions, boolean)}.
+ *
+ * <p>Fields which change with every attempt (crawlId, lastCrawled and created) are not part of the
+ * hash, otherwise every document would be changed.
+ *
+ * <p>The hash of a changed document is kept only after its bulk item was indexed, see {@link
+ * #indexed(String)}. A document which failed to index has no hash, so the next indexing doesn't
+ * match the index count and sends all documents again.
+ */
+@Slf4j
+public class EsDocumentHashes {
+
+  public static final String DIRECTORY_NAME = "es_hashes";
+
+  private static final Set<String> ATTEMPT_FIELDS =
+      new HashSet<>(Arrays.asList("crawlId", "lastCrawled", "created"));
+
+  private static final String ID = "id";
+  private static final String HASH = "hash";
+  private static final String INDEX_META = "esIndexName";
+  private static final String COUNT_META = "count";
+
+  private static final Schema SCHEMA =
+      SchemaBuilder.record("EsDocumentHash")
+          .namespace("org.gbif.pipelines.io.avro")
+          .fields()
+          .requiredString(ID)
+          .requiredLong(HASH)
+          .endRecord();
+
+  private static final HashFunction HASH_FN = Hashing.murmur3_128();
+
+  private final Map<String, Long> previous;
+  private final Map<String, Long> current = new ConcurrentHashMap<>();
+  // Hashes of changed documents which are not indexed yet
+  private final Map<String, Long> pending = new ConcurrentHashMap<>();
+
+  EsDocumentHashes(Map<String, Long> previous) {
+    this.previous = previous;
+  }
+
+  /** Loads hashes of the previous indexing, empty if there is no file */
+  @SneakyThrows
+  public static EsDocumentHashes load(EsIndexingPipelineOptions options) {
+    Path path = new Path(getPath(options));
+    FileSystem fs = getFileSystem(options);
+    if (!fs.exists(path)) {
+      return new EsDocumentHashes(Collections.emptyMap());
+    }
+
+    FileStatus status = fs.getFileStatus(path);
+    Map<String, Long> previous = new HashMap<>();
+    try (SeekableInput input = new AvroFSInput(fs.open(path), status.getLen());
+        DataFileReader<GenericRecord> reader =
+            new DataFileReader<>(input, new GenericDatumReader<>(SCHEMA))) {
+      GenericRecord record = null;
+      while (reader.hasNext()) {
+        record = reader.next(record);
+        previous.put(record.get(ID).toString(), (Long) record.get(HASH));
+      }
+    }
+    log.info("Loaded {} document hashes from {}", previous.size(), path);
+    return new EsDocumentHashes(previous);
+  }
+
+  /**
+   * Reads the number of hashes from the file header only.
+   *
+   * @return number of documents of the previous indexing, empty if there is no file for the index
+   */
+  @SneakyThrows
+  public static Optional<Long> readCount(EsIndexingPipelineOptions options) {
+    Path path = new Path(getPath(options));
+    FileSystem fs = getFileSystem(options);
+    if (!fs.exists(path)) {
+      return Optional.empty();
+    }
+    try (InputStream input = fs.open(path);
+        DataFileStream<GenericRecord> stream =
+            new DataFileStream<>(input, new GenericDatumReader<>(SCHEMA))) {
+      if (!options.getEsIndexName().equals(stream.getMetaString(INDEX_META))) {
+        return Optional.empty();
+      }
+      return Optional.of(Long.parseLong(stream.getMetaString(COUNT_META)));
+    }
+  }
+
+  /** Deletes hashes of the dataset, for all indexes */
+  public static void delete(EsIndexingPipelineOptions options) {
+    String path =
+        PathBuilder.buildPath(options.getTargetPath(), options.getDatasetId(), DIRECTORY_NAME)
+            .toString();
+    if (FsUtils.deleteIfExist(options.getHdfsSiteConfig(), options.getCoreSiteConfig(), path)) {
+      log.info("Document hashes {} deleted", path);
+    }
+  }
+
+  /** Uses pattern for path - "{targetPath}/{datasetId}/es_hashes/{esIndexName}.avro" */
+  public static String getPath(EsIndexingPipelineOptions options) {
+    return PathBuilder.buildPath(
+            options.getTargetPath(),
+            options.getDatasetId(),
+            DIRECTORY_NAME,
+            options.getEsIndexName() + AVRO_EXTENSION)
+        .toString();
+  }
+
+  /**
+   * Hashes the document, the hash of an unchanged document is kept for {@link #save}, the hash of
+   * a changed one waits for {@link #indexed(String)}.
+   *
+   * @return true if the document is new or its content differs from the previous indexing
+   */
+  public boolean isChanged(String id, ObjectNode json) {
+    long hash = hash(json);
+    Long previousHash = previous.get(id);
+    boolean isChanged = previousHash == null || previousHash != hash;
+    if (isChanged) {
+      pending.put(id, hash);
+    } else {
+      current.put(id, hash);
+    }
+    return isChanged;
+  }
+
+  /** Keeps the hash of a changed document once its bulk item was indexed */
+  public void indexed(String id) {
+    Optional.ofNullable(pending.remove(id)).ifPresent(hash -> current.put(id, hash));
+  }
+
+  /** Ids of documents of the previous indexing which weren't seen in this one */
+  public List<String> getRemovedIds() {
+    return previous.keySet().stream()
+        .filter(id -> !current.containsKey(id) && !pending.containsKey(id))
+        .collect(Collectors.toList());
+  }
+
+  /** Replaces the file with hashes of documents seen in this indexing */
+  @SneakyThrows
+  public void save(EsIndexingPipelineOptions options) {
+    if (!pending.isEmpty()) {
+      log.warn("{} changed documents were not indexed, their hashes are not saved", pending.size());
+    }
+    Path path = new Path(getPath(options));
+    Path tmp = new Path(path.getParent(), "." + path.getName() + ".tmp");
+    FileSystem fs =
+        FsUtils.createParentDirectories(
+            options.getHdfsSiteConfig(), options.getCoreSiteConfig(), path);
+
+    try (DataFileWriter<GenericRecord> writer =
+        new DataFileWriter<>(new GenericDatumWriter<>(SCHEMA))) {
+      writer.setCodec(CodecFactory.fromString(options.getAvroCompressionType()));
+      writer.setMeta(INDEX_META, options.getEsIndexName());
+      writer.setMeta(COUNT_META, Integer.toString(current.size()));
+      writer.create(SCHEMA, fs.create(tmp, true));
+      GenericRecord record = new GenericData.Record(SCHEMA);
+      for (Map.Entry<String, Long> entry : current.entrySet()) {
+        record.put(ID, entry.getKey());
+        record.put(HASH, entry.getValue());
+        writer.append(record);
+      }
+    }
+
+    fs.delete(path, false);
+    if (!fs.rename(tmp, path)) {
+      throw new IOException("Can't rename " + tmp + " to " + path);
+    }
+    log.info("Saved {} document hashes to {}", current.size(), path);
+  }
+
+  /** Hash of the json bytes without the fields which change with every attempt */
+  static long hash(ObjectNode json) {
+    ObjectNode content = JsonNodeFactory.instance.objectNode();
+    Iterator<Map.Entry<String, JsonNode>> fields = json.fields();
+    while (fields.hasNext()) {
+      Map.Entry<String, JsonNode> field = fields.next();
+      if (!ATTEMPT_FIELDS.contains(field.getKey())) {
+        content.set(field.getKey(), field.getValue());
+      }
+    }
+    return HASH_FN.hashBytes(GbifJsonConverter.toJsonBytes(content)).asLong();
+  }
+
+  private static FileSystem getFileSystem(EsIndexingPipelineOptions options) {
+    return FsUtils.getFileSystem(
+        options.getHdfsSiteConfig(), options.getCoreSiteConfig(), options.getTargetPath());
+  }
+}
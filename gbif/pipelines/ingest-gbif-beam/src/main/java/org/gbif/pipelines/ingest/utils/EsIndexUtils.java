@@ -175,13 +175,63 @@ public class EsIndexUtils {
    * indexes where the dataset was present
    */
   public static Set<String> deleteRecordsByDatasetId(EsIndexingPipelineOptions options) {
+    return deleteRecordsByDatasetId(options, false);
+  }
+
+  /**
+   * Connects to Elasticsearch instance and deletes records in an index by datasetId and returns the
+   * indexes where the dataset was present.
+   *
+   * <p>In the incremental mode records of the target index are kept, if {@link EsDocumentHashes} of
+   * the previous indexing match the number of records of the dataset in it, the pipeline then sends
+   * only changed documents and deletes removed ones. Otherwise the hashes are deleted and the
+   * pipeline sends all documents.
+   */
+  public static Set<String> deleteRecordsByDatasetId(
+      EsIndexingPipelineOptions options, boolean incremental) {
     EsConfig config = EsConfig.from(options.getEsHosts());
+    String index = options.getEsIndexName();
+
+    boolean keepIndex = incremental && isIncrementalIndexing(config, options);
+    if (!keepIndex) {
+      EsDocumentHashes.delete(options);
+    }
+
     return EsIndex.deleteRecordsByDatasetId(
         config,
         options.getEsAlias(),
         options.getDatasetId(),
-        idxName -> !idxName.startsWith(options.getDatasetId()),
+        idxName ->
+            !idxName.startsWith(options.getDatasetId()) && !(keepIndex && idxName.equals(index)),
         options.getSearchQueryTimeoutSec(),
         options.getSearchQueryAttempts());
   }
+
+  private static boolean isIncrementalIndexing(
+      EsConfig config, EsIndexingPipelineOptions options) {
+    String index = options.getEsIndexName();
+    // Independent index is created for every attempt
+    if (index.startsWith(options.getDatasetId())) {
+      return false;
+    }
+
+    Optional<Long> hashes = EsDocumentHashes.readCount(options);
+    if (!hashes.isPresent()) {
+      log.info("No document hashes for ES index {}, all documents will be indexed", index);
+      return false;
+    }
+
+    long records = EsIndex.countDatasetDocuments(config, index, options.getDatasetId());
+    if (records != hashes.get()) {
+      log.warn(
+          "ES index {} has {} records and {} document hashes, all documents will be indexed",
+          index,
+          records,
+          hashes.get());
+      return false;
+    }
+
+    log.info("Incremental indexing into ES index {} with {} records", index, records);
+    return true;
+  }
 }
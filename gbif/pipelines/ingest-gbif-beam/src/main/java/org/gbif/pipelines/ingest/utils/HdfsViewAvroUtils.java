@@ -77,6 +77,13 @@ public class HdfsViewAvroUtils {
       InterpretationPipelineOptions options, RecordType recordType, Extension extension) {
     String from = recordType.name().toLowerCase();
     String to = extension.name().toLowerCase().replaceAll("_", "") + "table";
+
+    // Most datasets have no records for an extension table, empty shards are not worth moving
+    String filter = PathBuilder.buildFilePathViewUsingInputPath(options, from, "*.avro");
+    log.info("Deleting avro files without records {}", filter);
+    FsUtils.deleteAvroFilesWithoutRecords(
+        options.getHdfsSiteConfig(), options.getCoreSiteConfig(), options.getTargetPath(), filter);
+
     move(options, from, to);
   }
 
@@ -0,0 +1,129 @@
+package org.gbif.pipelines.ingest.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.gbif.pipelines.common.beam.options.EsIndexingPipelineOptions;
+import org.gbif.pipelines.common.beam.options.PipelinesOptionsFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EsDocumentHashesTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void attemptFieldsTest() {
+
+    // State
+    ObjectNode first = json("1", "Puma concolor");
+    first.put("crawlId", 1);
+    first.put("lastCrawled", "2020-01-01T00:00");
+    ObjectNode second = json("1", "Puma concolor");
+    second.put("crawlId", 2);
+    second.put("lastCrawled", "2020-02-01T00:00");
+
+    // Should
+    assertEquals(EsDocumentHashes.hash(first), EsDocumentHashes.hash(second));
+    assertTrue(first.has("crawlId"));
+  }
+
+  @Test
+  public void changedDocumentsTest() {
+
+    // State
+    Map<String, Long> previous = new HashMap<>();
+    previous.put("1", EsDocumentHashes.hash(json("1", "Puma concolor")));
+    previous.put("2", EsDocumentHashes.hash(json("2", "Puma concolor")));
+    previous.put("3", EsDocumentHashes.hash(json("3", "Puma concolor")));
+    EsDocumentHashes hashes = new EsDocumentHashes(previous);
+
+    // When
+    boolean unchanged = hashes.isChanged("1", json("1", "Puma concolor"));
+    boolean changed = hashes.isChanged("2", json("2", "Puma yagouaroundi"));
+    boolean added = hashes.isChanged("4", json("4", "Puma concolor"));
+
+    // Should
+    assertFalse(unchanged);
+    assertTrue(changed);
+    assertTrue(added);
+    assertEquals(Collections.singletonList("3"), hashes.getRemovedIds());
+  }
+
+  @Test
+  public void notIndexedDocumentsTest() {
+
+    // State
+    EsIndexingPipelineOptions options = options("index_a");
+    Map<String, Long> previous = new HashMap<>();
+    previous.put("1", EsDocumentHashes.hash(json("1", "Puma concolor")));
+    previous.put("2", EsDocumentHashes.hash(json("2", "Puma concolor")));
+    EsDocumentHashes hashes = new EsDocumentHashes(previous);
+
+    // When
+    hashes.isChanged("1", json("1", "Puma concolor"));
+    hashes.isChanged("2", json("2", "Puma yagouaroundi"));
+    hashes.isChanged("3", json("3", "Puma concolor"));
+    hashes.indexed("3");
+    hashes.save(options);
+
+    // Should, the failed document is not removed and has no hash
+    assertTrue(hashes.getRemovedIds().isEmpty());
+    assertEquals(Optional.of(2L), EsDocumentHashes.readCount(options));
+    assertTrue(EsDocumentHashes.load(options).isChanged("2", json("2", "Puma yagouaroundi")));
+  }
+
+  @Test
+  public void saveAndLoadTest() {
+
+    // State
+    EsIndexingPipelineOptions options = options("index_a");
+    EsDocumentHashes hashes = EsDocumentHashes.load(options);
+    hashes.isChanged("1", json("1", "Puma concolor"));
+    hashes.isChanged("2", json("2", "Puma concolor"));
+    hashes.indexed("1");
+    hashes.indexed("2");
+
+    // When
+    hashes.save(options);
+    EsDocumentHashes loaded = EsDocumentHashes.load(options);
+
+    // Should
+    assertEquals(Optional.of(2L), EsDocumentHashes.readCount(options));
+    assertEquals(Optional.empty(), EsDocumentHashes.readCount(options("index_b")));
+    assertFalse(loaded.isChanged("1", json("1", "Puma concolor")));
+    assertTrue(loaded.isChanged("2", json("2", "Puma yagouaroundi")));
+
+    // When
+    EsDocumentHashes.delete(options);
+
+    // Should
+    assertEquals(Optional.empty(), EsDocumentHashes.readCount(options));
+  }
+
+  private EsIndexingPipelineOptions options(String index) {
+    String[] args = {
+      "--datasetId=d596fccb-2319-42eb-b13b-986c932780ad",
+      "--attempt=1",
+      "--targetPath=" + folder.getRoot().getAbsolutePath(),
+      "--esIndexName=" + index,
+      "--avroCompressionType=deflate"
+    };
+    return PipelinesOptionsFactory.createIndexing(args);
+  }
+
+  private static ObjectNode json(String id, String scientificName) {
+    ObjectNode json = JsonNodeFactory.instance.objectNode();
+    json.put("id", id);
+    json.put("scientificName", scientificName);
+    return json;
+  }
+}
@@ -14,6 +14,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Phaser;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import lombok.Builder;
 import lombok.NonNull;
@@ -39,8 +40,10 @@ import org.gbif.pipelines.keygen.config.KeygenConfig;
  *
  * <p>Processing workflow: 1. Read a dwca/xml archive 2. Collect raw records into small batches
  * (batch size is configurable) 3. Get or create GBIF id for each element of the batch and create
- * keys (salt + ":" + GBIF id) 4. Get **dateCreated** from the table using GBIF id, if a record is
- * exist 5. Create HBase put(create new or update existing) records and upload them into HBase
+ * keys (salt + ":" + GBIF id) 4. Get **dateCreated** and **recordHash** from the table for the
+ * whole batch, if a record is exist 5. Create HBase put(create new or update existing) records and
+ * upload them into HBase, if skipUnchangedFragments is enabled records with the same hash are not
+ * rewritten, only their attempt and dateUpdated are updated
  *
  * <pre>{@code
  * long recordsProcessed = FragmentsUploader.dwcaBuilder()
@@ -86,6 +89,10 @@ public class FragmentPersister {
 
   @Builder.Default private ExecutorService executor = Executors.newSingleThreadExecutor();
 
+  @Builder.Default private boolean skipUnchangedFragments = false;
+
+  private final AtomicLong skippedCounter = new AtomicLong(0);
+
   private Integer backPressure;
 
   private Connection hbaseConnection;
@@ -102,6 +109,7 @@ public class FragmentPersister {
   public long persist() {
 
     // Init values
+    skippedCounter.set(0);
     final Phaser phaser = new Phaser(1);
     final AtomicInteger occurrenceCounter = new AtomicInteger(0);
     final Queue<List<OccurrenceRecord>> rows = new LinkedBlockingQueue<>();
@@ -127,7 +135,10 @@ public class FragmentPersister {
             Map<String, String> map =
                 OccurrenceRecordConverter.convert(
                     keygenService, validator, useTriplet, useOccurrenceId, l);
-            HbaseStore.putRecords(table, datasetKey, attempt, endpointType, map);
+            int skipped =
+                HbaseStore.putRecords(
+                    table, datasetKey, attempt, endpointType, map, skipUnchangedFragments);
+            skippedCounter.addAndGet(skipped);
 
             int recordsReturned = occurrenceCounter.addAndGet(map.size());
             if (recordsReturned % 10_000 == 0) {
@@ -172,9 +183,18 @@ public class FragmentPersister {
       phaser.arriveAndAwaitAdvance();
     }
 
+    if (skipUnchangedFragments) {
+      log.info("{}_{}: Skipped [{}] unchanged records", datasetKey, attempt, skippedCounter.get());
+    }
+
     return occurrenceCounter.get();
   }
 
+  /** Number of fragments skipped by the last {@link #persist()} call, because they are unchanged */
+  public long getSkippedCount() {
+    return skippedCounter.get();
+  }
+
   /** Close HBase connection */
   public void close() {
     try {
@@ -1,18 +1,22 @@
 package org.gbif.pipelines.fragmenter.common;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.hash.Hashing;
 import java.io.IOException;
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hadoop.hbase.client.Get;
 import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.Table;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.gbif.api.vocabulary.EndpointType;
@@ -30,47 +34,86 @@ public class HbaseStore {
   private static final byte[] RQ_BYTES = Bytes.toBytes("record");
   private static final byte[] DCQ_BYTES = Bytes.toBytes("dateCreated");
   private static final byte[] DUQ_BYTES = Bytes.toBytes("dateUpdated");
+  private static final byte[] HQ_BYTES = Bytes.toBytes("recordHash");
 
-  @SneakyThrows
   public static void putRecords(
       Table table,
       String datasetKey,
       Integer attempt,
       EndpointType endpointType,
       Map<String, String> fragmentsMap) {
-
-    Map<String, Long> dateMap = getCreatedDateMap(table, fragmentsMap);
-
-    List<Put> putList =
-        fragmentsMap.entrySet().stream()
-            .map(
-                es ->
-                    createFragmentPut(
-                        datasetKey,
-                        attempt,
-                        endpointType.name(),
-                        es.getKey(),
-                        es.getValue(),
-                        dateMap.get(es.getKey())))
-            .collect(Collectors.toList());
-
-    table.put(putList);
+    putRecords(table, datasetKey, attempt, endpointType, fragmentsMap, false);
   }
 
-  private static Map<String, Long> getCreatedDateMap(Table table, Map<String, String> fragmentsMap)
-      throws IOException {
+  /**
+   * Puts the batch of fragments, the stored dateCreated and record hash values are read using one
+   * multi-get for the whole batch
+   *
+   * @param skipUnchanged don't rewrite the record of fragments which hash of the dataset key,
+   *     protocol and record is equal to the stored one, only their attempt and dateUpdated
+   * @return number of unchanged fragments
+   */
+  @SneakyThrows
+  public static int putRecords(
+      Table table,
+      String datasetKey,
+      Integer attempt,
+      EndpointType endpointType,
+      Map<String, String> fragmentsMap,
+      boolean skipUnchanged) {
+
+    String protocol = endpointType.name();
+    List<String> keys = new ArrayList<>(fragmentsMap.keySet());
+    Result[] stored = getStoredValues(table, keys);
+
+    List<Put> putList = new ArrayList<>(keys.size());
+    int skipped = 0;
+    for (int i = 0; i < keys.size(); i++) {
+      String key = keys.get(i);
+      String record = fragmentsMap.get(key);
+      byte[] hash = hash(datasetKey, protocol, record);
+      if (skipUnchanged && Arrays.equals(hash, stored[i].getValue(FF_BYTES, HQ_BYTES))) {
+        putList.add(createAttemptPut(attempt, key));
+        skipped++;
+        continue;
+      }
+      byte[] created = stored[i].getValue(FF_BYTES, DCQ_BYTES);
+      putList.add(
+          createFragmentPut(
+              datasetKey,
+              attempt,
+              protocol,
+              key,
+              record,
+              hash,
+              created == null ? null : Bytes.toLong(created)));
+    }
 
-    Map<String, Long> createdDateMap = new HashMap<>();
+    if (!putList.isEmpty()) {
+      table.put(putList);
+    }
+    return skipped;
+  }
 
-    for (String key : fragmentsMap.keySet()) {
-      Get get = createCreatedDateGet(key);
-      byte[] value = table.get(get).value();
-      if (value != null) {
-        createdDateMap.put(key, Bytes.toLong(value));
-      }
+  private static Result[] getStoredValues(Table table, List<String> keys) throws IOException {
+    List<Get> getList = new ArrayList<>(keys.size());
+    for (String key : keys) {
+      Get get = new Get(Bytes.toBytes(key));
+      get.addColumn(FF_BYTES, DCQ_BYTES);
+      get.addColumn(FF_BYTES, HQ_BYTES);
+      getList.add(get);
     }
+    return table.get(getList);
+  }
 
-    return createdDateMap;
+  private static byte[] hash(String datasetKey, String protocol, String record) {
+    return Hashing.murmur3_128()
+        .newHasher()
+        .putString(datasetKey, UTF_8)
+        .putString(protocol, UTF_8)
+        .putString(record, UTF_8)
+        .hash()
+        .asBytes();
   }
 
   private static Put createFragmentPut(
@@ -79,6 +122,7 @@ public class HbaseStore {
       String protocol,
       String key,
       String record,
+      byte[] hash,
       Long created) {
     long timestampUpdated = Instant.now().toEpochMilli();
     long timestampCreated = Optional.ofNullable(created).orElse(timestampUpdated);
@@ -92,13 +136,16 @@ public class HbaseStore {
     put.addColumn(FF_BYTES, DCQ_BYTES, Bytes.toBytes(timestampCreated));
     put.addColumn(FF_BYTES, DUQ_BYTES, Bytes.toBytes(timestampUpdated));
     put.addColumn(FF_BYTES, RQ_BYTES, Bytes.toBytes(record));
+    put.addColumn(FF_BYTES, HQ_BYTES, hash);
     return put;
   }
 
-  private static Get createCreatedDateGet(String key) {
-    Get get = new Get(Bytes.toBytes(key));
-    get.addColumn(FF_BYTES, DCQ_BYTES);
-    return get;
+  /** Updates only the attempt and dateUpdated of an unchanged fragment */
+  private static Put createAttemptPut(Integer attempt, String key) {
+    Put put = new Put(Bytes.toBytes(key));
+    put.addColumn(FF_BYTES, AQ_BYTES, Bytes.toBytes(attempt));
+    put.addColumn(FF_BYTES, DUQ_BYTES, Bytes.toBytes(Instant.now().toEpochMilli()));
+    return put;
   }
 
   public static byte[] getFragmentFamily() {
@@ -128,4 +175,8 @@ public class HbaseStore {
   public static byte[] getDateUpdatedQualifier() {
     return DUQ_BYTES;
   }
+
+  public static byte[] getRecordHashQualifier() {
+    return HQ_BYTES;
+  }
 }
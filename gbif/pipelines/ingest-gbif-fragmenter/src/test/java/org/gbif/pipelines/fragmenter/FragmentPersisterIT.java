@@ -170,6 +170,54 @@ public class FragmentPersisterIT {
         HBASE_SERVER.getConnection(), expSize, datasetKey, attemptSecond, endpointType);
   }
 
+  @Test
+  public void dwcaSyncSkipUnchangedUploadTest() throws IOException {
+    // State
+    int expSize = 210;
+    String datasetKey = "50c9509d-22c7-4a22-a47d-8c48425ef4a8";
+    int attemptFirst = 231;
+    int attemptSecond = 232;
+    EndpointType endpointType = EndpointType.DWC_ARCHIVE;
+
+    // When
+    long resultFirst =
+        FragmentPersister.dwcaBuilder()
+            .tableName(HbaseServer.FRAGMENT_TABLE_NAME)
+            .keygenConfig(HbaseServer.CFG)
+            .pathToArchive(regularDwca)
+            .useTriplet(false)
+            .useOccurrenceId(true)
+            .datasetKey(datasetKey)
+            .attempt(attemptFirst)
+            .endpointType(endpointType)
+            .hbaseConnection(HBASE_SERVER.getConnection())
+            .skipUnchangedFragments(true)
+            .build()
+            .persist();
+
+    FragmentPersister second =
+        FragmentPersister.dwcaBuilder()
+            .tableName(HbaseServer.FRAGMENT_TABLE_NAME)
+            .keygenConfig(HbaseServer.CFG)
+            .pathToArchive(regularDwca)
+            .useTriplet(false)
+            .useOccurrenceId(true)
+            .datasetKey(datasetKey)
+            .attempt(attemptSecond)
+            .endpointType(endpointType)
+            .hbaseConnection(HBASE_SERVER.getConnection())
+            .skipUnchangedFragments(true)
+            .build();
+    long resultSecond = second.persist();
+
+    // Should
+    Assert.assertEquals(expSize, resultFirst);
+    Assert.assertEquals(expSize, resultSecond);
+    Assert.assertEquals(expSize, second.getSkippedCount());
+    TableAssert.assertTableDateUpdated(
+        HBASE_SERVER.getConnection(), expSize, datasetKey, attemptSecond, endpointType);
+  }
+
   @Test
   public void dwcaAsyncUpdateUploadTest() throws IOException {
     // State
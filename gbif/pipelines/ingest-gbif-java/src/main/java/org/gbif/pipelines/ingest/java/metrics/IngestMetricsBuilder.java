@@ -9,6 +9,11 @@ import static org.gbif.pipelines.common.PipelinesVariables.Metrics.CHRONOMETRIC_
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.CLONING_TABLE_RECORDS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.DUPLICATE_GBIF_IDS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.DUPLICATE_IDS_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ES_BULK_DOCUMENTS_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ES_BULK_REJECTED_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ES_BULK_REQUESTS_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ES_DELETED_DOCUMENTS_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ES_UNCHANGED_DOCUMENTS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.EXTENDED_MEASUREMENT_OR_FACT_TABLE_RECORDS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.FILTER_ER_BASED_ON_GBIF_ID;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.GEL_IMAGE_TABLE_RECORDS_COUNT;
@@ -45,6 +50,8 @@ import static org.gbif.pipelines.common.PipelinesVariables.Metrics.VERBATIM_RECO
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.gbif.pipelines.common.beam.metrics.IngestMetrics;
+import org.gbif.pipelines.core.io.ElasticsearchWriter;
+import org.gbif.pipelines.ingest.utils.EsDocumentHashes;
 import org.gbif.pipelines.transforms.common.FilterRecordsTransform;
 import org.gbif.pipelines.transforms.common.UniqueGbifIdTransform;
 import org.gbif.pipelines.transforms.common.UniqueIdTransform;
@@ -118,7 +125,13 @@ public class IngestMetricsBuilder {
    * org.gbif.pipelines.ingest.java.pipelines.InterpretedToEsIndexExtendedPipeline}
    */
   public static IngestMetrics createInterpretedToEsIndexMetrics() {
-    return IngestMetrics.create().addMetric(GbifJsonTransform.class, AVRO_TO_JSON_COUNT);
+    return IngestMetrics.create()
+        .addMetric(GbifJsonTransform.class, AVRO_TO_JSON_COUNT)
+        .addMetric(ElasticsearchWriter.class, ES_BULK_REQUESTS_COUNT)
+        .addMetric(ElasticsearchWriter.class, ES_BULK_DOCUMENTS_COUNT)
+        .addMetric(ElasticsearchWriter.class, ES_BULK_REJECTED_COUNT)
+        .addMetric(EsDocumentHashes.class, ES_UNCHANGED_DOCUMENTS_COUNT)
+        .addMetric(EsDocumentHashes.class, ES_DELETED_DOCUMENTS_COUNT);
   }
 
   /** {@link IngestMetrics} for hdfs tables */
@@ -89,7 +89,9 @@ public class InterpretedToEsIndexExtendedPipeline {
     MDC.put("step", StepType.INTERPRETED_TO_INDEX.name());
 
     org.gbif.pipelines.ingest.pipelines.InterpretedToEsIndexExtendedPipeline.run(
-        options, () -> InterpretedToEsIndexPipeline.run(options, executor));
+        options,
+        () -> InterpretedToEsIndexPipeline.run(options, executor),
+        options.getEsIncrementalIndexing());
 
     FsUtils.removeTmpDirectory(PathBuilder.getTempDir(options));
     log.info("Finished main indexing pipeline");
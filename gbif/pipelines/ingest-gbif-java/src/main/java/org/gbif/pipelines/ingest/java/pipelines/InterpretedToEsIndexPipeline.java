@@ -1,8 +1,12 @@
 package org.gbif.pipelines.ingest.java.pipelines;
 
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ES_DELETED_DOCUMENTS_COUNT;
 import static org.gbif.pipelines.ingest.java.transforms.InterpretedAvroReader.readAvroAsFuture;
 
+import com.google.common.collect.Lists;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -12,7 +16,16 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.TimeValue;
 import org.gbif.api.model.pipelines.StepType;
 import org.gbif.pipelines.common.beam.metrics.IngestMetrics;
 import org.gbif.pipelines.common.beam.metrics.MetricsHandler;
@@ -21,6 +34,7 @@ import org.gbif.pipelines.common.beam.options.PipelinesOptionsFactory;
 import org.gbif.pipelines.core.io.ElasticsearchWriter;
 import org.gbif.pipelines.ingest.java.metrics.IngestMetricsBuilder;
 import org.gbif.pipelines.ingest.java.transforms.IndexRequestConverter;
+import org.gbif.pipelines.ingest.utils.EsDocumentHashes;
 import org.gbif.pipelines.io.avro.AudubonRecord;
 import org.gbif.pipelines.io.avro.BasicRecord;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
@@ -61,6 +75,7 @@ import org.slf4j.MDC;
  *    2) Joins avro files
  *    3) Converts to json model (resources/elasticsearch/es-occurrence-schema.json)
  *    4) Pushes data to Elasticsearch instance
+ *    5) In the incremental mode, deletes removed documents and saves document hashes
  * </pre>
  *
  * <p>How to run:
@@ -154,9 +169,14 @@ public class InterpretedToEsIndexPipeline {
     CompletableFuture<Map<String, AudubonRecord>> audubonMapFeature =
         readAvroAsFuture(options, executor, AudubonTransform.builder().create());
 
+    // Hashes of the previous indexing, EsIndexUtils deletes them if the index doesn't match them
+    EsDocumentHashes hashes =
+        options.getEsIncrementalIndexing() ? EsDocumentHashes.load(options) : null;
+
     Function<BasicRecord, IndexRequest> indexRequestFn =
         IndexRequestConverter.builder()
             .metrics(metrics)
+            .hashes(hashes)
             .esIndexName(options.getEsIndexName())
             .esDocumentId(options.getEsDocumentId())
             .metadata(metadataMapFeature.get().values().iterator().next())
@@ -180,10 +200,47 @@ public class InterpretedToEsIndexPipeline {
         .syncModeThreshold(options.getSyncThreshold())
         .indexRequestFn(indexRequestFn)
         .records(basicMapFeature.get().values())
+        .pipelinedMode(options.getEsPipelinedBulk())
+        .maxInFlight(options.getEsMaxInFlightBulks())
+        .maxRetries(options.getEsBulkMaxRetries())
+        .metricsFn(metrics::incMetric)
+        .timerFn(metrics::recordTime)
+        .indexedIdFn(hashes == null ? null : hashes::indexed)
         .build()
         .write();
 
+    // write() fails on any failed bulk request, so the hashes describe the index
+    if (hashes != null) {
+      deleteDocuments(options, hashes.getRemovedIds(), metrics);
+      hashes.save(options);
+    }
+
     MetricsHandler.saveCountersToTargetPathFile(options, metrics.getMetricsResult());
     log.info("Pipeline has been finished - {}", LocalDateTime.now());
   }
+
+  /** Deletes documents by ids, using bulk requests */
+  @SneakyThrows
+  private static void deleteDocuments(
+      EsIndexingPipelineOptions options, List<String> ids, IngestMetrics metrics) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    log.info(
+        "Deleting {} removed documents from ES index {}", ids.size(), options.getEsIndexName());
+
+    HttpHost[] hosts =
+        Arrays.stream(options.getEsHosts()).map(HttpHost::create).toArray(HttpHost[]::new);
+    try (RestHighLevelClient client = new RestHighLevelClient(RestClient.builder(hosts))) {
+      for (List<String> batch : Lists.partition(ids, (int) options.getEsMaxBatchSize())) {
+        BulkRequest request = new BulkRequest().timeout(TimeValue.timeValueMinutes(5L));
+        batch.forEach(id -> request.add(new DeleteRequest(options.getEsIndexName(), id)));
+        BulkResponse response = client.bulk(request, RequestOptions.DEFAULT);
+        if (response.hasFailures()) {
+          throw new ElasticsearchException(response.buildFailureMessage());
+        }
+        metrics.incMetric(ES_DELETED_DOCUMENTS_COUNT, batch.size());
+      }
+    }
+  }
 }
@@ -12,6 +12,7 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -34,6 +35,7 @@ import org.gbif.pipelines.core.config.model.PipelinesConfig;
 import org.gbif.pipelines.core.factory.ConfigFactory;
 import org.gbif.pipelines.core.factory.FileVocabularyFactory;
 import org.gbif.pipelines.core.factory.FileVocabularyFactory.VocabularyBackedTerm;
+import org.gbif.pipelines.core.functions.SerializableBiConsumer;
 import org.gbif.pipelines.core.functions.SerializableConsumer;
 import org.gbif.pipelines.core.functions.SerializableSupplier;
 import org.gbif.pipelines.core.io.AvroReader;
@@ -49,6 +51,7 @@ import org.gbif.pipelines.factory.NameUsageMatchStoreFactory;
 import org.gbif.pipelines.factory.OccurrenceStatusKvStoreFactory;
 import org.gbif.pipelines.ingest.java.metrics.IngestMetricsBuilder;
 import org.gbif.pipelines.ingest.java.transforms.InterpretedAvroReader;
+import org.gbif.pipelines.ingest.java.transforms.StreamingInterpretation;
 import org.gbif.pipelines.io.avro.AudubonRecord;
 import org.gbif.pipelines.io.avro.BasicRecord;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
@@ -180,6 +183,7 @@ public class VerbatimToInterpretedPipeline {
     log.info("Init metrics");
     IngestMetrics metrics = IngestMetricsBuilder.createVerbatimToInterpretedMetrics();
     SerializableConsumer<String> incMetricFn = metrics::incMetric;
+    SerializableBiConsumer<String, Long> timerFn = metrics::recordTime;
 
     SerializableSupplier<MetadataServiceClient> metadataServiceClientSerializableSupplier =
         MetadataServiceClientFactory.getInstanceSupplier(config);
@@ -289,6 +293,19 @@ public class VerbatimToInterpretedPipeline {
             .create()
             .init();
 
+    Stream.of(
+            metadataTransform,
+            basicTransform,
+            taxonomyTransform,
+            verbatimTransform,
+            grscicollTransform,
+            locationTransform,
+            temporalTransform,
+            multimediaTransform,
+            audubonTransform,
+            imageTransform)
+        .forEach(t -> t.setTimerFn(timerFn));
+
     try (SyncDataFileWriter<ExtendedRecord> verbatimWriter =
             createAvroWriter(options, verbatimTransform, id);
         SyncDataFileWriter<MetadataRecord> metadataWriter =
@@ -328,16 +345,6 @@ public class VerbatimToInterpretedPipeline {
                 .get(options.getDatasetId());
       }
 
-      // Read DWCA and replace default values
-      Map<String, ExtendedRecord> erMap =
-          AvroReader.readUniqueRecords(
-              hdfsSiteConfig, coreSiteConfig, ExtendedRecord.class, options.getInputPath());
-      Map<String, ExtendedRecord> erExtMap = occExtensionTransform.transform(erMap);
-      erExtMap = extensionFilterTransform.transform(erExtMap);
-      defaultValuesTransform.replaceDefaultValues(erExtMap);
-
-      boolean useSyncMode = options.getSyncThreshold() > erExtMap.size();
-
       // Skip interpretation and use avro reader when partial intepretation is activated
       Function<ExtendedRecord, Optional<BasicRecord>> brFn;
       if (useBasicRecordWriteIO(types)) {
@@ -350,88 +357,121 @@ public class VerbatimToInterpretedPipeline {
         brFn = er -> Optional.ofNullable(basicRecordMap.get(er.getId()));
       }
 
-      // Filter GBIF id duplicates
-      UniqueGbifIdTransform gbifIdTransform =
-          UniqueGbifIdTransform.builder()
-              .executor(executor)
-              .erMap(erExtMap)
-              .basicTransformFn(brFn)
-              .useSyncMode(useSyncMode)
-              .skipTransform(useErdId)
-              .build()
-              .run();
-
       // Create interpretation function
-      Consumer<ExtendedRecord> interpretAllFn =
-          er -> {
-            BasicRecord brInvalid = gbifIdTransform.getBrInvalidMap().get(er.getId());
-            if (brInvalid == null) {
-              BasicRecord br = gbifIdTransform.getBrMap().get(er.getId());
-
-              if (verbatimTransform.checkType(types)) {
-                verbatimWriter.append(er);
-              }
-              if (temporalTransform.checkType(types)) {
-                temporalTransform.processElement(er).ifPresent(temporalWriter::append);
-              }
-              if (multimediaTransform.checkType(types)) {
-                multimediaTransform.processElement(er).ifPresent(multimediaWriter::append);
-              }
-              if (imageTransform.checkType(types)) {
-                imageTransform.processElement(er).ifPresent(imageWriter::append);
-              }
-              if (audubonTransform.checkType(types)) {
-                audubonTransform.processElement(er).ifPresent(audubonWriter::append);
-              }
-              if (taxonomyTransform.checkType(types)) {
-                taxonomyTransform.processElement(er).ifPresent(taxonWriter::append);
-              }
-              if (grscicollTransform.checkType(types)) {
-                grscicollTransform.processElement(er, br, mdr).ifPresent(grscicollWriter::append);
-              }
-              if (locationTransform.checkType(types)) {
-                locationTransform.processElement(er, mdr).ifPresent(locationWriter::append);
-              }
-            } else {
-              basicInvalidWriter.append(brInvalid);
+      BiConsumer<ExtendedRecord, BasicRecord> interpretFn =
+          (er, br) -> {
+            if (verbatimTransform.checkType(types)) {
+              verbatimWriter.append(er);
+            }
+            if (temporalTransform.checkType(types)) {
+              temporalTransform.processElement(er).ifPresent(temporalWriter::append);
+            }
+            if (multimediaTransform.checkType(types)) {
+              multimediaTransform.processElement(er).ifPresent(multimediaWriter::append);
+            }
+            if (imageTransform.checkType(types)) {
+              imageTransform.processElement(er).ifPresent(imageWriter::append);
+            }
+            if (audubonTransform.checkType(types)) {
+              audubonTransform.processElement(er).ifPresent(audubonWriter::append);
+            }
+            if (taxonomyTransform.checkType(types)) {
+              taxonomyTransform.processElement(er).ifPresent(taxonWriter::append);
+            }
+            if (grscicollTransform.checkType(types)) {
+              grscicollTransform.processElement(er, br, mdr).ifPresent(grscicollWriter::append);
+            }
+            if (locationTransform.checkType(types)) {
+              locationTransform.processElement(er, mdr).ifPresent(locationWriter::append);
             }
           };
 
-      log.info("Starting interpretation...");
-      // Run async writing for BasicRecords
-      Stream<CompletableFuture<Void>> streamBr = Stream.empty();
-      if (useBasicRecordWriteIO(types)) {
-        Collection<BasicRecord> brCollection = gbifIdTransform.getBrMap().values();
+      if (options.getStreamingMode()) {
+        log.info("Starting streaming interpretation...");
+        Consumer<BasicRecord> validBrFn = br -> {};
+        if (useBasicRecordWriteIO(types)) {
+          validBrFn = basicWriter::append;
+        }
+        StreamingInterpretation.builder()
+            .options(options)
+            .executor(executor)
+            .occExtensionTransform(occExtensionTransform)
+            .extensionFilterTransform(extensionFilterTransform)
+            .defaultValuesTransform(defaultValuesTransform)
+            .brFn(brFn)
+            .validBrFn(validBrFn)
+            .invalidBrFn(basicInvalidWriter::append)
+            .interpretFn(interpretFn)
+            .build()
+            .run();
+      } else {
+        // Read DWCA and replace default values
+        Map<String, ExtendedRecord> erMap =
+            AvroReader.readUniqueRecords(
+                hdfsSiteConfig, coreSiteConfig, ExtendedRecord.class, options.getInputPath());
+        Map<String, ExtendedRecord> erExtMap = occExtensionTransform.transform(erMap);
+        erExtMap = extensionFilterTransform.transform(erExtMap);
+        defaultValuesTransform.replaceDefaultValues(erExtMap);
+
+        boolean useSyncMode = options.getSyncThreshold() > erExtMap.size();
+
+        // Filter GBIF id duplicates
+        UniqueGbifIdTransform gbifIdTransform =
+            UniqueGbifIdTransform.builder()
+                .executor(executor)
+                .erMap(erExtMap)
+                .basicTransformFn(brFn)
+                .useSyncMode(useSyncMode)
+                .skipTransform(useErdId)
+                .build()
+                .run();
+
+        // Create interpretation function
+        Consumer<ExtendedRecord> interpretAllFn =
+            er -> {
+              BasicRecord brInvalid = gbifIdTransform.getBrInvalidMap().get(er.getId());
+              if (brInvalid == null) {
+                interpretFn.accept(er, gbifIdTransform.getBrMap().get(er.getId()));
+              } else {
+                basicInvalidWriter.append(brInvalid);
+              }
+            };
+
+        log.info("Starting interpretation...");
+        // Run async writing for BasicRecords
+        Stream<CompletableFuture<Void>> streamBr = Stream.empty();
+        if (useBasicRecordWriteIO(types)) {
+          Collection<BasicRecord> brCollection = gbifIdTransform.getBrMap().values();
+          if (useSyncMode) {
+            streamBr =
+                Stream.of(
+                    CompletableFuture.runAsync(
+                        () -> brCollection.forEach(basicWriter::append), executor));
+          } else {
+            streamBr =
+                brCollection.stream()
+                    .map(v -> CompletableFuture.runAsync(() -> basicWriter.append(v), executor));
+          }
+        }
+
+        // Run async interpretation and writing for all records
+        Stream<CompletableFuture<Void>> streamAll;
+        Collection<ExtendedRecord> erCollection = erExtMap.values();
         if (useSyncMode) {
-          streamBr =
+          streamAll =
               Stream.of(
-                  CompletableFuture.runAsync(
-                      () -> brCollection.forEach(basicWriter::append), executor));
+                  CompletableFuture.runAsync(() -> erCollection.forEach(interpretAllFn), executor));
         } else {
-          streamBr =
-              brCollection.stream()
-                  .map(v -> CompletableFuture.runAsync(() -> basicWriter.append(v), executor));
+          streamAll =
+              erCollection.stream()
+                  .map(v -> CompletableFuture.runAsync(() -> interpretAllFn.accept(v), executor));
         }
-      }
 
-      // Run async interpretation and writing for all records
-      Stream<CompletableFuture<Void>> streamAll;
-      Collection<ExtendedRecord> erCollection = erExtMap.values();
-      if (useSyncMode) {
-        streamAll =
-            Stream.of(
-                CompletableFuture.runAsync(() -> erCollection.forEach(interpretAllFn), executor));
-      } else {
-        streamAll =
-            erCollection.stream()
-                .map(v -> CompletableFuture.runAsync(() -> interpretAllFn.accept(v), executor));
+        // Wait for all features
+        CompletableFuture<?>[] futures =
+            Stream.concat(streamBr, streamAll).toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).get();
       }
-
-      // Wait for all features
-      CompletableFuture<?>[] futures =
-          Stream.concat(streamBr, streamAll).toArray(CompletableFuture[]::new);
-      CompletableFuture.allOf(futures).get();
-
     } catch (Exception e) {
       log.error("Failed performing conversion on {}", e.getMessage());
       throw new IllegalStateException("Failed performing conversion on ", e);
@@ -2,6 +2,7 @@ package org.gbif.pipelines.ingest.java.transforms;
 
 import static org.elasticsearch.common.xcontent.XContentType.JSON;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.AVRO_TO_JSON_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ES_UNCHANGED_DOCUMENTS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.Indexing.GBIF_ID;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -13,6 +14,7 @@ import org.elasticsearch.action.index.IndexRequest;
 import org.gbif.pipelines.common.beam.metrics.IngestMetrics;
 import org.gbif.pipelines.core.converters.GbifJsonConverter;
 import org.gbif.pipelines.core.converters.MultimediaConverter;
+import org.gbif.pipelines.ingest.utils.EsDocumentHashes;
 import org.gbif.pipelines.io.avro.AudubonRecord;
 import org.gbif.pipelines.io.avro.BasicRecord;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
@@ -29,6 +31,8 @@ public class IndexRequestConverter {
 
   private final IngestMetrics metrics;
   private final String esDocumentId;
+  // Skips documents which didn't change since the previous indexing, if present
+  private final EsDocumentHashes hashes;
 
   @NonNull private final String esIndexName;
 
@@ -42,7 +46,10 @@ public class IndexRequestConverter {
   @NonNull private final Map<String, ImageRecord> imageMap;
   @NonNull private final Map<String, AudubonRecord> audubonMap;
 
-  /** Join all records, convert into string json and IndexRequest for ES */
+  /**
+   * Join all records, convert into string json and IndexRequest for ES, or null for a document
+   * which didn't change since the previous indexing
+   */
   public Function<BasicRecord, IndexRequest> getFn() {
     return br -> {
       String k = br.getId();
@@ -69,7 +76,13 @@ public class IndexRequestConverter {
               ? br.getGbifId().toString()
               : json.get(esDocumentId).asText();
 
-      return new IndexRequest(esIndexName).id(docId).source(json.toString(), JSON);
+      if (hashes != null && !hashes.isChanged(docId, json)) {
+        metrics.incMetric(ES_UNCHANGED_DOCUMENTS_COUNT);
+        return null;
+      }
+
+      byte[] source = GbifJsonConverter.toJsonBytes(json);
+      return new IndexRequest(esIndexName).id(docId).source(source, JSON);
     };
   }
 }
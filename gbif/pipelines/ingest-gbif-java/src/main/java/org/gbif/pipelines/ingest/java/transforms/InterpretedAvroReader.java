@@ -17,7 +17,7 @@ import org.gbif.pipelines.transforms.Transform;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class InterpretedAvroReader {
 
-  /** Read avro files and return as Map<ID, Clazz> */
+  /** Read avro files in parallel and return as Map<ID, Clazz> */
   public static <T extends SpecificRecordBase & Record>
       CompletableFuture<Map<String, T>> readAvroAsFuture(
           InterpretationPipelineOptions options,
@@ -32,7 +32,8 @@ public class InterpretedAvroReader {
                 options.getHdfsSiteConfig(),
                 options.getCoreSiteConfig(),
                 transform.getReturnClazz(),
-                path),
+                path,
+                executor),
         executor);
   }
 
@@ -11,6 +11,7 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.gbif.pipelines.common.beam.options.InterpretationPipelineOptions;
 import org.gbif.pipelines.common.beam.utils.PathBuilder;
+import org.gbif.pipelines.core.io.ShardedDataFileWriter;
 import org.gbif.pipelines.core.io.SyncDataFileWriter;
 import org.gbif.pipelines.core.io.SyncDataFileWriterBuilder;
 import org.gbif.pipelines.io.avro.Record;
@@ -32,13 +33,19 @@ public class InterpretedAvroWriter {
     Path path = new Path(pathString);
     FileSystem fs =
         createParentDirectories(options.getHdfsSiteConfig(), options.getCoreSiteConfig(), path);
-    return SyncDataFileWriterBuilder.builder()
-        .schema(transform.getAvroSchema())
-        .codec(options.getAvroCompressionType())
-        .outputStream(fs.create(path))
-        .syncInterval(options.getAvroSyncInterval())
-        .build()
-        .createSyncDataFileWriter();
+    SyncDataFileWriterBuilder builder =
+        SyncDataFileWriterBuilder.builder()
+            .schema(transform.getAvroSchema())
+            .codec(options.getAvroCompressionType())
+            .outputStream(fs.create(path))
+            .syncInterval(options.getAvroSyncInterval())
+            .timerFn(transform::recordTime)
+            .build();
+    if (options.getShardedAvroWriter()) {
+      return builder.createShardedDataFileWriter(
+          ShardedDataFileWriter.shardOutputStreamFn(fs, path));
+    }
+    return builder.createSyncDataFileWriter();
   }
 
   public static <T extends SpecificRecordBase & Record> SyncDataFileWriter<T> createAvroWriter(
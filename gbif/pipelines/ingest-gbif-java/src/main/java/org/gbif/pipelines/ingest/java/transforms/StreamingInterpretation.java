@@ -0,0 +1,214 @@
+package org.gbif.pipelines.ingest.java.transforms;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.commons.io.FileUtils;
+import org.gbif.pipelines.common.beam.options.InterpretationPipelineOptions;
+import org.gbif.pipelines.core.io.SortedAvroReader;
+import org.gbif.pipelines.core.io.SortedAvroReader.Sorter;
+import org.gbif.pipelines.core.io.SyncDataFileWriter;
+import org.gbif.pipelines.core.io.SyncDataFileWriterBuilder;
+import org.gbif.pipelines.core.utils.BoundedBatchExecutor;
+import org.gbif.pipelines.io.avro.BasicRecord;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.pipelines.transforms.common.ExtensionFilterTransform;
+import org.gbif.pipelines.transforms.java.DefaultValuesTransform;
+import org.gbif.pipelines.transforms.java.OccurrenceExtensionTransform;
+import org.gbif.pipelines.transforms.java.SortedUniqueGbifIdTransform;
+import org.gbif.utils.file.ClosableIterator;
+
+/**
+ * Bounded memory interpretation for the Java pipeline, the dataset is never loaded into memory:
+ *
+ * <pre>
+ *    1) Reads verbatim records, converts occurrence extensions to records and keeps records with
+ *       unique ids using an external sort by id, the same as UniqueIdTransform in the Beam
+ *       pipeline, prepares them and interprets {@link BasicRecord} in batches, prepared records are
+ *       spilled to a local file
+ *    2) Sorts {@link BasicRecord} by GBIF id using an external sort and splits them into valid and
+ *       invalid records, only ids of invalid records are kept in memory
+ *    3) Streams the spilled records and runs the rest of interpretations in batches
+ * </pre>
+ *
+ * Memory usage is bounded by {@link InterpretationPipelineOptions#getSortBufferSize()} and {@link
+ * InterpretationPipelineOptions#getStreamingBatchSize()}.
+ */
+@Slf4j
+@Builder
+public class StreamingInterpretation {
+
+  @NonNull private final InterpretationPipelineOptions options;
+  @NonNull private final ExecutorService executor;
+  @NonNull private final OccurrenceExtensionTransform occExtensionTransform;
+  @NonNull private final ExtensionFilterTransform extensionFilterTransform;
+  @NonNull private final DefaultValuesTransform defaultValuesTransform;
+  @NonNull private final Function<ExtendedRecord, Optional<BasicRecord>> brFn;
+  @NonNull private final Consumer<BasicRecord> validBrFn;
+  @NonNull private final Consumer<BasicRecord> invalidBrFn;
+  @NonNull private final BiConsumer<ExtendedRecord, BasicRecord> interpretFn;
+
+  @SneakyThrows
+  public void run() {
+    Path spillDir = Files.createTempDirectory("interpretation-" + options.getDatasetId() + "-");
+    File erSpill = spillDir.resolve("verbatim-spill.avro").toFile();
+    File brSpill = spillDir.resolve("basic-spill.avro").toFile();
+    try {
+      Sorter<BasicRecord> gbifIdSorter = interpretBasic(spillDir, erSpill, brSpill);
+      Set<String> invalidIds = filterGbifIds(gbifIdSorter);
+      interpretAll(erSpill, brSpill, invalidIds);
+    } finally {
+      FileUtils.deleteQuietly(spillDir.toFile());
+    }
+  }
+
+  /** Reads and prepares verbatim records, interprets {@link BasicRecord} in batches */
+  @SneakyThrows
+  private Sorter<BasicRecord> interpretBasic(Path spillDir, File erSpill, File brSpill) {
+    boolean skipGbifIdCheck = options.isUseExtendedRecordId();
+    Sorter<BasicRecord> gbifIdSorter =
+        SortedAvroReader.createSorter(
+            BasicRecord.class,
+            SortedUniqueGbifIdTransform.GBIF_ID_COMPARATOR,
+            spillDir,
+            options.getSortBufferSize());
+
+    try (ClosableIterator<ExtendedRecord> erIterator =
+            SortedAvroReader.readSortedUniqueRecords(
+                options.getHdfsSiteConfig(),
+                options.getCoreSiteConfig(),
+                ExtendedRecord.class,
+                options.getInputPath(),
+                spillDir,
+                options.getSortBufferSize(),
+                occExtensionTransform::transform);
+        SyncDataFileWriter<ExtendedRecord> erWriter =
+            createSpillWriter(ExtendedRecord.getClassSchema(), erSpill);
+        SyncDataFileWriter<BasicRecord> brWriter =
+            createSpillWriter(BasicRecord.getClassSchema(), brSpill)) {
+
+      BoundedBatchExecutor<ExtendedRecord, List<BasicRecord>> batchExecutor =
+          BoundedBatchExecutor.<ExtendedRecord, List<BasicRecord>>builder()
+              .executor(executor)
+              .batchSize(options.getStreamingBatchSize())
+              .batchFn(
+                  batch -> {
+                    List<BasicRecord> result = new ArrayList<>(batch.size());
+                    batch.forEach(er -> brFn.apply(er).ifPresent(result::add));
+                    return result;
+                  })
+              .resultConsumer(
+                  (batch, result) -> {
+                    batch.forEach(erWriter::append);
+                    result.forEach(brWriter::append);
+                    if (skipGbifIdCheck) {
+                      result.forEach(validBrFn);
+                    } else {
+                      result.forEach(gbifIdSorter::add);
+                    }
+                  })
+              .build();
+
+      while (erIterator.hasNext()) {
+        ExtendedRecord filtered = extensionFilterTransform.transform(erIterator.next());
+        batchExecutor.accept(defaultValuesTransform.replaceDefaultValues(filtered));
+      }
+      batchExecutor.flush();
+    }
+    return skipGbifIdCheck ? null : gbifIdSorter;
+  }
+
+  /** Splits {@link BasicRecord} into valid and invalid records, returns ids of invalid records */
+  @SneakyThrows
+  private Set<String> filterGbifIds(Sorter<BasicRecord> gbifIdSorter) {
+    Set<String> invalidIds = new HashSet<>();
+    if (gbifIdSorter == null) {
+      return invalidIds;
+    }
+    try (ClosableIterator<BasicRecord> sortedIterator = gbifIdSorter.sorted()) {
+      SortedUniqueGbifIdTransform.builder()
+          .sortedIterator(sortedIterator)
+          .validConsumer(validBrFn)
+          .invalidConsumer(
+              br -> {
+                invalidIds.add(br.getId());
+                invalidBrFn.accept(br);
+              })
+          .build()
+          .run();
+    }
+    log.info("{} records have invalid or duplicated GBIF ids", invalidIds.size());
+    return invalidIds;
+  }
+
+  /** Streams spilled records and runs all interpretations in batches */
+  @SneakyThrows
+  private void interpretAll(File erSpill, File brSpill, Set<String> invalidIds) {
+    try (DataFileReader<ExtendedRecord> erReader =
+            new DataFileReader<>(erSpill, new SpecificDatumReader<>(ExtendedRecord.class));
+        DataFileReader<BasicRecord> brReader =
+            new DataFileReader<>(brSpill, new SpecificDatumReader<>(BasicRecord.class))) {
+
+      BoundedBatchExecutor<RecordPair, Void> batchExecutor =
+          BoundedBatchExecutor.<RecordPair, Void>builder()
+              .executor(executor)
+              .batchSize(options.getStreamingBatchSize())
+              .batchFn(
+                  batch -> {
+                    batch.forEach(p -> interpretFn.accept(p.er, p.br));
+                    return null;
+                  })
+              .build();
+
+      // Both files were written in the same order, BasicRecord can be absent for some records
+      BasicRecord br = brReader.hasNext() ? brReader.next() : null;
+      while (erReader.hasNext()) {
+        ExtendedRecord er = erReader.next();
+        BasicRecord erBr = null;
+        if (br != null && br.getId().equals(er.getId())) {
+          erBr = br;
+          br = brReader.hasNext() ? brReader.next() : null;
+        }
+        if (!invalidIds.contains(er.getId())) {
+          batchExecutor.accept(new RecordPair(er, erBr));
+        }
+      }
+      batchExecutor.flush();
+    }
+  }
+
+  @SneakyThrows
+  private <T> SyncDataFileWriter<T> createSpillWriter(Schema schema, File file) {
+    return SyncDataFileWriterBuilder.builder()
+        .schema(schema)
+        .codec(options.getAvroCompressionType())
+        .outputStream(new FileOutputStream(file))
+        .syncInterval(options.getAvroSyncInterval())
+        .build()
+        .createSyncDataFileWriter();
+  }
+
+  @AllArgsConstructor
+  private static class RecordPair {
+    private final ExtendedRecord er;
+    private final BasicRecord br;
+  }
+}
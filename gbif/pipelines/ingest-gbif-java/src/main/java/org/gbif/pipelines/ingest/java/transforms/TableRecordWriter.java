@@ -17,6 +17,7 @@ import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.gbif.pipelines.common.PipelinesVariables.Pipeline.Interpretation.InterpretationType;
 import org.gbif.pipelines.common.beam.options.InterpretationPipelineOptions;
+import org.gbif.pipelines.core.io.ShardedDataFileWriter;
 import org.gbif.pipelines.core.io.SyncDataFileWriter;
 import org.gbif.pipelines.core.io.SyncDataFileWriterBuilder;
 import org.gbif.pipelines.io.avro.BasicRecord;
@@ -78,12 +79,17 @@ public class TableRecordWriter<T> {
     Path path = new Path(targetPathFn.apply(recordType));
     FileSystem verbatimFs =
         createParentDirectories(options.getHdfsSiteConfig(), options.getCoreSiteConfig(), path);
-    return SyncDataFileWriterBuilder.builder()
-        .schema(schema)
-        .codec(options.getAvroCompressionType())
-        .outputStream(verbatimFs.create(path))
-        .syncInterval(options.getAvroSyncInterval())
-        .build()
-        .createSyncDataFileWriter();
+    SyncDataFileWriterBuilder builder =
+        SyncDataFileWriterBuilder.builder()
+            .schema(schema)
+            .codec(options.getAvroCompressionType())
+            .outputStream(verbatimFs.create(path))
+            .syncInterval(options.getAvroSyncInterval())
+            .build();
+    if (options.getShardedAvroWriter()) {
+      return builder.createShardedDataFileWriter(
+          ShardedDataFileWriter.shardOutputStreamFn(verbatimFs, path));
+    }
+    return builder.createSyncDataFileWriter();
   }
 }
@@ -0,0 +1,125 @@
+package au.org.ala.clustering;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Blocking keys used to group candidate occurrences for clustering.
+ *
+ * <p>Keys are 64 bit hashes instead of concatenated strings to keep the shuffle small, a hash
+ * collision only merges two groups and adds comparisons, it never creates a relationship.
+ *
+ * <p>Groups larger than the candidates cutoff are split into sorted neighbourhood windows, see
+ * {@link #windows(List, int)}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BlockingKeys {
+
+  private static final int ID_KEY = 1;
+  private static final int LOCATION_DATE_KEY = 2;
+  private static final int TYPE_STATUS_KEY = 3;
+  private static final int COLLECTOR_KEY = 4;
+
+  /** Sorts similar records next to each other, so they fall into the same window */
+  private static final Comparator<HashKeyOccurrence> NEIGHBOURHOOD_ORDER =
+      Comparator.comparing(
+              HashKeyOccurrence::getRecordedBy, Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(
+              HashKeyOccurrence::getEventDate, Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(
+              HashKeyOccurrence::getCatalogNumber, Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(
+              HashKeyOccurrence::getDecimalLatitude,
+              Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(
+              HashKeyOccurrence::getDecimalLongitude,
+              Comparator.nullsLast(Comparator.naturalOrder()))
+          .thenComparing(HashKeyOccurrence::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+  /** speciesKey|normalized identifier */
+  public static long idKey(String speciesKey, String normalizedId) {
+    return hasher(ID_KEY)
+        .putString(speciesKey, UTF_8)
+        .putString(normalizedId, UTF_8)
+        .hash()
+        .asLong();
+  }
+
+  /** speciesKey|latitude * 1000|longitude * 1000|year|month|day */
+  public static long locationDateKey(
+      String speciesKey, long latitude, long longitude, int year, int month, int day) {
+    return hasher(LOCATION_DATE_KEY)
+        .putString(speciesKey, UTF_8)
+        .putLong(latitude)
+        .putLong(longitude)
+        .putInt(year)
+        .putInt(month)
+        .putInt(day)
+        .hash()
+        .asLong();
+  }
+
+  /** taxonKey|typeStatus */
+  public static long typeStatusKey(String taxonKey, String typeStatus) {
+    return hasher(TYPE_STATUS_KEY)
+        .putString(taxonKey, UTF_8)
+        .putString(typeStatus, UTF_8)
+        .hash()
+        .asLong();
+  }
+
+  /** taxonKey|year|recordedBy */
+  public static long collectorKey(String taxonKey, int year, String recordedBy) {
+    return hasher(COLLECTOR_KEY)
+        .putString(taxonKey, UTF_8)
+        .putInt(year)
+        .putString(recordedBy, UTF_8)
+        .hash()
+        .asLong();
+  }
+
+  /**
+   * Splits an oversized group into sorted neighbourhood windows. Candidates are sorted by
+   * recordedBy, eventDate, catalogNumber and coordinates, and cut into windows of windowSize which
+   * overlap by half, so every record is compared with at least its windowSize / 2 neighbours on
+   * each side. The number of comparisons grows linearly with the group size instead of
+   * quadratically.
+   */
+  public static List<List<HashKeyOccurrence>> windows(
+      List<HashKeyOccurrence> candidates, int windowSize) {
+    List<List<HashKeyOccurrence>> windows = new ArrayList<>();
+    if (candidates.size() <= windowSize) {
+      windows.add(candidates);
+      return windows;
+    }
+
+    List<HashKeyOccurrence> sorted = new ArrayList<>(candidates);
+    sorted.sort(NEIGHBOURHOOD_ORDER);
+
+    int step = Math.max(1, windowSize / 2);
+    for (int from = 0; from < sorted.size(); from += step) {
+      int to = Math.min(from + windowSize, sorted.size());
+      windows.add(new ArrayList<>(sorted.subList(from, to)));
+      if (to == sorted.size()) {
+        break;
+      }
+    }
+    return windows;
+  }
+
+  /** Number of pairs createRelationships compares for a group */
+  public static long comparisons(int groupSize) {
+    return (long) groupSize * (groupSize - 1) / 2;
+  }
+
+  private static Hasher hasher(int keyType) {
+    return Hashing.murmur3_128().newHasher().putInt(keyType);
+  }
+}
@@ -19,6 +19,7 @@ public class ALAPipelinesConfig implements Serializable {
   // ALA specific
   private WsConfig collectory;
   private WsConfig alaNameMatch;
+  private PersistentCacheConfig alaNameMatchCache;
   private WsConfig sds;
   private String sensitivityVocabFile;
   private WsConfig speciesListService;
@@ -29,6 +30,7 @@ public class ALAPipelinesConfig implements Serializable {
     locationInfoConfig = new LocationInfoConfig();
     collectory = new WsConfig();
     alaNameMatch = new WsConfig();
+    alaNameMatchCache = new PersistentCacheConfig();
     speciesListService = new WsConfig();
     imageService = new WsConfig();
   }
@@ -0,0 +1,30 @@
+package au.org.ala.kvs;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Configuration of a disk backed cache which is kept between pipeline runs */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class PersistentCacheConfig implements Serializable {
+
+  public static final int DEFAULT_MAX_FILES = 8;
+
+  // Local directory for cache files, the persistent cache is disabled if it is not set
+  private String localDir;
+
+  // Optional cache file on HDFS or local disk, copied to an empty local cache to warm it up
+  private String seedPath;
+
+  // Version of the data behind the service, entries written for another version are dropped
+  private String version;
+
+  // Entries older than ttlDays are loaded again, 0 keeps entries until the version changes
+  private long ttlDays = 0L;
+
+  // Max number of cache files in the local directory, a file can be used by one process only
+  private int maxFiles = DEFAULT_MAX_FILES;
+}
@@ -65,7 +65,10 @@ public class ALANameMatchKVStoreFactory {
     return cache2kBackedKVStore(wsClient, closeHandler, config);
   }
 
-  /** Builds a KV Store backed by the rest client. */
+  /**
+   * Builds a KV Store backed by the rest client, with an optional disk backed tier between the in
+   * memory cache and the client, see {@link PersistentKeyValueStore}.
+   */
   private static KeyValueStore<NameSearch, NameUsageMatch> cache2kBackedKVStore(
       NameMatchService nameMatchService, Command closeHandler, ALAPipelinesConfig config) {
 
@@ -86,8 +89,14 @@ public class ALANameMatchKVStoreFactory {
             closeHandler.execute();
           }
         };
+    KeyValueStore<NameSearch, NameUsageMatch> persistent =
+        PersistentKeyValueStore.wrap(
+            kvs, NameUsageMatch.class, "ala-name-match", config.getAlaNameMatchCache());
     return KeyValueCache.cache(
-        kvs, config.getAlaNameMatch().getCacheSizeMb(), NameSearch.class, NameUsageMatch.class);
+        persistent,
+        config.getAlaNameMatch().getCacheSizeMb(),
+        NameSearch.class,
+        NameUsageMatch.class);
   }
 
   public static SerializableSupplier<KeyValueStore<NameSearch, NameUsageMatch>> getInstanceSupplier(
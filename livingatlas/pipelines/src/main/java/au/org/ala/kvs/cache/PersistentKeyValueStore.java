@@ -0,0 +1,313 @@
+package au.org.ala.kvs.cache;
+
+import au.org.ala.kvs.PersistentCacheConfig;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.hash.Hashing;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Metrics;
+import org.apache.beam.sdk.metrics.MetricsEnvironment;
+import org.apache.hadoop.conf.Configuration;
+import org.gbif.kvs.KeyValueStore;
+import org.mapdb.Atomic;
+import org.mapdb.DB;
+import org.mapdb.DBException;
+import org.mapdb.DBMaker;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
+
+/**
+ * Disk backed tier in front of a {@link KeyValueStore}, entries are kept in a memory mapped
+ * <a href="http://www.mapdb.org/">MapDB</a> file and survive between pipeline runs.
+ *
+ * <p>Keys are stored as a SHA-256 hash of the key serialized to JSON with sorted properties,
+ * values are stored as JSON together with the write time. All entries are dropped if the file was
+ * written for another {@link PersistentCacheConfig#getVersion()}, entries older than {@link
+ * PersistentCacheConfig#getTtlDays()} are loaded again.
+ *
+ * <p>A cache file can be opened by one process only, every process takes the first free file out
+ * of {@link PersistentCacheConfig#getMaxFiles()} files in the local directory. An absent file is
+ * copied from {@link PersistentCacheConfig#getSeedPath()} if it is set.
+ *
+ * <p>Hits, misses and expired entries are reported as Beam counters {name}CacheHitsCount,
+ * {name}CacheMissesCount and {name}CacheExpiredCount. Beam counts only on a thread with a metrics
+ * container, lookups on other threads are reported by the next lookup on such a thread.
+ */
+@Slf4j
+public class PersistentKeyValueStore<K, V> implements KeyValueStore<K, V> {
+
+  private static final String ENTRIES = "entries";
+  private static final String VERSION = "version";
+  private static final int COMMIT_INTERVAL = 1_000;
+
+  private static final ObjectMapper MAPPER =
+      new ObjectMapper()
+          .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+          .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+          .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  private final KeyValueStore<K, V> source;
+  private final Class<V> valueClass;
+  private final String name;
+  private final long ttlMs;
+  private final DB db;
+  private final HTreeMap<byte[], byte[]> entries;
+  private final AtomicLong writes = new AtomicLong();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong expired = new AtomicLong();
+
+  private final Counter hitsCounter;
+  private final Counter missesCounter;
+  private final Counter expiredCounter;
+  // Values already added to the Beam counters
+  private final AtomicLong reportedHits = new AtomicLong();
+  private final AtomicLong reportedMisses = new AtomicLong();
+  private final AtomicLong reportedExpired = new AtomicLong();
+
+  private final Thread shutdownHook = new Thread(this::close);
+
+  private PersistentKeyValueStore(
+      KeyValueStore<K, V> source,
+      Class<V> valueClass,
+      String name,
+      PersistentCacheConfig config,
+      DB db) {
+    this.source = source;
+    this.valueClass = valueClass;
+    this.name = name;
+    this.ttlMs = TimeUnit.DAYS.toMillis(config.getTtlDays());
+    this.db = db;
+    this.entries =
+        db.hashMap(ENTRIES, Serializer.BYTE_ARRAY, Serializer.BYTE_ARRAY).createOrOpen();
+    this.hitsCounter = Metrics.counter(PersistentKeyValueStore.class, name + "CacheHitsCount");
+    this.missesCounter = Metrics.counter(PersistentKeyValueStore.class, name + "CacheMissesCount");
+    this.expiredCounter =
+        Metrics.counter(PersistentKeyValueStore.class, name + "CacheExpiredCount");
+
+    Atomic.String version = db.atomicString(VERSION).createOrOpen();
+    String expectedVersion = Objects.toString(config.getVersion(), "");
+    if (!expectedVersion.equals(version.get())) {
+      log.info(
+          "Cache {} version {} doesn't match {}, dropping {} entries",
+          name,
+          version.get(),
+          expectedVersion,
+          entries.size());
+      entries.clear();
+      version.set(expectedVersion);
+      db.commit();
+    }
+
+    // Removed on close, so closed stores are not kept by the runtime
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+  }
+
+  /**
+   * Wraps the source with a persistent tier.
+   *
+   * @param name file name prefix for cache files
+   * @return the source if the persistent cache is not configured or all cache files are in use
+   */
+  public static <K, V> KeyValueStore<K, V> wrap(
+      @NonNull KeyValueStore<K, V> source,
+      @NonNull Class<V> valueClass,
+      @NonNull String name,
+      PersistentCacheConfig config) {
+    if (config == null || config.getLocalDir() == null || config.getLocalDir().isEmpty()) {
+      return source;
+    }
+    DB db = openFirstFree(name, config);
+    if (db == null) {
+      log.warn(
+          "All {} cache files of {} are in use, the persistent cache is disabled",
+          config.getMaxFiles(),
+          name);
+      return source;
+    }
+    return new PersistentKeyValueStore<>(source, valueClass, name, config, db);
+  }
+
+  @Override
+  public V get(K key) {
+    byte[] hash = hash(key);
+    byte[] stored = entries.get(hash);
+    if (stored != null) {
+      ByteBuffer buffer = ByteBuffer.wrap(stored);
+      long writtenAt = buffer.getLong();
+      if (ttlMs <= 0 || System.currentTimeMillis() - writtenAt <= ttlMs) {
+        hits.incrementAndGet();
+        reportMetrics();
+        return read(Arrays.copyOfRange(stored, Long.BYTES, stored.length));
+      }
+      expired.incrementAndGet();
+    }
+
+    misses.incrementAndGet();
+    reportMetrics();
+    V value = source.get(key);
+    if (value != null) {
+      put(hash, value);
+    }
+    return value;
+  }
+
+  /** Number of values found in the cache */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /** Number of values loaded from the source, including expired entries */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /** Number of entries which were found in the cache but were older than ttlDays */
+  public long getExpired() {
+    return expired.get();
+  }
+
+  @Override
+  public synchronized void close() {
+    try {
+      Runtime.getRuntime().removeShutdownHook(shutdownHook);
+    } catch (IllegalStateException ex) {
+      // The JVM is shutting down, the hook itself is closing the store
+    }
+    if (!db.isClosed()) {
+      reportMetrics();
+      log.info(
+          "Cache {}: {} hits, {} misses, {} expired, {} entries",
+          name,
+          hits.get(),
+          misses.get(),
+          expired.get(),
+          entries.size());
+      db.commit();
+      db.close();
+      try {
+        source.close();
+      } catch (IOException ex) {
+        log.error("Unable to close " + name, ex);
+      }
+    }
+  }
+
+  /** Adds counts which weren't reported yet to the Beam counters, if the thread has a container */
+  private void reportMetrics() {
+    if (MetricsEnvironment.getCurrentContainer() != null) {
+      report(hits, reportedHits, hitsCounter);
+      report(misses, reportedMisses, missesCounter);
+      report(expired, reportedExpired, expiredCounter);
+    }
+  }
+
+  private static void report(AtomicLong value, AtomicLong reported, Counter counter) {
+    long current = value.get();
+    long previous = reported.get();
+    while (current > previous && !reported.compareAndSet(previous, current)) {
+      previous = reported.get();
+    }
+    if (current > previous) {
+      counter.inc(current - previous);
+    }
+  }
+
+  @SneakyThrows
+  private void put(byte[] hash, V value) {
+    byte[] json = MAPPER.writeValueAsBytes(value);
+    ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + json.length);
+    buffer.putLong(System.currentTimeMillis()).put(json);
+    entries.put(hash, buffer.array());
+    if (writes.incrementAndGet() % COMMIT_INTERVAL == 0) {
+      db.commit();
+    }
+  }
+
+  @SneakyThrows
+  private V read(byte[] json) {
+    return MAPPER.readValue(json, valueClass);
+  }
+
+  /** Canonical key: SHA-256 of JSON with sorted properties, so field order doesn't matter */
+  @SneakyThrows
+  private static byte[] hash(Object key) {
+    return Hashing.sha256().hashBytes(MAPPER.writeValueAsBytes(key)).asBytes();
+  }
+
+  private static DB openFirstFree(String name, PersistentCacheConfig config) {
+    try {
+      Files.createDirectories(Paths.get(config.getLocalDir()));
+    } catch (IOException ex) {
+      log.warn("Unable to create cache directory {}", config.getLocalDir(), ex);
+      return null;
+    }
+    for (int i = 0; i < config.getMaxFiles(); i++) {
+      Path file = Paths.get(config.getLocalDir(), name + "-" + i + ".db");
+      try {
+        seed(file, config.getSeedPath());
+        return open(file.toFile());
+      } catch (DBException.FileLocked ex) {
+        log.debug("Cache file {} is used by another process", file);
+      } catch (DBException ex) {
+        log.warn("Cache file {} is broken and will be recreated - {}", file, ex.getMessage());
+        try {
+          Files.deleteIfExists(file);
+          return open(file.toFile());
+        } catch (IOException | DBException e) {
+          log.warn("Unable to recreate cache file {}", file, e);
+        }
+      } catch (IOException ex) {
+        log.warn("Unable to prepare cache file {}", file, ex);
+      }
+    }
+    return null;
+  }
+
+  private static DB open(File file) {
+    return DBMaker.fileDB(file)
+        .fileMmapEnableIfSupported()
+        .cleanerHackEnable()
+        .transactionEnable()
+        .make();
+  }
+
+  /** Copies the seed file to the local file if the local file doesn't exist */
+  private static void seed(Path file, String seedPath) throws IOException {
+    if (seedPath == null || seedPath.isEmpty() || Files.exists(file)) {
+      return;
+    }
+    Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".seed");
+    try {
+      org.apache.hadoop.fs.Path src = new org.apache.hadoop.fs.Path(seedPath);
+      src.getFileSystem(new Configuration())
+          .copyToLocalFile(false, src, new org.apache.hadoop.fs.Path(tmp.toUri()), true);
+      // Another process could seed the same file at the same time, the first one wins
+      Files.move(tmp, file);
+      log.info("Cache file {} is seeded from {}", file, seedPath);
+    } catch (FileAlreadyExistsException ex) {
+      log.debug("Cache file {} is already seeded", file);
+    } catch (IOException ex) {
+      log.warn("Unable to seed cache file {} from {}", file, seedPath, ex);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+}
@@ -2,7 +2,6 @@ package au.org.ala.kvs.client;
 
 import au.org.ala.kvs.GeocodeShpConfig;
 import au.org.ala.kvs.ShapeFile;
-import au.org.ala.layers.intersect.SimpleShapeFile;
 import com.google.common.base.Strings;
 import java.io.File;
 import java.util.ArrayList;
@@ -12,10 +11,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.gbif.rest.client.geocode.Location;
 
 /**
- * This is a port of the functionality in geocode to using ALA's layer-store
- * (https://github.com/AtlasOfLivingAustralia/layers-store) SimpleShapeFile for intersections.
+ * This is a port of the functionality in geocode to using shape files for intersections, the
+ * polygons are held in a spatial index with a cache of grid cells.
  *
- * @see SimpleShapeFile
+ * @see ShapeFileIndex
  */
 @Slf4j
 public class GeocodeShpIntersectService {
@@ -27,19 +26,19 @@ public class GeocodeShpIntersectService {
 
   private static GeocodeShpIntersectService instance;
   private final GeocodeShpConfig config;
-  private final SimpleShapeFile countries;
-  private final SimpleShapeFile eez;
-  private final SimpleShapeFile states;
+  private final ShapeFileIndex countries;
+  private final ShapeFileIndex eez;
+  private final ShapeFileIndex states;
 
   private GeocodeShpIntersectService(GeocodeShpConfig config) {
     synchronized (this) {
       checkResourceFiles(config);
       this.config = config;
       this.countries =
-          new SimpleShapeFile(config.getCountry().getPath(), config.getCountry().getField());
-      this.eez = new SimpleShapeFile(config.getEez().getPath(), config.getEez().getField());
+          ShapeFileIndex.load(config.getCountry().getPath(), config.getCountry().getField());
+      this.eez = ShapeFileIndex.load(config.getEez().getPath(), config.getEez().getField());
       this.states =
-          new SimpleShapeFile(
+          ShapeFileIndex.load(
               config.getStateProvince().getPath(), config.getStateProvince().getField());
     }
   }
@@ -228,18 +227,18 @@ public class GeocodeShpIntersectService {
   }
 
   private String intersectWithBuffer(
-      SimpleShapeFile simpleShapeFile, ShapeFile config, Double latitude, Double longitude) {
+      ShapeFileIndex shapeFileIndex, ShapeFile config, Double latitude, Double longitude) {
     String sw =
-        simpleShapeFile.intersect(
+        shapeFileIndex.intersect(
             longitude - config.getIntersectBuffer(), latitude - config.getIntersectBuffer());
     String nw =
-        simpleShapeFile.intersect(
+        shapeFileIndex.intersect(
             longitude - config.getIntersectBuffer(), latitude + config.getIntersectBuffer());
     String se =
-        simpleShapeFile.intersect(
+        shapeFileIndex.intersect(
             longitude + config.getIntersectBuffer(), latitude - config.getIntersectBuffer());
     String ne =
-        simpleShapeFile.intersect(
+        shapeFileIndex.intersect(
             longitude + config.getIntersectBuffer(), latitude + config.getIntersectBuffer());
     return getConsensus(Arrays.asList(new String[] {sw, nw, se, ne}));
   }
@@ -0,0 +1,254 @@
+package au.org.ala.kvs.client;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.geotools.data.shapefile.ShapefileDataStore;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.algorithm.locate.PointOnGeometryLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.type.AttributeDescriptor;
+
+/**
+ * Point intersection against the polygons of a shape file, a replacement for layers-store
+ * SimpleShapeFile#intersect for the geocode lookups.
+ *
+ * <p>Polygon envelopes are kept in an STRtree, so a point is only tested against the few polygons
+ * whose envelope contains it, using an indexed point-in-polygon locator per polygon. When polygons
+ * overlap, the first one in file order wins.
+ *
+ * <p>In front of the tree is a grid of cells of {@link #DEFAULT_CELL_SIZE} degrees. The first
+ * lookup in a cell classifies it: a cell covered by one polygon, or touching none, answers every
+ * later lookup in that cell without testing any geometry, only cells on a border fall through to
+ * the tree. Once {@link #DEFAULT_MAX_CELLS} cells are cached, points in new cells go straight to
+ * the tree.
+ */
+@Slf4j
+public class ShapeFileIndex {
+
+  /** 0.01 degrees is about 1km */
+  public static final double DEFAULT_CELL_SIZE = 0.01;
+
+  public static final int DEFAULT_MAX_CELLS = 500_000;
+
+  private static final int NO_POLYGON = -1;
+  private static final int BORDER = -2;
+  // Cell rectangles are slightly enlarged to absorb rounding when a point is mapped to a cell
+  private static final double CELL_EPSILON = 1e-9;
+
+  private final GeometryFactory geometryFactory = new GeometryFactory();
+  private final STRtree tree = new STRtree();
+  private final List<IndexedPolygon> polygons = new ArrayList<>();
+  private final Map<Long, Integer> cells = new ConcurrentHashMap<>();
+  private final double cellSize;
+  private final long columns;
+  private final int maxCells;
+
+  ShapeFileIndex(List<Geometry> geometries, List<String> values, double cellSize, int maxCells) {
+    for (int i = 0; i < geometries.size(); i++) {
+      Geometry geometry = geometries.get(i);
+      if (geometry != null && !geometry.isEmpty() && values.get(i) != null) {
+        IndexedPolygon polygon = new IndexedPolygon(polygons.size(), geometry, values.get(i));
+        polygons.add(polygon);
+        tree.insert(geometry.getEnvelopeInternal(), polygon);
+      }
+    }
+    // Build now, the lazy build on the first query is not thread safe
+    tree.build();
+    this.cellSize = cellSize;
+    this.columns = (long) Math.ceil(360d / cellSize) + 1;
+    this.maxCells = maxCells;
+  }
+
+  /**
+   * Loads the polygons of a shape file.
+   *
+   * @param path path to the shape file without extension
+   * @param field name of the field to return for an intersected polygon
+   */
+  public static ShapeFileIndex load(String path, String field) {
+    List<Geometry> geometries = new ArrayList<>();
+    List<String> values = new ArrayList<>();
+
+    ShapefileDataStore store = null;
+    try {
+      store = new ShapefileDataStore(new File(path + ".shp").toURI().toURL());
+      String attribute = findAttribute(store, field);
+      SimpleFeatureIterator features = store.getFeatureSource().getFeatures().features();
+      try {
+        while (features.hasNext()) {
+          SimpleFeature feature = features.next();
+          Object value = feature.getAttribute(attribute);
+          geometries.add((Geometry) feature.getDefaultGeometry());
+          values.add(value == null ? null : value.toString().trim());
+        }
+      } finally {
+        features.close();
+      }
+    } catch (IOException ex) {
+      throw new IllegalStateException("Failed to read shape file " + path, ex);
+    } finally {
+      if (store != null) {
+        store.dispose();
+      }
+    }
+
+    log.info("Loaded {} polygons from {}", geometries.size(), path);
+    return new ShapeFileIndex(geometries, values, DEFAULT_CELL_SIZE, DEFAULT_MAX_CELLS);
+  }
+
+  private static String findAttribute(ShapefileDataStore store, String field) throws IOException {
+    for (AttributeDescriptor descriptor : store.getSchema().getAttributeDescriptors()) {
+      if (descriptor.getLocalName().equalsIgnoreCase(field)) {
+        return descriptor.getLocalName();
+      }
+    }
+    throw new IllegalArgumentException("Field " + field + " not found in " + store.getSchema());
+  }
+
+  /** @return value of the field for the polygon containing the point, or null */
+  public String intersect(double longitude, double latitude) {
+    if (Double.isNaN(longitude) || Double.isNaN(latitude)) {
+      return null;
+    }
+
+    long cell = cell(longitude, latitude);
+    if (cell >= 0) {
+      Integer polygon = cells.get(cell);
+      // A full cache can't keep a new cell, testing the point alone is cheaper than classifying
+      if (polygon == null && cells.size() < maxCells) {
+        polygon = classify(cell);
+        cells.put(cell, polygon);
+      }
+      if (polygon == null) {
+        return locate(longitude, latitude);
+      }
+      if (polygon == NO_POLYGON) {
+        return null;
+      }
+      if (polygon != BORDER) {
+        return polygons.get(polygon).value;
+      }
+    }
+
+    return locate(longitude, latitude);
+  }
+
+  /** Tests the point against polygons whose envelope contains it */
+  private String locate(double longitude, double latitude) {
+    Coordinate coordinate = new Coordinate(longitude, latitude);
+    List<?> candidates = tree.query(new Envelope(coordinate));
+
+    // Fast path, no need to order a single candidate
+    if (candidates.size() == 1) {
+      IndexedPolygon polygon = (IndexedPolygon) candidates.get(0);
+      return polygon.contains(coordinate) ? polygon.value : null;
+    }
+
+    IndexedPolygon first = null;
+    for (Object candidate : candidates) {
+      IndexedPolygon polygon = (IndexedPolygon) candidate;
+      if ((first == null || polygon.index < first.index) && polygon.contains(coordinate)) {
+        first = polygon;
+      }
+    }
+    return first == null ? null : first.value;
+  }
+
+  /**
+   * A cell is answered by a polygon when that polygon covers it and no polygon before it in file
+   * order touches it. A cell no polygon touches has no answer. Any other cell is a border cell.
+   */
+  private int classify(long cell) {
+    double minLongitude = (cell % columns) * cellSize - 180d;
+    double minLatitude = (cell / columns) * cellSize - 90d;
+    Envelope envelope =
+        new Envelope(
+            minLongitude - CELL_EPSILON,
+            minLongitude + cellSize + CELL_EPSILON,
+            minLatitude - CELL_EPSILON,
+            minLatitude + cellSize + CELL_EPSILON);
+
+    List<IndexedPolygon> candidates = new ArrayList<>();
+    for (Object candidate : tree.query(envelope)) {
+      candidates.add((IndexedPolygon) candidate);
+    }
+    candidates.sort((a, b) -> Integer.compare(a.index, b.index));
+
+    Geometry rectangle = geometryFactory.toGeometry(envelope);
+    try {
+      for (IndexedPolygon polygon : candidates) {
+        PreparedGeometry prepared = polygon.prepared();
+        if (prepared.covers(rectangle)) {
+          return polygon.index;
+        }
+        if (prepared.intersects(rectangle)) {
+          return BORDER;
+        }
+      }
+    } catch (RuntimeException ex) {
+      // Invalid polygons can fail topology operations, test points one by one instead
+      log.debug("Failed to classify cell {}, {}", minLongitude, minLatitude, ex);
+      return BORDER;
+    }
+    return NO_POLYGON;
+  }
+
+  /** @return cell id, or -1 for a point outside of the longitude and latitude ranges */
+  private long cell(double longitude, double latitude) {
+    if (longitude < -180d || longitude > 180d || latitude < -90d || latitude > 90d) {
+      return -1;
+    }
+    long column = (long) Math.floor((longitude + 180d) / cellSize);
+    long row = (long) Math.floor((latitude + 90d) / cellSize);
+    return row * columns + column;
+  }
+
+  /** Number of classified cells, for tests */
+  int cachedCells() {
+    return cells.size();
+  }
+
+  private static class IndexedPolygon {
+
+    private final int index;
+    private final Geometry geometry;
+    private final String value;
+    private final PointOnGeometryLocator locator;
+    private volatile PreparedGeometry prepared;
+
+    private IndexedPolygon(int index, Geometry geometry, String value) {
+      this.index = index;
+      this.geometry = geometry;
+      this.value = value;
+      this.locator = new IndexedPointInAreaLocator(geometry);
+    }
+
+    private boolean contains(Coordinate coordinate) {
+      return locator.locate(coordinate) != Location.EXTERIOR;
+    }
+
+    /** Only polygons near visited cells are prepared */
+    private PreparedGeometry prepared() {
+      PreparedGeometry result = prepared;
+      if (result == null) {
+        result = PreparedGeometryFactory.prepare(geometry);
+        prepared = result;
+      }
+      return result;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package au.org.ala.pipelines.beam;
 
+import au.org.ala.pipelines.jackknife.DoubleArrayCoder;
 import au.org.ala.pipelines.jackknife.JackKnife;
 import au.org.ala.pipelines.options.JackKnifePipelineOptions;
 import au.org.ala.pipelines.transforms.JackKnifeOutlierTransform;
@@ -9,7 +10,6 @@ import au.org.ala.utils.CombinedYamlConfiguration;
 import au.org.ala.utils.ValidationUtils;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -64,6 +64,7 @@ public class ALAReverseJackKnifePipeline {
 
     log.info("Creating a pipeline from options");
     Pipeline pipeline = Pipeline.create(options);
+    pipeline.getCoderRegistry().registerCoderForClass(double[].class, DoubleArrayCoder.of());
 
     // JackKnife output locations
     String outliersPath = String.join("/", options.getJackKnifePath(), "outliers");
@@ -112,46 +113,42 @@ public class ALAReverseJackKnifePipeline {
                   }
                 }));
 
-    // Convert to KV <LatLng, ArrayOfLayerValues>
-    PCollection<KV<String, Double[]>> sampleRecordsKeyedLatng =
+    // Convert to KV <LatLng, ArrayOfLayerValues>, missing values are Double.NaN
+    PCollection<KV<String, double[]>> sampleRecordsKeyedLatng =
         sampleRecords.apply(
             ParDo.of(
-                new DoFn<SampleRecord, KV<String, Double[]>>() {
+                new DoFn<SampleRecord, KV<String, double[]>>() {
                   @ProcessElement
                   public void processElement(ProcessContext c) {
                     SampleRecord e = c.element();
-                    Double[] values = new Double[layers.length];
-                    int countNull = 0;
-                    for (int i = 0; i < layers.length; i++) {
-                      values[i] = e.getDoubles().getOrDefault(layers[i], Double.NaN);
-                      if (values[i] == null) {
-                        countNull++;
-                      }
-                    }
                     String latlng = e.getLatLng();
-                    if (latlng != null && countNull < layers.length) {
+                    if (latlng != null) {
+                      double[] values = new double[layers.length];
+                      for (int i = 0; i < layers.length; i++) {
+                        values[i] = e.getDoubles().getOrDefault(layers[i], Double.NaN);
+                      }
                       c.output(KV.of(latlng, values));
                     }
                   }
                 }));
 
     // Join collections by LatLng string
-    PCollection<KV<String, KV<KV<String, String>, Double[]>>> results =
+    PCollection<KV<String, KV<KV<String, String>, double[]>>> results =
         Join.innerJoin(recordsWithCoordinatesKeyedLatng, sampleRecordsKeyedLatng);
 
     // Group by speciesID
-    PCollection<KV<String, Iterable<KV<String, Double[]>>>> groups =
+    PCollection<KV<String, Iterable<KV<String, double[]>>>> groups =
         results
             .apply(
                 ParDo.of(
                     new DoFn<
-                        KV<String, KV<KV<String, String>, Double[]>>,
-                        KV<String, KV<String, Double[]>>>() {
+                        KV<String, KV<KV<String, String>, double[]>>,
+                        KV<String, KV<String, double[]>>>() {
                       @ProcessElement
                       public void processElement(ProcessContext c) {
-                        KV<String, KV<KV<String, String>, Double[]>> e = c.element();
+                        KV<String, KV<KV<String, String>, double[]>> e = c.element();
                         try {
-                          Double[] sampling = e.getValue().getValue();
+                          double[] sampling = e.getValue().getValue();
                           KV<String, String> ir = e.getValue().getKey();
 
                           String recordID = ir.getKey();
@@ -173,7 +170,7 @@ public class ALAReverseJackKnifePipeline {
     PCollectionTuple jackknife =
         groups.apply(
             ParDo.of(
-                    new DoFn<KV<String, Iterable<KV<String, Double[]>>>, JackKnifeModelRecord>() {
+                    new DoFn<KV<String, Iterable<KV<String, double[]>>>, JackKnifeModelRecord>() {
 
                       private final Counter counterModels =
                           Metrics.counter(
@@ -185,35 +182,33 @@ public class ALAReverseJackKnifePipeline {
                       public void processElement(ProcessContext c) {
                         // Build jacknife model.
 
-                        KV<String, Iterable<KV<String, Double[]>>> e = c.element();
-                        Iterator<KV<String, Double[]>> valuesIter = e.getValue().iterator();
+                        KV<String, Iterable<KV<String, double[]>>> e = c.element();
 
-                        // Values for each layer.
-                        List<Double>[] values = new ArrayList[layers.length];
-                        for (int i = 0; i < layers.length; i++) {
-                          values[i] = new ArrayList<>();
-                        }
-
-                        // Record IDs.
+                        // Record IDs and rows of layer values.
                         List<String> ids = new ArrayList<>();
-
-                        // Remap IDs and layer values.
-                        while (valuesIter.hasNext()) {
-                          KV<String, Double[]> v = valuesIter.next();
+                        List<double[]> rows = new ArrayList<>();
+                        for (KV<String, double[]> v : e.getValue()) {
                           ids.add(v.getKey());
-                          for (int i = 0; i < layers.length; i++) {
-                            values[i].add(v.getValue()[i]);
+                          rows.add(v.getValue());
+                        }
+
+                        // Values for each layer, one primitive column per layer.
+                        int n = rows.size();
+                        double[][] values = new double[layers.length][n];
+                        for (int i = 0; i < n; i++) {
+                          double[] row = rows.get(i);
+                          for (int j = 0; j < layers.length; j++) {
+                            values[j][i] = row[j];
                           }
                         }
 
-                        // Generate jacknife models for each layer.
-                        List<double[]> jackKnifeModels = new ArrayList<>(layers.length);
+                        // Generate jacknife models for each layer, the sort buffer is reused.
+                        double[] buffer = new double[n];
+                        double[][] jackKnifeModels = new double[layers.length][];
                         for (int i = 0; i < layers.length; i++) {
-                          double[] model = null;
                           try {
-                            model =
-                                JackKnife.jackknife(
-                                    values[i].toArray(new Double[0]), minSampleThreshold);
+                            double[] model =
+                                JackKnife.jackknife(values[i], n, minSampleThreshold, buffer);
                             if (model != null) {
                               JackKnifeModelRecord jkmr =
                                   JackKnifeModelRecord.newBuilder()
@@ -221,14 +216,11 @@ public class ALAReverseJackKnifePipeline {
                                       .setFeature(layers[i])
                                       .setMin(model[0])
                                       .setMax(model[1])
-                                      .setCount(
-                                          (int)
-                                              values[i].stream()
-                                                  .filter(v -> !Double.isNaN(v))
-                                                  .count())
+                                      .setCount(countNotMissing(values[i]))
                                       .build();
                               c.output(jackKnifeModelRecordTag, jkmr);
                               counterModels.inc();
+                              jackKnifeModels[i] = model;
                             }
                           } catch (Exception ex) {
                             log.error(
@@ -237,25 +229,22 @@ public class ALAReverseJackKnifePipeline {
                                     + " "
                                     + layers[i],
                                 ex.getMessage());
-                          } finally {
-                            jackKnifeModels.add(model);
                           }
                         }
 
                         // Apply jacknife model to produce ID -> list of outliers
-                        for (int i = 0; i < ids.size(); i++) {
+                        for (int i = 0; i < n; i++) {
                           List<String> outliers = null;
 
                           for (int j = 0; j < layers.length; j++) {
-                            double[] model = jackKnifeModels.get(j);
-                            if (model != null) {
-                              Double v = values[j].get(i);
-                              if (v != null && (model[0] > v || model[1] < v)) {
-                                if (outliers == null) {
-                                  outliers = new ArrayList<>();
-                                }
-                                outliers.add(layers[j]);
+                            double[] model = jackKnifeModels[j];
+                            // NaN is never outside of the model
+                            if (model != null
+                                && (model[0] > values[j][i] || model[1] < values[j][i])) {
+                              if (outliers == null) {
+                                outliers = new ArrayList<>();
                               }
+                              outliers.add(layers[j]);
                             }
                           }
 
@@ -304,6 +293,16 @@ public class ALAReverseJackKnifePipeline {
     log.info("3. Pipeline has been finished");
   }
 
+  private static int countNotMissing(double[] values) {
+    int count = 0;
+    for (double v : values) {
+      if (!Double.isNaN(v)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
   public static void deletePreviousValidation(
       JackKnifePipelineOptions options, String jackknifePath) {
     // delete output directories
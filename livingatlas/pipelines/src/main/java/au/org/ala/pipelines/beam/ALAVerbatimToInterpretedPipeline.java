@@ -208,6 +208,8 @@ public class ALAVerbatimToInterpretedPipeline {
             .kingdomCheckStoreSupplier(
                 ALANameCheckKVStoreFactory.getInstanceSupplier("kingdom", config))
             .dataResourceStoreSupplier(ALAAttributionKVStoreFactory.getInstanceSupplier(config))
+            .batchSize(options.getTaxonomyBatchSize())
+            .maxInFlight(options.getTaxonomyMaxInFlight())
             .create();
 
     // ALA specific - Location
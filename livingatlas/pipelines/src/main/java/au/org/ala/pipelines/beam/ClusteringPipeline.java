@@ -16,6 +16,9 @@ import org.apache.avro.file.CodecFactory;
 import org.apache.beam.sdk.Pipeline;
 import org.apache.beam.sdk.io.AvroIO;
 import org.apache.beam.sdk.io.TextIO;
+import org.apache.beam.sdk.metrics.Counter;
+import org.apache.beam.sdk.metrics.Distribution;
+import org.apache.beam.sdk.metrics.Metrics;
 import org.apache.beam.sdk.transforms.*;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
@@ -58,6 +61,10 @@ public class ClusteringPipeline {
 
   private static final CodecFactory BASE_CODEC = CodecFactory.snappyCodec();
 
+  public static final String GROUP_SIZE = "clusteringGroupSize";
+  public static final String OVERSIZED_GROUPS_COUNT = "clusteringOversizedGroupsCount";
+  public static final String COMPARISONS_COUNT = "clusteringComparisonsCount";
+
   public static void main(String[] args) throws FileNotFoundException {
     VersionInfo.print();
     String[] combinedArgs = new CombinedYamlConfiguration(args).toArgs("general", "clustering");
@@ -91,15 +98,18 @@ public class ClusteringPipeline {
     PCollection<IndexRecord> indexRecords = ALAFsUtils.loadIndexRecords(options, pipeline);
 
     final Integer candidatesCutoff = options.getCandidatesCutoff();
+    final boolean subBlocking = options.getSubBlocking();
+    final boolean outputDebug = options.isOutputDebugAvro();
 
-    // create hashes for everything
-    PCollection<HashKeyOccurrence> hashAll =
+    // create hashes for everything, the readable hash key is only kept for the debug output
+    PCollection<KV<Long, HashKeyOccurrence>> hashAll =
         indexRecords.apply(
             ParDo.of(
-                new DoFn<IndexRecord, HashKeyOccurrence>() {
+                new DoFn<IndexRecord, KV<Long, HashKeyOccurrence>>() {
                   @ProcessElement
                   public void processElement(
-                      @Element IndexRecord source, OutputReceiver<HashKeyOccurrence> out) {
+                      @Element IndexRecord source,
+                      OutputReceiver<KV<Long, HashKeyOccurrence>> out) {
 
                     String datasetKey = source.getStrings().get("dataResourceUid");
                     if (datasetKey == null) {
@@ -185,14 +195,15 @@ public class ClusteringPipeline {
                           .collect(Collectors.toList())
                           .stream()
                           .forEach(
-                              id ->
-                                  out.output(
-                                      builder
-                                          .withHashKey(
-                                              speciesKey
-                                                  + "|"
-                                                  + OccurrenceRelationships.normalizeID(id))
-                                          .build()));
+                              id -> {
+                                String normalizedId = OccurrenceRelationships.normalizeID(id);
+                                String debugKey =
+                                    outputDebug ? speciesKey + "|" + normalizedId : null;
+                                out.output(
+                                    KV.of(
+                                        BlockingKeys.idKey(speciesKey, normalizedId),
+                                        builder.withHashKey(debugKey).build()));
+                              });
                     }
 
                     // hashkeys for all records
@@ -203,64 +214,93 @@ public class ClusteringPipeline {
                         && month != null
                         && day != null
                         && speciesKey != null) {
+                      long lat = Math.round(decimalLatitude * 1000);
+                      long lng = Math.round(decimalLongitude * 1000);
+                      String debugKey =
+                          outputDebug
+                              ? String.join(
+                                  "|",
+                                  speciesKey,
+                                  Long.toString(lat),
+                                  Long.toString(lng),
+                                  Integer.toString(year),
+                                  Integer.toString(month),
+                                  Integer.toString(day))
+                              : null;
                       out.output(
-                          builder
-                              .withHashKey(
-                                  String.join(
-                                      "|",
-                                      speciesKey,
-                                      Long.toString(Math.round(decimalLatitude * 1000)),
-                                      Long.toString(Math.round(decimalLongitude * 1000)),
-                                      Integer.toString(year),
-                                      Integer.toString(month),
-                                      Integer.toString(day)))
-                              .build());
+                          KV.of(
+                              BlockingKeys.locationDateKey(speciesKey, lat, lng, year, month, day),
+                              builder.withHashKey(debugKey).build()));
                     }
 
                     // 2. type status hashkeys
                     if (Strings.isNotEmpty(taxonKey) && Strings.isNotEmpty(typeStatus)) {
-                      out.output(builder.withHashKey(taxonKey + "|" + typeStatus).build());
+                      String debugKey = outputDebug ? taxonKey + "|" + typeStatus : null;
+                      out.output(
+                          KV.of(
+                              BlockingKeys.typeStatusKey(taxonKey, typeStatus),
+                              builder.withHashKey(debugKey).build()));
                     }
 
                     // 3. taxonKey|year|recordedBy hashkeys
                     if (Strings.isNotEmpty(taxonKey)
                         && year != null
                         && Strings.isNotEmpty(recordedBy)) {
+                      String debugKey =
+                          outputDebug ? taxonKey + "|" + year + "|" + recordedBy : null;
                       out.output(
-                          builder.withHashKey(taxonKey + "|" + year + "|" + recordedBy).build());
+                          KV.of(
+                              BlockingKeys.collectorKey(taxonKey, year, recordedBy),
+                              builder.withHashKey(debugKey).build()));
                     }
                   }
                 }));
 
-    // convert to hashkey -> OccurrenceHash
+    // group by hashkey, oversized groups are split into sorted neighbourhood windows
     PCollection<ClusteringCandidates> candidates =
         hashAll
-            .apply(
-                MapElements.via(
-                    new SimpleFunction<HashKeyOccurrence, KV<String, HashKeyOccurrence>>() {
-                      @Override
-                      public KV<String, HashKeyOccurrence> apply(HashKeyOccurrence input) {
-                        return KV.of(input.getHashKey(), input);
-                      }
-                    }))
             .apply(GroupByKey.create())
             .apply(
                 ParDo.of(
-                    new DoFn<KV<String, Iterable<HashKeyOccurrence>>, ClusteringCandidates>() {
+                    new DoFn<KV<Long, Iterable<HashKeyOccurrence>>, ClusteringCandidates>() {
+
+                      private final Distribution groupSize =
+                          Metrics.distribution(ClusteringPipeline.class, GROUP_SIZE);
+                      private final Counter oversizedGroups =
+                          Metrics.counter(ClusteringPipeline.class, OVERSIZED_GROUPS_COUNT);
+
                       @ProcessElement
                       public void processElement(
-                          @Element KV<String, Iterable<HashKeyOccurrence>> source,
+                          @Element KV<Long, Iterable<HashKeyOccurrence>> source,
                           OutputReceiver<ClusteringCandidates> out) {
 
                         List<HashKeyOccurrence> result = new ArrayList<>();
                         source.getValue().iterator().forEachRemaining(result::add);
+                        groupSize.update(result.size());
 
                         if (result.size() > 1) {
-                          out.output(
-                              ClusteringCandidates.builder()
-                                  .hashKey(source.getKey())
-                                  .candidates(result)
-                                  .build());
+                          String hashKey =
+                              Optional.ofNullable(result.get(0).getHashKey())
+                                  .orElse(Long.toHexString(source.getKey()));
+
+                          List<List<HashKeyOccurrence>> windows;
+                          if (result.size() < candidatesCutoff) {
+                            windows = Collections.singletonList(result);
+                          } else {
+                            oversizedGroups.inc();
+                            windows =
+                                subBlocking
+                                    ? BlockingKeys.windows(result, candidatesCutoff - 1)
+                                    : Collections.emptyList();
+                          }
+
+                          for (List<HashKeyOccurrence> window : windows) {
+                            out.output(
+                                ClusteringCandidates.builder()
+                                    .hashKey(hashKey)
+                                    .candidates(window)
+                                    .build());
+                          }
                         }
                       }
                     }));
@@ -270,6 +310,10 @@ public class ClusteringPipeline {
         candidates.apply(
             ParDo.of(
                 new DoFn<ClusteringCandidates, KV<String, Relationship>>() {
+
+                  private final Counter comparisons =
+                      Metrics.counter(ClusteringPipeline.class, COMPARISONS_COUNT);
+
                   @ProcessElement
                   public void processElement(
                       @Element ClusteringCandidates source,
@@ -277,6 +321,7 @@ public class ClusteringPipeline {
 
                     log.info("Candidates: {}", source.getCandidates().size());
                     if (source.getCandidates().size() < candidatesCutoff) {
+                      comparisons.inc(BlockingKeys.comparisons(source.getCandidates().size()));
                       List<KV<String, Relationship>> output =
                           createRelationships(source, candidatesCutoff);
                       log.info(
@@ -289,7 +334,7 @@ public class ClusteringPipeline {
                 }));
 
     if (options.isOutputDebugAvro()) {
-      outputDebugHashKeys(options, hashAll);
+      outputDebugHashKeys(options, hashAll.apply(Values.create()));
       outputDebugCandidates(options, candidates);
       outputDebugRelationships(options, candidatesCutoff, candidates);
       outputDebugRelationshipsUngrouped(options, relationships);
@@ -5,11 +5,15 @@ import au.org.ala.pipelines.options.SamplingPipelineOptions;
 import au.org.ala.pipelines.util.SamplingUtils;
 import au.org.ala.pipelines.util.VersionInfo;
 import au.org.ala.sampling.Layer;
+import au.org.ala.sampling.LayerCrawler;
 import au.org.ala.sampling.SamplingService;
 import au.org.ala.utils.ALAFsUtils;
 import au.org.ala.utils.CombinedYamlConfiguration;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -40,6 +44,10 @@ import org.slf4j.MDC;
  * as it relies on the output of the LocationTransform.
  *
  * <p>In addition, this pipeline will check configured sampling service for newly available layers.
+ *
+ * <p>In incremental mode, coordinates which were sampled before are exported separately if the
+ * sampling service has fields which weren't sampled yet, so they are sampled against the new fields
+ * only and merged into the existing sampling, instead of deleting and resampling everything.
  */
 @Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -69,9 +77,19 @@ public class SamplingPipeline {
     log.info("Checking for new layers in the system");
     SamplingService samplingService = SamplingUtils.initSamplingService(options.getBaseUrl());
 
-    boolean newLayersAvailable = newLayersAddedSinceLastSample(samplingService, options, fs);
-
-    if (newLayersAvailable) {
+    Optional<Set<String>> sampledFields =
+        options.getIncrementalSampling()
+            ? SamplingUtils.readSampledFields(options, fs)
+            : Optional.empty();
+
+    List<String> newFields = Collections.emptyList();
+    if (sampledFields.isPresent()) {
+      newFields =
+          SamplingUtils.getEnabledFields(samplingService).stream()
+              .filter(f -> !sampledFields.get().contains(f))
+              .collect(Collectors.toList());
+      log.info("Incremental sampling, fields added since the last sampling = {}", newFields);
+    } else if (newLayersAddedSinceLastSample(samplingService, options, fs)) {
       if (options.getDeleteSamplingForNewLayers()) {
         // delete existing sampling output
         String samplingDir = SamplingUtils.getSamplingDirectoryPath(options);
@@ -125,9 +143,12 @@ public class SamplingPipeline {
                     }));
 
     log.info("Create join collection");
-    PCollection<String> nonSampledLatLng =
+    PCollection<KV<String, KV<String, String>>> joined =
         org.apache.beam.sdk.extensions.joinlibrary.Join.leftOuterJoin(
-                latLngs, sampledPoints, "NOT_SAMPLED")
+            latLngs, sampledPoints, "NOT_SAMPLED");
+
+    PCollection<String> nonSampledLatLng =
+        joined
             .apply(
                 Filter.by(
                     new SerializableFunction<KV<String, KV<String, String>>, Boolean>() {
@@ -150,6 +171,26 @@ public class SamplingPipeline {
 
     nonSampledLatLng.apply(TextIO.write().to(outputPath + "/latlng.csv").withoutSharding());
 
+    // Coordinates in use which were sampled before, to sample against new fields only
+    String newFieldsOutputPath = LayerCrawler.getLatLngNewFieldsExportPath(options);
+    FsUtils.deleteIfExist(
+        options.getHdfsSiteConfig(), options.getCoreSiteConfig(), newFieldsOutputPath);
+    if (!newFields.isEmpty()) {
+      log.info("Adding step 3: Export sampled coordinates for new fields");
+      ALAFsUtils.createDirectory(fs, newFieldsOutputPath);
+      joined
+          .apply(
+              Filter.by(
+                  new SerializableFunction<KV<String, KV<String, String>>, Boolean>() {
+                    @Override
+                    public Boolean apply(KV<String, KV<String, String>> input) {
+                      return !input.getValue().getValue().equals("NOT_SAMPLED");
+                    }
+                  }))
+          .apply(Keys.create())
+          .apply(TextIO.write().to(newFieldsOutputPath + "/latlng.csv").withoutSharding());
+    }
+
     log.info("Running the pipeline");
     PipelineResult result = p.run();
     result.waitUntilFinish();
@@ -134,28 +134,7 @@ public class ALATaxonomyInterpreter {
       atr.setId(er.getId());
 
       if (kvStore != null) {
-        String genus = extractValue(er, DwcTerm.genus, defaults);
-        if (genus == null) {
-          genus = extractValue(er, GbifTerm.genericName, defaults);
-        }
-        NameSearch matchRequest =
-            NameSearch.builder()
-                .kingdom(extractValue(er, DwcTerm.kingdom, defaults))
-                .phylum(extractValue(er, DwcTerm.phylum, defaults))
-                .clazz(extractValue(er, DwcTerm.class_, defaults))
-                .order(extractValue(er, DwcTerm.order, defaults))
-                .family(extractValue(er, DwcTerm.family, defaults))
-                .genus(genus)
-                .scientificName(extractValue(er, DwcTerm.scientificName, defaults))
-                .rank(extractValue(er, DwcTerm.taxonRank, defaults))
-                .verbatimTaxonRank(extractValue(er, DwcTerm.verbatimTaxonRank, defaults))
-                .specificEpithet(extractValue(er, DwcTerm.specificEpithet, defaults))
-                .infraspecificEpithet(extractValue(er, DwcTerm.infraspecificEpithet, defaults))
-                .scientificNameAuthorship(
-                    extractValue(er, DwcTerm.scientificNameAuthorship, defaults))
-                .vernacularName(extractValue(er, DwcTerm.vernacularName, defaults))
-                .hints(hints)
-                .build();
+        NameSearch matchRequest = createNameSearch(er, defaults, hints);
 
         NameUsageMatch usageMatch = kvStore.get(matchRequest);
         if (isEmpty(usageMatch)) {
@@ -268,6 +247,45 @@ public class ALATaxonomyInterpreter {
     ModelUtils.addIssue(atr, issue.getId());
   }
 
+  /**
+   * Creates the taxonomic search lookup key from the taxonomic fields of the record
+   *
+   * @param er The extended record
+   * @param dataResource The associated data resource for the record, for defaults and hints
+   * @return The search request
+   */
+  public static NameSearch createNameSearch(
+      ExtendedRecord er, ALACollectoryMetadata dataResource) {
+    return createNameSearch(
+        er,
+        dataResource == null ? null : dataResource.getDefaultDarwinCoreValues(),
+        dataResource == null ? null : dataResource.getHintMap());
+  }
+
+  private static NameSearch createNameSearch(
+      ExtendedRecord er, Map<String, String> defaults, Map<String, List<String>> hints) {
+    String genus = extractValue(er, DwcTerm.genus, defaults);
+    if (genus == null) {
+      genus = extractValue(er, GbifTerm.genericName, defaults);
+    }
+    return NameSearch.builder()
+        .kingdom(extractValue(er, DwcTerm.kingdom, defaults))
+        .phylum(extractValue(er, DwcTerm.phylum, defaults))
+        .clazz(extractValue(er, DwcTerm.class_, defaults))
+        .order(extractValue(er, DwcTerm.order, defaults))
+        .family(extractValue(er, DwcTerm.family, defaults))
+        .genus(genus)
+        .scientificName(extractValue(er, DwcTerm.scientificName, defaults))
+        .rank(extractValue(er, DwcTerm.taxonRank, defaults))
+        .verbatimTaxonRank(extractValue(er, DwcTerm.verbatimTaxonRank, defaults))
+        .specificEpithet(extractValue(er, DwcTerm.specificEpithet, defaults))
+        .infraspecificEpithet(extractValue(er, DwcTerm.infraspecificEpithet, defaults))
+        .scientificNameAuthorship(extractValue(er, DwcTerm.scientificNameAuthorship, defaults))
+        .vernacularName(extractValue(er, DwcTerm.vernacularName, defaults))
+        .hints(hints)
+        .build();
+  }
+
   protected static boolean isEmpty(NameUsageMatch response) {
     return response == null || !response.isSuccess();
   }
@@ -0,0 +1,56 @@
+package au.org.ala.pipelines.jackknife;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.apache.beam.sdk.coders.AtomicCoder;
+import org.apache.beam.sdk.coders.CoderException;
+import org.apache.beam.sdk.util.VarInt;
+
+/** Compact coder for primitive layer values, a varint length followed by 8 bytes per value. */
+public class DoubleArrayCoder extends AtomicCoder<double[]> {
+
+  private static final DoubleArrayCoder INSTANCE = new DoubleArrayCoder();
+
+  private DoubleArrayCoder() {}
+
+  public static DoubleArrayCoder of() {
+    return INSTANCE;
+  }
+
+  @Override
+  public void encode(double[] value, OutputStream outStream) throws IOException {
+    if (value == null) {
+      throw new CoderException("Cannot encode a null double array");
+    }
+    VarInt.encode(value.length, outStream);
+    DataOutputStream out = new DataOutputStream(outStream);
+    for (double v : value) {
+      out.writeDouble(v);
+    }
+    out.flush();
+  }
+
+  @Override
+  public double[] decode(InputStream inStream) throws IOException {
+    int length = VarInt.decodeInt(inStream);
+    double[] value = new double[length];
+    DataInputStream in = new DataInputStream(inStream);
+    for (int i = 0; i < length; i++) {
+      value[i] = in.readDouble();
+    }
+    return value;
+  }
+
+  @Override
+  public void verifyDeterministic() {
+    // Deterministic, the same values are always encoded to the same bytes
+  }
+
+  @Override
+  public boolean consistentWithEquals() {
+    return false;
+  }
+}
@@ -111,4 +111,86 @@ public class JackKnife {
 
     return new double[] {minValue, maxValue};
   }
+
+  /**
+   * Primitive version of {@link #jackknife(Double[], Integer)} producing the same results without
+   * boxing, used for the columnar layer values of the jackknife pipeline.
+   *
+   * @param values layer values, only the first count values are used. Double.NaN indicates absence.
+   * @param count number of values
+   * @param minSampleThreshold minimum number of values
+   * @param buffer reusable sort buffer, at least count long
+   * @return null or min and max of the model
+   */
+  public static double[] jackknife(
+      double[] values, int count, int minSampleThreshold, double[] buffer) {
+
+    int n = 0;
+    for (int i = 0; i < count; i++) {
+      double v = values[i];
+      if (!Double.isNaN(v)) {
+        buffer[n++] = v;
+      }
+    }
+
+    if (n == 0 || n < minSampleThreshold) {
+      return null;
+    }
+
+    Arrays.sort(buffer, 0, n);
+
+    double srange = buffer[n - 1] - buffer[0];
+    double threshold = ((0.95 * Math.sqrt(n) + 0.2) * (srange / 50.0));
+
+    if (threshold <= 0) {
+      return null;
+    }
+
+    double smean = 0;
+    for (int i = 0; i < n; i++) {
+      smean += buffer[i];
+    }
+    smean = smean / n;
+
+    double sstd = 0;
+    for (int i = 0; i < n; i++) {
+      double d = buffer[i] - smean;
+      sstd += d * d;
+    }
+    sstd = Math.sqrt(sstd / n);
+
+    int minIdx = -1;
+    int maxIdx = -1;
+
+    for (int i = 0; i < n; i++) {
+      double v = buffer[i];
+
+      // values are sorted so a range check is not required for values[i+1] and values[i-1]
+      if (v < smean) {
+        if ((buffer[i + 1] - v) * (smean - v) / sstd > threshold) {
+          minIdx = i; // continue searching for a larger minIdx
+        }
+      } else if (v > smean) {
+        if ((v - buffer[i - 1]) * (v - smean) / sstd > threshold) {
+          maxIdx = i;
+          break; // smallest maxIdx found, stop searching
+        }
+      }
+    }
+
+    int outlierCount = minIdx + 1;
+    double minValue = buffer[minIdx + 1];
+    double maxValue = buffer[n - 1];
+    if (maxIdx >= 0) {
+      maxValue = buffer[maxIdx - 1];
+      outlierCount += n - maxIdx;
+    }
+
+    // failsafe trigger
+    if (outlierCount > n / 2) {
+      return null;
+    }
+
+    return new double[] {minValue, maxValue};
+  }
 }
@@ -39,6 +39,7 @@ import org.gbif.pipelines.core.factory.FileSystemFactory;
 import org.gbif.pipelines.core.factory.FileVocabularyFactory;
 import org.gbif.pipelines.core.functions.SerializableConsumer;
 import org.gbif.pipelines.core.io.AvroReader;
+import org.gbif.pipelines.core.io.ShardedDataFileWriter;
 import org.gbif.pipelines.core.io.SyncDataFileWriter;
 import org.gbif.pipelines.core.io.SyncDataFileWriterBuilder;
 import org.gbif.pipelines.core.utils.FsUtils;
@@ -360,12 +361,17 @@ public class ALAVerbatimToInterpretedPipeline {
         FileSystemFactory.getInstance(options.getHdfsSiteConfig()).getFs(path.toString());
     fs.mkdirs(path.getParent());
 
-    return SyncDataFileWriterBuilder.builder()
-        .schema(schema)
-        .codec(options.getAvroCompressionType())
-        .outputStream(fs.create(path))
-        .syncInterval(options.getAvroSyncInterval())
-        .build()
-        .createSyncDataFileWriter();
+    SyncDataFileWriterBuilder builder =
+        SyncDataFileWriterBuilder.builder()
+            .schema(schema)
+            .codec(options.getAvroCompressionType())
+            .outputStream(fs.create(path))
+            .syncInterval(options.getAvroSyncInterval())
+            .build();
+    if (options.getShardedAvroWriter()) {
+      return builder.createShardedDataFileWriter(
+          ShardedDataFileWriter.shardOutputStreamFn(fs, path));
+    }
+    return builder.createSyncDataFileWriter();
   }
 }
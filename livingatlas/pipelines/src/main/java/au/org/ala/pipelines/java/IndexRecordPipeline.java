@@ -14,15 +14,19 @@ import au.org.ala.utils.CombinedYamlConfiguration;
 import au.org.ala.utils.ValidationResult;
 import au.org.ala.utils.ValidationUtils;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import lombok.AccessLevel;
@@ -33,6 +37,7 @@ import org.apache.avro.file.CodecFactory;
 import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.io.DatumWriter;
+import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.gbif.api.model.pipelines.StepType;
@@ -41,10 +46,12 @@ import org.gbif.pipelines.common.beam.metrics.MetricsHandler;
 import org.gbif.pipelines.common.beam.options.PipelinesOptionsFactory;
 import org.gbif.pipelines.common.beam.utils.PathBuilder;
 import org.gbif.pipelines.core.io.AvroReader;
+import org.gbif.pipelines.core.io.SortedAvroReader;
 import org.gbif.pipelines.core.utils.FsUtils;
 import org.gbif.pipelines.io.avro.*;
 import org.gbif.pipelines.transforms.core.*;
 import org.gbif.pipelines.transforms.extension.MultimediaTransform;
+import org.gbif.utils.file.ClosableIterator;
 import org.slf4j.MDC;
 
 /**
@@ -58,7 +65,8 @@ import org.slf4j.MDC;
  *      {@link org.gbif.pipelines.io.avro.MultimediaRecord},
  *      {@link org.gbif.pipelines.io.avro.TaxonRecord},
  *      {@link org.gbif.pipelines.io.avro.LocationRecord}
- *    2) Joins avro files
+ *    2) Joins avro files, using in-memory maps or, with --streamingJoin=true, an external
+ *       sort-merge join
  *    3) Converts to IndexRecord
  * </pre>
  */
@@ -161,6 +169,32 @@ public class IndexRecordPipeline {
 
     log.info("Creating pipeline");
 
+    if (options.getStreamingJoin()) {
+      Map<Class<? extends Record>, String> paths = new HashMap<>();
+      paths.put(ExtendedRecord.class, pathFn.apply(verbatimTransform.getBaseName()));
+      paths.put(BasicRecord.class, pathFn.apply(basicTransform.getBaseName()));
+      paths.put(TemporalRecord.class, pathFn.apply(temporalTransform.getBaseName()));
+      paths.put(LocationRecord.class, pathFn.apply(locationTransform.getBaseName()));
+      paths.put(MultimediaRecord.class, pathFn.apply(multimediaTransform.getBaseName()));
+      paths.put(
+          ALAUUIDRecord.class,
+          identifiersPathFn.apply(ALARecordTypes.ALA_UUID.name().toLowerCase()));
+      paths.put(ALATaxonRecord.class, pathFn.apply(alaTaxonomyTransform.getBaseName()));
+      paths.put(ALAAttributionRecord.class, pathFn.apply(alaAttributionTransform.getBaseName()));
+      if (options.getIncludeSensitiveData()) {
+        paths.put(ALASensitivityRecord.class, pathFn.apply(sensitiveTransform.getBaseName()));
+      }
+      if (options.getIncludeImages()) {
+        paths.put(ImageRecord.class, imageServicePathFn.apply("image-record"));
+      }
+
+      runSortMergeJoin(options, executor, fs, paths, lastLoadedDate, lastProcessedDate);
+
+      MetricsHandler.saveCountersToTargetPathFile(options, metrics.getMetricsResult());
+      log.info("Pipeline has been finished - {}", LocalDateTime.now());
+      return;
+    }
+
     // Reading all avro files in parallel
     CompletableFuture<Map<String, ExtendedRecord>> verbatimMapFeature =
         CompletableFuture.supplyAsync(
@@ -169,7 +203,8 @@ public class IndexRecordPipeline {
                     hdfsSiteConfig,
                     coreSiteConfig,
                     ExtendedRecord.class,
-                    pathFn.apply(verbatimTransform.getBaseName())),
+                    pathFn.apply(verbatimTransform.getBaseName()),
+                    executor),
             executor);
 
     CompletableFuture<Map<String, BasicRecord>> basicMapFeature =
@@ -179,7 +214,8 @@ public class IndexRecordPipeline {
                     hdfsSiteConfig,
                     coreSiteConfig,
                     BasicRecord.class,
-                    pathFn.apply(basicTransform.getBaseName())),
+                    pathFn.apply(basicTransform.getBaseName()),
+                    executor),
             executor);
 
     CompletableFuture<Map<String, TemporalRecord>> temporalMapFeature =
@@ -189,7 +225,8 @@ public class IndexRecordPipeline {
                     hdfsSiteConfig,
                     coreSiteConfig,
                     TemporalRecord.class,
-                    pathFn.apply(temporalTransform.getBaseName())),
+                    pathFn.apply(temporalTransform.getBaseName()),
+                    executor),
             executor);
 
     CompletableFuture<Map<String, LocationRecord>> locationMapFeature =
@@ -199,7 +236,8 @@ public class IndexRecordPipeline {
                     hdfsSiteConfig,
                     coreSiteConfig,
                     LocationRecord.class,
-                    pathFn.apply(locationTransform.getBaseName())),
+                    pathFn.apply(locationTransform.getBaseName()),
+                    executor),
             executor);
 
     CompletableFuture<Map<String, MultimediaRecord>> multimediaFeature =
@@ -209,7 +247,8 @@ public class IndexRecordPipeline {
                     hdfsSiteConfig,
                     coreSiteConfig,
                     MultimediaRecord.class,
-                    pathFn.apply(multimediaTransform.getBaseName())),
+                    pathFn.apply(multimediaTransform.getBaseName()),
+                    executor),
             executor);
 
     CompletableFuture<Map<String, TaxonRecord>> taxonMapFeature =
@@ -222,7 +261,8 @@ public class IndexRecordPipeline {
                       hdfsSiteConfig,
                       coreSiteConfig,
                       TaxonRecord.class,
-                      pathFn.apply(taxonomyTransform.getBaseName())),
+                      pathFn.apply(taxonomyTransform.getBaseName()),
+                      executor),
               executor);
     }
 
@@ -242,7 +282,8 @@ public class IndexRecordPipeline {
                     hdfsSiteConfig,
                     coreSiteConfig,
                     ALAUUIDRecord.class,
-                    identifiersPathFn.apply(ALARecordTypes.ALA_UUID.name().toLowerCase())),
+                    identifiersPathFn.apply(ALARecordTypes.ALA_UUID.name().toLowerCase()),
+                    executor),
             executor);
 
     CompletableFuture<Map<String, ALATaxonRecord>> alaTaxonMapFeature =
@@ -252,7 +293,8 @@ public class IndexRecordPipeline {
                     hdfsSiteConfig,
                     coreSiteConfig,
                     ALATaxonRecord.class,
-                    pathFn.apply(alaTaxonomyTransform.getBaseName())),
+                    pathFn.apply(alaTaxonomyTransform.getBaseName()),
+                    executor),
             executor);
 
     CompletableFuture<Map<String, ALAAttributionRecord>> alaAttributionMapFeature =
@@ -262,7 +304,8 @@ public class IndexRecordPipeline {
                     hdfsSiteConfig,
                     coreSiteConfig,
                     ALAAttributionRecord.class,
-                    pathFn.apply(alaAttributionTransform.getBaseName())),
+                    pathFn.apply(alaAttributionTransform.getBaseName()),
+                    executor),
             executor);
 
     CompletableFuture<Map<String, ALASensitivityRecord>> alaSensitiveMapFeature =
@@ -272,7 +315,8 @@ public class IndexRecordPipeline {
                     hdfsSiteConfig,
                     coreSiteConfig,
                     ALASensitivityRecord.class,
-                    pathFn.apply(sensitiveTransform.getBaseName())),
+                    pathFn.apply(sensitiveTransform.getBaseName()),
+                    executor),
             executor);
 
     CompletableFuture<Map<String, ImageRecord>> imageServiceMapFeature =
@@ -282,7 +326,8 @@ public class IndexRecordPipeline {
                     hdfsSiteConfig,
                     coreSiteConfig,
                     ImageRecord.class,
-                    imageServicePathFn.apply("image-record")),
+                    imageServicePathFn.apply("image-record"),
+                    executor),
             executor);
 
     CompletableFuture<Map<String, TaxonProfile>> taxonProfileMapFeature = null;
@@ -357,6 +402,146 @@ public class IndexRecordPipeline {
     List<IndexRecord> indexRecords =
         basicMap.values().stream().map(indexRequestFn).collect(Collectors.toList());
 
+    try (DataFileWriter<IndexRecord> dataFileWriter = createIndexRecordWriter(options, fs)) {
+      for (IndexRecord indexRecord : indexRecords) {
+        dataFileWriter.append(indexRecord);
+      }
+    }
+
+    MetricsHandler.saveCountersToTargetPathFile(options, metrics.getMetricsResult());
+    log.info("Pipeline has been finished - {}", LocalDateTime.now());
+  }
+
+  /**
+   * Joins interpreted avro files without loading them into memory. Every record type is sorted by
+   * id using {@link SortedAvroReader}, sorted streams are merged and converted into {@link
+   * IndexRecord} one by one, memory usage is bounded by {@link
+   * IndexingPipelineOptions#getSortBufferSize()} per record type
+   */
+  @SneakyThrows
+  private static void runSortMergeJoin(
+      IndexingPipelineOptions options,
+      ExecutorService executor,
+      FileSystem fs,
+      Map<Class<? extends Record>, String> paths,
+      long lastLoadedDate,
+      long lastProcessedDate) {
+    java.nio.file.Path spillDir = null;
+    try {
+      spillDir = Files.createTempDirectory("index-record-" + options.getDatasetId() + "-");
+      sortMergeJoin(options, executor, fs, paths, spillDir, lastLoadedDate, lastProcessedDate);
+    } finally {
+      if (spillDir != null) {
+        FileUtils.deleteQuietly(spillDir.toFile());
+      }
+    }
+  }
+
+  /** Sorts avro files into the spill directory and joins them */
+  @SneakyThrows
+  private static void sortMergeJoin(
+      IndexingPipelineOptions options,
+      ExecutorService executor,
+      FileSystem fs,
+      Map<Class<? extends Record>, String> paths,
+      java.nio.file.Path spillDir,
+      long lastLoadedDate,
+      long lastProcessedDate) {
+
+    // Sort all avro files in parallel
+    Map<Class<? extends Record>, CompletableFuture<ClosableIterator<? extends Record>>> sorted =
+        new HashMap<>();
+    paths.forEach(
+        (clazz, path) ->
+            sorted.put(
+                clazz,
+                CompletableFuture.supplyAsync(
+                    () ->
+                        SortedAvroReader.readSortedRecords(
+                            options.getHdfsSiteConfig(),
+                            options.getCoreSiteConfig(),
+                            clazz,
+                            path,
+                            spillDir,
+                            options.getSortBufferSize()),
+                    executor)));
+
+    CompletableFuture<Map<String, TaxonProfile>> taxonProfileMapFeature =
+        CompletableFuture.completedFuture(Collections.emptyMap());
+    if (options.getIncludeSpeciesLists()) {
+      taxonProfileMapFeature =
+          CompletableFuture.supplyAsync(
+              () -> SpeciesListPipeline.generateTaxonProfileCollection(options), executor);
+    }
+
+    CompletableFuture.allOf(sorted.values().toArray(new CompletableFuture[0])).get();
+    Map<String, TaxonProfile> taxonProfileMap = taxonProfileMapFeature.get();
+
+    log.info("Joining sorted avro files...");
+    long counter = 0;
+    try (IdCursor<BasicRecord> basic = IdCursor.of(sorted.get(BasicRecord.class));
+        IdCursor<ExtendedRecord> verbatim = IdCursor.of(sorted.get(ExtendedRecord.class));
+        IdCursor<TemporalRecord> temporal = IdCursor.of(sorted.get(TemporalRecord.class));
+        IdCursor<LocationRecord> location = IdCursor.of(sorted.get(LocationRecord.class));
+        IdCursor<ALAUUIDRecord> alaUuid = IdCursor.of(sorted.get(ALAUUIDRecord.class));
+        IdCursor<MultimediaRecord> multimedia = IdCursor.of(sorted.get(MultimediaRecord.class));
+        IdCursor<ALATaxonRecord> alaTaxon = IdCursor.of(sorted.get(ALATaxonRecord.class));
+        IdCursor<ALAAttributionRecord> alaAttribution =
+            IdCursor.of(sorted.get(ALAAttributionRecord.class));
+        IdCursor<ALASensitivityRecord> alaSensitivity =
+            IdCursor.of(sorted.get(ALASensitivityRecord.class));
+        IdCursor<ImageRecord> image = IdCursor.of(sorted.get(ImageRecord.class));
+        DataFileWriter<IndexRecord> dataFileWriter = createIndexRecordWriter(options, fs)) {
+
+      while (basic.hasNext()) {
+        BasicRecord br = basic.next();
+        String k = br.getId();
+
+        // Core
+        ExtendedRecord er = verbatim.seek(k, () -> ExtendedRecord.newBuilder().setId(k).build());
+        TemporalRecord tr = temporal.seek(k, () -> TemporalRecord.newBuilder().setId(k).build());
+        LocationRecord lr = location.seek(k, () -> LocationRecord.newBuilder().setId(k).build());
+        TaxonRecord txr = null;
+
+        // ALA specific
+        ALAUUIDRecord aur = alaUuid.seek(k, () -> null);
+        MultimediaRecord mr = multimedia.seek(k, () -> null);
+        ALATaxonRecord atxr = alaTaxon.seek(k, () -> ALATaxonRecord.newBuilder().setId(k).build());
+        ALAAttributionRecord aar =
+            alaAttribution.seek(k, () -> ALAAttributionRecord.newBuilder().setId(k).build());
+        ALASensitivityRecord sr = alaSensitivity.seek(k, () -> null);
+        ImageRecord isr = image.seek(k, () -> ImageRecord.newBuilder().setId(k).build());
+        TaxonProfile tpr =
+            taxonProfileMap.getOrDefault(k, TaxonProfile.newBuilder().setId(k).build());
+
+        dataFileWriter.append(
+            IndexRecordTransform.createIndexRecord(
+                br,
+                tr,
+                lr,
+                txr,
+                atxr,
+                er,
+                aar,
+                aur,
+                isr,
+                tpr,
+                sr,
+                mr,
+                lastLoadedDate,
+                lastProcessedDate));
+
+        counter++;
+        if (counter % 100_000 == 0) {
+          log.info("Joined [{}] records", counter);
+        }
+      }
+    }
+    log.info("Joined [{}] records in total", counter);
+  }
+
+  private static DataFileWriter<IndexRecord> createIndexRecordWriter(
+      IndexingPipelineOptions options, FileSystem fs) throws IOException {
     OutputStream output =
         fs.create(
             new Path(
@@ -368,16 +553,64 @@ public class IndexRecordPipeline {
                     + ".avro"));
 
     DatumWriter<IndexRecord> datumWriter = new GenericDatumWriter<>(IndexRecord.getClassSchema());
-    try (DataFileWriter<IndexRecord> dataFileWriter = new DataFileWriter<>(datumWriter)) {
-      dataFileWriter.setCodec(BASE_CODEC);
-      dataFileWriter.create(IndexRecord.getClassSchema(), output);
+    DataFileWriter<IndexRecord> dataFileWriter = new DataFileWriter<>(datumWriter);
+    dataFileWriter.setCodec(BASE_CODEC);
+    dataFileWriter.create(IndexRecord.getClassSchema(), output);
+    return dataFileWriter;
+  }
 
-      for (IndexRecord indexRecord : indexRecords) {
-        dataFileWriter.append(indexRecord);
+  /**
+   * Cursor over a stream of records sorted by {@link Record#getId()}, used to join sorted streams.
+   * For duplicated ids the last record wins, the same as for the in-memory map join
+   */
+  private static class IdCursor<T extends Record> implements AutoCloseable {
+
+    private final ClosableIterator<T> iterator;
+    private T head;
+
+    private IdCursor(ClosableIterator<T> iterator) {
+      this.iterator = iterator;
+      this.head = iterator != null && iterator.hasNext() ? iterator.next() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @SneakyThrows
+    private static <T extends Record> IdCursor<T> of(
+        CompletableFuture<ClosableIterator<? extends Record>> future) {
+      return new IdCursor<>(future == null ? null : (ClosableIterator<T>) future.get());
+    }
+
+    private boolean hasNext() {
+      return head != null;
+    }
+
+    /** Returns the last record of the next id */
+    private T next() {
+      T last = head;
+      head = iterator.hasNext() ? iterator.next() : null;
+      while (head != null && head.getId().equals(last.getId())) {
+        last = head;
+        head = iterator.hasNext() ? iterator.next() : null;
       }
+      return last;
     }
 
-    MetricsHandler.saveCountersToTargetPathFile(options, metrics.getMetricsResult());
-    log.info("Pipeline has been finished - {}", LocalDateTime.now());
+    /** Skips records with a smaller id and returns the record for the id or the default value */
+    private T seek(String id, Supplier<T> defaultFn) {
+      while (head != null && head.getId().compareTo(id) < 0) {
+        next();
+      }
+      if (head != null && head.getId().equals(id)) {
+        return next();
+      }
+      return defaultFn.get();
+    }
+
+    @Override
+    public void close() throws Exception {
+      if (iterator != null) {
+        iterator.close();
+      }
+    }
   }
 }
@@ -16,12 +16,19 @@ public interface ClusteringPipelineOptions
   void setClusteringPath(String clusteringPath);
 
   @Description(
-      "CandidatesCutoff - if we find more than this number of grouped candidates, then drop the cluster")
+      "CandidatesCutoff - if we find more than this number of grouped candidates, then split the cluster into windows or drop it if sub-blocking is disabled")
   @Default.Integer(50)
   Integer getCandidatesCutoff();
 
   void setCandidatesCutoff(Integer candidatesCutoff);
 
+  @Description(
+      "Split groups larger than CandidatesCutoff into sorted neighbourhood windows instead of dropping them")
+  @Default.Boolean(true)
+  Boolean getSubBlocking();
+
+  void setSubBlocking(Boolean subBlocking);
+
   @Description("Include sampling")
   @Default.Boolean(false)
   Boolean isOutputDebugAvro();
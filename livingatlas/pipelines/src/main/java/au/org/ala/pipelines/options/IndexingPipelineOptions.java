@@ -35,4 +35,11 @@ public interface IndexingPipelineOptions
   Boolean getIncludeSensitiveData();
 
   void setIncludeSensitiveData(Boolean includeSensitiveData);
+
+  @Description(
+      "Join interpreted avro files using an external sort-merge join instead of in-memory maps")
+  @Default.Boolean(false)
+  Boolean getStreamingJoin();
+
+  void setStreamingJoin(Boolean streamingJoin);
 }
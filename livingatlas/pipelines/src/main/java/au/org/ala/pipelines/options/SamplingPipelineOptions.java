@@ -30,6 +30,20 @@ public interface SamplingPipelineOptions extends AllDatasetsPipelinesOptions {
 
   void setDownloadRetries(Integer downloadRetries);
 
+  @Description(
+      "Number of batches processed by the sampling service at the same time, 0 runs batches one by one without checkpoints")
+  @Default.Integer(0)
+  Integer getMaxInFlightBatches();
+
+  void setMaxInFlightBatches(Integer maxInFlightBatches);
+
+  @Description(
+      "Sample only coordinates which are not sampled yet and sample existing coordinates against fields added since the last run only")
+  @Default.Boolean(false)
+  Boolean getIncrementalSampling();
+
+  void setIncrementalSampling(Boolean incrementalSampling);
+
   @Description("Keep latlng export CSVs")
   @Default.Boolean(false)
   Boolean getKeepLatLngExports();
@@ -6,12 +6,19 @@ import au.org.ala.kvs.client.ALACollectoryMetadata;
 import au.org.ala.names.ws.api.NameSearch;
 import au.org.ala.names.ws.api.NameUsageMatch;
 import au.org.ala.pipelines.interpreters.ALATaxonomyInterpreter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.BiConsumer;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.beam.sdk.transforms.MapElements;
+import org.apache.beam.sdk.transforms.windowing.GlobalWindow;
 import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.TimestampedValue;
 import org.apache.beam.sdk.values.TypeDescriptor;
 import org.gbif.kvs.KeyValueStore;
 import org.gbif.pipelines.core.functions.SerializableConsumer;
@@ -22,6 +29,7 @@ import org.gbif.pipelines.io.avro.ALATaxonRecord;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.gbif.pipelines.io.avro.TaxonRecord;
 import org.gbif.pipelines.transforms.Transform;
+import org.gbif.pipelines.transforms.common.PrefetchedKeyValueStore;
 
 /**
  * ALA taxonomy transform for adding ALA taxonomy to interpreted occurrence data.
@@ -32,6 +40,9 @@ import org.gbif.pipelines.transforms.Transform;
  * <p>ParDo runs sequence of interpretations for {@link TaxonRecord} using {@link ExtendedRecord} as
  * a source and {@link TaxonomyInterpreter} as interpretation steps
  *
+ * <p>If batchSize is greater than 1, records of a bundle are buffered and distinct name searches of
+ * a batch are looked up at once, at most maxInFlight requests at the same time
+ *
  * @see <a href="https://dwc.tdwg.org/terms/#taxon</a>
  */
 @Slf4j
@@ -46,6 +57,12 @@ public class ALATaxonomyTransform extends Transform<ExtendedRecord, ALATaxonReco
   private KeyValueStore<String, ALACollectoryMetadata> dataResourceStore;
   private final SerializableSupplier<KeyValueStore<String, ALACollectoryMetadata>>
       dataResourceStoreSupplier;
+  private final int batchSize;
+  private final int maxInFlight;
+  private transient ExecutorService executor;
+
+  // Bundle buffer for batched name matching
+  private transient List<TimestampedValue<ExtendedRecord>> buffer;
 
   @Builder(buildMethodName = "create")
   private ALATaxonomyTransform(
@@ -55,8 +72,9 @@ public class ALATaxonomyTransform extends Transform<ExtendedRecord, ALATaxonReco
       KeyValueStore<String, Boolean> kingdomCheckStore,
       SerializableSupplier<KeyValueStore<String, Boolean>> kingdomCheckStoreSupplier,
       KeyValueStore<String, ALACollectoryMetadata> dataResourceStore,
-      SerializableSupplier<KeyValueStore<String, ALACollectoryMetadata>>
-          dataResourceStoreSupplier) {
+      SerializableSupplier<KeyValueStore<String, ALACollectoryMetadata>> dataResourceStoreSupplier,
+      int batchSize,
+      int maxInFlight) {
     super(
         ALATaxonRecord.class,
         ALA_TAXONOMY,
@@ -69,6 +87,8 @@ public class ALATaxonomyTransform extends Transform<ExtendedRecord, ALATaxonReco
     this.kingdomCheckStoreSupplier = kingdomCheckStoreSupplier;
     this.dataResourceStore = dataResourceStore;
     this.dataResourceStoreSupplier = dataResourceStoreSupplier;
+    this.batchSize = batchSize;
+    this.maxInFlight = maxInFlight;
   }
 
   /** Maps {@link ALATaxonRecord} to key value, where key is {@link TaxonRecord#getId} */
@@ -103,11 +123,21 @@ public class ALATaxonomyTransform extends Transform<ExtendedRecord, ALATaxonReco
       log.info("Initialize CollectoryKvStore");
       this.dataResourceStore = this.dataResourceStoreSupplier.get();
     }
+    if (this.executor == null && isBatchEnabled()) {
+      this.executor =
+          Executors.newFixedThreadPool(
+              maxInFlight,
+              new ThreadFactoryBuilder().setDaemon(true).setNameFormat("name-match-%d").build());
+    }
   }
 
   /** Beam @Teardown closes initialized resources */
   @Teardown
   public void tearDown() {
+    if (this.executor != null) {
+      this.executor.shutdown();
+    }
+
     // This section if uncommented cause CacheClosedExceptions
     // to be thrown by the ALADefaultValuesTransform due to its use
     // of the dataResourceStore
@@ -137,14 +167,98 @@ public class ALATaxonomyTransform extends Transform<ExtendedRecord, ALATaxonReco
     //    }
   }
 
+  /** Beam @StartBundle creates the bundle buffer */
+  @StartBundle
+  public void startBundle() {
+    buffer = new ArrayList<>();
+  }
+
+  /** If batchSize is greater than 1, records are buffered and matched in batches */
+  @Override
+  @ProcessElement
+  public void processElement(ProcessContext c) {
+    if (!isBatchEnabled()) {
+      super.processElement(c);
+      return;
+    }
+    buffer.add(TimestampedValue.of(c.element(), c.timestamp()));
+    if (buffer.size() >= batchSize) {
+      List<ExtendedRecord> sources = new ArrayList<>(buffer.size());
+      buffer.forEach(tv -> sources.add(tv.getValue()));
+      buffer.clear();
+      processElements(sources).forEach(c::output);
+    }
+  }
+
+  /** Beam @FinishBundle flushes the bundle buffer, interpretation uses the global window */
+  @FinishBundle
+  public void finishBundle(FinishBundleContext c) {
+    if (buffer == null || buffer.isEmpty()) {
+      return;
+    }
+    List<ExtendedRecord> sources = new ArrayList<>(buffer.size());
+    buffer.forEach(tv -> sources.add(tv.getValue()));
+    KeyValueStore<NameSearch, NameUsageMatch> batchStore = prefetch(sources);
+    for (TimestampedValue<ExtendedRecord> tv : buffer) {
+      processElement(tv.getValue(), batchStore)
+          .ifPresent(tr -> c.output(tr, tv.getTimestamp(), GlobalWindow.INSTANCE));
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Interprets a batch of records, distinct name searches of the batch are looked up concurrently
+   * before the interpretation. Records are matched one by one if batching is disabled
+   */
+  public List<ALATaxonRecord> processElements(List<ExtendedRecord> sources) {
+    KeyValueStore<NameSearch, NameUsageMatch> batchStore = prefetch(sources);
+    List<ALATaxonRecord> result = new ArrayList<>(sources.size());
+    for (ExtendedRecord source : sources) {
+      processElement(source, batchStore).ifPresent(result::add);
+    }
+    return result;
+  }
+
+  private boolean isBatchEnabled() {
+    return batchSize > 1 && maxInFlight > 0 && nameMatchStore != null;
+  }
+
+  private KeyValueStore<NameSearch, NameUsageMatch> prefetch(List<ExtendedRecord> sources) {
+    if (executor == null) {
+      return nameMatchStore;
+    }
+    ALACollectoryMetadata dataResource = this.dataResourceStore.get(datasetId);
+    List<NameSearch> searches = new ArrayList<>(sources.size());
+    for (ExtendedRecord er : sources) {
+      if (!er.getCoreTerms().isEmpty()) {
+        searches.add(ALATaxonomyInterpreter.createNameSearch(er, dataResource));
+      }
+    }
+    return PrefetchedKeyValueStore.create(nameMatchStore, searches, executor, maxInFlight);
+  }
+
+  private Optional<ALATaxonRecord> processElement(
+      ExtendedRecord source, KeyValueStore<NameSearch, NameUsageMatch> store) {
+    long start = System.nanoTime();
+    Optional<ALATaxonRecord> convert = convert(source, store);
+    recordTime(start);
+    convert.ifPresent(t -> incCounter());
+    return convert;
+  }
+
   @Override
   public Optional<ALATaxonRecord> convert(ExtendedRecord source) {
+    return convert(source, nameMatchStore);
+  }
+
+  private Optional<ALATaxonRecord> convert(
+      ExtendedRecord source, KeyValueStore<NameSearch, NameUsageMatch> store) {
     ALACollectoryMetadata dataResource = this.dataResourceStore.get(datasetId);
     ALATaxonRecord tr = ALATaxonRecord.newBuilder().setId(source.getId()).build();
     BiConsumer<ExtendedRecord, ALATaxonRecord> sourceCheck =
         ALATaxonomyInterpreter.alaSourceQualityChecks(dataResource, kingdomCheckStore);
     BiConsumer<ExtendedRecord, ALATaxonRecord> interpret =
-        ALATaxonomyInterpreter.alaTaxonomyInterpreter(dataResource, nameMatchStore);
+        ALATaxonomyInterpreter.alaTaxonomyInterpreter(dataResource, store);
     BiConsumer<ExtendedRecord, ALATaxonRecord> resultCheck =
         ALATaxonomyInterpreter.alaResultQualityChecks(dataResource);
     Interpretation.from(source)
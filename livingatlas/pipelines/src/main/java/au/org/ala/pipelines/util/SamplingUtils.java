@@ -2,14 +2,27 @@ package au.org.ala.pipelines.util;
 
 import au.org.ala.pipelines.options.AllDatasetsPipelinesOptions;
 import au.org.ala.pipelines.options.SamplingPipelineOptions;
+import au.org.ala.sampling.Field;
 import au.org.ala.sampling.SamplingService;
 import au.org.ala.utils.ALAFsUtils;
 import au.org.ala.utils.ValidationUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -22,6 +35,9 @@ import retrofit2.converter.jackson.JacksonConverterFactory;
 @Slf4j
 public class SamplingUtils {
 
+  /** List of fields which all sampled coordinates have been sampled against */
+  public static final String SAMPLED_FIELDS_FILE = "sampled-fields.txt";
+
   public static SamplingService initSamplingService(String baseUrl) {
     ObjectMapper om =
         new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE);
@@ -68,6 +84,56 @@ public class SamplingUtils {
         + ValidationUtils.SAMPLING_METRICS;
   }
 
+  /** Returns ids of enabled fields in the sampling service */
+  public static List<String> getEnabledFields(SamplingService samplingService)
+      throws IOException {
+    return Objects.requireNonNull(samplingService.getFields().execute().body()).stream()
+        .filter(Field::getEnabled)
+        .map(Field::getId)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Reads ids of fields the existing sampling was done against, used by incremental sampling to
+   * find fields added since the last run.
+   *
+   * @return empty if the sampling wasn't done in incremental mode before
+   */
+  public static Optional<Set<String>> readSampledFields(
+      AllDatasetsPipelinesOptions options, FileSystem fs) throws IOException {
+    String path = getSampledFieldsPath(options);
+    if (!ALAFsUtils.exists(fs, path)) {
+      return Optional.empty();
+    }
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(ALAFsUtils.openInputStream(fs, path), StandardCharsets.UTF_8))) {
+      return Optional.of(
+          reader
+              .lines()
+              .map(String::trim)
+              .filter(l -> !l.isEmpty())
+              .collect(Collectors.toCollection(LinkedHashSet::new)));
+    }
+  }
+
+  /** Writes ids of fields all sampled coordinates have been sampled against, one per line */
+  public static void writeSampledFields(
+      AllDatasetsPipelinesOptions options, FileSystem fs, Collection<String> fields)
+      throws IOException {
+    String path = getSampledFieldsPath(options);
+    log.info("Writing {} sampled fields to {}", fields.size(), path);
+    try (Writer writer =
+        new OutputStreamWriter(ALAFsUtils.openOutputStream(fs, path), StandardCharsets.UTF_8)) {
+      writer.write(String.join("\n", fields));
+    }
+  }
+
+  @NotNull
+  public static String getSampledFieldsPath(AllDatasetsPipelinesOptions options) {
+    return getSamplingDirectoryPath(options) + "/" + SAMPLED_FIELDS_FILE;
+  }
+
   @NotNull
   public static String getSamplingDirectoryPath(AllDatasetsPipelinesOptions options) {
     if (options.getDatasetId() == null || "all".equals(options.getDatasetId())) {
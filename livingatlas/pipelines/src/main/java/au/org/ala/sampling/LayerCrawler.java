@@ -2,28 +2,39 @@ package au.org.ala.sampling;
 
 import au.org.ala.pipelines.options.AllDatasetsPipelinesOptions;
 import au.org.ala.pipelines.options.SamplingPipelineOptions;
+import au.org.ala.pipelines.util.SamplingUtils;
 import au.org.ala.utils.ALAFsUtils;
 import au.org.ala.utils.CombinedYamlConfiguration;
+import com.google.common.hash.Hashing;
 import java.io.*;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
 import org.gbif.pipelines.common.beam.options.PipelinesOptionsFactory;
+import org.gbif.pipelines.core.utils.BoundedBatchExecutor;
 import org.gbif.pipelines.core.utils.FsUtils;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.MDC;
@@ -34,6 +45,9 @@ import retrofit2.converter.jackson.JacksonConverterFactory;
 /**
  * A utility to crawl the ALA layers. Requires an input csv containing lat, lng (no header) and an
  * output directory.
+ *
+ * <p>If maxInFlightBatches is greater than 0, batches are sampled concurrently and resumable, see
+ * {@link #crawlConcurrently(FileSystem, String, String, String, ExecutorService)}.
  */
 @Slf4j
 public class LayerCrawler {
@@ -41,6 +55,8 @@ public class LayerCrawler {
   private static Integer batchSize;
   private static Integer batchStatusSleepTime;
   private static Integer downloadRetries;
+  private static Integer maxInFlightBatches;
+  private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
   public static final String UNKNOWN_STATUS = "unknown";
   public static final String FINISHED_STATUS = "finished";
   public static final String ERROR_STATUS = "error";
@@ -70,6 +86,7 @@ public class LayerCrawler {
     batchSize = options.getBatchSize();
     batchStatusSleepTime = options.getBatchStatusSleepTime();
     downloadRetries = options.getDownloadRetries();
+    maxInFlightBatches = options.getMaxInFlightBatches();
     log.info("Using {} service", baseUrl);
     retrofit =
         new Retrofit.Builder()
@@ -108,20 +125,43 @@ public class LayerCrawler {
     String layerList = lc.getRequiredLayers();
 
     log.info("Running sampling using lat lng files: {} ", latLngFiles.size());
-    for (String inputFile : latLngFiles) {
-      lc.crawl(fs, layerList, inputFile, sampleDownloadPath);
+    lc.crawlAll(fs, layerList, latLngFiles, sampleDownloadPath);
+    log.info("Finished layer sampling. Downloads in CSV directory: {}", sampleDownloadPath);
+
+    // Coordinates sampled by previous runs are sampled against new fields only
+    String newFieldsExportPath = getLatLngNewFieldsExportPath(options);
+    if (options.getIncrementalSampling() && ALAFsUtils.exists(fs, newFieldsExportPath)) {
+      Set<String> sampledFields =
+          SamplingUtils.readSampledFields(options, fs).orElse(Collections.emptySet());
+      String newFields =
+          Arrays.stream(layerList.split(","))
+              .filter(f -> !sampledFields.contains(f))
+              .collect(Collectors.joining(","));
+      if (!newFields.isEmpty()) {
+        String newFieldsDownloadPath = getNewFieldsDownloadPath(options);
+        log.info("Running sampling of previously sampled coordinates for new fields {}", newFields);
+        lc.crawlAll(
+            fs,
+            newFields,
+            ALAFsUtils.listPaths(fs, newFieldsExportPath),
+            newFieldsDownloadPath);
+      }
     }
 
-    log.info("Finished layer sampling. Downloads in CSV directory: {}", sampleDownloadPath);
     log.info("Converting downloaded sampling CSV to AVRO...");
     SamplesToAvro.run(options);
     log.info("Converted.");
 
+    if (options.getIncrementalSampling()) {
+      SamplingUtils.writeSampledFields(options, fs, Arrays.asList(layerList.split(",")));
+    }
+
     Instant batchFinish = Instant.now();
 
     if (!options.getKeepLatLngExports()) {
       log.info("Cleaning up lat lng export.....");
       ALAFsUtils.deleteIfExist(fs, latLngExportPath);
+      ALAFsUtils.deleteIfExist(fs, newFieldsExportPath);
     } else {
       log.info("Keeping lat lng exports {}", latLngExportPath);
     }
@@ -145,6 +185,18 @@ public class LayerCrawler {
         + "/latlng";
   }
 
+  /** Export of coordinates sampled by previous runs, used by incremental sampling */
+  @NotNull
+  public static String getLatLngNewFieldsExportPath(AllDatasetsPipelinesOptions options) {
+    return getLatLngExportPath(options) + "-new-fields";
+  }
+
+  /** Downloads of coordinates sampled by previous runs against new fields */
+  @NotNull
+  public static String getNewFieldsDownloadPath(AllDatasetsPipelinesOptions options) {
+    return getSampleDownloadPath(options) + "-new-fields";
+  }
+
   @NotNull
   public static String getSampleDownloadPath(AllDatasetsPipelinesOptions options) {
     if (options.getDatasetId() == null || "all".equals(options.getDatasetId())) {
@@ -197,6 +249,26 @@ public class LayerCrawler {
     return layers;
   }
 
+  /** Samples all files, concurrently if maxInFlightBatches is greater than 0 */
+  private void crawlAll(
+      FileSystem fs, String layers, Collection<String> inputFiles, String outputDirectoryPath)
+      throws Exception {
+    if (maxInFlightBatches > 0) {
+      ExecutorService executor = Executors.newFixedThreadPool(maxInFlightBatches);
+      try {
+        for (String inputFile : inputFiles) {
+          crawlConcurrently(fs, layers, inputFile, outputDirectoryPath, executor);
+        }
+      } finally {
+        executor.shutdown();
+      }
+    } else {
+      for (String inputFile : inputFiles) {
+        crawl(fs, layers, inputFile, outputDirectoryPath);
+      }
+    }
+  }
+
   public void crawl(FileSystem fs, String layers, String inputFilePath, String outputDirectoryPath)
       throws Exception {
 
@@ -276,6 +348,146 @@ public class LayerCrawler {
     }
   }
 
+  /**
+   * Samples the coordinates of the file with up to maxInFlightBatches batches processed by the
+   * sampling service at the same time. Coordinates are read in batches as they are submitted,
+   * downloads are unzipped while streaming straight into the output directory.
+   *
+   * <p>The CSV of a batch is named by the hash of its coordinates, the sorted layer ids and the
+   * sampling service URL, and is renamed from a temporary file only after the download completes,
+   * so the CSV is the checkpoint of the batch. A rerun of a failed sampling skips batches which
+   * already have a CSV in the output directory, a change of the layers or the service samples all
+   * batches again.
+   */
+  public void crawlConcurrently(
+      FileSystem fs,
+      String layers,
+      String inputFilePath,
+      String outputDirectoryPath,
+      ExecutorService executor)
+      throws IOException {
+
+    log.info("Sampling coordinates from file {}", inputFilePath);
+
+    AtomicInteger sampled = new AtomicInteger();
+    AtomicInteger resumed = new AtomicInteger();
+    BoundedBatchExecutor<String, Boolean> batchExecutor =
+        BoundedBatchExecutor.<String, Boolean>builder()
+            .executor(executor)
+            .batchSize(batchSize)
+            .maxInFlight(maxInFlightBatches)
+            .batchFn(partition -> sampleBatch(fs, layers, partition, outputDirectoryPath))
+            .resultConsumer(
+                (partition, isSampled) -> (isSampled ? sampled : resumed).incrementAndGet())
+            .build();
+
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(ALAFsUtils.openInputStream(fs, inputFilePath)))) {
+      reader.lines().forEach(batchExecutor::accept);
+    }
+    batchExecutor.flush();
+
+    log.info(
+        "Sampling done for file {}, batches sampled: {}, batches done by a previous run: {}",
+        inputFilePath,
+        sampled.get(),
+        resumed.get());
+  }
+
+  /** Hash of the sampling service URL, the sorted layer ids and the coordinates of a batch */
+  private static String getCheckpointId(String layers, String coords) {
+    String sortedLayers =
+        Arrays.stream(layers.split(",")).sorted().collect(Collectors.joining(","));
+    return Hashing.murmur3_128()
+        .newHasher()
+        .putString(retrofit.baseUrl().toString(), StandardCharsets.UTF_8)
+        .putChar('\n')
+        .putString(sortedLayers, StandardCharsets.UTF_8)
+        .putChar('\n')
+        .putString(coords, StandardCharsets.UTF_8)
+        .hash()
+        .toString();
+  }
+
+  /** Samples one batch, returns false if the batch was sampled by a previous run */
+  @SneakyThrows
+  private boolean sampleBatch(
+      FileSystem fs, String layers, List<String> partition, String outputDirectoryPath) {
+
+    String coords = String.join(",", partition);
+    String checkpointId = getCheckpointId(layers, coords);
+    String csvPath = outputDirectoryPath + "/" + checkpointId + ".csv";
+    if (ALAFsUtils.exists(fs, csvPath)) {
+      log.info("Batch {} was sampled by a previous run, skipping", checkpointId);
+      return false;
+    }
+
+    Instant batchStart = Instant.now();
+    Response<SamplingService.Batch> submit =
+        service.submitIntersectBatch(layers, coords).execute();
+    String batchId = submit.body().getBatchId();
+    log.info(
+        "Batch {} with {} coordinates submitted as {}", checkpointId, partition.size(), batchId);
+
+    String state = UNKNOWN_STATUS;
+    SamplingService.BatchStatus batchStatus = null;
+    while (!state.equalsIgnoreCase(FINISHED_STATUS) && !state.equalsIgnoreCase(ERROR_STATUS)) {
+      TimeUnit.MILLISECONDS.sleep(batchStatusSleepTime);
+      batchStatus = service.getBatchStatus(batchId).execute().body();
+      state = batchStatus.getStatus();
+      log.debug(
+          "batch ID {} - status: {} - time elapses {} seconds",
+          batchId,
+          state,
+          Duration.between(batchStart, Instant.now()).getSeconds());
+    }
+
+    if (state.equalsIgnoreCase(ERROR_STATUS)) {
+      log.error("Unable to download batch ID {}", batchId);
+      throw new RuntimeException(
+          "Unable to complete sampling for dataset. Check the status of sampling service for more details");
+    }
+
+    downloadAndUnzip(fs, batchId, batchStatus.getDownloadUrl(), csvPath);
+    log.info(
+        "Batch {} sampled in {} seconds",
+        batchId,
+        Duration.between(batchStart, Instant.now()).getSeconds());
+    return true;
+  }
+
+  /** Streams the zip from the download URL into the CSV file with a retries mechanism */
+  private void downloadAndUnzip(FileSystem fs, String batchId, String downloadUrl, String csvPath)
+      throws IOException {
+    String tmpPath = csvPath + ".tmp";
+    for (int i = 0; i < downloadRetries; i++) {
+      try (ZipInputStream zipInputStream =
+          new ZipInputStream(
+              new BufferedInputStream(new URL(downloadUrl).openStream(), DOWNLOAD_BUFFER_SIZE))) {
+        ZipEntry entry = zipInputStream.getNextEntry();
+        while (entry != null) {
+          if (!entry.isDirectory()) {
+            unzipFiles(fs, zipInputStream, tmpPath);
+          }
+          zipInputStream.closeEntry();
+          entry = zipInputStream.getNextEntry();
+        }
+        if (!fs.rename(new Path(tmpPath), new Path(csvPath))) {
+          throw new IOException("Unable to rename " + tmpPath + " to " + csvPath);
+        }
+        return;
+      } catch (IOException e) {
+        log.info(
+            "Download for batch {} failed, retrying attempt {} of {}",
+            batchId,
+            i + 1,
+            downloadRetries);
+      }
+    }
+    ALAFsUtils.deleteIfExist(fs, tmpPath);
+    throw new IOException("Unable to download sampling batch " + batchId + " from " + downloadUrl);
+  }
+
   /** Download the batch file with a retries mechanism. */
   private boolean downloadFile(
       FileSystem fs,
@@ -321,7 +533,7 @@ public class LayerCrawler {
       throws IOException {
     try (BufferedOutputStream bos =
         new BufferedOutputStream(ALAFsUtils.openOutputStream(fs, unzippedFilePath))) {
-      byte[] bytesIn = new byte[1024];
+      byte[] bytesIn = new byte[DOWNLOAD_BUFFER_SIZE];
       int read;
       while ((read = zipInputStream.read(bytesIn)) != -1) {
         bos.write(bytesIn, 0, read);
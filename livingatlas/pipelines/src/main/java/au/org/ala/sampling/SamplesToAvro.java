@@ -6,17 +6,26 @@ import au.org.ala.pipelines.util.SamplingUtils;
 import au.org.ala.utils.ALAFsUtils;
 import au.org.ala.utils.CombinedYamlConfiguration;
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileStream;
 import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.io.DatumWriter;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hadoop.fs.*;
 import org.gbif.pipelines.common.beam.options.PipelinesOptionsFactory;
 import org.gbif.pipelines.core.utils.FsUtils;
 import org.gbif.pipelines.io.avro.SampleRecord;
+import org.mapdb.DB;
+import org.mapdb.DBMaker;
+import org.mapdb.HTreeMap;
+import org.mapdb.Serializer;
 import org.slf4j.MDC;
 
 @Slf4j
@@ -50,6 +59,7 @@ public class SamplesToAvro {
 
     if (!ALAFsUtils.exists(fs, sampleCSVDownloadPath)) {
       log.info("No sampling to convert to AVRO. No work to be done.");
+      mergeNewFields(options, fs);
       SamplingUtils.writeSamplingMetrics(options, counter, fs);
       return;
     }
@@ -78,32 +88,7 @@ public class SamplesToAvro {
           while ((line = csvReader.readNext()) != null) {
 
             if (line.length == columnHeaders.length) {
-
-              HashMap<String, String> strings = new HashMap<>();
-              HashMap<String, Double> doubles = new HashMap<>();
-
-              // first two columns are latitude,longitude
-              for (int i = 2; i < columnHeaders.length; i++) {
-                if (StringUtils.trimToNull(line[i]) != null) {
-                  if (columnHeaders[i].startsWith("el")) {
-                    try {
-                      doubles.put(columnHeaders[i], Double.parseDouble(line[i]));
-                    } catch (NumberFormatException ex) {
-                      // do something
-                    }
-                  } else {
-                    strings.put(columnHeaders[i], line[i]);
-                  }
-                }
-              }
-
-              SampleRecord sampleRecord =
-                  SampleRecord.newBuilder()
-                      .setLatLng(line[0] + "," + line[1])
-                      .setDoubles(doubles)
-                      .setStrings(strings)
-                      .build();
-              dataFileWriter.append(sampleRecord);
+              dataFileWriter.append(toSampleRecord(columnHeaders, line));
               counter = +1;
             }
           }
@@ -112,6 +97,8 @@ public class SamplesToAvro {
       }
     }
 
+    mergeNewFields(options, fs);
+
     if (!options.getKeepSamplingDownloads()) {
       log.info("Deleting sampling CSV downloads.");
       ALAFsUtils.deleteIfExist(fs, sampleCSVDownloadPath);
@@ -123,4 +110,128 @@ public class SamplesToAvro {
     SamplingUtils.writeSamplingMetrics(options, counter, fs);
     log.info("Conversion to avro complete.");
   }
+
+  /** Converts a sampling CSV line, the first two columns are latitude,longitude */
+  private static SampleRecord toSampleRecord(String[] columnHeaders, String[] line) {
+    HashMap<String, String> strings = new HashMap<>();
+    HashMap<String, Double> doubles = new HashMap<>();
+
+    for (int i = 2; i < columnHeaders.length; i++) {
+      if (StringUtils.trimToNull(line[i]) != null) {
+        if (columnHeaders[i].startsWith("el")) {
+          try {
+            doubles.put(columnHeaders[i], Double.parseDouble(line[i]));
+          } catch (NumberFormatException ex) {
+            // do something
+          }
+        } else {
+          strings.put(columnHeaders[i], line[i]);
+        }
+      }
+    }
+
+    return SampleRecord.newBuilder()
+        .setLatLng(line[0] + "," + line[1])
+        .setDoubles(doubles)
+        .setStrings(strings)
+        .build();
+  }
+
+  /**
+   * Incremental sampling: merges samples of previously sampled coordinates against new fields into
+   * the existing sampling AVRO files. New samples are spilled to a temporary MapDB file keyed by
+   * lat lng, every AVRO file is rewritten once.
+   */
+  private static void mergeNewFields(SamplingPipelineOptions options, FileSystem fs)
+      throws IOException {
+
+    String newFieldsDownloadPath = LayerCrawler.getNewFieldsDownloadPath(options);
+    if (!ALAFsUtils.exists(fs, newFieldsDownloadPath)) {
+      return;
+    }
+
+    DB db =
+        DBMaker.tempFileDB()
+            .fileMmapEnableIfSupported()
+            .cleanerHackEnable()
+            .fileChannelEnable()
+            .make();
+    try {
+      HTreeMap<String, byte[]> newSamples =
+          db.hashMap("samples", Serializer.STRING, Serializer.BYTE_ARRAY).create();
+
+      RemoteIterator<LocatedFileStatus> csvIter =
+          fs.listFiles(new Path(newFieldsDownloadPath), false);
+      while (csvIter.hasNext()) {
+        Path csvPath = csvIter.next().getPath();
+        if (csvPath.getName().endsWith(".csv")) {
+          try (CSVReader csvReader = new CSVReader(new InputStreamReader(fs.open(csvPath)))) {
+            String[] columnHeaders = csvReader.readNext();
+            String[] line;
+            while ((line = csvReader.readNext()) != null) {
+              if (line.length == columnHeaders.length) {
+                SampleRecord sampleRecord = toSampleRecord(columnHeaders, line);
+                newSamples.put(sampleRecord.getLatLng(), toBytes(sampleRecord));
+              }
+            }
+          }
+        }
+      }
+      log.info("Merging {} samples of new fields into existing sampling", newSamples.size());
+
+      long merged = 0;
+      String samplingDir = SamplingUtils.getSamplingDirectoryPath(options);
+      RemoteIterator<LocatedFileStatus> avroIter = fs.listFiles(new Path(samplingDir), false);
+      while (avroIter.hasNext()) {
+        Path avroPath = avroIter.next().getPath();
+        if (avroPath.getName().endsWith(".avro")) {
+          merged += mergeFile(fs, avroPath, newSamples);
+        }
+      }
+      log.info("Merged new fields into {} sampled coordinates", merged);
+    } finally {
+      db.close();
+    }
+
+    if (!options.getKeepSamplingDownloads()) {
+      ALAFsUtils.deleteIfExist(fs, newFieldsDownloadPath);
+    }
+  }
+
+  /** Rewrites the AVRO file with new fields added, returns the number of updated records */
+  private static long mergeFile(FileSystem fs, Path avroPath, Map<String, byte[]> newSamples)
+      throws IOException {
+    long merged = 0;
+    Path tmpPath = avroPath.suffix(".merge");
+    try (InputStream input = fs.open(avroPath);
+        DataFileStream<SampleRecord> reader =
+            new DataFileStream<>(input, new SpecificDatumReader<>(SampleRecord.class));
+        OutputStream output = fs.create(tmpPath, true);
+        DataFileWriter<SampleRecord> writer =
+            new DataFileWriter<>(new SpecificDatumWriter<>(SampleRecord.class))) {
+      writer.setCodec(BASE_CODEC);
+      writer.create(SampleRecord.getClassSchema(), output);
+      for (SampleRecord sampleRecord : reader) {
+        byte[] newSample = newSamples.get(sampleRecord.getLatLng());
+        if (newSample != null) {
+          SampleRecord newRecord = SampleRecord.fromByteBuffer(ByteBuffer.wrap(newSample));
+          sampleRecord.getStrings().putAll(newRecord.getStrings());
+          sampleRecord.getDoubles().putAll(newRecord.getDoubles());
+          merged++;
+        }
+        writer.append(sampleRecord);
+      }
+    }
+    if (!fs.delete(avroPath, false) || !fs.rename(tmpPath, avroPath)) {
+      throw new IOException("Unable to replace " + avroPath + " with merged " + tmpPath);
+    }
+    return merged;
+  }
+
+  private static byte[] toBytes(SampleRecord sampleRecord) throws IOException {
+    ByteBuffer buffer = sampleRecord.toByteBuffer();
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
 }
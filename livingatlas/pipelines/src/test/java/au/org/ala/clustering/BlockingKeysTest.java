@@ -0,0 +1,96 @@
+package au.org.ala.clustering;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BlockingKeysTest {
+
+  @Test
+  public void smallGroupSingleWindowTest() {
+
+    // State
+    List<HashKeyOccurrence> candidates = occurrences(10);
+
+    // When
+    List<List<HashKeyOccurrence>> windows = BlockingKeys.windows(candidates, 49);
+
+    // Should
+    Assert.assertEquals(1, windows.size());
+    Assert.assertEquals(10, windows.get(0).size());
+  }
+
+  @Test
+  public void oversizedGroupWindowsTest() {
+
+    // State
+    int size = 1_000;
+    int windowSize = 49;
+    List<HashKeyOccurrence> candidates = occurrences(size);
+
+    // When
+    List<List<HashKeyOccurrence>> windows = BlockingKeys.windows(candidates, windowSize);
+
+    // Should
+    long comparisons = 0;
+    for (List<HashKeyOccurrence> window : windows) {
+      Assert.assertTrue(window.size() <= windowSize);
+      comparisons += BlockingKeys.comparisons(window.size());
+    }
+    // Every record is in a window, the last one too
+    List<HashKeyOccurrence> last = windows.get(windows.size() - 1);
+    Assert.assertEquals("rec0999", last.get(last.size() - 1).getId());
+    // Linear instead of size * (size - 1) / 2
+    Assert.assertTrue(comparisons < (long) size * windowSize);
+    Assert.assertTrue(comparisons < BlockingKeys.comparisons(size) / 10);
+  }
+
+  @Test
+  public void neighboursShareWindowTest() {
+
+    // State
+    List<HashKeyOccurrence> candidates = occurrences(200);
+
+    // When
+    List<List<HashKeyOccurrence>> windows = BlockingKeys.windows(candidates, 20);
+
+    // Should
+    for (int i = 0; i < 199; i++) {
+      String id1 = String.format("rec%04d", i);
+      String id2 = String.format("rec%04d", i + 1);
+      boolean shared =
+          windows.stream()
+              .anyMatch(
+                  w ->
+                      w.stream().anyMatch(o -> o.getId().equals(id1))
+                          && w.stream().anyMatch(o -> o.getId().equals(id2)));
+      Assert.assertTrue(id1 + " and " + id2, shared);
+    }
+  }
+
+  @Test
+  public void keyTypesDifferTest() {
+    Assert.assertNotEquals(BlockingKeys.idKey("1", "2"), BlockingKeys.typeStatusKey("1", "2"));
+    Assert.assertEquals(
+        BlockingKeys.locationDateKey("1", -35_123L, 149_123L, 2000, 1, 2),
+        BlockingKeys.locationDateKey("1", -35_123L, 149_123L, 2000, 1, 2));
+    Assert.assertNotEquals(
+        BlockingKeys.collectorKey("1", 2000, "Smith"),
+        BlockingKeys.collectorKey("1", 2001, "Smith"));
+  }
+
+  private static List<HashKeyOccurrence> occurrences(int size) {
+    List<HashKeyOccurrence> list = new ArrayList<>(size);
+    // Added in reverse order, so windows must sort them
+    for (int i = size - 1; i >= 0; i--) {
+      list.add(
+          HashKeyOccurrenceBuilder.aHashKeyOccurrence()
+              .withId(String.format("rec%04d", i))
+              .withRecordedBy(String.format("collector %03d", i / 10))
+              .withCatalogNumber(String.format("C%04d", i))
+              .build());
+    }
+    return list;
+  }
+}
@@ -0,0 +1,123 @@
+package au.org.ala.kvs.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import au.org.ala.kvs.PersistentCacheConfig;
+import au.org.ala.names.ws.api.NameSearch;
+import au.org.ala.names.ws.api.NameUsageMatch;
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.gbif.kvs.KeyValueStore;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PersistentKeyValueStoreTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final AtomicInteger calls = new AtomicInteger();
+
+  private final KeyValueStore<NameSearch, NameUsageMatch> source =
+      new KeyValueStore<NameSearch, NameUsageMatch>() {
+        @Override
+        public NameUsageMatch get(NameSearch key) {
+          calls.incrementAndGet();
+          return NameUsageMatch.builder()
+              .success(true)
+              .scientificName(key.getScientificName())
+              .taxonConceptID("urn:" + key.getScientificName())
+              .build();
+        }
+
+        @Override
+        public void close() {
+          // NOP
+        }
+      };
+
+  @Test
+  public void persistedBetweenRunsTest() throws Exception {
+
+    // State
+    PersistentCacheConfig config = config("1");
+    NameSearch search = NameSearch.builder().scientificName("Macropus rufus").build();
+
+    // When
+    PersistentKeyValueStore<NameSearch, NameUsageMatch> first = open(config);
+    first.get(search);
+    first.get(search);
+    first.close();
+
+    PersistentKeyValueStore<NameSearch, NameUsageMatch> second = open(config);
+    NameUsageMatch match = second.get(search);
+    second.close();
+
+    // Should
+    assertEquals(1, calls.get());
+    assertEquals(1, first.getMisses());
+    assertEquals(1, first.getHits());
+    assertEquals(1, second.getHits());
+    assertEquals("urn:Macropus rufus", match.getTaxonConceptID());
+  }
+
+  @Test
+  public void versionChangeTest() throws Exception {
+
+    // State
+    NameSearch search = NameSearch.builder().scientificName("Osphranter rufus").build();
+
+    // When
+    PersistentKeyValueStore<NameSearch, NameUsageMatch> first = open(config("1"));
+    first.get(search);
+    first.close();
+
+    PersistentKeyValueStore<NameSearch, NameUsageMatch> second = open(config("2"));
+    second.get(search);
+    second.close();
+
+    // Should
+    assertEquals(2, calls.get());
+    assertEquals(0, second.getHits());
+  }
+
+  @Test
+  public void fileInUseTest() throws Exception {
+
+    // State
+    PersistentCacheConfig config = config("1");
+    config.setMaxFiles(1);
+
+    // When
+    PersistentKeyValueStore<NameSearch, NameUsageMatch> first = open(config);
+    KeyValueStore<NameSearch, NameUsageMatch> second =
+        PersistentKeyValueStore.wrap(source, NameUsageMatch.class, "test", config);
+    first.close();
+
+    // Should
+    assertNotSame(source, first);
+    assertSame(source, second);
+  }
+
+  @Test
+  public void disabledTest() {
+    assertSame(
+        source,
+        PersistentKeyValueStore.wrap(
+            source, NameUsageMatch.class, "test", new PersistentCacheConfig()));
+  }
+
+  private PersistentCacheConfig config(String version) {
+    PersistentCacheConfig config = new PersistentCacheConfig();
+    config.setLocalDir(new File(folder.getRoot(), "cache").getAbsolutePath());
+    config.setVersion(version);
+    return config;
+  }
+
+  private PersistentKeyValueStore<NameSearch, NameUsageMatch> open(PersistentCacheConfig config) {
+    return (PersistentKeyValueStore<NameSearch, NameUsageMatch>)
+        PersistentKeyValueStore.wrap(source, NameUsageMatch.class, "test", config);
+  }
+}
@@ -0,0 +1,121 @@
+package au.org.ala.kvs.client;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+public class ShapeFileIndexTest {
+
+  private static final GeometryFactory FACTORY = new GeometryFactory();
+
+  @Test
+  public void interiorCellTest() {
+
+    // State
+    ShapeFileIndex index = index(box(110, 155, -45, -10), "AU");
+
+    // When
+    String first = index.intersect(133.001, -25.001);
+    String second = index.intersect(133.002, -25.002);
+
+    // Should
+    Assert.assertEquals("AU", first);
+    Assert.assertEquals("AU", second);
+    Assert.assertEquals(1, index.cachedCells());
+  }
+
+  @Test
+  public void borderCellTest() {
+
+    // State
+    ShapeFileIndex index = index(box(110, 155, -45, -10), "AU");
+
+    // When
+    String inside = index.intersect(154.999, -20.0);
+    String outside = index.intersect(155.001, -20.0);
+
+    // Should
+    Assert.assertEquals("AU", inside);
+    Assert.assertNull(outside);
+  }
+
+  @Test
+  public void noPolygonTest() {
+
+    // State
+    ShapeFileIndex index = index(box(110, 155, -45, -10), "AU");
+
+    // When
+    String result = index.intersect(0.0, 0.0);
+
+    // Should
+    Assert.assertNull(result);
+    Assert.assertNull(index.intersect(0.0, 0.0));
+  }
+
+  @Test
+  public void overlappingPolygonsTest() {
+
+    // State
+    ShapeFileIndex index =
+        new ShapeFileIndex(
+            Arrays.asList(box(0, 10, 0, 10), box(5, 15, 5, 15)),
+            Arrays.asList("first", "second"),
+            ShapeFileIndex.DEFAULT_CELL_SIZE,
+            ShapeFileIndex.DEFAULT_MAX_CELLS);
+
+    // Should
+    Assert.assertEquals("first", index.intersect(7.0, 7.0));
+    Assert.assertEquals("first", index.intersect(7.005, 7.005));
+    Assert.assertEquals("second", index.intersect(12.0, 12.0));
+    Assert.assertEquals("first", index.intersect(2.0, 2.0));
+  }
+
+  @Test
+  public void maxCellsTest() {
+
+    // State
+    ShapeFileIndex index =
+        new ShapeFileIndex(Arrays.asList(box(110, 155, -45, -10)), Arrays.asList("AU"), 0.01, 2);
+
+    // When
+    List<String> results =
+        Arrays.asList(
+            index.intersect(120.0, -20.0),
+            index.intersect(130.0, -20.0),
+            index.intersect(140.0, -20.0),
+            index.intersect(0.0, 0.0));
+
+    // Should
+    Assert.assertEquals(Arrays.asList("AU", "AU", "AU", null), results);
+    Assert.assertEquals(2, index.cachedCells());
+  }
+
+  @Test
+  public void outOfRangeTest() {
+
+    // State
+    ShapeFileIndex index = index(box(110, 155, -45, -10), "AU");
+
+    // Should
+    Assert.assertNull(index.intersect(200.0, -20.0));
+    Assert.assertNull(index.intersect(Double.NaN, -20.0));
+    Assert.assertEquals(0, index.cachedCells());
+  }
+
+  private static ShapeFileIndex index(Geometry geometry, String value) {
+    return new ShapeFileIndex(
+        Arrays.asList(geometry),
+        Arrays.asList(value),
+        ShapeFileIndex.DEFAULT_CELL_SIZE,
+        ShapeFileIndex.DEFAULT_MAX_CELLS);
+  }
+
+  private static Geometry box(double minX, double maxX, double minY, double maxY) {
+    return FACTORY.toGeometry(new Envelope(minX, maxX, minY, maxY));
+  }
+}
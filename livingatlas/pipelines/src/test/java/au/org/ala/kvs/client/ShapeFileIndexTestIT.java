@@ -0,0 +1,205 @@
+package au.org.ala.kvs.client;
+
+import au.org.ala.kvs.ShapeFile;
+import au.org.ala.util.TestUtils;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import org.geotools.data.shapefile.ShapefileDataStore;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.type.AttributeDescriptor;
+
+/**
+ * Compares {@link ShapeFileIndex} with a brute force scan of all polygons in file order, using
+ * random points over the political shape file, which has multi-polygons, polygons with holes and
+ * polygons split at the antimeridian.
+ */
+@Slf4j
+public class ShapeFileIndexTestIT {
+
+  private static final GeometryFactory FACTORY = new GeometryFactory();
+
+  private static ShapeFileIndex index;
+  private static List<Geometry> geometries;
+  private static List<String> values;
+
+  @BeforeClass
+  public static void beforeClass() throws Exception {
+    ShapeFile country = TestUtils.getConfig().getGeocodeConfig().getCountry();
+    index = ShapeFileIndex.load(country.getPath(), country.getField());
+    geometries = new ArrayList<>();
+    values = new ArrayList<>();
+
+    ShapefileDataStore store =
+        new ShapefileDataStore(new File(country.getPath() + ".shp").toURI().toURL());
+    try {
+      String attribute = null;
+      for (AttributeDescriptor descriptor : store.getSchema().getAttributeDescriptors()) {
+        if (descriptor.getLocalName().equalsIgnoreCase(country.getField())) {
+          attribute = descriptor.getLocalName();
+        }
+      }
+      SimpleFeatureIterator features = store.getFeatureSource().getFeatures().features();
+      try {
+        while (features.hasNext()) {
+          SimpleFeature feature = features.next();
+          Object value = feature.getAttribute(attribute);
+          geometries.add((Geometry) feature.getDefaultGeometry());
+          values.add(value == null ? null : value.toString().trim());
+        }
+      } finally {
+        features.close();
+      }
+    } finally {
+      store.dispose();
+    }
+  }
+
+  @Test
+  public void randomPointsTest() {
+
+    // State
+    Random random = new Random(42L);
+
+    // When
+    int mismatches = 0;
+    int found = 0;
+    for (int i = 0; i < 20_000; i++) {
+      double longitude = random.nextDouble() * 360d - 180d;
+      double latitude = random.nextDouble() * 180d - 90d;
+      String expected = bruteForce(longitude, latitude);
+      mismatches += compare(longitude, latitude, expected);
+      found += expected == null ? 0 : 1;
+    }
+
+    // Should
+    Assert.assertTrue(found > 0);
+    Assert.assertEquals(0, mismatches);
+  }
+
+  @Test
+  public void clusteredPointsTest() {
+
+    // State
+    Random random = new Random(7L);
+    // Many points per cell, so cached interior and empty cells are reused
+    double[][] centers = randomCenters(random, 500);
+
+    // When
+    int mismatches = 0;
+    for (double[] center : centers) {
+      for (int i = 0; i < 20; i++) {
+        double longitude = center[0] + random.nextDouble() * 0.02;
+        double latitude = center[1] + random.nextDouble() * 0.02;
+        mismatches += compare(longitude, latitude, bruteForce(longitude, latitude));
+      }
+    }
+
+    // Should
+    Assert.assertEquals(0, mismatches);
+  }
+
+  @Test
+  public void holeTest() {
+
+    // State, Lesotho is a hole in the South Africa polygon
+    Random random = new Random(11L);
+
+    // When
+    int mismatches = 0;
+    List<String> found = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      double longitude = 26.5 + random.nextDouble() * 3.5;
+      double latitude = -31.0 + random.nextDouble() * 3.0;
+      String expected = bruteForce(longitude, latitude);
+      mismatches += compare(longitude, latitude, expected);
+      found.add(expected);
+    }
+
+    // Should
+    Assert.assertEquals(0, mismatches);
+    Assert.assertTrue(found.contains("ZA"));
+    Assert.assertTrue(found.contains("LS"));
+  }
+
+  @Test
+  public void antimeridianTest() {
+
+    // State, Fiji and Russia are split at the antimeridian
+    Random random = new Random(13L);
+
+    // When
+    int mismatches = 0;
+    List<String> east = new ArrayList<>();
+    List<String> west = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      boolean isEast = i % 2 == 0;
+      double offset = random.nextDouble() * 3.0;
+      double longitude = isEast ? 180d - offset : -180d + offset;
+      double latitude =
+          i % 4 < 2 ? -19.0 + random.nextDouble() * 4.0 : 64.0 + random.nextDouble() * 8.0;
+      String expected = bruteForce(longitude, latitude);
+      mismatches += compare(longitude, latitude, expected);
+      (isEast ? east : west).add(expected);
+    }
+
+    // Should
+    Assert.assertEquals(0, mismatches);
+    Assert.assertTrue(east.contains("FJ") && west.contains("FJ"));
+    Assert.assertTrue(east.contains("RU") && west.contains("RU"));
+  }
+
+  /** Centers of random cells, half of them near polygon borders */
+  private static double[][] randomCenters(Random random, int count) {
+    double[][] centers = new double[count][];
+    for (int i = 0; i < count; i++) {
+      if (i % 2 == 0) {
+        centers[i] =
+            new double[] {random.nextDouble() * 359d - 180d, random.nextDouble() * 179d - 90d};
+      } else {
+        Geometry geometry = null;
+        while (geometry == null || geometry.isEmpty()) {
+          geometry = geometries.get(random.nextInt(geometries.size()));
+        }
+        Coordinate[] coordinates = geometry.getCoordinates();
+        Coordinate c = coordinates[random.nextInt(coordinates.length)];
+        centers[i] = new double[] {Math.min(c.x, 179.98) - 0.01, Math.min(c.y, 89.98) - 0.01};
+      }
+    }
+    return centers;
+  }
+
+  private static int compare(double longitude, double latitude, String expected) {
+    String result = index.intersect(longitude, latitude);
+    if (expected == null ? result != null : !expected.equals(result)) {
+      log.warn("Mismatch at {},{}: {} != {}", longitude, latitude, result, expected);
+      return 1;
+    }
+    return 0;
+  }
+
+  /** First polygon in file order which covers the point */
+  private static String bruteForce(double longitude, double latitude) {
+    Point point = FACTORY.createPoint(new Coordinate(longitude, latitude));
+    for (int i = 0; i < geometries.size(); i++) {
+      Geometry geometry = geometries.get(i);
+      if (geometry != null
+          && !geometry.isEmpty()
+          && values.get(i) != null
+          && geometry.covers(point)) {
+        return values.get(i);
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,152 @@
+package au.org.ala.sampling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import au.org.ala.pipelines.options.SamplingPipelineOptions;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.apache.beam.sdk.options.PipelineOptionsFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LayerCrawlerTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final MockWebServer server = new MockWebServer();
+  private final AtomicInteger submitted = new AtomicInteger();
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @Before
+  public void before() throws IOException {
+    server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(RecordedRequest request) {
+            String path = request.getPath();
+            if (path.equals("/intersect/batch")) {
+              int id = submitted.incrementAndGet();
+              return json("{\"batchId\":\"" + id + "\"}");
+            }
+            if (path.startsWith("/intersect/batch/")) {
+              String id = path.substring("/intersect/batch/".length());
+              String url = server.url("/download/" + id).toString();
+              return json("{\"status\":\"finished\",\"downloadUrl\":\"" + url + "\"}");
+            }
+            if (path.startsWith("/download/")) {
+              return new MockResponse().setResponseCode(200).setBody(zip());
+            }
+            return new MockResponse().setResponseCode(404);
+          }
+        });
+    server.start();
+
+    SamplingPipelineOptions options = PipelineOptionsFactory.as(SamplingPipelineOptions.class);
+    options.setBaseUrl(server.url("/").toString());
+    options.setBatchSize(2);
+    options.setBatchStatusSleepTime(1);
+    options.setMaxInFlightBatches(2);
+    LayerCrawler.init(options);
+  }
+
+  @After
+  public void after() throws IOException {
+    executor.shutdown();
+    server.shutdown();
+  }
+
+  @Test
+  public void crawlConcurrentlyResumeTest() throws Exception {
+
+    // State
+    File input = folder.newFile("latlng.csv");
+    Files.write(
+        input.toPath(),
+        Arrays.asList("-35.1,149.1", "-35.2,149.2", "-35.3,149.3", "-35.4,149.4", "-35.5,149.5"));
+    File output = folder.newFolder("downloads");
+    FileSystem fs = FileSystem.getLocal(new Configuration());
+    LayerCrawler crawler = new LayerCrawler();
+
+    // When
+    crawler.crawlConcurrently(fs, "cl1", input.getPath(), output.getPath(), executor);
+    int firstRun = submitted.get();
+    crawler.crawlConcurrently(fs, "cl1", input.getPath(), output.getPath(), executor);
+
+    // Should
+    List<File> csvs =
+        Arrays.stream(output.listFiles())
+            .filter(f -> f.getName().endsWith(".csv"))
+            .collect(Collectors.toList());
+    assertEquals(3, firstRun);
+    assertEquals(3, submitted.get());
+    assertEquals(3, csvs.size());
+    for (File csv : csvs) {
+      assertTrue(new String(Files.readAllBytes(csv.toPath())).startsWith("latitude,longitude"));
+    }
+  }
+
+  @Test
+  public void crawlConcurrentlyLayersChangedTest() throws Exception {
+
+    // State
+    File input = folder.newFile("latlng.csv");
+    Files.write(input.toPath(), Arrays.asList("-35.1,149.1", "-35.2,149.2"));
+    File output = folder.newFolder("downloads");
+    FileSystem fs = FileSystem.getLocal(new Configuration());
+    LayerCrawler crawler = new LayerCrawler();
+
+    // When
+    crawler.crawlConcurrently(fs, "cl1", input.getPath(), output.getPath(), executor);
+    int firstRun = submitted.get();
+    crawler.crawlConcurrently(fs, "cl1,cl2", input.getPath(), output.getPath(), executor);
+    int secondRun = submitted.get();
+    crawler.crawlConcurrently(fs, "cl2,cl1", input.getPath(), output.getPath(), executor);
+
+    // Should
+    assertEquals(1, firstRun);
+    assertEquals(2, secondRun);
+    assertEquals(2, submitted.get());
+  }
+
+  private static MockResponse json(String body) {
+    return new MockResponse()
+        .setResponseCode(200)
+        .setHeader("Content-Type", "application/json")
+        .setBody(body);
+  }
+
+  private static Buffer zip() {
+    try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ZipOutputStream zip = new ZipOutputStream(bytes)) {
+      zip.putNextEntry(new ZipEntry("sample.csv"));
+      zip.write("latitude,longitude,cl1\n-35.1,149.1,ACT\n".getBytes(StandardCharsets.UTF_8));
+      zip.closeEntry();
+      zip.finish();
+      return new Buffer().write(bytes.toByteArray());
+    } catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
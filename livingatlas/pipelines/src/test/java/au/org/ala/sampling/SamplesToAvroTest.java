@@ -0,0 +1,103 @@
+package au.org.ala.sampling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import au.org.ala.pipelines.options.SamplingPipelineOptions;
+import au.org.ala.pipelines.util.SamplingUtils;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.beam.sdk.options.PipelineOptionsFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.gbif.pipelines.io.avro.SampleRecord;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SamplesToAvroTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void mergeNewFieldsTest() throws Exception {
+
+    // State
+    SamplingPipelineOptions options = PipelineOptionsFactory.as(SamplingPipelineOptions.class);
+    options.setAllDatasetsInputPath(folder.getRoot().getAbsolutePath());
+
+    File samplingDir = new File(SamplingUtils.getSamplingDirectoryPath(options));
+    samplingDir.mkdirs();
+    File existing = new File(samplingDir, "sampling-1.avro");
+    try (DataFileWriter<SampleRecord> writer =
+        new DataFileWriter<>(new SpecificDatumWriter<>(SampleRecord.class))) {
+      writer.create(SampleRecord.getClassSchema(), existing);
+      writer.append(sample("-35.1,149.1", "cl1", "ACT"));
+      writer.append(sample("-35.2,149.2", "cl1", "NSW"));
+    }
+
+    File newFieldsDir = new File(LayerCrawler.getNewFieldsDownloadPath(options));
+    newFieldsDir.mkdirs();
+    Files.write(
+        new File(newFieldsDir, "1.csv").toPath(),
+        Arrays.asList("latitude,longitude,cl2,el1", "-35.1,149.1,Forest,12.5"));
+
+    // When
+    SamplesToAvro.run(options);
+
+    // Should
+    Map<String, SampleRecord> result = new HashMap<>();
+    try (DataFileReader<SampleRecord> reader =
+        new DataFileReader<>(existing, new SpecificDatumReader<>(SampleRecord.class))) {
+      reader.forEach(sr -> result.put(sr.getLatLng(), sr));
+    }
+    assertEquals(2, result.size());
+    assertEquals("ACT", result.get("-35.1,149.1").getStrings().get("cl1"));
+    assertEquals("Forest", result.get("-35.1,149.1").getStrings().get("cl2"));
+    assertEquals(12.5d, result.get("-35.1,149.1").getDoubles().get("el1"), 0.0001d);
+    assertEquals(Collections.singletonMap("cl1", "NSW"), result.get("-35.2,149.2").getStrings());
+    assertFalse(newFieldsDir.exists());
+  }
+
+  @Test
+  public void sampledFieldsTest() throws Exception {
+
+    // State
+    SamplingPipelineOptions options = PipelineOptionsFactory.as(SamplingPipelineOptions.class);
+    options.setAllDatasetsInputPath(folder.getRoot().getAbsolutePath());
+    FileSystem fs = FileSystem.getLocal(new Configuration());
+
+    // When
+    Optional<Set<String>> before = SamplingUtils.readSampledFields(options, fs);
+    SamplingUtils.writeSampledFields(options, fs, Arrays.asList("cl1", "el1"));
+    Optional<Set<String>> after = SamplingUtils.readSampledFields(options, fs);
+
+    // Should
+    assertFalse(before.isPresent());
+    assertTrue(after.isPresent());
+    assertEquals(2, after.get().size());
+    assertTrue(after.get().contains("cl1"));
+    assertTrue(after.get().contains("el1"));
+  }
+
+  private static SampleRecord sample(String latLng, String field, String value) {
+    Map<String, String> strings = new HashMap<>();
+    strings.put(field, value);
+    return SampleRecord.newBuilder()
+        .setLatLng(latLng)
+        .setStrings(strings)
+        .setDoubles(new HashMap<>())
+        .build();
+  }
+}
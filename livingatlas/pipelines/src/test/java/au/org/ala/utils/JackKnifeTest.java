@@ -1,10 +1,12 @@
 package au.org.ala.utils;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 import au.org.ala.pipelines.jackknife.JackKnife;
+import java.util.Random;
 import org.junit.Test;
 
 /**
@@ -44,4 +46,54 @@ public class JackKnifeTest {
     assertEquals(8.0, result[0], 0.0);
     assertEquals(14.0, result[1], 0.0);
   }
+
+  @Test
+  public void primitiveJackKnife() {
+
+    // too few values
+    double[] values = new double[] {Double.NaN, Double.NaN, Double.NaN};
+    assertNull(JackKnife.jackknife(values, values.length, 1, new double[values.length]));
+
+    // valid min/max, values after count are ignored
+    values = new double[] {1.0, 2.0, 8.0, 9.0, 10.0, 11.0, 12.0, 13.0, 14.0, 16.0, 17.0, 1000.0};
+    double[] result = JackKnife.jackknife(values, 11, 10, new double[11]);
+    assertNotNull(result);
+    assertEquals(8.0, result[0], 0.0);
+    assertEquals(14.0, result[1], 0.0);
+  }
+
+  @Test
+  public void primitiveMatchesBoxedJackKnife() {
+    Random random = new Random(7);
+    double[] buffer = new double[200];
+    for (int c = 0; c < 10_000; c++) {
+      int count = 1 + random.nextInt(200);
+      double[] values = new double[count];
+      Double[] boxed = new Double[count];
+      for (int i = 0; i < count; i++) {
+        double v;
+        if (random.nextInt(10) == 0) {
+          v = Double.NaN;
+        } else if (random.nextInt(20) == 0) {
+          v = random.nextGaussian() * 1000;
+        } else if (c % 2 == 0) {
+          v = random.nextInt(20);
+        } else {
+          v = random.nextGaussian() * 10 + 50;
+        }
+        values[i] = v;
+        boxed[i] = v;
+      }
+      int threshold = random.nextInt(40);
+
+      double[] expected = JackKnife.jackknife(boxed, threshold);
+      double[] actual = JackKnife.jackknife(values, count, threshold, buffer);
+
+      if (expected == null) {
+        assertNull(actual);
+      } else {
+        assertArrayEquals(expected, actual, 0.0);
+      }
+    }
+  }
 }
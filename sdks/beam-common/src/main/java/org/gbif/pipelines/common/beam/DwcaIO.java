@@ -2,33 +2,72 @@ package org.gbif.pipelines.common.beam;
 
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ARCHIVE_TO_ER_COUNT;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.apache.beam.sdk.coders.AvroCoder;
 import org.apache.beam.sdk.coders.Coder;
+import org.apache.beam.sdk.coders.KvCoder;
+import org.apache.beam.sdk.coders.StringUtf8Coder;
 import org.apache.beam.sdk.io.BoundedSource;
+import org.apache.beam.sdk.io.OffsetBasedSource;
 import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.metrics.Metrics;
 import org.apache.beam.sdk.options.PipelineOptions;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.Flatten;
+import org.apache.beam.sdk.transforms.GroupByKey;
 import org.apache.beam.sdk.transforms.PTransform;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.SerializableFunction;
+import org.apache.beam.sdk.transforms.WithKeys;
 import org.apache.beam.sdk.transforms.display.DisplayData;
+import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PBegin;
 import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionList;
+import org.apache.commons.lang3.StringEscapeUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.directory.api.util.Strings;
+import org.gbif.dwc.Archive;
+import org.gbif.dwc.ArchiveFile;
+import org.gbif.dwc.DwcFiles;
+import org.gbif.dwc.meta.ArchiveField;
+import org.gbif.pipelines.core.converters.ExtendedRecordConverter;
 import org.gbif.pipelines.core.io.DwcaReader;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
 
 /**
  * IO operations for DwC-A formats.
  *
- * <p>Provides the ability to read a DwC-A as a bounded source, but in a non splittable manner. This
- * means that a single threaded approach to reading is enforced.
+ * <p>Provides the ability to read a DwC-A as a bounded source. Data files which have one record per
+ * line (no quote character and a UTF-8 compatible encoding) are split at line boundaries into byte
+ * ranges, so the archive is read by many workers. Extension rows are read the same way and joined
+ * to the core rows by grouping on the core id. Archives with other data files are read in a non
+ * splittable manner by a single thread.
  *
- * <p>This is intended only for demonstration usage, and not for production.
+ * <p>The archive is opened (and expanded for compressed archives) when the pipeline is constructed,
+ * the working directory must be accessible for all workers.
  *
  * <p>To use this:
  *
@@ -89,8 +128,51 @@ public class DwcaIO {
 
     @Override
     public PCollection<ExtendedRecord> expand(PBegin input) {
-      DwcaSource source = new DwcaSource(this);
-      return input.getPipeline().apply(org.apache.beam.sdk.io.Read.from(source));
+      Archive archive = openArchive();
+      ArchiveFile core = archive.getCore();
+      Set<ArchiveFile> extensions = archive.getExtensions();
+
+      boolean splittable = isSplittable(core) && extensions.stream().allMatch(DwcaIO::isSplittable);
+      if (!splittable) {
+        DwcaSource source = new DwcaSource(this, sizeOf(archive));
+        return input.getPipeline().apply(org.apache.beam.sdk.io.Read.from(source));
+      }
+
+      PCollection<ExtendedRecord> coreRows = input.apply("Read core", readFile(core, true));
+      if (extensions.isEmpty()) {
+        return coreRows;
+      }
+
+      PCollectionList<ExtendedRecord> rows = PCollectionList.of(coreRows);
+      for (ArchiveFile extension : extensions) {
+        String name = "Read " + extension.getRowType().simpleName();
+        rows = rows.and(input.apply(name, readFile(extension, false)));
+      }
+
+      return rows.apply("Flatten rows", Flatten.pCollections())
+          .apply(
+              "Key by core id",
+              WithKeys.of((SerializableFunction<ExtendedRecord, String>) ExtendedRecord::getId))
+          .setCoder(KvCoder.of(StringUtf8Coder.of(), AvroCoder.of(ExtendedRecord.class)))
+          .apply("Group by core id", GroupByKey.create())
+          .apply("Join extensions", ParDo.of(new StarJoinFn()))
+          .setCoder(AvroCoder.of(ExtendedRecord.class));
+    }
+
+    private Archive openArchive() {
+      try {
+        return unCompressed
+            ? DwcFiles.fromLocation(Paths.get(workingPath))
+            : DwcFiles.fromCompressed(Paths.get(path), Paths.get(workingPath));
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+
+    private static org.apache.beam.sdk.io.Read.Bounded<ExtendedRecord> readFile(
+        ArchiveFile file, boolean core) {
+      DwcaFileSource source = new DwcaFileSource(DwcaFileMeta.create(file, core));
+      return org.apache.beam.sdk.io.Read.from(source);
     }
 
     @Override
@@ -103,11 +185,37 @@ public class DwcaIO {
     }
   }
 
+  /**
+   * Data files can be split at line boundaries only if a line is always a whole record, quoted
+   * values may contain line breaks.
+   */
+  private static boolean isSplittable(ArchiveFile file) {
+    String lines = file.getLinesTerminatedBy();
+    String charset = charsetOf(file).name();
+    return file.getFieldsEnclosedBy() == null
+        && (lines == null || lines.endsWith("\n"))
+        && !charset.startsWith("UTF-16")
+        && !charset.startsWith("UTF-32");
+  }
+
+  private static Charset charsetOf(ArchiveFile file) {
+    return file.getEncoding() == null
+        ? StandardCharsets.UTF_8
+        : Charset.forName(file.getEncoding());
+  }
+
+  private static long sizeOf(Archive archive) {
+    return Stream.concat(Stream.of(archive.getCore()), archive.getExtensions().stream())
+        .mapToLong(file -> file.getLocationFile().length())
+        .sum();
+  }
+
   /** A non-splittable bounded source. */
   @AllArgsConstructor(access = AccessLevel.PACKAGE)
   private static class DwcaSource extends BoundedSource<ExtendedRecord> {
 
     private final Read read;
+    private final long sizeBytes;
 
     @Override
     public Coder<ExtendedRecord> getOutputCoder() {
@@ -123,7 +231,7 @@ public class DwcaIO {
 
     @Override
     public long getEstimatedSizeBytes(PipelineOptions options) {
-      return 0; // unknown
+      return sizeBytes;
     }
 
     @Override
@@ -174,4 +282,264 @@ public class DwcaIO {
       return source;
     }
   }
+
+  /** Serializable description of a single data file of an archive, taken from meta.xml */
+  static class DwcaFileMeta implements Serializable {
+
+    private static final long serialVersionUID = -2376045146474120851L;
+
+    private final String path;
+    private final String rowType;
+    private final boolean core;
+    private final String charset;
+    private final String delimiter;
+    private final int ignoreHeaderLines;
+    private final Integer idIndex;
+    private final List<String> terms = new ArrayList<>();
+    private final List<Integer> indexes = new ArrayList<>();
+    private final List<String> defaultValues = new ArrayList<>();
+
+    private DwcaFileMeta(ArchiveFile file, boolean core) {
+      this.path = file.getLocationFile().getAbsolutePath();
+      this.rowType = file.getRowType().qualifiedName();
+      this.core = core;
+      this.charset = charsetOf(file).name();
+      this.delimiter = file.getFieldsTerminatedBy() == null ? "\t" : file.getFieldsTerminatedBy();
+      this.ignoreHeaderLines =
+          file.getIgnoreHeaderLines() == null ? 0 : file.getIgnoreHeaderLines();
+      this.idIndex = file.getId() == null ? null : file.getId().getIndex();
+      for (ArchiveField field : file.getFields().values()) {
+        terms.add(field.getTerm().qualifiedName());
+        indexes.add(field.getIndex());
+        defaultValues.add(field.getDefaultValue());
+      }
+    }
+
+    static DwcaFileMeta create(ArchiveFile file, boolean core) {
+      return new DwcaFileMeta(file, core);
+    }
+  }
+
+  /**
+   * Splittable source of a single data file, offsets are byte positions. A record belongs to the
+   * range where its line starts.
+   *
+   * <p>Core rows are read as {@link ExtendedRecord} without extensions, extension rows as {@link
+   * ExtendedRecord} with the core id and the row under {@link ExtendedRecord#getExtensions()}.
+   */
+  static class DwcaFileSource extends OffsetBasedSource<ExtendedRecord> {
+
+    private static final long serialVersionUID = 5092353451460213540L;
+
+    private static final long MIN_BUNDLE_SIZE = 1024L * 1024L;
+
+    private final DwcaFileMeta meta;
+
+    DwcaFileSource(DwcaFileMeta meta) {
+      this(meta, 0, Long.MAX_VALUE);
+    }
+
+    private DwcaFileSource(DwcaFileMeta meta, long startOffset, long endOffset) {
+      super(startOffset, endOffset, MIN_BUNDLE_SIZE);
+      this.meta = meta;
+    }
+
+    @Override
+    public long getMaxEndOffset(PipelineOptions options) {
+      return Paths.get(meta.path).toFile().length();
+    }
+
+    @Override
+    public OffsetBasedSource<ExtendedRecord> createSourceForSubrange(long start, long end) {
+      return new DwcaFileSource(meta, start, end);
+    }
+
+    @Override
+    public OffsetBasedReader<ExtendedRecord> createReader(PipelineOptions options) {
+      return new DwcaFileReader(this);
+    }
+
+    @Override
+    public Coder<ExtendedRecord> getOutputCoder() {
+      return AvroCoder.of(ExtendedRecord.class);
+    }
+
+    @Override
+    public void populateDisplayData(DisplayData.Builder builder) {
+      super.populateDisplayData(builder);
+      builder.add(DisplayData.item("DwC-A data file", meta.path));
+    }
+  }
+
+  /** Reads lines of a byte range and converts them following dwca-io rules */
+  private static class DwcaFileReader extends OffsetBasedSource.OffsetBasedReader<ExtendedRecord> {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Set<String> NULL_VALUES = new HashSet<>(Arrays.asList("NULL", "\\N"));
+
+    private final Counter dwcaCount = Metrics.counter("DwcaIO", ARCHIVE_TO_ER_COUNT);
+
+    private final DwcaFileMeta meta;
+    private final Pattern delimiter;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+    private FileChannel channel;
+    private InputStream stream;
+    private int position;
+    private int limit;
+    // Offset of the next unread byte
+    private long offset;
+    private long currentOffset;
+    private ExtendedRecord current;
+
+    private DwcaFileReader(DwcaFileSource source) {
+      super(source);
+      this.meta = source.meta;
+      this.delimiter = Pattern.compile(Pattern.quote(meta.delimiter));
+    }
+
+    @Override
+    protected long getCurrentOffset() {
+      return currentOffset;
+    }
+
+    @Override
+    protected boolean startImpl() throws IOException {
+      channel = FileChannel.open(Paths.get(meta.path));
+      stream = Channels.newInputStream(channel);
+
+      for (int i = 0; i < meta.ignoreHeaderLines; i++) {
+        readLine();
+      }
+
+      long start = getCurrentSource().getStartOffset();
+      if (start > offset) {
+        // Skip the line which started in the previous range
+        seek(start - 1);
+        readLine();
+      }
+      return advanceImpl();
+    }
+
+    @Override
+    protected boolean advanceImpl() throws IOException {
+      while (true) {
+        currentOffset = offset;
+        if (!readLine()) {
+          return false;
+        }
+        byte[] bytes = line.toByteArray();
+        int length = bytes.length;
+        if (length > 0 && bytes[length - 1] == '\r') {
+          length--;
+        }
+        if (length > 0) {
+          String value = new String(bytes, 0, length, meta.charset);
+          current = convert(delimiter.split(value, -1));
+          if (meta.core) {
+            dwcaCount.inc();
+          }
+          return true;
+        }
+      }
+    }
+
+    @Override
+    public ExtendedRecord getCurrent() {
+      return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (channel != null) {
+        channel.close();
+      }
+    }
+
+    private void seek(long newOffset) throws IOException {
+      channel.position(newOffset);
+      offset = newOffset;
+      position = 0;
+      limit = 0;
+    }
+
+    /** Reads the next line without the line break into {@link #line} */
+    private boolean readLine() throws IOException {
+      line.reset();
+      boolean read = false;
+      while (true) {
+        if (position == limit) {
+          limit = Math.max(stream.read(buffer, 0, buffer.length), 0);
+          position = 0;
+          if (limit == 0) {
+            return read;
+          }
+        }
+        read = true;
+        int start = position;
+        while (position < limit && buffer[position] != '\n') {
+          position++;
+        }
+        line.write(buffer, start, position - start);
+        offset += position - start;
+        if (position < limit) {
+          position++;
+          offset++;
+          return true;
+        }
+      }
+    }
+
+    private ExtendedRecord convert(String[] row) {
+      Map<String, String> terms = new HashMap<>(meta.terms.size() * 2);
+      for (int i = 0; i < meta.terms.size(); i++) {
+        String value = value(row, meta.indexes.get(i), meta.defaultValues.get(i));
+        if (value != null) {
+          terms.put(meta.terms.get(i), value);
+        }
+      }
+      String id = value(row, meta.idIndex, null);
+
+      if (meta.core) {
+        return ExtendedRecordConverter.from(meta.rowType, id, terms);
+      }
+      return ExtendedRecord.newBuilder()
+          .setId(id == null ? "" : id)
+          .setExtensions(
+              Collections.singletonMap(meta.rowType, Collections.singletonList(terms)))
+          .build();
+    }
+
+    /** Same as dwca-io records: null literals are removed, empty values use the default value */
+    private static String value(String[] row, Integer index, String defaultValue) {
+      String value = index != null && index < row.length ? row[index] : null;
+      if (StringUtils.isBlank(value) || NULL_VALUES.contains(value)) {
+        return defaultValue;
+      }
+      return value.indexOf('&') >= 0 ? StringEscapeUtils.unescapeHtml4(value) : value;
+    }
+  }
+
+  /** Joins extension rows to core rows with the same core id */
+  private static class StarJoinFn
+      extends DoFn<KV<String, Iterable<ExtendedRecord>>, ExtendedRecord> {
+
+    @ProcessElement
+    public void processElement(ProcessContext c) {
+      List<ExtendedRecord> cores = new ArrayList<>(1);
+      Map<String, List<Map<String, String>>> extensions = new HashMap<>();
+      for (ExtendedRecord er : c.element().getValue()) {
+        if (er.getExtensions().isEmpty()) {
+          cores.add(er);
+        } else {
+          er.getExtensions()
+              .forEach((k, v) -> extensions.computeIfAbsent(k, x -> new ArrayList<>()).addAll(v));
+        }
+      }
+      for (ExtendedRecord core : cores) {
+        c.output(ExtendedRecord.newBuilder(core).setExtensions(extensions).build());
+      }
+    }
+  }
 }
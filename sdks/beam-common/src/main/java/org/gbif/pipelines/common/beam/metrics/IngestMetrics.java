@@ -1,24 +1,36 @@
 package org.gbif.pipelines.common.beam.metrics;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import org.apache.beam.runners.core.metrics.DefaultMetricResults;
+import org.apache.beam.sdk.metrics.DistributionResult;
+import org.apache.beam.sdk.metrics.GaugeResult;
 import org.apache.beam.sdk.metrics.MetricKey;
 import org.apache.beam.sdk.metrics.MetricName;
 import org.apache.beam.sdk.metrics.MetricResult;
 import org.apache.beam.sdk.metrics.MetricResults;
+import org.joda.time.Instant;
 
 /**
  * Metrics to support org.gbif.pipelines.transforms.Transform counters, wrapper on top of {@link
  * org.apache.beam.sdk.metrics.MetricResults}
+ *
+ * <p>Timers are created on the first {@link #recordTime}, a timer is exported as a distribution in
+ * microseconds, same as a Beam distribution, and its percentiles as gauges, see {@link
+ * #PERCENTILES}
  */
 @AllArgsConstructor(staticName = "create")
 public class IngestMetrics {
 
+  public static final int[] PERCENTILES = {50, 90, 99};
+
   private final Map<String, String> nameSpaceMap = new HashMap<>();
   private final Map<String, AtomicLong> valueMap = new HashMap<>();
+  private final Map<String, LatencyHistogram> timerMap = new ConcurrentHashMap<>();
 
   public IngestMetrics addMetric(Class<?> namespace, String name) {
     return addMetric(namespace.getName(), name);
@@ -34,6 +46,15 @@ public class IngestMetrics {
     return Optional.ofNullable(valueMap.get(name)).map(AtomicLong::incrementAndGet).orElse(0L);
   }
 
+  public long incMetric(String name, long value) {
+    return Optional.ofNullable(valueMap.get(name)).map(v -> v.addAndGet(value)).orElse(0L);
+  }
+
+  /** Records a latency of the timer, the same as Beam Metrics.distribution(name).update(micros) */
+  public void recordTime(String name, long nanos) {
+    timerMap.computeIfAbsent(name, n -> new LatencyHistogram()).record(nanos);
+  }
+
   public MetricResults getMetricsResult() {
     List<MetricResult<Long>> counters =
         valueMap.entrySet().stream()
@@ -47,6 +68,33 @@ public class IngestMetrics {
                 })
             .collect(Collectors.toList());
 
-    return new DefaultMetricResults(counters, Collections.emptyList(), Collections.emptyList());
+    List<MetricResult<DistributionResult>> distributions = new ArrayList<>();
+    List<MetricResult<GaugeResult>> gauges = new ArrayList<>();
+    Instant now = Instant.now();
+    timerMap.forEach(
+        (name, histogram) -> {
+          MetricKey metricKey = MetricKey.create(null, MetricName.named(getClass(), name));
+          DistributionResult distribution =
+              DistributionResult.create(
+                  toMicros(histogram.getSum()),
+                  histogram.getCount(),
+                  toMicros(histogram.getMin()),
+                  toMicros(histogram.getMax()));
+          distributions.add(MetricResult.create(metricKey, false, distribution));
+
+          for (int percentile : PERCENTILES) {
+            String gaugeName = name + "P" + percentile + "Us";
+            MetricKey gaugeKey = MetricKey.create(null, MetricName.named(getClass(), gaugeName));
+            GaugeResult gauge =
+                GaugeResult.create(toMicros(histogram.getPercentile(percentile)), now);
+            gauges.add(MetricResult.create(gaugeKey, false, gauge));
+          }
+        });
+
+    return new DefaultMetricResults(counters, distributions, gauges);
+  }
+
+  private static long toMicros(long nanos) {
+    return TimeUnit.NANOSECONDS.toMicros(nanos);
   }
 }
@@ -6,6 +6,8 @@ import java.util.function.Function;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.beam.sdk.metrics.DistributionResult;
+import org.apache.beam.sdk.metrics.GaugeResult;
 import org.apache.beam.sdk.metrics.MetricQueryResults;
 import org.apache.beam.sdk.metrics.MetricResult;
 import org.apache.beam.sdk.metrics.MetricResults;
@@ -20,6 +22,9 @@ import org.gbif.pipelines.core.utils.FsUtils;
 /**
  * Class to work with Apache Beam metrics, gets metrics from {@link MetricResults} and converts to a
  * yaml string format
+ *
+ * <p>Distributions are timers in microseconds, written as nameCount, nameMeanUs, nameMinUs and
+ * nameMaxUs lines, gauges are percentiles of the timers written as they are
  */
 @Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -45,6 +50,20 @@ public class MetricsHandler {
               builder.append(line);
             });
 
+    for (MetricResult<DistributionResult> mr : queryResults.getDistributions()) {
+      String name = mr.getName().getName();
+      DistributionResult distribution = mr.getAttempted();
+      builder.append(name).append("Count: ").append(distribution.getCount()).append("\n");
+      builder.append(name).append("MeanUs: ").append((long) distribution.getMean()).append("\n");
+      builder.append(name).append("MinUs: ").append(distribution.getMin()).append("\n");
+      builder.append(name).append("MaxUs: ").append(distribution.getMax()).append("\n");
+    }
+
+    for (MetricResult<GaugeResult> mr : queryResults.getGauges()) {
+      GaugeResult gauge = mr.getAttempted();
+      builder.append(mr.getName().getName()).append(": ").append(gauge.getValue()).append("\n");
+    }
+
     String result = builder.toString();
     log.info("Added pipeline metadata - {}", result.replace("\n", ", "));
     return result;
@@ -62,6 +62,33 @@ public interface BasePipelineOptions extends PipelineOptions {
 
   void setSyncThreshold(int syncThreshold);
 
+  @Description(
+      "Java based pipelines, reads and interprets records in bounded batches instead of loading all records into memory")
+  @Default.Boolean(false)
+  boolean getStreamingMode();
+
+  void setStreamingMode(boolean streamingMode);
+
+  @Description("Java based pipelines, number of records in one batch for the streaming mode")
+  @Default.Integer(1_000)
+  int getStreamingBatchSize();
+
+  void setStreamingBatchSize(int streamingBatchSize);
+
+  @Description(
+      "Java based pipelines, max number of records kept in memory before a sorted run is spilled to local disk")
+  @Default.Integer(250_000)
+  int getSortBufferSize();
+
+  void setSortBufferSize(int sortBufferSize);
+
+  @Description(
+      "Java based pipelines, every thread writes into its own avro part file instead of synchronizing on one file")
+  @Default.Boolean(false)
+  boolean getShardedAvroWriter();
+
+  void setShardedAvroWriter(boolean shardedAvroWriter);
+
   @Description("Turn off some services for testing")
   @Default.Boolean(false)
   boolean getTestMode();
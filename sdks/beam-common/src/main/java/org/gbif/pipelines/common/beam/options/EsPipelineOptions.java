@@ -21,6 +21,32 @@ public interface EsPipelineOptions extends PipelineOptions {
 
   void setEsMaxBatchSize(long esBatchSize);
 
+  @Description(
+      "Java pipelines only. Push async bulk requests with a fixed number of requests in flight, retry rejected items and adapt the batch size to the bulk latency")
+  @Default.Boolean(false)
+  boolean getEsPipelinedBulk();
+
+  void setEsPipelinedBulk(boolean esPipelinedBulk);
+
+  @Description("Max number of bulk requests in flight for the pipelined bulk mode")
+  @Default.Integer(4)
+  int getEsMaxInFlightBulks();
+
+  void setEsMaxInFlightBulks(int esMaxInFlightBulks);
+
+  @Description("Max number of retries of rejected bulk items for the pipelined bulk mode")
+  @Default.Integer(5)
+  int getEsBulkMaxRetries();
+
+  void setEsBulkMaxRetries(int esBulkMaxRetries);
+
+  @Description(
+      "Index only new and changed documents and delete removed ones, using document hashes of the previous indexing. Unchanged documents keep crawlId, lastCrawled and created of the attempt which indexed them")
+  @Default.Boolean(false)
+  boolean getEsIncrementalIndexing();
+
+  void setEsIncrementalIndexing(boolean esIncrementalIndexing);
+
   @Description("List of Elasticsearch hosts. Required for the DWCA_TO_ES_INDEX step.")
   String[] getEsHosts();
 
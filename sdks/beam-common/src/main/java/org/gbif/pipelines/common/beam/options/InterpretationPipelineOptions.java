@@ -82,6 +82,33 @@ public interface InterpretationPipelineOptions
 
   void setUseExtendedRecordId(boolean useExtendedRecordId);
 
+  @Description(
+      "Number of records per batch for gbif id generation in the Beam BasicTransform, values less than 2 disable batching")
+  @Default.Integer(0)
+  int getKeygenBatchSize();
+
+  void setKeygenBatchSize(int keygenBatchSize);
+
+  @Description(
+      "Number of records per batch for name matching in the Beam taxonomy transforms, values less than 2 disable batching")
+  @Default.Integer(0)
+  int getTaxonomyBatchSize();
+
+  void setTaxonomyBatchSize(int taxonomyBatchSize);
+
+  @Description("Maximum number of concurrent name match requests of a taxonomy batch")
+  @Default.Integer(8)
+  int getTaxonomyMaxInFlight();
+
+  void setTaxonomyMaxInFlight(int taxonomyMaxInFlight);
+
+  @Description(
+      "Interprets all record types of the verbatim records in one pass, instead of a pass per record type")
+  @Default.Boolean(false)
+  boolean isFusedInterpretation();
+
+  void setFusedInterpretation(boolean fusedInterpretation);
+
   @Description("Number of file shards")
   Integer getNumberOfShards();
 
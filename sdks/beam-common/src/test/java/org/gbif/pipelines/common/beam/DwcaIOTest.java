@@ -0,0 +1,130 @@
+package org.gbif.pipelines.common.beam;
+
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ARCHIVE_TO_ER_COUNT;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.beam.sdk.PipelineResult;
+import org.apache.beam.sdk.io.BoundedSource;
+import org.apache.beam.sdk.metrics.MetricNameFilter;
+import org.apache.beam.sdk.metrics.MetricQueryResults;
+import org.apache.beam.sdk.metrics.MetricResult;
+import org.apache.beam.sdk.metrics.MetricsFilter;
+import org.apache.beam.sdk.options.PipelineOptions;
+import org.apache.beam.sdk.options.PipelineOptionsFactory;
+import org.apache.beam.sdk.testing.NeedsRunner;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.SourceTestUtils;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.values.PCollection;
+import org.gbif.api.vocabulary.Extension;
+import org.gbif.dwc.Archive;
+import org.gbif.dwc.DwcFiles;
+import org.gbif.dwc.terms.DcTerm;
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.pipelines.common.beam.DwcaIO.DwcaFileMeta;
+import org.gbif.pipelines.common.beam.DwcaIO.DwcaFileSource;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class DwcaIOTest {
+
+  @Rule public final transient TestPipeline p = TestPipeline.create();
+
+  private final String path = getClass().getResource("/dwca/star").getPath();
+
+  @Test
+  @Category(NeedsRunner.class)
+  public void starArchiveTest() {
+
+    // State
+    final List<ExtendedRecord> expected =
+        Arrays.asList(
+            record("1", "Puma concolor", "DK", media("http://example.org/1.jpg", "jpeg")),
+            record("2", "Abies alba", null, Collections.emptyMap()),
+            record("3", "Quercus robur & Fagus", "DE", media("http://example.org/3.png", "png")),
+            record("4", "Pinus sylvestris", "SE", Collections.emptyMap()),
+            record("5", "Betula pendula", "NO", Collections.emptyMap()));
+
+    // When
+    PCollection<ExtendedRecord> result = p.apply(DwcaIO.Read.fromLocation(path));
+
+    // Should
+    PAssert.that(result).containsInAnyOrder(expected);
+    PipelineResult pipelineResult = p.run();
+    pipelineResult.waitUntilFinish();
+
+    // Only core rows are counted, extension rows are not records
+    MetricQueryResults metrics =
+        pipelineResult
+            .metrics()
+            .queryMetrics(
+                MetricsFilter.builder()
+                    .addNameFilter(MetricNameFilter.named("DwcaIO", ARCHIVE_TO_ER_COUNT))
+                    .build());
+    long count = 0;
+    for (MetricResult<Long> counter : metrics.getCounters()) {
+      count += counter.getAttempted();
+    }
+    Assert.assertEquals(expected.size(), count);
+  }
+
+  @Test
+  public void splitAtLineBoundariesTest() throws Exception {
+
+    // State
+    PipelineOptions options = PipelineOptionsFactory.create();
+    Archive archive = DwcFiles.fromLocation(new File(path).toPath());
+    DwcaFileSource source = new DwcaFileSource(DwcaFileMeta.create(archive.getCore(), true));
+    long size = source.getEstimatedSizeBytes(options);
+
+    // When
+    List<BoundedSource<ExtendedRecord>> ranges = new ArrayList<>();
+    for (long start = 0; start < size; start += 7) {
+      ranges.add(source.createSourceForSubrange(start, Math.min(start + 7, size)));
+    }
+
+    // Should
+    SourceTestUtils.assertSourcesEqualReferenceSource(source, ranges, options);
+    SourceTestUtils.assertSplitAtFractionExhaustive(source, options);
+  }
+
+  private static ExtendedRecord record(
+      String id,
+      String scientificName,
+      String countryCode,
+      Map<String, List<Map<String, String>>> extensions) {
+    Map<String, String> core = new HashMap<>();
+    core.put(DwcTerm.occurrenceID.qualifiedName(), id);
+    core.put(DwcTerm.scientificName.qualifiedName(), scientificName);
+    core.put(DwcTerm.basisOfRecord.qualifiedName(), "PreservedSpecimen");
+    if (countryCode != null) {
+      core.put(DwcTerm.countryCode.qualifiedName(), countryCode);
+    }
+    return ExtendedRecord.newBuilder()
+        .setId(id)
+        .setCoreRowType(DwcTerm.Occurrence.qualifiedName())
+        .setCoreTerms(core)
+        .setExtensions(extensions)
+        .build();
+  }
+
+  private static Map<String, List<Map<String, String>>> media(String identifier, String format) {
+    Map<String, String> row = new HashMap<>();
+    row.put(DcTerm.identifier.qualifiedName(), identifier);
+    row.put(DcTerm.format.qualifiedName(), "image/" + format);
+    return Collections.singletonMap(
+        Extension.MULTIMEDIA.getRowType(), Collections.singletonList(row));
+  }
+}
@@ -7,6 +7,7 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import org.apache.beam.sdk.metrics.DistributionResult;
 import org.apache.beam.sdk.metrics.MetricResults;
 import org.junit.Assert;
 import org.junit.Test;
@@ -36,6 +37,31 @@ public class IngestMetricsTest {
     Assert.assertEquals(Long.valueOf(1L), map.get(name));
   }
 
+  @Test
+  public void incMetricValueTest() {
+
+    // State
+    String name = "someName";
+
+    // When
+    IngestMetrics metrics = IngestMetrics.create().addMetric(IngestMetricsTest.class, name);
+    metrics.incMetric(name, 5L);
+    metrics.incMetric(name);
+    long unknown = metrics.incMetric("unknownName", 5L);
+    MetricResults result = metrics.getMetricsResult();
+
+    // Should
+    Map<String, Long> map = new HashMap<>();
+    result
+        .allMetrics()
+        .getCounters()
+        .forEach(mr -> map.put(mr.getName().getName(), mr.getAttempted()));
+
+    Assert.assertEquals(1, map.size());
+    Assert.assertEquals(Long.valueOf(6L), map.get(name));
+    Assert.assertEquals(0L, unknown);
+  }
+
   @Test
   public void addClassMetricsTest() {
 
@@ -153,4 +179,36 @@ public class IngestMetricsTest {
     Assert.assertEquals(count, map.get(name));
     Assert.assertEquals(count, map.get(name2));
   }
+
+  @Test
+  public void recordTimeTest() {
+
+    // State
+    String name = "someTimer";
+
+    // When
+    IngestMetrics metrics = IngestMetrics.create();
+    for (long x = 1; x <= 100; x++) {
+      metrics.recordTime(name, x * 1_000L);
+    }
+    MetricResults result = metrics.getMetricsResult();
+
+    // Should
+    Map<String, DistributionResult> distributions = new HashMap<>();
+    result
+        .allMetrics()
+        .getDistributions()
+        .forEach(mr -> distributions.put(mr.getName().getName(), mr.getAttempted()));
+    Map<String, Long> gauges = new HashMap<>();
+    result
+        .allMetrics()
+        .getGauges()
+        .forEach(mr -> gauges.put(mr.getName().getName(), mr.getAttempted().getValue()));
+
+    Assert.assertEquals(1, distributions.size());
+    Assert.assertEquals(DistributionResult.create(5_050L, 100L, 1L, 100L), distributions.get(name));
+    Assert.assertEquals(3, gauges.size());
+    Assert.assertTrue(Math.abs(gauges.get(name + "P50Us") - 50L) <= 50L / 16);
+    Assert.assertTrue(Math.abs(gauges.get(name + "P99Us") - 99L) <= 99L / 16);
+  }
 }
@@ -0,0 +1,57 @@
+package org.gbif.pipelines.common.beam.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void emptyTest() {
+
+    // When
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    // Should
+    assertEquals(0L, histogram.getCount());
+    assertEquals(0L, histogram.getMin());
+    assertEquals(0L, histogram.getMax());
+    assertEquals(0L, histogram.getPercentile(50));
+  }
+
+  @Test
+  public void bucketsTest() {
+
+    // Should
+    for (long value : new long[] {0L, 1L, 15L, 16L, 17L, 1_000L, 123_456_789L, Long.MAX_VALUE}) {
+      int index = LatencyHistogram.index(value);
+      assertTrue(value <= LatencyHistogram.upperBound(index));
+      assertTrue(index == 0 || value > LatencyHistogram.upperBound(index - 1));
+    }
+  }
+
+  @Test
+  public void percentileTest() {
+
+    // State
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    // When
+    for (long x = 1; x <= 10_000; x++) {
+      histogram.record(x * 1_000L);
+    }
+    histogram.record(-1L);
+
+    // Should
+    assertEquals(10_001L, histogram.getCount());
+    assertEquals(0L, histogram.getMin());
+    assertEquals(10_000_000L, histogram.getMax());
+    assertEquals(10_000_000L, histogram.getPercentile(100));
+    for (int percentile : IngestMetrics.PERCENTILES) {
+      long expected = percentile * 100_000L;
+      long actual = histogram.getPercentile(percentile);
+      assertTrue(actual >= expected && actual - expected <= expected / 16);
+    }
+  }
+}
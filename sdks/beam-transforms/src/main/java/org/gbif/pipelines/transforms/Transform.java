@@ -2,6 +2,7 @@ package org.gbif.pipelines.transforms;
 
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.UnaryOperator;
 import lombok.SneakyThrows;
 import org.apache.avro.Schema;
@@ -17,6 +18,7 @@ import org.apache.beam.sdk.values.PCollection;
 import org.apache.beam.sdk.values.TupleTag;
 import org.gbif.pipelines.common.PipelinesVariables.Pipeline;
 import org.gbif.pipelines.common.PipelinesVariables.Pipeline.Interpretation.InterpretationType;
+import org.gbif.pipelines.core.functions.SerializableBiConsumer;
 import org.gbif.pipelines.core.functions.SerializableConsumer;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.gbif.pipelines.io.avro.Record;
@@ -27,6 +29,10 @@ import org.gbif.pipelines.transforms.common.CheckTransforms;
  *
  * <p>Beam level transformations for the Amplification extension, reads an avro, writes an avro,
  * maps from value to keyValue and transforms form {@link R} to {@link T}.
+ *
+ * <p>Interpretation of a record is timed, the time is recorded by name in nanoseconds, by default
+ * to a Beam distribution in microseconds, the java version of pipelines can set its own timer using
+ * {@link #setTimerFn}
  */
 public abstract class Transform<R, T extends SpecificRecordBase & Record> extends DoFn<R, T> {
 
@@ -38,9 +44,15 @@ public abstract class Transform<R, T extends SpecificRecordBase & Record> extend
   private final String baseInvalidName;
   private final Class<T> clazz;
   private final String counterName;
+  private final String counterNamespace;
+  private final String timerName;
 
   private Counter counter;
   private SerializableConsumer<String> counterFn = v -> counter.inc();
+  private SerializableBiConsumer<String, Long> timerFn =
+      (name, nanos) ->
+          Metrics.distribution(this.counterNamespace, name)
+              .update(TimeUnit.NANOSECONDS.toMicros(nanos));
 
   public Transform(
       Class<T> clazz, InterpretationType recordType, String counterNamespace, String counterName) {
@@ -49,6 +61,8 @@ public abstract class Transform<R, T extends SpecificRecordBase & Record> extend
     this.baseName = recordType.name().toLowerCase();
     this.baseInvalidName = baseName + "_invalid";
     this.counterName = counterName;
+    this.counterNamespace = counterNamespace;
+    this.timerName = baseName + "Interpretation";
     this.counter = Metrics.counter(counterNamespace, counterName);
   }
 
@@ -56,6 +70,10 @@ public abstract class Transform<R, T extends SpecificRecordBase & Record> extend
     this.counterFn = counterFn;
   }
 
+  public void setTimerFn(SerializableBiConsumer<String, Long> timerFn) {
+    this.timerFn = timerFn;
+  }
+
   protected InterpretationType getRecordType() {
     return recordType;
   }
@@ -153,7 +171,9 @@ public abstract class Transform<R, T extends SpecificRecordBase & Record> extend
   }
 
   public Optional<T> processElement(R source) {
+    long start = System.nanoTime();
     Optional<T> convert = convert(source);
+    recordTime(start);
     convert.ifPresent(t -> incCounter());
     return convert;
   }
@@ -164,6 +184,16 @@ public abstract class Transform<R, T extends SpecificRecordBase & Record> extend
     counterFn.accept(counterName);
   }
 
+  /** Records the interpretation time of a record, from the start in {@link System#nanoTime()} */
+  protected void recordTime(long startNanos) {
+    recordTime(timerName, System.nanoTime() - startNanos);
+  }
+
+  /** Records a time by name, in nanoseconds */
+  public void recordTime(String name, long nanos) {
+    timerFn.accept(name, nanos);
+  }
+
   /** @return TupleTag required for grouping */
   public TupleTag<T> getTag() {
     return tag;
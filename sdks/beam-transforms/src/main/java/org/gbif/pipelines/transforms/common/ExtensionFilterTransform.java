@@ -25,7 +25,7 @@ public class ExtensionFilterTransform
         : createDoFn().expand(input);
   }
 
-  /** For Java pipelin */
+  /** For Java pipeline */
   public Map<String, ExtendedRecord> transform(Map<String, ExtendedRecord> source) {
     if (allowExtenstionsSet == null || allowExtenstionsSet.isEmpty()) {
       return source;
@@ -35,7 +35,18 @@ public class ExtensionFilterTransform
     return output;
   }
 
-  /** For Beam pipelin */
+  /** For Java pipeline, single record */
+  public ExtendedRecord transform(ExtendedRecord source) {
+    if (allowExtenstionsSet == null
+        || allowExtenstionsSet.isEmpty()
+        || source.getExtensions() == null
+        || source.getExtensions().isEmpty()) {
+      return source;
+    }
+    return filter(source);
+  }
+
+  /** For Beam pipeline */
   private ParDo.SingleOutput<ExtendedRecord, ExtendedRecord> createDoFn() {
     return ParDo.of(
         new DoFn<ExtendedRecord, ExtendedRecord>() {
@@ -0,0 +1,221 @@
+package org.gbif.pipelines.transforms.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import lombok.Builder;
+import lombok.NonNull;
+import org.apache.avro.specific.SpecificRecordBase;
+import org.apache.beam.sdk.coders.AvroCoder;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.apache.beam.sdk.values.TupleTag;
+import org.apache.beam.sdk.values.TupleTagList;
+import org.gbif.pipelines.core.pojo.ErBrContainer;
+import org.gbif.pipelines.io.avro.BasicRecord;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.pipelines.io.avro.MetadataRecord;
+import org.gbif.pipelines.io.avro.Record;
+import org.gbif.pipelines.transforms.Transform;
+import org.gbif.pipelines.transforms.core.GrscicollTransform;
+import org.gbif.pipelines.transforms.core.LocationTransform;
+import org.gbif.pipelines.transforms.core.TaxonomyTransform;
+import org.gbif.pipelines.transforms.core.TemporalTransform;
+import org.gbif.pipelines.transforms.core.VerbatimTransform;
+import org.gbif.pipelines.transforms.extension.AudubonTransform;
+import org.gbif.pipelines.transforms.extension.ImageTransform;
+import org.gbif.pipelines.transforms.extension.MultimediaTransform;
+
+/**
+ * Interprets a record with all transforms in one pass, instead of a ParDo per transform over the
+ * same collection, every result goes to the tag of its transform, see {@link Transform#getTag()}.
+ *
+ * <p>Only transforms which are set and whose record type is in the interpretation types are used.
+ * Transforms keep their own counters and timers, their resources are initialized and closed the
+ * same way as in the java version of pipelines.
+ *
+ * <pre>{@code
+ * PCollectionTuple interpreted = fusedTransform.interpret(filteredErBr);
+ * fusedTransform.write(interpreted, pathFn);
+ * }</pre>
+ */
+public class FusedInterpretationTransform extends DoFn<ErBrContainer, Void> {
+
+  private final TupleTag<Void> noOutputTag = new TupleTag<Void>() {};
+
+  @NonNull private final PCollectionView<MetadataRecord> metadataView;
+
+  private final VerbatimTransform verbatimTransform;
+  private final TemporalTransform temporalTransform;
+  private final TaxonomyTransform taxonomyTransform;
+  private final GrscicollTransform grscicollTransform;
+  private final LocationTransform locationTransform;
+  private final MultimediaTransform multimediaTransform;
+  private final ImageTransform imageTransform;
+  private final AudubonTransform audubonTransform;
+
+  @Builder(buildMethodName = "create")
+  private FusedInterpretationTransform(
+      Set<String> types,
+      PCollectionView<MetadataRecord> metadataView,
+      VerbatimTransform verbatimTransform,
+      TemporalTransform temporalTransform,
+      TaxonomyTransform taxonomyTransform,
+      GrscicollTransform grscicollTransform,
+      LocationTransform locationTransform,
+      MultimediaTransform multimediaTransform,
+      ImageTransform imageTransform,
+      AudubonTransform audubonTransform) {
+    this.metadataView = metadataView;
+    this.verbatimTransform = enabled(verbatimTransform, types);
+    this.temporalTransform = enabled(temporalTransform, types);
+    this.taxonomyTransform = enabled(taxonomyTransform, types);
+    this.grscicollTransform = enabled(grscicollTransform, types);
+    this.locationTransform = enabled(locationTransform, types);
+    this.multimediaTransform = enabled(multimediaTransform, types);
+    this.imageTransform = enabled(imageTransform, types);
+    this.audubonTransform = enabled(audubonTransform, types);
+  }
+
+  /** Interprets records, use {@link Transform#getTag()} to get the records of a transform */
+  public PCollectionTuple interpret(PCollection<ErBrContainer> pCollection) {
+    List<Transform<?, ?>> transforms = getTransforms();
+
+    TupleTagList tags = TupleTagList.empty();
+    for (Transform<?, ?> transform : transforms) {
+      tags = tags.and(transform.getTag());
+    }
+
+    PCollectionTuple tuple =
+        pCollection.apply(
+            "Interpret all record types",
+            ParDo.of(this).withSideInputs(metadataView).withOutputTags(noOutputTag, tags));
+    transforms.forEach(transform -> setCoder(tuple, transform));
+    return tuple;
+  }
+
+  /** Writes the records of each transform to avro files, the same way as {@link Transform#write} */
+  public void write(PCollectionTuple pCollectionTuple, UnaryOperator<String> pathFn) {
+    getTransforms().forEach(transform -> write(pCollectionTuple, transform, pathFn));
+  }
+
+  /** Beam @Setup initializes resources */
+  @Setup
+  public void setup() {
+    if (temporalTransform != null) {
+      temporalTransform.setup();
+    }
+    if (taxonomyTransform != null) {
+      taxonomyTransform.setup();
+    }
+    if (grscicollTransform != null) {
+      grscicollTransform.setup();
+    }
+    if (locationTransform != null) {
+      locationTransform.setup();
+    }
+    if (multimediaTransform != null) {
+      multimediaTransform.setup();
+    }
+    if (imageTransform != null) {
+      imageTransform.setup();
+    }
+    if (audubonTransform != null) {
+      audubonTransform.setup();
+    }
+  }
+
+  /** Beam @Teardown closes initialized resources */
+  @Teardown
+  public void tearDown() {
+    if (taxonomyTransform != null) {
+      taxonomyTransform.tearDown();
+    }
+    if (grscicollTransform != null) {
+      grscicollTransform.tearDown();
+    }
+    if (locationTransform != null) {
+      locationTransform.tearDown();
+    }
+  }
+
+  @ProcessElement
+  public void processElement(ProcessContext c) {
+    ExtendedRecord er = c.element().getEr();
+    BasicRecord br = c.element().getBr();
+
+    // Verbatim records are written as they are, without the counter and timer of an interpretation
+    if (verbatimTransform != null) {
+      c.output(verbatimTransform.getTag(), er);
+    }
+    if (temporalTransform != null) {
+      temporalTransform.processElement(er).ifPresent(r -> c.output(temporalTransform.getTag(), r));
+    }
+    if (taxonomyTransform != null) {
+      taxonomyTransform.processElement(er).ifPresent(r -> c.output(taxonomyTransform.getTag(), r));
+    }
+    if (multimediaTransform != null) {
+      multimediaTransform
+          .processElement(er)
+          .ifPresent(r -> c.output(multimediaTransform.getTag(), r));
+    }
+    if (imageTransform != null) {
+      imageTransform.processElement(er).ifPresent(r -> c.output(imageTransform.getTag(), r));
+    }
+    if (audubonTransform != null) {
+      audubonTransform.processElement(er).ifPresent(r -> c.output(audubonTransform.getTag(), r));
+    }
+    if (grscicollTransform != null || locationTransform != null) {
+      MetadataRecord mdr = c.sideInput(metadataView);
+      if (grscicollTransform != null) {
+        grscicollTransform
+            .processElement(er, br, mdr)
+            .ifPresent(r -> c.output(grscicollTransform.getTag(), r));
+      }
+      if (locationTransform != null) {
+        locationTransform
+            .processElement(er, mdr)
+            .ifPresent(r -> c.output(locationTransform.getTag(), r));
+      }
+    }
+  }
+
+  private List<Transform<?, ?>> getTransforms() {
+    List<Transform<?, ?>> transforms = new ArrayList<>();
+    add(transforms, verbatimTransform);
+    add(transforms, temporalTransform);
+    add(transforms, taxonomyTransform);
+    add(transforms, grscicollTransform);
+    add(transforms, locationTransform);
+    add(transforms, multimediaTransform);
+    add(transforms, imageTransform);
+    add(transforms, audubonTransform);
+    return transforms;
+  }
+
+  private static void add(List<Transform<?, ?>> transforms, Transform<?, ?> transform) {
+    if (transform != null) {
+      transforms.add(transform);
+    }
+  }
+
+  private static <T extends Transform<?, ?>> T enabled(T transform, Set<String> types) {
+    return transform != null && transform.checkType(types) ? transform : null;
+  }
+
+  private static <T extends SpecificRecordBase & Record> void setCoder(
+      PCollectionTuple pCollectionTuple, Transform<?, T> transform) {
+    pCollectionTuple.get(transform.getTag()).setCoder(AvroCoder.of(transform.getReturnClazz()));
+  }
+
+  private static <T extends SpecificRecordBase & Record> void write(
+      PCollectionTuple pCollectionTuple, Transform<?, T> transform, UnaryOperator<String> pathFn) {
+    pCollectionTuple
+        .get(transform.getTag())
+        .apply("Write " + transform.getBaseName() + " to avro", transform.write(pathFn));
+  }
+}
@@ -0,0 +1,94 @@
+package org.gbif.pipelines.transforms.common;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.gbif.kvs.KeyValueStore;
+
+/**
+ * Wrapper on top of a {@link KeyValueStore}, distinct keys of a batch of records are looked up in
+ * advance and concurrently, at most maxInFlight lookups at the same time. Keys which weren't
+ * prefetched or failed are looked up in the store as usual.
+ *
+ * <pre>{@code
+ * KeyValueStore<SpeciesMatchRequest, NameUsageMatch> batchStore =
+ *     PrefetchedKeyValueStore.create(kvStore, requests, executor, 8);
+ * }</pre>
+ */
+@Slf4j
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PrefetchedKeyValueStore<K, V> implements KeyValueStore<K, V> {
+
+  private final KeyValueStore<K, V> keyValueStore;
+  private final Map<K, Optional<V>> values;
+
+  /** Looks up distinct keys using maxInFlight tasks on the executor, blocks until all are done */
+  public static <K, V> PrefetchedKeyValueStore<K, V> create(
+      KeyValueStore<K, V> keyValueStore,
+      Collection<K> keys,
+      ExecutorService executor,
+      int maxInFlight) {
+    return create(keyValueStore, keyValueStore, keys, executor, maxInFlight);
+  }
+
+  /**
+   * Looks up distinct keys in prefetchStore using maxInFlight tasks on the executor, blocks until
+   * all are done. Keys which weren't prefetched are looked up in keyValueStore by the caller
+   */
+  @SneakyThrows
+  public static <K, V> PrefetchedKeyValueStore<K, V> create(
+      KeyValueStore<K, V> prefetchStore,
+      KeyValueStore<K, V> keyValueStore,
+      Collection<K> keys,
+      ExecutorService executor,
+      int maxInFlight) {
+    Queue<K> queue = new ConcurrentLinkedQueue<>();
+    new LinkedHashSet<>(keys).stream().filter(Objects::nonNull).forEach(queue::add);
+    Map<K, Optional<V>> values = new ConcurrentHashMap<>(queue.size());
+
+    int tasks = Math.min(Math.max(1, maxInFlight), queue.size());
+    CompletableFuture<?>[] futures = new CompletableFuture[tasks];
+    for (int i = 0; i < tasks; i++) {
+      futures[i] =
+          CompletableFuture.runAsync(() -> lookup(prefetchStore, queue, values), executor);
+    }
+    CompletableFuture.allOf(futures).get();
+
+    return new PrefetchedKeyValueStore<>(keyValueStore, values);
+  }
+
+  private static <K, V> void lookup(
+      KeyValueStore<K, V> keyValueStore, Queue<K> queue, Map<K, Optional<V>> values) {
+    K key;
+    while ((key = queue.poll()) != null) {
+      try {
+        values.put(key, Optional.ofNullable(keyValueStore.get(key)));
+      } catch (RuntimeException ex) {
+        log.warn("Can't prefetch a value, it will be looked up again - {}", ex.getMessage());
+      }
+    }
+  }
+
+  @Override
+  public V get(K key) {
+    Optional<V> value = values.get(key);
+    return value != null ? value.orElse(null) : keyValueStore.get(key);
+  }
+
+  /** The store belongs to the caller, only prefetched values are released */
+  @Override
+  public void close() {
+    values.clear();
+  }
+}
@@ -0,0 +1,42 @@
+package org.gbif.pipelines.transforms.common;
+
+import java.io.IOException;
+import java.util.function.BiConsumer;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import org.gbif.kvs.KeyValueStore;
+
+/**
+ * Wrapper on top of a {@link KeyValueStore}, records the time of every {@link #get} in nanoseconds
+ * as {name}KvHit or {name}KvMiss, a miss is a null value
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TimedKeyValueStore<K, V> implements KeyValueStore<K, V> {
+
+  private final KeyValueStore<K, V> keyValueStore;
+  private final String hitName;
+  private final String missName;
+  private final BiConsumer<String, Long> timerFn;
+
+  /** @return wrapped store, or null if the store is null */
+  public static <K, V> KeyValueStore<K, V> create(
+      KeyValueStore<K, V> keyValueStore, String name, BiConsumer<String, Long> timerFn) {
+    if (keyValueStore == null) {
+      return null;
+    }
+    return new TimedKeyValueStore<>(keyValueStore, name + "KvHit", name + "KvMiss", timerFn);
+  }
+
+  @Override
+  public V get(K key) {
+    long start = System.nanoTime();
+    V value = keyValueStore.get(key);
+    timerFn.accept(value == null ? missName : hitName, System.nanoTime() - start);
+    return value;
+  }
+
+  @Override
+  public void close() throws IOException {
+    keyValueStore.close();
+  }
+}
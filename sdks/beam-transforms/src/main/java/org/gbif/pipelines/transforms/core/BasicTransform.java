@@ -6,12 +6,19 @@ import static org.gbif.pipelines.core.interpreters.core.BasicInterpreter.GBIF_ID
 import static org.gbif.pipelines.core.interpreters.core.BasicInterpreter.interpretCopyGbifId;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import lombok.Builder;
 import lombok.SneakyThrows;
 import org.apache.beam.sdk.transforms.MapElements;
+import org.apache.beam.sdk.transforms.windowing.GlobalWindow;
 import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.TimestampedValue;
 import org.apache.beam.sdk.values.TypeDescriptor;
 import org.gbif.api.vocabulary.OccurrenceStatus;
 import org.gbif.kvs.KeyValueStore;
@@ -25,7 +32,9 @@ import org.gbif.pipelines.core.parsers.clustering.ClusteringService;
 import org.gbif.pipelines.io.avro.BasicRecord;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.gbif.pipelines.keygen.HBaseLockingKeyService;
+import org.gbif.pipelines.keygen.api.KeyLookupResult;
 import org.gbif.pipelines.transforms.Transform;
+import org.gbif.pipelines.transforms.common.TimedKeyValueStore;
 import org.gbif.vocabulary.lookup.LookupConcept;
 import org.gbif.vocabulary.lookup.VocabularyLookup;
 
@@ -40,6 +49,7 @@ public class BasicTransform extends Transform<ExtendedRecord, BasicRecord> {
   private final boolean isTripletValid;
   private final boolean isOccurrenceIdValid;
   private final boolean useExtendedRecordId;
+  private final int keygenBatchSize;
   private final BiConsumer<ExtendedRecord, BasicRecord> gbifIdFn;
   private final SerializableSupplier<HBaseLockingKeyService> keygenServiceSupplier;
   private final SerializableSupplier<VocabularyLookup> lifeStageLookupSupplier;
@@ -56,12 +66,16 @@ public class BasicTransform extends Transform<ExtendedRecord, BasicRecord> {
 
   private SerializableFunction<String, Optional<LookupConcept>> lifeStageLookupFn;
 
+  // Bundle buffer for batched GBIF id generation
+  private transient List<TimestampedValue<ExtendedRecord>> keygenBuffer;
+
   @Builder(buildMethodName = "create")
   private BasicTransform(
       boolean isTripletValid,
       boolean isOccurrenceIdValid,
       boolean useExtendedRecordId,
       boolean useDynamicPropertiesInterpretation,
+      int keygenBatchSize,
       BiConsumer<ExtendedRecord, BasicRecord> gbifIdFn,
       SerializableSupplier<HBaseLockingKeyService> keygenServiceSupplier,
       SerializableSupplier<VocabularyLookup> lifeStageLookupSupplier,
@@ -72,6 +86,7 @@ public class BasicTransform extends Transform<ExtendedRecord, BasicRecord> {
     this.isOccurrenceIdValid = isOccurrenceIdValid;
     this.useExtendedRecordId = useExtendedRecordId;
     this.useDynamicPropertiesInterpretation = useDynamicPropertiesInterpretation;
+    this.keygenBatchSize = keygenBatchSize;
     this.gbifIdFn = gbifIdFn;
     this.keygenServiceSupplier = keygenServiceSupplier;
     this.occStatusKvStoreSupplier = occStatusKvStoreSupplier;
@@ -108,7 +123,9 @@ public class BasicTransform extends Transform<ExtendedRecord, BasicRecord> {
       keygenService = keygenServiceSupplier.get();
     }
     if (occStatusKvStore == null && occStatusKvStoreSupplier != null) {
-      occStatusKvStore = occStatusKvStoreSupplier.get();
+      occStatusKvStore =
+          TimedKeyValueStore.create(
+              occStatusKvStoreSupplier.get(), getBaseName(), this::recordTime);
     }
     if (lifeStageLookupSupplier != null) {
       lifeStageLookup = lifeStageLookupSupplier.get();
@@ -139,8 +156,108 @@ public class BasicTransform extends Transform<ExtendedRecord, BasicRecord> {
     }
   }
 
+  /** Beam @StartBundle creates the keygen bundle buffer */
+  @StartBundle
+  public void startBundle() {
+    keygenBuffer = new ArrayList<>();
+  }
+
+  /**
+   * If keygenBatchSize is greater than 1, records are buffered and GBIF ids are generated for the
+   * whole buffer using {@link HBaseLockingKeyService#generateKeys(Map)}
+   */
+  @Override
+  @ProcessElement
+  public void processElement(ProcessContext c) {
+    if (!isKeygenBatchEnabled()) {
+      super.processElement(c);
+      return;
+    }
+    keygenBuffer.add(TimestampedValue.of(c.element(), c.timestamp()));
+    if (keygenBuffer.size() >= keygenBatchSize) {
+      List<ExtendedRecord> sources = new ArrayList<>(keygenBuffer.size());
+      keygenBuffer.forEach(tv -> sources.add(tv.getValue()));
+      keygenBuffer.clear();
+      processElements(sources).forEach(c::output);
+    }
+  }
+
+  /** Beam @FinishBundle flushes the keygen bundle buffer, interpretation uses the global window */
+  @FinishBundle
+  public void finishBundle(FinishBundleContext c) {
+    if (keygenBuffer == null || keygenBuffer.isEmpty()) {
+      return;
+    }
+    List<ExtendedRecord> sources = new ArrayList<>(keygenBuffer.size());
+    keygenBuffer.forEach(tv -> sources.add(tv.getValue()));
+    long start = System.nanoTime();
+    BiConsumer<ExtendedRecord, BasicRecord> gbifIdInterpreter =
+        BasicInterpreter.interpretGbifId(generateKeys(sources));
+    long keygenNanos = (System.nanoTime() - start) / sources.size();
+    for (TimestampedValue<ExtendedRecord> tv : keygenBuffer) {
+      processElement(tv.getValue(), gbifIdInterpreter, keygenNanos)
+          .ifPresent(br -> c.output(br, tv.getTimestamp(), GlobalWindow.INSTANCE));
+    }
+    keygenBuffer.clear();
+  }
+
+  /** Interprets a batch of records, GBIF ids are generated for the whole batch at once */
+  public List<BasicRecord> processElements(List<ExtendedRecord> sources) {
+    long start = System.nanoTime();
+    BiConsumer<ExtendedRecord, BasicRecord> gbifIdInterpreter =
+        BasicInterpreter.interpretGbifId(generateKeys(sources));
+    long keygenNanos = (System.nanoTime() - start) / Math.max(1, sources.size());
+    List<BasicRecord> result = new ArrayList<>(sources.size());
+    for (ExtendedRecord source : sources) {
+      processElement(source, gbifIdInterpreter, keygenNanos).ifPresent(result::add);
+    }
+    return result;
+  }
+
+  private boolean isKeygenBatchEnabled() {
+    return keygenBatchSize > 1 && keygenService != null && !useExtendedRecordId;
+  }
+
+  private Map<String, KeyLookupResult> generateKeys(List<ExtendedRecord> sources) {
+    Map<String, Set<String>> uniqueStringsById = new HashMap<>(sources.size());
+    for (ExtendedRecord er : sources) {
+      if (!er.getCoreTerms().isEmpty()) {
+        Set<String> uniqueStrings =
+            BasicInterpreter.extractUniqueStrings(er, isTripletValid, isOccurrenceIdValid);
+        if (!uniqueStrings.isEmpty()) {
+          uniqueStringsById.put(er.getId(), uniqueStrings);
+        }
+      }
+    }
+    return keygenService.generateKeys(uniqueStringsById);
+  }
+
+  /**
+   * Interprets a record with GBIF ids generated for a batch, keygenNanos is the share of the batch
+   * id generation time per record, which is added to the interpretation time, the same as in the
+   * single record path where the id is generated during the interpretation
+   */
+  private Optional<BasicRecord> processElement(
+      ExtendedRecord source,
+      BiConsumer<ExtendedRecord, BasicRecord> gbifIdInterpreter,
+      long keygenNanos) {
+    long start = System.nanoTime() - keygenNanos;
+    Optional<BasicRecord> convert = convert(source, gbifIdInterpreter);
+    recordTime(start);
+    convert.ifPresent(t -> incCounter());
+    return convert;
+  }
+
   @Override
   public Optional<BasicRecord> convert(ExtendedRecord source) {
+    return convert(
+        source,
+        BasicInterpreter.interpretGbifId(
+            keygenService, isTripletValid, isOccurrenceIdValid, useExtendedRecordId, gbifIdFn));
+  }
+
+  private Optional<BasicRecord> convert(
+      ExtendedRecord source, BiConsumer<ExtendedRecord, BasicRecord> gbifIdInterpreter) {
 
     BasicRecord br =
         BasicRecord.newBuilder()
@@ -160,13 +277,7 @@ public class BasicTransform extends Transform<ExtendedRecord, BasicRecord> {
         Interpretation.from(source)
             .to(br)
             .when(er -> !er.getCoreTerms().isEmpty())
-            .via(
-                BasicInterpreter.interpretGbifId(
-                    keygenService,
-                    isTripletValid,
-                    isOccurrenceIdValid,
-                    useExtendedRecordId,
-                    gbifIdFn))
+            .via(gbifIdInterpreter)
             .via(BasicInterpreter::interpretBasisOfRecord)
             .via(BasicInterpreter::interpretTypifiedName)
             .via(BasicInterpreter::interpretSex)
@@ -187,9 +298,7 @@ public class BasicTransform extends Transform<ExtendedRecord, BasicRecord> {
             .via(BasicInterpreter.interpretIsClustered(clusteringService));
 
     if (useDynamicPropertiesInterpretation) {
-      handler
-          .via(DynamicPropertiesInterpreter::interpretSex)
-          .via(DynamicPropertiesInterpreter.interpretLifeStage(lifeStageLookupFn));
+      handler.via(DynamicPropertiesInterpreter.interpretSexAndLifeStage(lifeStageLookupFn));
     }
 
     return handler.getOfNullable();
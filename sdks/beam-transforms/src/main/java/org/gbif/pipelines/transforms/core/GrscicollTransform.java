@@ -28,6 +28,7 @@ import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.gbif.pipelines.io.avro.MetadataRecord;
 import org.gbif.pipelines.io.avro.grscicoll.GrscicollRecord;
 import org.gbif.pipelines.transforms.Transform;
+import org.gbif.pipelines.transforms.common.TimedKeyValueStore;
 import org.gbif.rest.client.grscicoll.GrscicollLookupResponse;
 
 @Slf4j
@@ -74,7 +75,7 @@ public class GrscicollTransform extends Transform<ErBrContainer, GrscicollRecord
   public void setup() {
     if (kvStore == null && kvStoreSupplier != null) {
       log.info("Initialize GrscicollLookupKvStore");
-      kvStore = kvStoreSupplier.get();
+      kvStore = TimedKeyValueStore.create(kvStoreSupplier.get(), getBaseName(), this::recordTime);
     }
   }
 
@@ -119,11 +120,15 @@ public class GrscicollTransform extends Transform<ErBrContainer, GrscicollRecord
       return Optional.empty();
     }
 
-    return Interpretation.from(source)
-        .to(GrscicollRecord.newBuilder().setCreated(Instant.now().toEpochMilli()).build())
-        .when(er -> !er.getCoreTerms().isEmpty())
-        .via(GrscicollInterpreter.grscicollInterpreter(kvStore, mdr, br))
-        .skipWhen(gr -> gr.getId() == null)
-        .getOfNullable();
+    long start = System.nanoTime();
+    Optional<GrscicollRecord> result =
+        Interpretation.from(source)
+            .to(GrscicollRecord.newBuilder().setCreated(Instant.now().toEpochMilli()).build())
+            .when(er -> !er.getCoreTerms().isEmpty())
+            .via(GrscicollInterpreter.grscicollInterpreter(kvStore, mdr, br))
+            .skipWhen(gr -> gr.getId() == null)
+            .getOfNullable();
+    recordTime(start);
+    return result;
   }
 }
@@ -25,6 +25,7 @@ import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.gbif.pipelines.io.avro.LocationRecord;
 import org.gbif.pipelines.io.avro.MetadataRecord;
 import org.gbif.pipelines.transforms.Transform;
+import org.gbif.pipelines.transforms.common.TimedKeyValueStore;
 import org.gbif.rest.client.geocode.GeocodeResponse;
 
 /**
@@ -75,7 +76,8 @@ public class LocationTransform extends Transform<ExtendedRecord, LocationRecord>
   public void setup() {
     if (geocodeKvStore == null && geocodeKvStoreSupplier != null) {
       log.info("Initialize geocodeKvStore");
-      geocodeKvStore = geocodeKvStoreSupplier.get();
+      geocodeKvStore =
+          TimedKeyValueStore.create(geocodeKvStoreSupplier.get(), getBaseName(), this::recordTime);
     }
   }
 
@@ -110,33 +112,36 @@ public class LocationTransform extends Transform<ExtendedRecord, LocationRecord>
   }
 
   public Optional<LocationRecord> processElement(ExtendedRecord source, MetadataRecord mdr) {
-
-    return Interpretation.from(source)
-        .to(
-            er ->
-                LocationRecord.newBuilder()
-                    .setId(er.getId())
-                    .setCreated(Instant.now().toEpochMilli())
-                    .build())
-        .when(er -> !er.getCoreTerms().isEmpty())
-        .via(LocationInterpreter.interpretCountryAndCoordinates(geocodeKvStore, mdr))
-        .via(LocationInterpreter.interpretGadm(geocodeKvStore))
-        .via(LocationInterpreter::interpretContinent)
-        .via(LocationInterpreter::interpretWaterBody)
-        .via(LocationInterpreter::interpretStateProvince)
-        .via(LocationInterpreter::interpretMinimumElevationInMeters)
-        .via(LocationInterpreter::interpretMaximumElevationInMeters)
-        .via(LocationInterpreter::interpretElevation)
-        .via(LocationInterpreter::interpretMinimumDepthInMeters)
-        .via(LocationInterpreter::interpretMaximumDepthInMeters)
-        .via(LocationInterpreter::interpretDepth)
-        .via(LocationInterpreter::interpretMinimumDistanceAboveSurfaceInMeters)
-        .via(LocationInterpreter::interpretMaximumDistanceAboveSurfaceInMeters)
-        .via(LocationInterpreter::interpretCoordinatePrecision)
-        .via(LocationInterpreter::interpretCoordinateUncertaintyInMeters)
-        .via(LocationInterpreter::interpretLocality)
-        .via(LocationInterpreter::interpretFootprintWKT)
-        .via(r -> this.incCounter())
-        .getOfNullable();
+    long start = System.nanoTime();
+    Optional<LocationRecord> result =
+        Interpretation.from(source)
+            .to(
+                er ->
+                    LocationRecord.newBuilder()
+                        .setId(er.getId())
+                        .setCreated(Instant.now().toEpochMilli())
+                        .build())
+            .when(er -> !er.getCoreTerms().isEmpty())
+            .via(LocationInterpreter.interpretCountryAndCoordinates(geocodeKvStore, mdr))
+            .via(LocationInterpreter.interpretGadm(geocodeKvStore))
+            .via(LocationInterpreter::interpretContinent)
+            .via(LocationInterpreter::interpretWaterBody)
+            .via(LocationInterpreter::interpretStateProvince)
+            .via(LocationInterpreter::interpretMinimumElevationInMeters)
+            .via(LocationInterpreter::interpretMaximumElevationInMeters)
+            .via(LocationInterpreter::interpretElevation)
+            .via(LocationInterpreter::interpretMinimumDepthInMeters)
+            .via(LocationInterpreter::interpretMaximumDepthInMeters)
+            .via(LocationInterpreter::interpretDepth)
+            .via(LocationInterpreter::interpretMinimumDistanceAboveSurfaceInMeters)
+            .via(LocationInterpreter::interpretMaximumDistanceAboveSurfaceInMeters)
+            .via(LocationInterpreter::interpretCoordinatePrecision)
+            .via(LocationInterpreter::interpretCoordinateUncertaintyInMeters)
+            .via(LocationInterpreter::interpretLocality)
+            .via(LocationInterpreter::interpretFootprintWKT)
+            .via(r -> this.incCounter())
+            .getOfNullable();
+    recordTime(start);
+    return result;
   }
 }
@@ -3,13 +3,22 @@ package org.gbif.pipelines.transforms.core;
 import static org.gbif.pipelines.common.PipelinesVariables.Metrics.TAXON_RECORDS_COUNT;
 import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.Interpretation.RecordType.TAXONOMY;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.beam.sdk.transforms.MapElements;
+import org.apache.beam.sdk.transforms.windowing.GlobalWindow;
 import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.TimestampedValue;
 import org.apache.beam.sdk.values.TypeDescriptor;
 import org.gbif.kvs.KeyValueStore;
 import org.gbif.kvs.species.SpeciesMatchRequest;
@@ -20,6 +29,8 @@ import org.gbif.pipelines.core.interpreters.core.TaxonomyInterpreter;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.gbif.pipelines.io.avro.TaxonRecord;
 import org.gbif.pipelines.transforms.Transform;
+import org.gbif.pipelines.transforms.common.PrefetchedKeyValueStore;
+import org.gbif.pipelines.transforms.common.TimedKeyValueStore;
 import org.gbif.rest.client.species.NameUsageMatch;
 
 /**
@@ -29,6 +40,10 @@ import org.gbif.rest.client.species.NameUsageMatch;
  * <p>ParDo runs sequence of interpretations for {@link TaxonRecord} using {@link ExtendedRecord} as
  * a source and {@link TaxonomyInterpreter} as interpretation steps
  *
+ * <p>If batchSize is greater than 1, records of a bundle are buffered and distinct names of a batch
+ * are matched at once, at most maxInFlight requests at the same time, see {@link
+ * #processElements(List)}
+ *
  * @see <a href="https://dwc.tdwg.org/terms/#taxon</a>
  */
 @Slf4j
@@ -36,13 +51,25 @@ public class TaxonomyTransform extends Transform<ExtendedRecord, TaxonRecord> {
 
   private final SerializableSupplier<KeyValueStore<SpeciesMatchRequest, NameUsageMatch>>
       kvStoreSupplier;
+  private final int batchSize;
+  private final int maxInFlight;
   private KeyValueStore<SpeciesMatchRequest, NameUsageMatch> kvStore;
+  // The same store without timings, for lookups on the executor threads
+  private KeyValueStore<SpeciesMatchRequest, NameUsageMatch> prefetchKvStore;
+  private transient ExecutorService executor;
+
+  // Bundle buffer for batched name matching
+  private transient List<TimestampedValue<ExtendedRecord>> buffer;
 
   @Builder(buildMethodName = "create")
   private TaxonomyTransform(
-      SerializableSupplier<KeyValueStore<SpeciesMatchRequest, NameUsageMatch>> kvStoreSupplier) {
+      SerializableSupplier<KeyValueStore<SpeciesMatchRequest, NameUsageMatch>> kvStoreSupplier,
+      int batchSize,
+      int maxInFlight) {
     super(TaxonRecord.class, TAXONOMY, TaxonomyTransform.class.getName(), TAXON_RECORDS_COUNT);
     this.kvStoreSupplier = kvStoreSupplier;
+    this.batchSize = batchSize;
+    this.maxInFlight = maxInFlight;
   }
 
   /** Maps {@link TaxonRecord} to key value, where key is {@link TaxonRecord#getId} */
@@ -61,7 +88,14 @@ public class TaxonomyTransform extends Transform<ExtendedRecord, TaxonRecord> {
   public void setup() {
     if (kvStore == null && kvStoreSupplier != null) {
       log.info("Initialize NameUsageMatchKvStore");
-      kvStore = kvStoreSupplier.get();
+      prefetchKvStore = kvStoreSupplier.get();
+      kvStore = TimedKeyValueStore.create(prefetchKvStore, getBaseName(), this::recordTime);
+    }
+    if (executor == null && isBatchEnabled()) {
+      executor =
+          Executors.newFixedThreadPool(
+              maxInFlight,
+              new ThreadFactoryBuilder().setDaemon(true).setNameFormat("name-match-%d").build());
     }
   }
 
@@ -74,6 +108,9 @@ public class TaxonomyTransform extends Transform<ExtendedRecord, TaxonRecord> {
   /** Beam @Teardown closes initialized resources */
   @Teardown
   public void tearDown() {
+    if (executor != null) {
+      executor.shutdown();
+    }
     if (kvStore != null) {
       try {
         log.info("Close NameUsageMatchKvStore");
@@ -84,12 +121,107 @@ public class TaxonomyTransform extends Transform<ExtendedRecord, TaxonRecord> {
     }
   }
 
+  /** Beam @StartBundle creates the bundle buffer */
+  @StartBundle
+  public void startBundle() {
+    buffer = new ArrayList<>();
+  }
+
+  /** If batchSize is greater than 1, records are buffered and matched in batches */
+  @Override
+  @ProcessElement
+  public void processElement(ProcessContext c) {
+    if (!isBatchEnabled()) {
+      super.processElement(c);
+      return;
+    }
+    buffer.add(TimestampedValue.of(c.element(), c.timestamp()));
+    if (buffer.size() >= batchSize) {
+      List<ExtendedRecord> sources = new ArrayList<>(buffer.size());
+      buffer.forEach(tv -> sources.add(tv.getValue()));
+      buffer.clear();
+      processElements(sources).forEach(c::output);
+    }
+  }
+
+  /** Beam @FinishBundle flushes the bundle buffer, interpretation uses the global window */
+  @FinishBundle
+  public void finishBundle(FinishBundleContext c) {
+    if (buffer == null || buffer.isEmpty()) {
+      return;
+    }
+    List<ExtendedRecord> sources = new ArrayList<>(buffer.size());
+    buffer.forEach(tv -> sources.add(tv.getValue()));
+    KeyValueStore<SpeciesMatchRequest, NameUsageMatch> batchStore = prefetch(sources);
+    for (TimestampedValue<ExtendedRecord> tv : buffer) {
+      processElement(tv.getValue(), batchStore)
+          .ifPresent(tr -> c.output(tr, tv.getTimestamp(), GlobalWindow.INSTANCE));
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Interprets a batch of records, distinct names of the batch are matched concurrently before the
+   * interpretation, so the number of requests depends on the number of distinct names. Records are
+   * matched one by one if batching is disabled
+   */
+  public List<TaxonRecord> processElements(List<ExtendedRecord> sources) {
+    KeyValueStore<SpeciesMatchRequest, NameUsageMatch> batchStore = prefetch(sources);
+    List<TaxonRecord> result = new ArrayList<>(sources.size());
+    for (ExtendedRecord source : sources) {
+      processElement(source, batchStore).ifPresent(result::add);
+    }
+    return result;
+  }
+
+  private boolean isBatchEnabled() {
+    return batchSize > 1 && maxInFlight > 0 && kvStore != null;
+  }
+
+  private KeyValueStore<SpeciesMatchRequest, NameUsageMatch> prefetch(
+      List<ExtendedRecord> sources) {
+    if (executor == null) {
+      return kvStore;
+    }
+    List<SpeciesMatchRequest> requests = new ArrayList<>(sources.size());
+    for (ExtendedRecord er : sources) {
+      if (!er.getCoreTerms().isEmpty()) {
+        requests.add(TaxonomyInterpreter.createMatchRequest(er));
+      }
+    }
+
+    // Beam metrics can't be recorded on the executor threads, prefetch timings are kept and
+    // recorded on the bundle thread
+    Queue<KV<String, Long>> timings = new ConcurrentLinkedQueue<>();
+    KeyValueStore<SpeciesMatchRequest, NameUsageMatch> timedStore =
+        TimedKeyValueStore.create(
+            prefetchKvStore, getBaseName(), (name, nanos) -> timings.add(KV.of(name, nanos)));
+    KeyValueStore<SpeciesMatchRequest, NameUsageMatch> batchStore =
+        PrefetchedKeyValueStore.create(timedStore, kvStore, requests, executor, maxInFlight);
+    timings.forEach(kv -> recordTime(kv.getKey(), kv.getValue()));
+    return batchStore;
+  }
+
+  private Optional<TaxonRecord> processElement(
+      ExtendedRecord source, KeyValueStore<SpeciesMatchRequest, NameUsageMatch> store) {
+    long start = System.nanoTime();
+    Optional<TaxonRecord> convert = convert(source, store);
+    recordTime(start);
+    convert.ifPresent(t -> incCounter());
+    return convert;
+  }
+
   @Override
   public Optional<TaxonRecord> convert(ExtendedRecord source) {
+    return convert(source, kvStore);
+  }
+
+  private Optional<TaxonRecord> convert(
+      ExtendedRecord source, KeyValueStore<SpeciesMatchRequest, NameUsageMatch> store) {
     return Interpretation.from(source)
         .to(TaxonRecord.newBuilder().setCreated(Instant.now().toEpochMilli()).build())
         .when(er -> !er.getCoreTerms().isEmpty())
-        .via(TaxonomyInterpreter.taxonomyInterpreter(kvStore))
+        .via(TaxonomyInterpreter.taxonomyInterpreter(store))
         .skipWhen(tr -> tr.getId() == null)
         .getOfNullable();
   }
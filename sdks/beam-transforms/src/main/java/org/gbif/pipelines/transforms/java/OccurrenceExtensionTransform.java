@@ -27,15 +27,21 @@ public class OccurrenceExtensionTransform {
 
     Map<String, ExtendedRecord> result = new HashMap<>();
 
+    erMap.values().forEach(er -> transform(er, r -> result.put(r.getId(), r)));
+
+    return result;
+  }
+
+  /** Converts one record, the consumer receives only records with non empty ids */
+  public void transform(ExtendedRecord er, Consumer<ExtendedRecord> resultConsumer) {
+
     Consumer<ExtendedRecord> consumer =
         r -> {
           if (r != null && r.getId() != null && !r.getId().isEmpty()) {
-            result.put(r.getId(), r);
+            resultConsumer.accept(r);
           }
         };
 
-    erMap.values().forEach(er -> transform.convert(er, consumer));
-
-    return result;
+    transform.convert(er, consumer);
   }
 }
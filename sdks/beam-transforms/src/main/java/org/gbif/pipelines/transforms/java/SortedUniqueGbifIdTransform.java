@@ -0,0 +1,62 @@
+package org.gbif.pipelines.transforms.java;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.gbif.pipelines.core.utils.HashUtils;
+import org.gbif.pipelines.io.avro.BasicRecord;
+
+/**
+ * Streaming version of {@link UniqueGbifIdTransform}, splits records into valid records with
+ * unique GBIF ids and invalid records, as duplicates or missed GBIF ids. Expects records sorted by
+ * {@link #GBIF_ID_COMPARATOR}, so only one GBIF id group is kept in memory at a time
+ */
+@Slf4j
+@Builder
+public class SortedUniqueGbifIdTransform {
+
+  public static final Comparator<BasicRecord> GBIF_ID_COMPARATOR =
+      Comparator.comparing(BasicRecord::getGbifId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+  @NonNull private Iterator<BasicRecord> sortedIterator;
+
+  @NonNull private Consumer<BasicRecord> validConsumer;
+
+  @NonNull private Consumer<BasicRecord> invalidConsumer;
+
+  public void run() {
+    BasicRecord saved = null;
+    while (sortedIterator.hasNext()) {
+      BasicRecord br = sortedIterator.next();
+      if (br.getGbifId() == null) {
+        invalidConsumer.accept(br);
+        log.error("GBIF ID is null, occurrenceId - {}", br.getId());
+      } else if (saved == null || !saved.getGbifId().equals(br.getGbifId())) {
+        if (saved != null) {
+          validConsumer.accept(saved);
+        }
+        saved = br;
+      } else {
+        saved = filter(saved, br);
+      }
+    }
+    if (saved != null) {
+      validConsumer.accept(saved);
+    }
+  }
+
+  /** Keeps the record with the smallest id hash, the same rule as {@link UniqueGbifIdTransform} */
+  private BasicRecord filter(BasicRecord saved, BasicRecord br) {
+    log.error("GBIF ID collision, gbifId - {}, occurrenceId - {}", br.getGbifId(), br.getId());
+    int compare = HashUtils.getSha1(br.getId()).compareTo(HashUtils.getSha1(saved.getId()));
+    if (compare < 0) {
+      invalidConsumer.accept(saved);
+      return br;
+    }
+    invalidConsumer.accept(br);
+    return saved;
+  }
+}
@@ -6,6 +6,7 @@ import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.Interpretati
 import java.util.Set;
 import lombok.Builder;
 import org.apache.beam.sdk.values.TupleTag;
+import org.gbif.api.vocabulary.Extension;
 import org.gbif.pipelines.core.converters.ChronometricAgeTableConverter;
 import org.gbif.pipelines.io.avro.BasicRecord;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
@@ -23,6 +24,7 @@ public class ChronometricAgeTableTransform extends TableTransform<ChronometricAg
     super(
         ChronometricAgeTable.class,
         CHRONOMETRIC_AGE_TABLE,
+        Extension.CHRONOMETRIC_AGE,
         ChronometricAgeTableTransform.class.getName(),
         CHRONOMETRIC_AGE_TABLE_RECORDS_COUNT,
         ChronometricAgeTableConverter::convert);
@@ -6,6 +6,7 @@ import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.Interpretati
 import java.util.Set;
 import lombok.Builder;
 import org.apache.beam.sdk.values.TupleTag;
+import org.gbif.api.vocabulary.Extension;
 import org.gbif.pipelines.core.converters.GermplasmAccessionTableConverter;
 import org.gbif.pipelines.io.avro.BasicRecord;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
@@ -23,6 +24,7 @@ public class GermplasmAccessionTableTransform extends TableTransform<GermplasmAc
     super(
         GermplasmAccessionTable.class,
         GERMPLASM_ACCESSION_TABLE,
+        Extension.GERMPLASM_ACCESSION,
         GermplasmAccessionTableTransform.class.getName(),
         GERMPLASM_ACCESSION_TABLE_RECORDS_COUNT,
         GermplasmAccessionTableConverter::convert);
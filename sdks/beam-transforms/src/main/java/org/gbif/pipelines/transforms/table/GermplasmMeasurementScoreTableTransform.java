@@ -6,6 +6,7 @@ import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.Interpretati
 import java.util.Set;
 import lombok.Builder;
 import org.apache.beam.sdk.values.TupleTag;
+import org.gbif.api.vocabulary.Extension;
 import org.gbif.pipelines.core.converters.GermplasmMeasurementScoreTableConverter;
 import org.gbif.pipelines.io.avro.BasicRecord;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
@@ -24,6 +25,7 @@ public class GermplasmMeasurementScoreTableTransform
     super(
         GermplasmMeasurementScoreTable.class,
         GERMPLASM_MEASUREMENT_SCORE_TABLE,
+        Extension.GERMPLASM_MEASUREMENT_SCORE,
         GermplasmMeasurementScoreTableTransform.class.getName(),
         MEASUREMENT_SCORE_TABLE_RECORDS_COUNT,
         GermplasmMeasurementScoreTableConverter::convert);
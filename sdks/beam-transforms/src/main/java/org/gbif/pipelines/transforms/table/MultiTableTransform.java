@@ -0,0 +1,105 @@
+package org.gbif.pipelines.transforms.table;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Singular;
+import org.apache.avro.specific.SpecificRecordBase;
+import org.apache.beam.sdk.transforms.DoFn;
+import org.apache.beam.sdk.transforms.ParDo;
+import org.apache.beam.sdk.transforms.join.CoGbkResult;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.TupleTag;
+import org.apache.beam.sdk.values.TupleTagList;
+import org.gbif.pipelines.io.avro.BasicRecord;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+
+/**
+ * Converts joined records into all extension tables in one pass, instead of a pass per {@link
+ * TableTransform}. Extensions of a record are checked once, rows go only to the tags of the
+ * extensions the record has and records without extensions are skipped.
+ *
+ * <pre>{@code
+ * MultiTableTransform.builder()
+ *     .extendedRecordTag(verbatimTransform.getTag())
+ *     .basicRecordTag(basicTransform.getTag())
+ *     .table(measurementOrFactTableTransform)
+ *     .table(identificationTableTransform)
+ *     .build()
+ *     .write(tableCollection);
+ * }</pre>
+ */
+public class MultiTableTransform extends DoFn<KV<String, CoGbkResult>, Void> {
+
+  private final TupleTag<Void> noOutputTag = new TupleTag<Void>() {};
+
+  @NonNull private final TupleTag<ExtendedRecord> extendedRecordTag;
+
+  @NonNull private final TupleTag<BasicRecord> basicRecordTag;
+
+  /** Enabled tables by extension row type */
+  private final Map<String, TableTransform<?>> tables = new HashMap<>();
+
+  @Builder
+  public MultiTableTransform(
+      TupleTag<ExtendedRecord> extendedRecordTag,
+      TupleTag<BasicRecord> basicRecordTag,
+      @Singular List<TableTransform<?>> tables) {
+    this.extendedRecordTag = extendedRecordTag;
+    this.basicRecordTag = basicRecordTag;
+    tables.stream()
+        .filter(TableTransform::isEnabled)
+        .forEach(t -> this.tables.put(t.getExtension().getRowType(), t));
+  }
+
+  public void write(PCollection<KV<String, CoGbkResult>> pCollection) {
+    if (!tables.isEmpty()) {
+      PCollectionTuple tuple = convert(pCollection);
+      tables.values().forEach(table -> table.write(tuple));
+    }
+  }
+
+  /** @return table records, use {@link TableTransform#getTag()} to get records of a table */
+  public PCollectionTuple convert(PCollection<KV<String, CoGbkResult>> pCollection) {
+    TupleTagList tags = TupleTagList.empty();
+    for (TableTransform<?> table : tables.values()) {
+      tags = tags.and(table.getTag());
+    }
+
+    PCollectionTuple tuple =
+        pCollection.apply("Convert to tables", ParDo.of(this).withOutputTags(noOutputTag, tags));
+    tables.values().forEach(table -> table.setCoder(tuple));
+    return tuple;
+  }
+
+  @ProcessElement
+  public void processElement(ProcessContext c) {
+    CoGbkResult v = c.element().getValue();
+    String k = c.element().getKey();
+
+    ExtendedRecord er = v.getOnly(extendedRecordTag, ExtendedRecord.newBuilder().setId(k).build());
+
+    Map<String, List<Map<String, String>>> extensions = er.getExtensions();
+    if (extensions == null || extensions.isEmpty()) {
+      return;
+    }
+
+    BasicRecord br = v.getOnly(basicRecordTag, BasicRecord.newBuilder().setId(k).build());
+
+    for (String rowType : extensions.keySet()) {
+      TableTransform<?> table = tables.get(rowType);
+      if (table != null) {
+        output(table, br, er, c);
+      }
+    }
+  }
+
+  private <T extends SpecificRecordBase> void output(
+      TableTransform<T> table, BasicRecord br, ExtendedRecord er, ProcessContext c) {
+    table.convert(br, er).ifPresent(record -> c.output(table.getTag(), record));
+  }
+}
@@ -2,11 +2,15 @@ package org.gbif.pipelines.transforms.table;
 
 import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.AVRO_EXTENSION;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import lombok.Getter;
 import lombok.NonNull;
 import org.apache.avro.file.CodecFactory;
 import org.apache.avro.specific.SpecificRecordBase;
+import org.apache.beam.sdk.coders.AvroCoder;
 import org.apache.beam.sdk.io.AvroIO;
 import org.apache.beam.sdk.metrics.Counter;
 import org.apache.beam.sdk.metrics.Metrics;
@@ -17,7 +21,9 @@ import org.apache.beam.sdk.transforms.SerializableBiFunction;
 import org.apache.beam.sdk.transforms.join.CoGbkResult;
 import org.apache.beam.sdk.values.KV;
 import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionTuple;
 import org.apache.beam.sdk.values.TupleTag;
+import org.gbif.api.vocabulary.Extension;
 import org.gbif.pipelines.common.PipelinesVariables.Pipeline.Interpretation.InterpretationType;
 import org.gbif.pipelines.io.avro.BasicRecord;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
@@ -33,6 +39,10 @@ public abstract class TableTransform<T extends SpecificRecordBase>
 
   @NonNull private final Class<T> clazz;
 
+  @Getter @NonNull private final Extension extension;
+
+  @Getter @NonNull private final TupleTag<T> tag;
+
   @NonNull private final SerializableBiFunction<BasicRecord, ExtendedRecord, Optional<T>> convertFn;
 
   @NonNull private TupleTag<ExtendedRecord> extendedRecordTag;
@@ -50,11 +60,14 @@ public abstract class TableTransform<T extends SpecificRecordBase>
   public TableTransform(
       Class<T> clazz,
       InterpretationType recordType,
+      Extension extension,
       String counterNamespace,
       String counterName,
       SerializableBiFunction<BasicRecord, ExtendedRecord, Optional<T>> convertFn) {
     this.clazz = clazz;
     this.recordType = recordType;
+    this.extension = extension;
+    this.tag = new TupleTag<>(recordType.name());
     this.counter = Metrics.counter(counterNamespace, counterName);
     this.convertFn = convertFn;
   }
@@ -84,6 +97,10 @@ public abstract class TableTransform<T extends SpecificRecordBase>
     return this;
   }
 
+  public boolean isEnabled() {
+    return CheckTransforms.checkRecordType(types, recordType);
+  }
+
   public Optional<PCollection<KV<String, CoGbkResult>>> check(
       PCollection<KV<String, CoGbkResult>> pCollection) {
     return CheckTransforms.checkRecordType(types, recordType)
@@ -99,6 +116,15 @@ public abstract class TableTransform<T extends SpecificRecordBase>
     }
   }
 
+  /** Writes the output of {@link MultiTableTransform} tagged by {@link #getTag()} */
+  public void write(PCollectionTuple pCollectionTuple) {
+    pCollectionTuple.get(tag).apply("Write " + recordType.name(), this.write());
+  }
+
+  void setCoder(PCollectionTuple pCollectionTuple) {
+    pCollectionTuple.get(tag).setCoder(AvroCoder.of(clazz));
+  }
+
   public AvroIO.Write<T> write() {
     AvroIO.Write<T> write =
         AvroIO.write(clazz).to(path).withSuffix(AVRO_EXTENSION).withCodec(BASE_CODEC);
@@ -124,12 +150,21 @@ public abstract class TableTransform<T extends SpecificRecordBase>
 
     BasicRecord br = v.getOnly(basicRecordTag, BasicRecord.newBuilder().setId(k).build());
 
-    convertFn
-        .apply(br, er)
-        .ifPresent(
-            record -> {
-              c.output(record);
-              counter.inc();
-            });
+    convert(br, er).ifPresent(c::output);
+  }
+
+  /** Converts a record which has the extension, empty otherwise */
+  Optional<T> convert(BasicRecord br, ExtendedRecord er) {
+    Map<String, List<Map<String, String>>> extensions = er.getExtensions();
+    if (extensions == null || !hasRows(extensions.get(extension.getRowType()))) {
+      return Optional.empty();
+    }
+    Optional<T> record = convertFn.apply(br, er);
+    record.ifPresent(x -> counter.inc());
+    return record;
+  }
+
+  private static boolean hasRows(List<Map<String, String>> rows) {
+    return rows != null && !rows.isEmpty();
   }
 }
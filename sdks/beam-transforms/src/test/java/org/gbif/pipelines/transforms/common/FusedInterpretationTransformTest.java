@@ -0,0 +1,91 @@
+package org.gbif.pipelines.transforms.common;
+
+import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.Interpretation.RecordType.TEMPORAL;
+import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.Interpretation.RecordType.VERBATIM;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.beam.sdk.testing.NeedsRunner;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.MapElements;
+import org.apache.beam.sdk.transforms.View;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.apache.beam.sdk.values.PCollectionView;
+import org.apache.beam.sdk.values.TypeDescriptors;
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.pipelines.core.pojo.ErBrContainer;
+import org.gbif.pipelines.io.avro.BasicRecord;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.pipelines.io.avro.MetadataRecord;
+import org.gbif.pipelines.io.avro.TemporalRecord;
+import org.gbif.pipelines.transforms.core.TemporalTransform;
+import org.gbif.pipelines.transforms.core.VerbatimTransform;
+import org.gbif.pipelines.transforms.extension.ImageTransform;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+@Category(NeedsRunner.class)
+public class FusedInterpretationTransformTest {
+
+  @Rule public final transient TestPipeline p = TestPipeline.create();
+
+  @Test
+  public void enabledTransformsTest() {
+
+    // State
+    ExtendedRecord er =
+        ExtendedRecord.newBuilder()
+            .setId("777")
+            .setCoreTerms(
+                Collections.singletonMap(DwcTerm.eventDate.qualifiedName(), "2011-01-01"))
+            .build();
+    BasicRecord br = BasicRecord.newBuilder().setId("777").setGbifId(777L).build();
+    MetadataRecord mdr = MetadataRecord.newBuilder().setId("777").build();
+
+    Set<String> types = new HashSet<>(Arrays.asList(VERBATIM.name(), TEMPORAL.name()));
+    VerbatimTransform verbatimTransform = VerbatimTransform.create();
+    TemporalTransform temporalTransform = TemporalTransform.builder().create();
+    ImageTransform imageTransform = ImageTransform.builder().create();
+
+    PCollectionView<MetadataRecord> metadataView =
+        p.apply("Create test metadata", Create.of(mdr))
+            .apply("Convert into view", View.asSingleton());
+
+    FusedInterpretationTransform fusedTransform =
+        FusedInterpretationTransform.builder()
+            .types(types)
+            .metadataView(metadataView)
+            .verbatimTransform(verbatimTransform)
+            .temporalTransform(temporalTransform)
+            .imageTransform(imageTransform)
+            .create();
+
+    // When
+    PCollectionTuple result =
+        fusedTransform.interpret(
+            p.apply("Create test records", Create.of(ErBrContainer.create(er, br))));
+
+    PCollection<String> temporalIds =
+        result
+            .get(temporalTransform.getTag())
+            .apply(
+                "Get temporal ids",
+                MapElements.into(TypeDescriptors.strings()).via(TemporalRecord::getId));
+
+    // Should
+    assertFalse(result.has(imageTransform.getTag()));
+    PAssert.that(result.get(verbatimTransform.getTag())).containsInAnyOrder(er);
+    PAssert.that(temporalIds).containsInAnyOrder("777");
+    p.run();
+  }
+}
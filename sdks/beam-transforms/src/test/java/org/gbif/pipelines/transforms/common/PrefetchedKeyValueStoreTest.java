@@ -0,0 +1,102 @@
+package org.gbif.pipelines.transforms.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.gbif.kvs.KeyValueStore;
+import org.junit.Test;
+
+public class PrefetchedKeyValueStoreTest {
+
+  @Test
+  public void distinctKeysTest() {
+
+    // State
+    CountingStore store = new CountingStore();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    // When
+    KeyValueStore<String, String> prefetched =
+        PrefetchedKeyValueStore.create(
+            store, Arrays.asList("a", "b", "a", null, "none", "b", "a"), executor, 4);
+    executor.shutdown();
+
+    // Should
+    assertEquals(3, store.calls.get());
+    assertEquals("A", prefetched.get("a"));
+    assertEquals("B", prefetched.get("b"));
+    assertNull(prefetched.get("none"));
+    assertEquals(3, store.calls.get());
+
+    // Not prefetched
+    assertEquals("C", prefetched.get("c"));
+    assertEquals(4, store.calls.get());
+  }
+
+  @Test
+  public void failedKeyTest() {
+
+    // State
+    CountingStore store = new CountingStore();
+    store.failures.put("a", new AtomicInteger(1));
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // When
+    KeyValueStore<String, String> prefetched =
+        PrefetchedKeyValueStore.create(store, Arrays.asList("a", "b"), executor, 2);
+    executor.shutdown();
+
+    // Should
+    assertEquals("A", prefetched.get("a"));
+    assertEquals("B", prefetched.get("b"));
+    assertEquals(3, store.calls.get());
+  }
+
+  @Test
+  public void fallbackStoreTest() {
+
+    // State
+    CountingStore prefetchStore = new CountingStore();
+    CountingStore store = new CountingStore();
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // When
+    KeyValueStore<String, String> prefetched =
+        PrefetchedKeyValueStore.create(
+            prefetchStore, store, Arrays.asList("a", "b"), executor, 2);
+    executor.shutdown();
+
+    // Should
+    assertEquals("A", prefetched.get("a"));
+    assertEquals("C", prefetched.get("c"));
+    assertEquals(2, prefetchStore.calls.get());
+    assertEquals(1, store.calls.get());
+  }
+
+  private static class CountingStore implements KeyValueStore<String, String> {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+
+    @Override
+    public String get(String key) {
+      calls.incrementAndGet();
+      AtomicInteger failure = failures.get(key);
+      if (failure != null && failure.getAndDecrement() > 0) {
+        throw new IllegalStateException("Service is not available");
+      }
+      return "none".equals(key) ? null : key.toUpperCase();
+    }
+
+    @Override
+    public void close() {
+      // NOP
+    }
+  }
+}
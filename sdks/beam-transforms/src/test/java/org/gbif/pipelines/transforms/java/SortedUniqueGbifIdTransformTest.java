@@ -0,0 +1,88 @@
+package org.gbif.pipelines.transforms.java;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.gbif.pipelines.io.avro.BasicRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SortedUniqueGbifIdTransformTest {
+
+  @Test
+  public void withoutDuplicatesTest() {
+    // State
+    List<BasicRecord> input = createBrList("1_1", "2_2", "3_3", "4_4");
+
+    // When
+    List<BasicRecord> valid = new ArrayList<>();
+    List<BasicRecord> invalid = new ArrayList<>();
+    run(input, valid, invalid);
+
+    // Should
+    Assert.assertEquals(Arrays.asList("1", "2", "3", "4"), ids(valid));
+    Assert.assertEquals(0, invalid.size());
+  }
+
+  @Test
+  public void allDuplicatesTest() {
+    // State
+    List<BasicRecord> input = createBrList("1_1", "2_1", "3_1", "4_1", "5_1", "6_1");
+
+    // When
+    List<BasicRecord> valid = new ArrayList<>();
+    List<BasicRecord> invalid = new ArrayList<>();
+    run(input, valid, invalid);
+
+    // Should
+    Assert.assertEquals(Arrays.asList("4"), ids(valid));
+    Assert.assertEquals(Arrays.asList("1", "2", "3", "5", "6"), sortedIds(invalid));
+  }
+
+  @Test
+  public void mixedValuesTest() {
+    // State
+    List<BasicRecord> input = createBrList("1", "2_2", "3_3", "4_1", "5", "6_6", "7_3");
+
+    // When
+    List<BasicRecord> valid = new ArrayList<>();
+    List<BasicRecord> invalid = new ArrayList<>();
+    run(input, valid, invalid);
+
+    // Should
+    Assert.assertEquals(Arrays.asList("2", "3", "4", "6"), sortedIds(valid));
+    Assert.assertEquals(Arrays.asList("1", "5", "7"), sortedIds(invalid));
+  }
+
+  private void run(List<BasicRecord> input, List<BasicRecord> valid, List<BasicRecord> invalid) {
+    input.sort(SortedUniqueGbifIdTransform.GBIF_ID_COMPARATOR);
+    SortedUniqueGbifIdTransform.builder()
+        .sortedIterator(input.iterator())
+        .validConsumer(valid::add)
+        .invalidConsumer(invalid::add)
+        .build()
+        .run();
+  }
+
+  private List<String> ids(List<BasicRecord> records) {
+    return records.stream().map(BasicRecord::getId).collect(Collectors.toList());
+  }
+
+  private List<String> sortedIds(List<BasicRecord> records) {
+    return records.stream().map(BasicRecord::getId).sorted().collect(Collectors.toList());
+  }
+
+  private List<BasicRecord> createBrList(String... idName) {
+    return Arrays.stream(idName)
+        .map(
+            x -> {
+              String[] array = x.split("_");
+              return BasicRecord.newBuilder()
+                  .setId(array[0])
+                  .setGbifId(array.length > 1 ? Long.valueOf(array[1]) : null)
+                  .build();
+            })
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,106 @@
+package org.gbif.pipelines.transforms.table;
+
+import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.Interpretation.RecordType.ALL;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.beam.sdk.testing.NeedsRunner;
+import org.apache.beam.sdk.testing.PAssert;
+import org.apache.beam.sdk.testing.TestPipeline;
+import org.apache.beam.sdk.transforms.Create;
+import org.apache.beam.sdk.transforms.join.CoGroupByKey;
+import org.apache.beam.sdk.transforms.join.KeyedPCollectionTuple;
+import org.apache.beam.sdk.values.KV;
+import org.apache.beam.sdk.values.PCollection;
+import org.apache.beam.sdk.values.PCollectionTuple;
+import org.gbif.api.vocabulary.Extension;
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.pipelines.core.converters.MeasurementOrFactTableConverter;
+import org.gbif.pipelines.io.avro.BasicRecord;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.pipelines.transforms.core.BasicTransform;
+import org.gbif.pipelines.transforms.core.VerbatimTransform;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+@Category(NeedsRunner.class)
+public class MultiTableTransformTest {
+
+  @Rule public final transient TestPipeline p = TestPipeline.create();
+
+  @Test
+  public void onlyPresentExtensionsTest() {
+
+    // State
+    Map<String, String> mof = new HashMap<>();
+    mof.put(DwcTerm.measurementID.qualifiedName(), "Id1");
+    mof.put(DwcTerm.measurementType.qualifiedName(), "Type1");
+
+    Map<String, List<Map<String, String>>> ext = new HashMap<>();
+    ext.put(Extension.MEASUREMENT_OR_FACT.getRowType(), Collections.singletonList(mof));
+    ext.put(Extension.IDENTIFICATION.getRowType(), Collections.emptyList());
+
+    ExtendedRecord er1 = ExtendedRecord.newBuilder().setId("1").setExtensions(ext).build();
+    ExtendedRecord er2 = ExtendedRecord.newBuilder().setId("2").build();
+    BasicRecord br1 = BasicRecord.newBuilder().setId("1").setGbifId(1L).build();
+    BasicRecord br2 = BasicRecord.newBuilder().setId("2").setGbifId(2L).build();
+
+    VerbatimTransform verbatimTransform = VerbatimTransform.create();
+    BasicTransform basicTransform = BasicTransform.builder().create();
+    Set<String> types = Collections.singleton(ALL.name());
+
+    MeasurementOrFactTableTransform mofTransform =
+        MeasurementOrFactTableTransform.builder()
+            .extendedRecordTag(verbatimTransform.getTag())
+            .basicRecordTag(basicTransform.getTag())
+            .types(types)
+            .build();
+
+    IdentificationTableTransform identificationTransform =
+        IdentificationTableTransform.builder()
+            .extendedRecordTag(verbatimTransform.getTag())
+            .basicRecordTag(basicTransform.getTag())
+            .types(types)
+            .build();
+
+    MultiTableTransform transform =
+        MultiTableTransform.builder()
+            .extendedRecordTag(verbatimTransform.getTag())
+            .basicRecordTag(basicTransform.getTag())
+            .table(mofTransform)
+            .table(identificationTransform)
+            .build();
+
+    // When
+    PCollection<KV<String, ExtendedRecord>> verbatimCollection =
+        p.apply("Create er", Create.of(Arrays.asList(er1, er2)))
+            .apply("KV er", verbatimTransform.toKv());
+
+    PCollection<KV<String, BasicRecord>> basicCollection =
+        p.apply("Create br", Create.of(Arrays.asList(br1, br2)))
+            .apply("KV br", basicTransform.toKv());
+
+    PCollectionTuple result =
+        transform.convert(
+            KeyedPCollectionTuple
+                // Core
+                .of(basicTransform.getTag(), basicCollection)
+                .and(verbatimTransform.getTag(), verbatimCollection)
+                // Apply
+                .apply("Grouping objects", CoGroupByKey.create()));
+
+    // Should
+    PAssert.that(result.get(mofTransform.getTag()))
+        .containsInAnyOrder(MeasurementOrFactTableConverter.convert(br1, er1).get());
+    PAssert.that(result.get(identificationTransform.getTag())).empty();
+    p.run();
+  }
+}
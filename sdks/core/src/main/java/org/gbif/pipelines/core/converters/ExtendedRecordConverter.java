@@ -1,11 +1,13 @@
 package org.gbif.pipelines.core.converters;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 import org.gbif.dwc.record.Record;
 import org.gbif.dwc.record.StarRecord;
@@ -19,11 +21,26 @@ public class ExtendedRecordConverter {
 
   private static final String RECORD_ID_ERROR = "RECORD_ID_ERROR";
 
+  // Term.qualifiedName() concatenates strings on every call, names are cached per thread instead
+  private static final ThreadLocal<Map<Term, String>> TERM_NAMES =
+      ThreadLocal.withInitial(HashMap::new);
+
+  private static String qualifiedName(Map<Term, String> names, Term term) {
+    String qn = names.get(term);
+    if (qn == null) {
+      qn = term.qualifiedName();
+      if (qn != null) {
+        names.put(term, qn);
+      }
+    }
+    return qn;
+  }
+
   // Function that removes all the empty elements of a record
-  private static Map<String, String> convertToMap(Record record) {
+  private static Map<String, String> convertToMap(Map<Term, String> names, Record record) {
     Map<String, String> map = new HashMap<>(record.terms().size() / 2);
     for (Term term : record.terms()) {
-      String qn = term.qualifiedName();
+      String qn = qualifiedName(names, term);
       if (qn != null) {
         String value = record.value(term);
         if (value != null) {
@@ -36,31 +53,94 @@ public class ExtendedRecordConverter {
 
   /** Converts {@link StarRecord} to {@link ExtendedRecord} */
   public static ExtendedRecord from(Record core, Map<Term, List<Record>> extensions) {
+    Map<Term, String> names = TERM_NAMES.get();
     ExtendedRecord.Builder builder = ExtendedRecord.newBuilder();
-    Optional.ofNullable(core.rowType()).ifPresent(x -> builder.setCoreRowType(x.qualifiedName()));
-    builder.setCoreTerms(convertToMap(core));
-    builder.setExtensions(
-        extensions.entrySet().stream()
-            .collect(
-                Collectors.toMap(
-                    entry -> entry.getKey().qualifiedName(),
-                    entry ->
-                        entry.getValue().stream()
-                            .map(ExtendedRecordConverter::convertToMap)
-                            .collect(Collectors.toList()))));
-    builder.setId(getId(core, builder));
+    Optional.ofNullable(core.rowType())
+        .ifPresent(x -> builder.setCoreRowType(qualifiedName(names, x)));
+    builder.setCoreTerms(convertToMap(names, core));
+
+    Map<String, List<Map<String, String>>> extensionMap = new HashMap<>(extensions.size() * 2);
+    for (Map.Entry<Term, List<Record>> entry : extensions.entrySet()) {
+      List<Map<String, String>> rows = new ArrayList<>(entry.getValue().size());
+      for (Record record : entry.getValue()) {
+        rows.add(convertToMap(names, record));
+      }
+      extensionMap.put(qualifiedName(names, entry.getKey()), rows);
+    }
+    builder.setExtensions(extensionMap);
+
+    builder.setId(getId(core.id(), builder.getCoreTerms()));
+    return builder.build();
+  }
+
+  /**
+   * Copies values of a core record and its extensions, dwca-io iterators reuse record instances
+   * between rows, so a record must be copied before it is converted on another thread
+   */
+  public static StarRecordValues copy(Record core, Map<Term, List<Record>> extensions) {
+    Map<Term, List<RowValues>> extensionValues = new HashMap<>(extensions.size() * 2);
+    for (Map.Entry<Term, List<Record>> entry : extensions.entrySet()) {
+      List<RowValues> rows = new ArrayList<>(entry.getValue().size());
+      for (Record record : entry.getValue()) {
+        rows.add(RowValues.copy(record));
+      }
+      extensionValues.put(entry.getKey(), rows);
+    }
+    return new StarRecordValues(RowValues.copy(core), extensionValues);
+  }
+
+  /** Converts values copied by {@link #copy(Record, Map)} to {@link ExtendedRecord} */
+  public static ExtendedRecord from(StarRecordValues values) {
+    Map<Term, String> names = TERM_NAMES.get();
+    RowValues core = values.core;
+    ExtendedRecord.Builder builder = ExtendedRecord.newBuilder();
+    Optional.ofNullable(core.rowType)
+        .ifPresent(x -> builder.setCoreRowType(qualifiedName(names, x)));
+    builder.setCoreTerms(convertToMap(names, core));
+
+    Map<String, List<Map<String, String>>> extensionMap =
+        new HashMap<>(values.extensions.size() * 2);
+    for (Map.Entry<Term, List<RowValues>> entry : values.extensions.entrySet()) {
+      List<Map<String, String>> rows = new ArrayList<>(entry.getValue().size());
+      for (RowValues row : entry.getValue()) {
+        rows.add(convertToMap(names, row));
+      }
+      extensionMap.put(qualifiedName(names, entry.getKey()), rows);
+    }
+    builder.setExtensions(extensionMap);
+
+    builder.setId(getId(core.id, builder.getCoreTerms()));
+    return builder.build();
+  }
+
+  private static Map<String, String> convertToMap(Map<Term, String> names, RowValues row) {
+    Map<String, String> map = new HashMap<>(row.terms.length / 2);
+    for (int i = 0; i < row.terms.length; i++) {
+      String qn = qualifiedName(names, row.terms[i]);
+      if (qn != null && row.values[i] != null) {
+        map.put(qn, row.values[i]);
+      }
+    }
+    return map;
+  }
+
+  /** Converts an already parsed core row without extensions to {@link ExtendedRecord} */
+  public static ExtendedRecord from(String coreRowType, String id, Map<String, String> coreTerms) {
+    ExtendedRecord.Builder builder = ExtendedRecord.newBuilder().setCoreTerms(coreTerms);
+    Optional.ofNullable(coreRowType).ifPresent(builder::setCoreRowType);
+    builder.setId(getId(id, coreTerms));
     return builder.build();
   }
 
   /** If id is null, use triplet as an id */
-  private static String getId(Record core, ExtendedRecord.Builder builder) {
-    if (core.id() != null) {
-      return core.id();
+  private static String getId(String id, Map<String, String> coreTerms) {
+    if (id != null) {
+      return id;
     }
 
-    String institutionCode = builder.getCoreTerms().get(DwcTerm.institutionCode.qualifiedName());
-    String collectionCode = builder.getCoreTerms().get(DwcTerm.collectionCode.qualifiedName());
-    String catalogNumber = builder.getCoreTerms().get(DwcTerm.catalogNumber.qualifiedName());
+    String institutionCode = coreTerms.get(DwcTerm.institutionCode.qualifiedName());
+    String collectionCode = coreTerms.get(DwcTerm.collectionCode.qualifiedName());
+    String catalogNumber = coreTerms.get(DwcTerm.catalogNumber.qualifiedName());
 
     if (institutionCode == null || collectionCode == null || catalogNumber == null) {
       return RECORD_ID_ERROR;
@@ -73,4 +153,29 @@ public class ExtendedRecordConverter {
   public static String getRecordIdError() {
     return RECORD_ID_ERROR;
   }
+
+  /** Copied values of a core record and its extensions, see {@link #copy(Record, Map)} */
+  @AllArgsConstructor(access = AccessLevel.PRIVATE)
+  public static class StarRecordValues {
+    private final RowValues core;
+    private final Map<Term, List<RowValues>> extensions;
+  }
+
+  @AllArgsConstructor(access = AccessLevel.PRIVATE)
+  private static class RowValues {
+    private final Term rowType;
+    private final String id;
+    private final Term[] terms;
+    private final String[] values;
+
+    private static RowValues copy(Record record) {
+      Collection<Term> termList = record.terms();
+      Term[] terms = termList.toArray(new Term[0]);
+      String[] values = new String[terms.length];
+      for (int i = 0; i < terms.length; i++) {
+        values[i] = record.value(terms[i]);
+      }
+      return new RowValues(record.rowType(), record.id(), terms, values);
+    }
+  }
 }
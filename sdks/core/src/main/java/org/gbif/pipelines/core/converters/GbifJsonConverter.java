@@ -154,6 +154,28 @@ public class GbifJsonConverter {
     return toPartialJson(records).toString();
   }
 
+  /**
+   * Converts all {@link SpecificRecordBase} (created from AVRO schemas) into UTF-8 json bytes,
+   * suited to the new ES record. The bytes are the same as {@link #toStringJson} produces, without
+   * the intermediate String
+   */
+  public static byte[] toJsonBytes(SpecificRecordBase... records) {
+    return toJsonBytes(toJson(records));
+  }
+
+  /**
+   * Converts all {@link SpecificRecordBase} (created from AVRO schemas) into UTF-8 json bytes,
+   * suited to a partial ES record update
+   */
+  public static byte[] toPartialJsonBytes(SpecificRecordBase... records) {
+    return toJsonBytes(toPartialJson(records));
+  }
+
+  /** Writes the json object as UTF-8 bytes, which can be used as an ES IndexRequest source */
+  public static byte[] toJsonBytes(ObjectNode node) {
+    return JsonConverter.toBytes(node);
+  }
+
   /** Change the json result, merging all issues from records to one array */
   public ObjectNode toJson() {
     builder.records(records);
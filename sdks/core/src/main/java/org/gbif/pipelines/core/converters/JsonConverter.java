@@ -2,25 +2,31 @@ package org.gbif.pipelines.core.converters;
 
 import static org.apache.avro.Schema.Type.UNION;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 import com.google.common.primitives.Primitives;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
+import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.Singular;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Type;
@@ -62,6 +68,12 @@ public class JsonConverter {
     CHAR_MAP.put('\u001f', ' ');
   }
 
+  private static final Map<CommonFieldsKey, Map<Schema, List<CommonField>>> COMMON_FIELDS =
+      new ConcurrentHashMap<>();
+
+  private static final ThreadLocal<ByteArrayBuilder> BUFFER =
+      ThreadLocal.withInitial(ByteArrayBuilder::new);
+
   private final ObjectNode mainNode = MAPPER.createObjectNode();
 
   @Singular
@@ -74,6 +86,12 @@ public class JsonConverter {
 
   @Singular private List<Pattern> replaceKeys;
 
+  // Fields per schema for skipKeys and replaceKeys, looked up once per converter
+  @Getter(value = AccessLevel.PRIVATE, lazy = true)
+  private final Map<Schema, List<CommonField>> schemaFields =
+      COMMON_FIELDS.computeIfAbsent(
+          new CommonFieldsKey(skipKeys, replaceKeys), k -> new ConcurrentHashMap<>());
+
   public ObjectNode toJson() {
     for (SpecificRecordBase record : records) {
       BiConsumer<JsonConverter, SpecificRecordBase> consumer = converters.get(record.getClass());
@@ -113,57 +131,59 @@ public class JsonConverter {
    * SpecificRecordBase} by fields type and adds into {@link ObjectNode}
    */
   void addCommonFields(SpecificRecordBase record, ObjectNode node) {
-    record.getSchema().getFields().stream()
-        .filter(n -> !skipKeys.contains(n.name()))
-        .forEach(
-            f ->
-                Optional.ofNullable(record.get(f.pos()))
-                    .ifPresent(
-                        r -> {
-                          Schema schema = f.schema();
-                          Optional<Type> type =
-                              schema.getType() == UNION
-                                  ? schema.getTypes().stream()
-                                      .filter(t -> t.getType() != Type.NULL)
-                                      .findFirst()
-                                      .map(Schema::getType)
-                                  : Optional.of(schema.getType());
-
-                          type.ifPresent(
-                              t -> {
-                                switch (t) {
-                                  case BOOLEAN:
-                                    node.put(f.name(), (Boolean) r);
-                                    break;
-                                  case FLOAT:
-                                  case DOUBLE:
-                                    node.put(f.name(), (Double) r);
-                                    break;
-                                  case INT:
-                                    node.put(f.name(), (Integer) r);
-                                    break;
-                                  case LONG:
-                                    node.put(f.name(), (Long) r);
-                                    break;
-                                  case RECORD:
-                                    if (r instanceof SpecificRecordBase) {
-                                      ObjectNode recordNode = createObjectNode();
-                                      addCommonFields((SpecificRecordBase) r, recordNode);
-                                      node.set(f.name(), recordNode);
-                                    }
-                                    break;
-                                  case ARRAY:
-                                    Collection values = (Collection) r;
-                                    if (!values.isEmpty()) {
-                                      addArrayNode(node, f, (Collection) r);
-                                    }
-                                    break;
-                                  default:
-                                    addJsonRawFieldNoCheck(node, f.name(), r.toString());
-                                    break;
-                                }
-                              });
-                        }));
+    for (CommonField f : getCommonFields(record.getSchema())) {
+      Object r = record.get(f.pos);
+      if (r == null || f.type == null) {
+        continue;
+      }
+      switch (f.type) {
+        case BOOLEAN:
+          node.put(f.name, (Boolean) r);
+          break;
+        case FLOAT:
+        case DOUBLE:
+          node.put(f.name, (Double) r);
+          break;
+        case INT:
+          node.put(f.name, (Integer) r);
+          break;
+        case LONG:
+          node.put(f.name, (Long) r);
+          break;
+        case RECORD:
+          if (r instanceof SpecificRecordBase) {
+            ObjectNode recordNode = createObjectNode();
+            addCommonFields((SpecificRecordBase) r, recordNode);
+            node.set(f.name, recordNode);
+          }
+          break;
+        case ARRAY:
+          Collection<?> values = (Collection<?>) r;
+          if (!values.isEmpty()) {
+            addArrayNode(node, f.field, values);
+          }
+          break;
+        default:
+          node.set(f.key, getEscapedTextNode(r.toString()));
+          break;
+      }
+    }
+  }
+
+  /** Not skipped fields of the schema, resolved once per schema, skipKeys and replaceKeys */
+  private List<CommonField> getCommonFields(Schema schema) {
+    return getSchemaFields()
+        .computeIfAbsent(
+            schema,
+            k -> {
+              List<CommonField> fields = new ArrayList<>(schema.getFields().size());
+              for (Schema.Field field : schema.getFields()) {
+                if (!skipKeys.contains(field.name())) {
+                  fields.add(new CommonField(field, sanitizeValue(field.name())));
+                }
+              }
+              return fields;
+            });
   }
 
   /** Common way how to convert {@link SpecificRecordBase} to json string */
@@ -211,6 +231,20 @@ public class JsonConverter {
     return new TextNode(value);
   }
 
+  /**
+   * Writes the json as UTF-8 bytes through a buffer reused by the thread, the result is the same as
+   * {@code node.toString().getBytes(UTF_8)} without the intermediate String
+   */
+  @SneakyThrows
+  static byte[] toBytes(JsonNode node) {
+    ByteArrayBuilder buffer = BUFFER.get();
+    buffer.reset();
+    try (JsonGenerator generator = MAPPER.getFactory().createGenerator(buffer)) {
+      MAPPER.writeTree(generator, node);
+    }
+    return buffer.toByteArray();
+  }
+
   /** Creates a empty ArrayNode. */
   static ArrayNode createArrayNode() {
     return MAPPER.createArrayNode();
@@ -228,4 +262,62 @@ public class JsonConverter {
     }
     return value;
   }
+
+  /** Schema field with the type and the json key resolved */
+  private static class CommonField {
+
+    private final Schema.Field field;
+    private final int pos;
+    private final String name;
+    private final String key;
+    private final Type type;
+
+    private CommonField(Schema.Field field, String key) {
+      this.field = field;
+      this.pos = field.pos();
+      this.name = field.name();
+      this.key = key;
+      Schema schema = field.schema();
+      this.type =
+          schema.getType() == UNION
+              ? schema.getTypes().stream()
+                  .filter(t -> t.getType() != Type.NULL)
+                  .findFirst()
+                  .map(Schema::getType)
+                  .orElse(null)
+              : schema.getType();
+    }
+  }
+
+  /** skipKeys and replaceKeys of a converter, patterns are compared by their source */
+  private static class CommonFieldsKey {
+
+    private final Set<String> skipKeys;
+    private final List<String> replaceKeys;
+
+    private CommonFieldsKey(Set<String> skipKeys, List<Pattern> replaceKeys) {
+      this.skipKeys = skipKeys;
+      this.replaceKeys = new ArrayList<>(replaceKeys.size());
+      for (Pattern pattern : replaceKeys) {
+        this.replaceKeys.add(pattern.pattern());
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CommonFieldsKey)) {
+        return false;
+      }
+      CommonFieldsKey that = (CommonFieldsKey) o;
+      return skipKeys.equals(that.skipKeys) && replaceKeys.equals(that.replaceKeys);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * skipKeys.hashCode() + replaceKeys.hashCode();
+    }
+  }
 }
@@ -11,6 +11,7 @@ import java.util.Map;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.pipelines.core.parsers.vertnet.DynamicPropertiesText;
 import org.gbif.pipelines.core.parsers.vertnet.DynamicProperty;
 import org.gbif.pipelines.core.parsers.vertnet.LengthParser;
 import org.gbif.pipelines.core.parsers.vertnet.MassParser;
@@ -21,10 +22,11 @@ public class MeasurementOrFactConverter {
 
   public static List<Map<String, String>> extractFromDynamicProperties(ExtendedRecord er) {
     if (hasValueNullAware(er, DwcTerm.dynamicProperties)) {
-      String value = extractNullAwareValue(er, DwcTerm.dynamicProperties);
+      DynamicPropertiesText text =
+          DynamicPropertiesText.of(extractNullAwareValue(er, DwcTerm.dynamicProperties));
       List<Map<String, String>> map = new ArrayList<>(2);
-      LengthParser.parse(value).map(MeasurementOrFactConverter::map).ifPresent(map::add);
-      MassParser.parse(value).map(MeasurementOrFactConverter::map).ifPresent(map::add);
+      LengthParser.parse(text).map(MeasurementOrFactConverter::map).ifPresent(map::add);
+      MassParser.parse(text).map(MeasurementOrFactConverter::map).ifPresent(map::add);
       return map;
     }
     return Collections.emptyList();
@@ -4,17 +4,17 @@ import com.fasterxml.jackson.databind.node.TextNode;
 import com.google.common.base.Strings;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import lombok.Builder;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.avro.Schema;
 import org.apache.avro.specific.SpecificRecordBase;
-import org.apache.commons.beanutils.PropertyUtils;
 import org.gbif.api.vocabulary.License;
-import org.gbif.dwc.terms.DcTerm;
 import org.gbif.dwc.terms.DwcTerm;
 import org.gbif.dwc.terms.Term;
 import org.gbif.dwc.terms.TermFactory;
@@ -44,6 +44,9 @@ public class OccurrenceHdfsRecordConverter {
 
   private static final TermFactory TERM_FACTORY = TermFactory.instance();
 
+  // Term names resolved to record fields once, instead of a term and schema lookup per value
+  private static final Map<String, TermFields> TERM_FIELDS = new ConcurrentHashMap<>();
+
   private final ExtendedRecord extendedRecord;
   private final BasicRecord basicRecord;
   private final LocationRecord locationRecord;
@@ -425,50 +428,6 @@ public class OccurrenceHdfsRecordConverter {
     }
   }
 
-  /**
-   * From a {@link Schema.Field} copies it value into a the {@link OccurrenceHdfsRecord} field using
-   * the recognized data type.
-   *
-   * @param occurrenceHdfsRecord target record
-   * @param avroField field to be copied
-   * @param fieldName {@link OccurrenceHdfsRecord} field/property name
-   * @param value field data/value
-   */
-  private static void setHdfsRecordField(
-      OccurrenceHdfsRecord occurrenceHdfsRecord,
-      Schema.Field avroField,
-      String fieldName,
-      String value) {
-    try {
-      Schema.Type fieldType = avroField.schema().getType();
-      if (Schema.Type.UNION == avroField.schema().getType()) {
-        fieldType = avroField.schema().getTypes().get(0).getType();
-      }
-      switch (fieldType) {
-        case INT:
-          PropertyUtils.setProperty(occurrenceHdfsRecord, fieldName, Integer.valueOf(value));
-          break;
-        case LONG:
-          PropertyUtils.setProperty(occurrenceHdfsRecord, fieldName, Long.valueOf(value));
-          break;
-        case BOOLEAN:
-          PropertyUtils.setProperty(occurrenceHdfsRecord, fieldName, Boolean.valueOf(value));
-          break;
-        case DOUBLE:
-          PropertyUtils.setProperty(occurrenceHdfsRecord, fieldName, Double.valueOf(value));
-          break;
-        case FLOAT:
-          PropertyUtils.setProperty(occurrenceHdfsRecord, fieldName, Float.valueOf(value));
-          break;
-        default:
-          PropertyUtils.setProperty(occurrenceHdfsRecord, fieldName, value);
-          break;
-      }
-    } catch (Exception ex) {
-      log.error("Ignoring error setting field {}", avroField, ex);
-    }
-  }
-
   /** Copies the {@link ExtendedRecord} data into the {@link OccurrenceHdfsRecord}. */
   private void mapExtendedRecord(OccurrenceHdfsRecord occurrenceHdfsRecord) {
     if (extendedRecord == null) {
@@ -486,45 +445,15 @@ public class OccurrenceHdfsRecordConverter {
   }
 
   private void mapTerm(String k, String v, OccurrenceHdfsRecord occurrenceHdfsRecord) {
-    Term term = TERM_FACTORY.findTerm(k);
+    TermFields fields = TERM_FIELDS.computeIfAbsent(k, TermFields::create);
 
-    if (term == null) {
-      return;
+    if (fields.verbatim != null) {
+      fields.verbatim.set(occurrenceHdfsRecord, v);
     }
 
-    if (TermUtils.verbatimTerms().contains(term)) {
-      Optional.ofNullable(verbatimSchemaField(term))
-          .ifPresent(
-              field -> {
-                String verbatimField =
-                    "V" + field.name().substring(2, 3).toUpperCase() + field.name().substring(3);
-                setHdfsRecordField(occurrenceHdfsRecord, field, verbatimField, v);
-              });
-    }
-
-    if (!TermUtils.isInterpretedSourceTerm(term)) {
-      Optional.ofNullable(interpretedSchemaField(term))
-          .ifPresent(
-              field -> {
-                // Fields that were set by other mappers are ignored
-                if (Objects.isNull(occurrenceHdfsRecord.get(field.name()))) {
-                  String interpretedFieldname = field.name();
-                  if (DcTerm.abstract_ == term) {
-                    interpretedFieldname = "abstract$";
-                  } else if (DwcTerm.class_ == term) {
-                    interpretedFieldname = "class$";
-                  } else if (DwcTerm.group == term) {
-                    interpretedFieldname = "group";
-                  } else if (DwcTerm.order == term) {
-                    interpretedFieldname = "order";
-                  } else if (DcTerm.date == term) {
-                    interpretedFieldname = "date";
-                  } else if (DcTerm.format == term) {
-                    interpretedFieldname = "format";
-                  }
-                  setHdfsRecordField(occurrenceHdfsRecord, field, interpretedFieldname, v);
-                }
-              });
+    // Fields that were set by other mappers are ignored
+    if (fields.interpreted != null && occurrenceHdfsRecord.get(fields.interpreted.pos) == null) {
+      fields.interpreted.set(occurrenceHdfsRecord, v);
     }
   }
 
@@ -560,4 +489,86 @@ public class OccurrenceHdfsRecordConverter {
   private static Schema.Field interpretedSchemaField(Term term) {
     return OccurrenceHdfsRecord.SCHEMA$.getField(HiveColumns.columnFor(term));
   }
+
+  /** Verbatim and interpreted {@link OccurrenceHdfsRecord} fields of a term, null if absent */
+  private static class TermFields {
+
+    private static final TermFields NONE = new TermFields(null, null);
+
+    private final FieldSetter verbatim;
+    private final FieldSetter interpreted;
+
+    private TermFields(FieldSetter verbatim, FieldSetter interpreted) {
+      this.verbatim = verbatim;
+      this.interpreted = interpreted;
+    }
+
+    private static TermFields create(String termName) {
+      Term term = TERM_FACTORY.findTerm(termName);
+      if (term == null) {
+        return NONE;
+      }
+      FieldSetter verbatim =
+          TermUtils.verbatimTerms().contains(term)
+              ? FieldSetter.create(verbatimSchemaField(term))
+              : null;
+      FieldSetter interpreted =
+          TermUtils.isInterpretedSourceTerm(term)
+              ? null
+              : FieldSetter.create(interpretedSchemaField(term));
+      return verbatim == null && interpreted == null ? NONE : new TermFields(verbatim, interpreted);
+    }
+  }
+
+  /**
+   * Copies a string value into a {@link OccurrenceHdfsRecord} field by position, using the
+   * recognized data type.
+   */
+  private static class FieldSetter {
+
+    private final Schema.Field field;
+    private final int pos;
+    private final Schema.Type type;
+
+    private FieldSetter(Schema.Field field) {
+      this.field = field;
+      this.pos = field.pos();
+      Schema.Type fieldType = field.schema().getType();
+      if (Schema.Type.UNION == fieldType) {
+        fieldType = field.schema().getTypes().get(0).getType();
+      }
+      this.type = fieldType;
+    }
+
+    private static FieldSetter create(Schema.Field field) {
+      return field == null ? null : new FieldSetter(field);
+    }
+
+    private void set(OccurrenceHdfsRecord occurrenceHdfsRecord, String value) {
+      try {
+        switch (type) {
+          case INT:
+            occurrenceHdfsRecord.put(pos, Integer.valueOf(value));
+            break;
+          case LONG:
+            occurrenceHdfsRecord.put(pos, Long.valueOf(value));
+            break;
+          case BOOLEAN:
+            occurrenceHdfsRecord.put(pos, Boolean.valueOf(value));
+            break;
+          case DOUBLE:
+            occurrenceHdfsRecord.put(pos, Double.valueOf(value));
+            break;
+          case FLOAT:
+            occurrenceHdfsRecord.put(pos, Float.valueOf(value));
+            break;
+          default:
+            occurrenceHdfsRecord.put(pos, value);
+            break;
+        }
+      } catch (Exception ex) {
+        log.error("Ignoring error setting field {}", field, ex);
+      }
+    }
+  }
 }
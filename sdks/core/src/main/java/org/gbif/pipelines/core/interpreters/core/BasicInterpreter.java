@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiConsumer;
@@ -90,23 +91,7 @@ public class BasicInterpreter {
         return;
       }
 
-      Set<String> uniqueStrings = new HashSet<>(2);
-
-      // Adds occurrenceId
-      if (isOccurrenceIdValid) {
-        String occurrenceId = extractValue(er, DwcTerm.occurrenceID);
-        if (!Strings.isNullOrEmpty(occurrenceId)) {
-          uniqueStrings.add(occurrenceId);
-        }
-      }
-
-      // Adds triplet
-      if (isTripletValid) {
-        String ic = extractValue(er, DwcTerm.institutionCode);
-        String cc = extractValue(er, DwcTerm.collectionCode);
-        String cn = extractValue(er, DwcTerm.catalogNumber);
-        OccurrenceKeyBuilder.buildKey(ic, cc, cn).ifPresent(uniqueStrings::add);
-      }
+      Set<String> uniqueStrings = extractUniqueStrings(er, isTripletValid, isOccurrenceIdValid);
 
       if (!uniqueStrings.isEmpty()) {
         try {
@@ -125,6 +110,48 @@ public class BasicInterpreter {
     };
   }
 
+  /**
+   * Gets GBIF id from keys generated for a batch of records, see {@link
+   * HBaseLockingKeyService#generateKeys(Map)}
+   *
+   * @param keys map of {@link ExtendedRecord#getId()} to the key
+   */
+  public static BiConsumer<ExtendedRecord, BasicRecord> interpretGbifId(
+      Map<String, KeyLookupResult> keys) {
+    return (er, br) -> {
+      KeyLookupResult key = keys.get(er.getId());
+      if (key != null) {
+        br.setGbifId(key.getKey());
+      } else {
+        addIssue(br, GBIF_ID_INVALID);
+      }
+    };
+  }
+
+  /** Collects occurrenceId and triplet, the unique strings used to generate GBIF id */
+  public static Set<String> extractUniqueStrings(
+      ExtendedRecord er, boolean isTripletValid, boolean isOccurrenceIdValid) {
+    Set<String> uniqueStrings = new HashSet<>(2);
+
+    // Adds occurrenceId
+    if (isOccurrenceIdValid) {
+      String occurrenceId = extractValue(er, DwcTerm.occurrenceID);
+      if (!Strings.isNullOrEmpty(occurrenceId)) {
+        uniqueStrings.add(occurrenceId);
+      }
+    }
+
+    // Adds triplet
+    if (isTripletValid) {
+      String ic = extractValue(er, DwcTerm.institutionCode);
+      String cc = extractValue(er, DwcTerm.collectionCode);
+      String cn = extractValue(er, DwcTerm.catalogNumber);
+      OccurrenceKeyBuilder.buildKey(ic, cc, cn).ifPresent(uniqueStrings::add);
+    }
+
+    return uniqueStrings;
+  }
+
   public static Consumer<BasicRecord> interpretIsClustered(ClusteringService clusteringService) {
     return br -> {
       if (clusteringService != null) {
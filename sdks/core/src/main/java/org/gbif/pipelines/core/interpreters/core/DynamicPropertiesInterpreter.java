@@ -1,6 +1,6 @@
 package org.gbif.pipelines.core.interpreters.core;
 
-import static org.gbif.pipelines.core.utils.ModelUtils.extractNullAwareOptValue;
+import static org.gbif.pipelines.core.utils.ModelUtils.extractNullAwareValue;
 
 import java.util.Optional;
 import java.util.function.BiConsumer;
@@ -12,6 +12,7 @@ import org.gbif.api.vocabulary.Sex;
 import org.gbif.common.parsers.core.ParseResult;
 import org.gbif.dwc.terms.DwcTerm;
 import org.gbif.pipelines.core.parsers.VocabularyParser;
+import org.gbif.pipelines.core.parsers.vertnet.DynamicPropertiesText;
 import org.gbif.pipelines.core.parsers.vertnet.LifeStageParser;
 import org.gbif.pipelines.core.parsers.vertnet.SexParser;
 import org.gbif.pipelines.io.avro.BasicRecord;
@@ -22,6 +23,25 @@ import org.gbif.vocabulary.lookup.LookupConcept;
 public class DynamicPropertiesInterpreter {
 
   public static void interpretSex(ExtendedRecord er, BasicRecord br) {
+    interpretSex(br, dynamicProperties(er));
+  }
+
+  public static BiConsumer<ExtendedRecord, BasicRecord> interpretLifeStage(
+      Function<String, Optional<LookupConcept>> vocabularyLookupFn) {
+    return (er, br) -> interpretLifeStage(vocabularyLookupFn, br, dynamicProperties(er));
+  }
+
+  /** Sex and life stage from the same dynamicProperties text, which is prepared only once */
+  public static BiConsumer<ExtendedRecord, BasicRecord> interpretSexAndLifeStage(
+      Function<String, Optional<LookupConcept>> vocabularyLookupFn) {
+    return (er, br) -> {
+      DynamicPropertiesText text = dynamicProperties(er);
+      interpretSex(br, text);
+      interpretLifeStage(vocabularyLookupFn, br, text);
+    };
+  }
+
+  private static void interpretSex(BasicRecord br, DynamicPropertiesText text) {
     if (br.getSex() != null) {
       return;
     }
@@ -33,21 +53,23 @@ public class DynamicPropertiesInterpreter {
           }
         };
 
-    extractNullAwareOptValue(er, DwcTerm.dynamicProperties)
-        .flatMap(SexParser::parse)
-        .ifPresent(r -> VocabularyParser.sexParser().parse(r, fn));
+    SexParser.parse(text).ifPresent(r -> VocabularyParser.sexParser().parse(r, fn));
   }
 
-  public static BiConsumer<ExtendedRecord, BasicRecord> interpretLifeStage(
-      Function<String, Optional<LookupConcept>> vocabularyLookupFn) {
-    return (er, br) -> {
-      if (vocabularyLookupFn == null || br.getLifeStage() != null) {
-        return;
-      }
+  private static void interpretLifeStage(
+      Function<String, Optional<LookupConcept>> vocabularyLookupFn,
+      BasicRecord br,
+      DynamicPropertiesText text) {
+    if (vocabularyLookupFn == null || br.getLifeStage() != null) {
+      return;
+    }
 
-      extractNullAwareOptValue(er, DwcTerm.dynamicProperties)
-          .flatMap(v -> LifeStageParser.parse(v).flatMap(vocabularyLookupFn))
-          .ifPresent(x -> BasicInterpreter.getLookupConceptConsumer(br).accept(x));
-    };
+    LifeStageParser.parse(text)
+        .flatMap(vocabularyLookupFn)
+        .ifPresent(x -> BasicInterpreter.getLookupConceptConsumer(br).accept(x));
+  }
+
+  private static DynamicPropertiesText dynamicProperties(ExtendedRecord er) {
+    return DynamicPropertiesText.of(extractNullAwareValue(er, DwcTerm.dynamicProperties));
   }
 }
@@ -69,22 +69,7 @@ public class TaxonomyInterpreter {
 
       ModelUtils.checkNullOrEmpty(er);
 
-      SpeciesMatchRequest matchRequest =
-          SpeciesMatchRequest.builder()
-              .withKingdom(extractValue(er, DwcTerm.kingdom))
-              .withPhylum(extractValue(er, DwcTerm.phylum))
-              .withClazz(extractValue(er, DwcTerm.class_))
-              .withOrder(extractValue(er, DwcTerm.order))
-              .withFamily(extractValue(er, DwcTerm.family))
-              .withGenus(extractValue(er, DwcTerm.genus))
-              .withScientificName(extractValue(er, DwcTerm.scientificName))
-              .withRank(extractValue(er, DwcTerm.taxonRank))
-              .withVerbatimRank(extractValue(er, DwcTerm.verbatimTaxonRank))
-              .withSpecificEpithet(extractValue(er, DwcTerm.specificEpithet))
-              .withInfraspecificEpithet(extractValue(er, DwcTerm.infraspecificEpithet))
-              .withScientificNameAuthorship(extractValue(er, DwcTerm.scientificNameAuthorship))
-              .withGenericName(extractValue(er, GbifTerm.genericName))
-              .build();
+      SpeciesMatchRequest matchRequest = createMatchRequest(er);
 
       NameUsageMatch usageMatch = null;
       try {
@@ -137,6 +122,25 @@ public class TaxonomyInterpreter {
     };
   }
 
+  /** Creates the species match kv store key from the taxonomic fields of the record */
+  public static SpeciesMatchRequest createMatchRequest(ExtendedRecord er) {
+    return SpeciesMatchRequest.builder()
+        .withKingdom(extractValue(er, DwcTerm.kingdom))
+        .withPhylum(extractValue(er, DwcTerm.phylum))
+        .withClazz(extractValue(er, DwcTerm.class_))
+        .withOrder(extractValue(er, DwcTerm.order))
+        .withFamily(extractValue(er, DwcTerm.family))
+        .withGenus(extractValue(er, DwcTerm.genus))
+        .withScientificName(extractValue(er, DwcTerm.scientificName))
+        .withRank(extractValue(er, DwcTerm.taxonRank))
+        .withVerbatimRank(extractValue(er, DwcTerm.verbatimTaxonRank))
+        .withSpecificEpithet(extractValue(er, DwcTerm.specificEpithet))
+        .withInfraspecificEpithet(extractValue(er, DwcTerm.infraspecificEpithet))
+        .withScientificNameAuthorship(extractValue(er, DwcTerm.scientificNameAuthorship))
+        .withGenericName(extractValue(er, GbifTerm.genericName))
+        .build();
+  }
+
   /**
    * To be able to return NONE, if response is FUZZY and higher taxa is null or empty Fix for
    * https://github.com/gbif/pipelines/issues/254
@@ -3,6 +3,7 @@ package org.gbif.pipelines.core.io;
 import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.AVRO_EXTENSION;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
@@ -31,8 +32,8 @@ public class AvroReader {
   public static <T extends Record> Map<String, T> readUniqueRecords(
       String hdfsSiteConfig, String coreSiteConfig, Class<T> clazz, String path) {
     FileSystem fs = FsUtils.getFileSystem(hdfsSiteConfig, coreSiteConfig, path);
-    List<Path> paths = parseWildcardPath(fs, path);
-    return readUniqueRecords(fs, clazz, paths);
+    List<FileStatus> statuses = listFileStatuses(fs, path);
+    return readUniqueRecords(fs, clazz, statuses);
   }
 
   /**
@@ -45,8 +46,41 @@ public class AvroReader {
   public static <T extends Record> Map<String, T> readRecords(
       String hdfsSiteConfig, String coreSiteConfig, Class<T> clazz, String path) {
     FileSystem fs = FsUtils.getFileSystem(hdfsSiteConfig, coreSiteConfig, path);
-    List<Path> paths = parseWildcardPath(fs, path);
-    return readRecords(fs, clazz, paths);
+    List<FileStatus> statuses = listFileStatuses(fs, path);
+    return readRecords(fs, clazz, statuses);
+  }
+
+  /**
+   * Read {@link Record#getId()} distinct records, files are split and decoded in parallel using
+   * {@link ParallelAvroReader}. Decoded splits are merged in the file order, so the same as in
+   * {@link #readRecords(String, String, Class, String)}, the last record with the same id is kept.
+   * Only a window of decoded splits is kept besides the map, use {@link
+   * ParallelAvroReader#stream()} if records don't have to be kept by id
+   *
+   * @param clazz instance of {@link Record}
+   * @param path sting path, a wildcard can be used in the file name, like /a/b/c*.avro to read
+   *     multiple files
+   * @param executor executor for decoding, the caller thread takes part in decoding as well
+   */
+  public static <T extends Record> Map<String, T> readRecords(
+      String hdfsSiteConfig,
+      String coreSiteConfig,
+      Class<T> clazz,
+      String path,
+      ExecutorService executor) {
+    Iterator<T> iterator =
+        ParallelAvroReader.<T>builder()
+            .hdfsSiteConfig(hdfsSiteConfig)
+            .coreSiteConfig(coreSiteConfig)
+            .clazz(clazz)
+            .path(path)
+            .executor(executor)
+            .build()
+            .iterator();
+
+    Map<String, T> map = new HashMap<>();
+    iterator.forEachRemaining(r -> map.put(r.getId(), r));
+    return map;
   }
 
   /**
@@ -59,28 +93,27 @@ public class AvroReader {
   public static <T extends SpecificRecordBase> List<T> readObjects(
       String hdfsSiteConfig, String coreSiteConfig, Class<T> clazz, String path) {
     FileSystem fs = FsUtils.getFileSystem(hdfsSiteConfig, coreSiteConfig, path);
-    List<Path> paths = parseWildcardPath(fs, path);
-    return readObjects(fs, clazz, paths);
+    List<FileStatus> statuses = listFileStatuses(fs, path);
+    return readObjects(fs, clazz, statuses);
   }
 
   /**
    * Read {@link Record#getId()} unique records
    *
    * @param clazz instance of {@link Record}
-   * @param paths list of paths to the files
+   * @param statuses list of file statuses
    */
   @SneakyThrows
   private static <T extends Record> Map<String, T> readUniqueRecords(
-      FileSystem fs, Class<T> clazz, List<Path> paths) {
+      FileSystem fs, Class<T> clazz, List<FileStatus> statuses) {
 
     Map<String, T> map = new HashMap<>();
     Set<String> duplicateSet = new HashSet<>();
 
-    for (Path path : paths) {
+    for (FileStatus status : statuses) {
       // Read avro record from disk/hdfs
       DatumReader<T> reader = new SpecificDatumReader<>(clazz);
-      try (SeekableInput input =
-              new AvroFSInput(fs.open(path), fs.getContentSummary(path).getLength());
+      try (SeekableInput input = new AvroFSInput(fs.open(status.getPath()), status.getLen());
           DataFileReader<T> dataFileReader = new DataFileReader<>(input, reader)) {
         while (dataFileReader.hasNext()) {
           T next = dataFileReader.next();
@@ -104,19 +137,18 @@ public class AvroReader {
    * Read {@link Record#getId()} distinct records
    *
    * @param clazz instance of {@link Record}
-   * @param paths list of paths to the files
+   * @param statuses list of file statuses
    */
   @SneakyThrows
   private static <T extends SpecificRecordBase> List<T> readObjects(
-      FileSystem fs, Class<T> clazz, List<Path> paths) {
+      FileSystem fs, Class<T> clazz, List<FileStatus> statuses) {
 
     List<T> map = new ArrayList<>();
 
-    for (Path path : paths) {
+    for (FileStatus status : statuses) {
       // Deserialize ExtendedRecord from disk
       DatumReader<T> reader = new SpecificDatumReader<>(clazz);
-      try (SeekableInput input =
-              new AvroFSInput(fs.open(path), fs.getContentSummary(path).getLength());
+      try (SeekableInput input = new AvroFSInput(fs.open(status.getPath()), status.getLen());
           DataFileReader<T> dataFileReader = new DataFileReader<>(input, reader)) {
         while (dataFileReader.hasNext()) {
           T next = dataFileReader.next();
@@ -132,19 +164,18 @@ public class AvroReader {
    * Read {@link Record#getId()} distinct records
    *
    * @param clazz instance of {@link Record}
-   * @param paths list of paths to the files
+   * @param statuses list of file statuses
    */
   @SneakyThrows
   private static <T extends Record> Map<String, T> readRecords(
-      FileSystem fs, Class<T> clazz, List<Path> paths) {
+      FileSystem fs, Class<T> clazz, List<FileStatus> statuses) {
 
     Map<String, T> map = new HashMap<>();
 
-    for (Path path : paths) {
+    for (FileStatus status : statuses) {
       // Deserialize ExtendedRecord from disk
       DatumReader<T> reader = new SpecificDatumReader<>(clazz);
-      try (SeekableInput input =
-              new AvroFSInput(fs.open(path), fs.getContentSummary(path).getLength());
+      try (SeekableInput input = new AvroFSInput(fs.open(status.getPath()), status.getLen());
           DataFileReader<T> dataFileReader = new DataFileReader<>(input, reader)) {
         while (dataFileReader.hasNext()) {
           T next = dataFileReader.next();
@@ -158,7 +189,7 @@ public class AvroReader {
 
   /** Read multiple files, with the wildcard in the path */
   @SneakyThrows
-  private static List<Path> parseWildcardPath(FileSystem fs, String path) {
+  static List<Path> parseWildcardPath(FileSystem fs, String path) {
     if (path.contains("*")) {
       Path pp = new Path(path).getParent();
       RemoteIterator<LocatedFileStatus> files = fs.listFiles(pp, false);
@@ -174,4 +205,25 @@ public class AvroReader {
     }
     return Collections.singletonList(new Path(path));
   }
+
+  /**
+   * Read statuses of multiple files, with the wildcard in the path. The lengths come from the
+   * directory listing, so there is no extra NameNode call per file
+   */
+  @SneakyThrows
+  static List<FileStatus> listFileStatuses(FileSystem fs, String path) {
+    if (path.contains("*")) {
+      Path pp = new Path(path).getParent();
+      RemoteIterator<LocatedFileStatus> files = fs.listFiles(pp, false);
+      List<FileStatus> statuses = new ArrayList<>();
+      while (files.hasNext()) {
+        LocatedFileStatus next = files.next();
+        if (next.isFile() && next.getPath().getName().endsWith(AVRO_EXTENSION)) {
+          statuses.add(next);
+        }
+      }
+      return statuses;
+    }
+    return Collections.singletonList(fs.getFileStatus(new Path(path)));
+  }
 }
@@ -5,15 +5,21 @@ import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.gbif.dwc.Archive;
 import org.gbif.dwc.DwcFiles;
 import org.gbif.dwc.record.Record;
 import org.gbif.dwc.record.StarRecord;
 import org.gbif.pipelines.core.converters.ExtendedRecordConverter;
+import org.gbif.pipelines.core.converters.ExtendedRecordConverter.StarRecordValues;
+import org.gbif.pipelines.core.utils.BoundedBatchExecutor;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.gbif.utils.file.ClosableIterator;
 
@@ -24,7 +30,10 @@ import org.gbif.utils.file.ClosableIterator;
 @Slf4j
 public class DwcaReader implements Closeable {
 
+  private static final int BATCH_SIZE = 1_000;
+
   private final Function<Object, ExtendedRecord> convertFn;
+  private final Function<Object, StarRecordValues> copyFn;
   private final ClosableIterator<?> iterator;
   private long recordsReturned;
   private ExtendedRecord current;
@@ -53,6 +62,7 @@ public class DwcaReader implements Closeable {
       this.iterator = archive.getCore().iterator();
       this.convertFn =
           record -> ExtendedRecordConverter.from((Record) record, Collections.emptyMap());
+      this.copyFn = record -> ExtendedRecordConverter.copy((Record) record, Collections.emptyMap());
     } else {
       this.iterator = archive.iterator();
       this.convertFn =
@@ -60,6 +70,11 @@ public class DwcaReader implements Closeable {
             StarRecord starRecord = (StarRecord) record;
             return ExtendedRecordConverter.from(starRecord.core(), starRecord.extensions());
           };
+      this.copyFn =
+          record -> {
+            StarRecord starRecord = (StarRecord) record;
+            return ExtendedRecordConverter.copy(starRecord.core(), starRecord.extensions());
+          };
     }
   }
 
@@ -83,6 +98,35 @@ public class DwcaReader implements Closeable {
     return true;
   }
 
+  /**
+   * Reads and copies the remaining records on the calling thread and converts them in batches on
+   * the executor, at most maxInFlight batches are kept in memory. Converted records are passed to
+   * the consumer on the calling thread in the archive order.
+   */
+  public void readAll(
+      ExecutorService executor, int maxInFlight, Consumer<ExtendedRecord> consumer) {
+    BoundedBatchExecutor<StarRecordValues, List<ExtendedRecord>> batchExecutor =
+        BoundedBatchExecutor.<StarRecordValues, List<ExtendedRecord>>builder()
+            .executor(executor)
+            .batchFn(
+                batch ->
+                    batch.stream().map(ExtendedRecordConverter::from).collect(Collectors.toList()))
+            .resultConsumer((batch, result) -> result.forEach(consumer))
+            .batchSize(BATCH_SIZE)
+            .maxInFlight(maxInFlight)
+            .build();
+
+    // The star record iterator reuses one record instance, values are copied before batching
+    while (iterator.hasNext()) {
+      recordsReturned++;
+      if (recordsReturned % 10_000 == 0) {
+        log.info("Read [{}] records", recordsReturned);
+      }
+      batchExecutor.accept(copyFn.apply(iterator.next()));
+    }
+    batchExecutor.flush();
+  }
+
   /** Gets the current extended record. */
   public ExtendedRecord getCurrent() {
     if (current == null) {
@@ -1,5 +1,10 @@
 package org.gbif.pipelines.core.io;
 
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ES_BULK_DOCUMENTS_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ES_BULK_REJECTED_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ES_BULK_REQUESTS_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ES_BULK_REQUEST_TIME;
+
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
@@ -7,9 +12,16 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Phaser;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import lombok.Builder;
@@ -17,6 +29,9 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpHost;
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.index.IndexRequest;
@@ -24,14 +39,21 @@ import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
+import org.elasticsearch.rest.RestStatus;
 
 @Slf4j
 @Builder
 @SuppressWarnings("all")
 public class ElasticsearchWriter<T> {
 
+  private static final long MIN_BATCH_SIZE = 100L;
+  private static final long INITIAL_BACKOFF_MS = 100L;
+  private static final long MAX_BACKOFF_MS = 30_000L;
+
   private String[] esHosts;
   private int syncModeThreshold;
+  // Returns null for a record which must be skipped
   private Function<T, IndexRequest> indexRequestFn;
   private ExecutorService executor;
   private Collection<T> records;
@@ -39,6 +61,17 @@ public class ElasticsearchWriter<T> {
   private long esMaxBatchSizeBytes;
   private Integer backPressure;
 
+  // Pipelined mode settings
+  private boolean pipelinedMode;
+  @Builder.Default private int maxInFlight = 4;
+  @Builder.Default private int maxRetries = 5;
+  @Builder.Default private long targetLatencyMs = 5_000L;
+  private BiConsumer<String, Long> metricsFn;
+  // Records the time of a bulk request in nanoseconds
+  private BiConsumer<String, Long> timerFn;
+  // Receives the id of every document indexed without a failure
+  private Consumer<String> indexedIdFn;
+
   @SneakyThrows
   public void write() {
 
@@ -48,22 +81,31 @@ public class ElasticsearchWriter<T> {
     HttpHost[] hosts = Arrays.stream(esHosts).map(HttpHost::create).toArray(HttpHost[]::new);
     try (RestHighLevelClient client = new RestHighLevelClient(RestClient.builder(hosts))) {
 
+      if (pipelinedMode && !useSyncMode) {
+        writePipelined(client);
+        return;
+      }
+
       final Phaser phaser = new Phaser(1);
+      // First failure of an async bulk request
+      final AtomicReference<Throwable> error = new AtomicReference<>();
 
       final Queue<BulkRequest> requests = new LinkedBlockingQueue<>();
       requests.add(new BulkRequest().timeout(TimeValue.timeValueMinutes(5L)));
 
       Consumer<T> addIndexRequestFn =
           br ->
-              Optional.ofNullable(requests.peek())
-                  .ifPresent(req -> req.add(indexRequestFn.apply(br)));
+              Optional.ofNullable(indexRequestFn.apply(br))
+                  .ifPresent(ir -> Optional.ofNullable(requests.peek()).ifPresent(r -> r.add(ir)));
 
       Consumer<BulkRequest> clientBulkFn =
           br -> {
             try {
               log.info("Push ES request, number of actions - {}", br.numberOfActions());
+              long start = System.nanoTime();
               BulkResponse bulk = client.bulk(br, RequestOptions.DEFAULT);
-              phaser.arrive();
+              recordTime(System.nanoTime() - start);
+              acceptIndexedIds(bulk);
               if (bulk.hasFailures()) {
                 log.error(bulk.buildFailureMessage());
                 throw new ElasticsearchException(bulk.buildFailureMessage());
@@ -71,6 +113,8 @@ public class ElasticsearchWriter<T> {
             } catch (IOException ex) {
               log.error(ex.getMessage(), ex);
               throw new ElasticsearchException(ex.getMessage(), ex);
+            } finally {
+              phaser.arrive();
             }
           };
 
@@ -84,7 +128,12 @@ public class ElasticsearchWriter<T> {
                         if (useSyncMode) {
                           clientBulkFn.accept(req);
                         } else {
-                          CompletableFuture.runAsync(() -> clientBulkFn.accept(req), executor);
+                          CompletableFuture.runAsync(() -> clientBulkFn.accept(req), executor)
+                              .whenComplete(
+                                  (r, ex) ->
+                                      Optional.ofNullable(ex)
+                                          .map(e -> e.getCause() != null ? e.getCause() : e)
+                                          .ifPresent(e -> error.compareAndSet(null, e)));
                         }
                       });
 
@@ -106,6 +155,25 @@ public class ElasticsearchWriter<T> {
 
       // Wait for all futures
       phaser.arriveAndAwaitAdvance();
+
+      // Fail the write if any async bulk request failed
+      if (error.get() != null) {
+        throw error.get();
+      }
+    }
+  }
+
+  private void recordTime(long nanos) {
+    Optional.ofNullable(timerFn).ifPresent(fn -> fn.accept(ES_BULK_REQUEST_TIME, nanos));
+  }
+
+  private void acceptIndexedIds(BulkResponse response) {
+    if (indexedIdFn != null) {
+      for (BulkItemResponse item : response.getItems()) {
+        if (!item.isFailed()) {
+          indexedIdFn.accept(item.getId());
+        }
+      }
     }
   }
 
@@ -126,4 +194,173 @@ public class ElasticsearchWriter<T> {
       }
     }
   }
+
+  /**
+   * Keeps at most maxInFlight async bulk requests in flight, a new request waits for a permit
+   * released by a completed one. Only rejected items (429) are retried, the whole run fails on any
+   * other item failure
+   */
+  private void writePipelined(RestHighLevelClient client) throws Throwable {
+    ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor();
+    try {
+      BulkPipeline pipeline = new BulkPipeline(client, retryScheduler);
+      BulkRequest request = new BulkRequest().timeout(TimeValue.timeValueMinutes(5L));
+      for (T t : records) {
+        IndexRequest indexRequest = indexRequestFn.apply(t);
+        if (indexRequest == null) {
+          continue;
+        }
+        request.add(indexRequest);
+        if (request.numberOfActions() >= pipeline.batchSize.get()
+            || request.estimatedSizeInBytes() > esMaxBatchSizeBytes) {
+          pipeline.submit(request);
+          request = new BulkRequest().timeout(TimeValue.timeValueMinutes(5L));
+        }
+      }
+      if (request.numberOfActions() > 0) {
+        pipeline.submit(request);
+      }
+      pipeline.await();
+    } finally {
+      retryScheduler.shutdownNow();
+    }
+  }
+
+  /** Async bulk requests limited by permits, with retries and adaptive batch size */
+  private class BulkPipeline {
+
+    private final RestHighLevelClient client;
+    private final ScheduledExecutorService retryScheduler;
+    private final Semaphore permits = new Semaphore(maxInFlight);
+    private final Phaser phaser = new Phaser(1);
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    // Batch size is tuned between MIN_BATCH_SIZE and esMaxBatchSize using bulk latency
+    private final AtomicLong batchSize = new AtomicLong(esMaxBatchSize);
+
+    private BulkPipeline(RestHighLevelClient client, ScheduledExecutorService retryScheduler) {
+      this.client = client;
+      this.retryScheduler = retryScheduler;
+    }
+
+    private void submit(BulkRequest request) throws Throwable {
+      permits.acquire();
+      if (error.get() != null) {
+        permits.release();
+        throw error.get();
+      }
+      phaser.register();
+      send(request, 0);
+    }
+
+    private void await() throws Throwable {
+      phaser.arriveAndAwaitAdvance();
+      if (error.get() != null) {
+        throw error.get();
+      }
+    }
+
+    private void send(BulkRequest request, int attempt) {
+      long start = System.nanoTime();
+      client.bulkAsync(
+          request,
+          RequestOptions.DEFAULT,
+          ActionListener.wrap(
+              response -> onResponse(request, response, attempt, start),
+              ex -> onFailure(request, ex, attempt)));
+    }
+
+    private void onResponse(BulkRequest request, BulkResponse response, int attempt, long start) {
+      long latency = System.nanoTime() - start;
+      long latencyMs = TimeUnit.NANOSECONDS.toMillis(latency);
+      recordTime(latency);
+      acceptIndexedIds(response);
+
+      BulkRequest rejected = new BulkRequest().timeout(request.timeout());
+      for (BulkItemResponse item : response.getItems()) {
+        if (!item.isFailed()) {
+          continue;
+        }
+        if (item.status() != RestStatus.TOO_MANY_REQUESTS) {
+          log.error(response.buildFailureMessage());
+          finish(new ElasticsearchException(response.buildFailureMessage()));
+          return;
+        }
+        rejected.add(request.requests().get(item.getItemId()));
+      }
+
+      int indexed = request.numberOfActions() - rejected.numberOfActions();
+      log.info(
+          "ES bulk request, actions - {}, rejected - {}, latency - {} ms, throughput - {} docs/s",
+          request.numberOfActions(),
+          rejected.numberOfActions(),
+          latencyMs,
+          latencyMs > 0 ? indexed * 1_000L / latencyMs : indexed);
+      incMetric(ES_BULK_REQUESTS_COUNT, 1L);
+      incMetric(ES_BULK_DOCUMENTS_COUNT, indexed);
+      incMetric(ES_BULK_REJECTED_COUNT, rejected.numberOfActions());
+
+      adaptBatchSize(latencyMs, rejected.numberOfActions() > 0);
+
+      if (rejected.numberOfActions() == 0) {
+        finish(null);
+      } else {
+        retry(rejected, attempt, null);
+      }
+    }
+
+    private void onFailure(BulkRequest request, Exception ex, int attempt) {
+      boolean isRejected =
+          ex instanceof EsRejectedExecutionException
+              || (ex instanceof ElasticsearchStatusException
+                  && ((ElasticsearchStatusException) ex).status()
+                      == RestStatus.TOO_MANY_REQUESTS);
+      if (isRejected) {
+        adaptBatchSize(0L, true);
+        retry(request, attempt, ex);
+      } else {
+        log.error(ex.getMessage(), ex);
+        finish(new ElasticsearchException(ex.getMessage(), ex));
+      }
+    }
+
+    /** Schedules a retry with exponential backoff and jitter, the permit is held while waiting */
+    private void retry(BulkRequest request, int attempt, Exception cause) {
+      if (attempt >= maxRetries) {
+        String message = "ES bulk request was rejected " + (attempt + 1) + " times";
+        finish(new ElasticsearchException(message, cause));
+        return;
+      }
+      long maxDelay = Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << attempt);
+      long delay = maxDelay / 2 + ThreadLocalRandom.current().nextLong(maxDelay / 2 + 1);
+      log.warn("ES rejected {} actions, retry in {} ms", request.numberOfActions(), delay);
+      retryScheduler.schedule(() -> send(request, attempt + 1), delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Halves the batch size on rejections or when latency exceeds the target, otherwise grows it by
+     * 10% up to esMaxBatchSize
+     */
+    private void adaptBatchSize(long latencyMs, boolean isRejected) {
+      long minBatchSize = Math.min(MIN_BATCH_SIZE, esMaxBatchSize);
+      batchSize.updateAndGet(
+          current -> {
+            if (isRejected || latencyMs > targetLatencyMs) {
+              return Math.max(minBatchSize, current / 2);
+            }
+            return Math.min(esMaxBatchSize, current + Math.max(1L, current / 10));
+          });
+    }
+
+    private void finish(Throwable ex) {
+      if (ex != null) {
+        error.compareAndSet(null, ex);
+      }
+      permits.release();
+      phaser.arriveAndDeregister();
+    }
+
+    private void incMetric(String name, long value) {
+      Optional.ofNullable(metricsFn).ifPresent(fn -> fn.accept(name, value));
+    }
+  }
 }
@@ -0,0 +1,292 @@
+package org.gbif.pipelines.core.io;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.SeekableInput;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.hadoop.fs.AvroFSInput;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.gbif.pipelines.core.utils.FsUtils;
+
+/**
+ * Parallel avro format reader. Files are split into byte ranges and every range is decoded on the
+ * executor independently, a range starts from the first sync marker after the range start and
+ * contains all blocks which begin before the range end, the same way Hadoop input formats split
+ * avro files.
+ *
+ * <pre>{@code
+ * Map<String, BasicRecord> map = new ConcurrentHashMap<>();
+ * ParallelAvroReader.<BasicRecord>builder()
+ *     .clazz(BasicRecord.class)
+ *     .path("/a/b/basic*.avro")
+ *     .executor(executor)
+ *     .build()
+ *     .forEach(br -> map.put(br.getId(), br));
+ * }</pre>
+ *
+ * <p>The order of records between splits is not defined in {@link #forEach(Consumer)}, use {@link
+ * #iterator()}, {@link #stream()} or {@link #readSplits()} to get records in the file order.
+ */
+@Slf4j
+@Builder
+public class ParallelAvroReader<T> {
+
+  private final String hdfsSiteConfig;
+
+  private final String coreSiteConfig;
+
+  @NonNull private final Class<T> clazz;
+
+  /** Sting path, a wildcard can be used in the file name, like /a/b/c*.avro */
+  @NonNull private final String path;
+
+  @NonNull private final ExecutorService executor;
+
+  /** Max number of bytes in one split */
+  @Builder.Default private final long splitSize = 64L * 1024L * 1024L;
+
+  /** Max number of splits decoded at the same time */
+  @Builder.Default private final int parallelism = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * Reuse a record instance per split in {@link #forEach(Consumer)}, use only if the consumer
+   * doesn't keep references to the records
+   */
+  @Builder.Default private final boolean reuseRecords = false;
+
+  /**
+   * Decodes all records and passes them to the consumer, the consumer is called from multiple
+   * threads at the same time and must be thread-safe. The caller thread decodes splits as well, so
+   * it is safe to call the method from a task running on the same executor
+   */
+  public void forEach(Consumer<? super T> consumer) {
+    FileSystem fs = FsUtils.getFileSystem(hdfsSiteConfig, coreSiteConfig, path);
+    List<Split> splits = createSplits(fs);
+    run(splits, i -> readSplit(fs, splits.get(i), reuseRecords, consumer));
+  }
+
+  /**
+   * Decodes all records into a list per split, splits are decoded in parallel the same way as in
+   * {@link #forEach(Consumer)}, but the lists are returned in the file and byte offset order, so
+   * records are in the same order as read by a sequential reader
+   */
+  public List<List<T>> readSplits() {
+    FileSystem fs = FsUtils.getFileSystem(hdfsSiteConfig, coreSiteConfig, path);
+    List<Split> splits = createSplits(fs);
+    AtomicReferenceArray<List<T>> results = new AtomicReferenceArray<>(splits.size());
+    run(
+        splits,
+        i -> {
+          List<T> records = new ArrayList<>();
+          readSplit(fs, splits.get(i), false, records::add);
+          results.set(i, records);
+        });
+
+    List<List<T>> result = new ArrayList<>(splits.size());
+    for (int i = 0; i < splits.size(); i++) {
+      result.add(results.get(i));
+    }
+    return result;
+  }
+
+  /**
+   * Iterates over records in the file and byte offset order, the same order as a sequential
+   * reader. At most parallelism splits are decoded ahead of the consumer, so only these splits are
+   * kept in memory. A split which the executor hasn't started yet is decoded by the caller thread
+   */
+  public Iterator<T> iterator() {
+    FileSystem fs = FsUtils.getFileSystem(hdfsSiteConfig, coreSiteConfig, path);
+    return new OrderedIterator(fs, createSplits(fs));
+  }
+
+  /** Sequential ordered stream over {@link #iterator()} */
+  public Stream<T> stream() {
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED), false);
+  }
+
+  /** Splits every file into byte ranges of splitSize */
+  List<Split> createSplits(FileSystem fs) {
+    List<Split> splits = new ArrayList<>();
+    for (FileStatus status : AvroReader.listFileStatuses(fs, path)) {
+      long length = status.getLen();
+      for (long start = 0; start < length; start += splitSize) {
+        splits.add(new Split(status.getPath(), length, start, Math.min(start + splitSize, length)));
+      }
+    }
+    log.info("{} is split into {} splits", path, splits.size());
+    return splits;
+  }
+
+  /**
+   * Runs the task for every split index, the caller thread runs tasks as well, so it is safe to
+   * call the method from a task running on the same executor
+   */
+  @SneakyThrows
+  private void run(List<Split> splits, SplitTask task) {
+    AtomicInteger next = new AtomicInteger();
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    CountDownLatch latch = new CountDownLatch(splits.size());
+
+    Runnable worker =
+        () -> {
+          int i;
+          while ((i = next.getAndIncrement()) < splits.size()) {
+            try {
+              if (error.get() == null) {
+                task.run(i);
+              }
+            } catch (Throwable ex) {
+              error.compareAndSet(null, ex);
+            } finally {
+              latch.countDown();
+            }
+          }
+        };
+
+    for (int i = 1; i < Math.min(parallelism, splits.size()); i++) {
+      executor.execute(worker);
+    }
+    worker.run();
+
+    // Waits for splits only, not for submitted tasks, a task which starts late finds no splits left
+    latch.await();
+    if (error.get() != null) {
+      throw error.get();
+    }
+  }
+
+  private void readSplit(FileSystem fs, Split split, boolean reuse, Consumer<? super T> consumer)
+      throws IOException {
+    try (SeekableInput input = new AvroFSInput(fs.open(split.path), split.fileLength);
+        DataFileReader<T> reader = new DataFileReader<>(input, new SpecificDatumReader<>(clazz))) {
+      reader.sync(split.start);
+      T record = null;
+      while (reader.hasNext() && !reader.pastSync(split.end)) {
+        record = reader.next(reuse ? record : null);
+        consumer.accept(record);
+      }
+    }
+  }
+
+  /** Keeps a window of splits decoded ahead and returns their records in the split order */
+  private class OrderedIterator implements Iterator<T> {
+
+    private final FileSystem fs;
+    private final List<Split> splits;
+    private final Queue<DecodedSplit> window = new ArrayDeque<>();
+    private int submitted;
+    private Iterator<T> current = Collections.emptyIterator();
+
+    private OrderedIterator(FileSystem fs, List<Split> splits) {
+      this.fs = fs;
+      this.splits = splits;
+      while (submitted < Math.min(parallelism, splits.size())) {
+        submitNext();
+      }
+    }
+
+    private void submitNext() {
+      DecodedSplit split = new DecodedSplit(fs, splits.get(submitted++));
+      window.add(split);
+      executor.execute(split::decode);
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!current.hasNext() && !window.isEmpty()) {
+        DecodedSplit split = window.poll();
+        if (submitted < splits.size()) {
+          submitNext();
+        }
+        current = split.get().iterator();
+      }
+      return current.hasNext();
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return current.next();
+    }
+  }
+
+  /** Records of a split, decoded once by the executor or by the consumer thread */
+  private class DecodedSplit {
+
+    private final FileSystem fs;
+    private final Split split;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CompletableFuture<List<T>> records = new CompletableFuture<>();
+
+    private DecodedSplit(FileSystem fs, Split split) {
+      this.fs = fs;
+      this.split = split;
+    }
+
+    private void decode() {
+      if (started.compareAndSet(false, true)) {
+        try {
+          List<T> list = new ArrayList<>();
+          readSplit(fs, split, false, list::add);
+          records.complete(list);
+        } catch (Throwable ex) {
+          records.completeExceptionally(ex);
+        }
+      }
+    }
+
+    @SneakyThrows
+    private List<T> get() {
+      decode();
+      try {
+        return records.get();
+      } catch (ExecutionException ex) {
+        throw ex.getCause();
+      }
+    }
+  }
+
+  /** Task which decodes a split by the split index */
+  private interface SplitTask {
+    void run(int index) throws IOException;
+  }
+
+  /** Byte range of a file */
+  @AllArgsConstructor
+  static class Split {
+    private final Path path;
+    private final long fileLength;
+    private final long start;
+    private final long end;
+  }
+}
@@ -0,0 +1,88 @@
+package org.gbif.pipelines.core.io;
+
+import static org.gbif.pipelines.common.PipelinesVariables.Pipeline.AVRO_EXTENSION;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import lombok.SneakyThrows;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Lock free alternative to the synchronized {@link SyncDataFileWriter#append}, every thread appends
+ * into its own avro part file. The first thread uses the main file, the next threads create part
+ * files using {@link #shardPath}, like /a/b/c_1.avro, so all files can be read using the /a/b/*.avro
+ * wildcard
+ */
+public class ShardedDataFileWriter<T> extends SyncDataFileWriter<T> {
+
+  private final Map<Long, DataFileWriter<T>> writers = new ConcurrentHashMap<>();
+  private final AtomicInteger shardCounter = new AtomicInteger();
+  private final DataFileWriter<T> mainWriter;
+  private final IntFunction<DataFileWriter<T>> shardWriterFn;
+
+  /**
+   * @param mainWriter writer for the main file, always created even if there are no records
+   * @param shardWriterFn creates a writer for a part file by the part number, starts from 1
+   */
+  public ShardedDataFileWriter(
+      DataFileWriter<T> mainWriter, IntFunction<DataFileWriter<T>> shardWriterFn) {
+    super(mainWriter);
+    this.mainWriter = mainWriter;
+    this.shardWriterFn = shardWriterFn;
+  }
+
+  /** Appends into the part file of the current thread, no locks are taken */
+  @Override
+  @SneakyThrows
+  public void append(T record) {
+    writers.computeIfAbsent(Thread.currentThread().getId(), this::createWriter).append(record);
+  }
+
+  @Override
+  public void close() throws IOException {
+    IOException exception = null;
+    for (DataFileWriter<T> writer : writers.values()) {
+      try {
+        writer.close();
+      } catch (IOException ex) {
+        exception = ex;
+      }
+    }
+    if (!writers.containsValue(mainWriter)) {
+      mainWriter.close();
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  private DataFileWriter<T> createWriter(Long threadId) {
+    int shard = shardCounter.getAndIncrement();
+    return shard == 0 ? mainWriter : shardWriterFn.apply(shard);
+  }
+
+  /** Part file path, /a/b/c.avro for the part number 1 becomes /a/b/c_1.avro */
+  public static String shardPath(String path, int shard) {
+    String base =
+        path.endsWith(AVRO_EXTENSION)
+            ? path.substring(0, path.length() - AVRO_EXTENSION.length())
+            : path;
+    return base + "_" + shard + AVRO_EXTENSION;
+  }
+
+  /** Creates part files next to the main file */
+  public static IntFunction<OutputStream> shardOutputStreamFn(FileSystem fs, Path path) {
+    return shard -> create(fs, new Path(shardPath(path.toString(), shard)));
+  }
+
+  @SneakyThrows
+  private static OutputStream create(FileSystem fs, Path path) {
+    return fs.create(path);
+  }
+}
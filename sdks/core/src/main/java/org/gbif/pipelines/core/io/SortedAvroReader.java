@@ -0,0 +1,381 @@
+package org.gbif.pipelines.core.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.file.SeekableInput;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.hadoop.fs.AvroFSInput;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.gbif.pipelines.core.utils.FsUtils;
+import org.gbif.pipelines.io.avro.Record;
+import org.gbif.utils.file.ClosableIterator;
+
+/**
+ * Avro format reader which returns {@link Record} based objects ordered by {@link Record#getId()}.
+ *
+ * <p>Records are read in chunks of bufferSize, every chunk is sorted in memory and spilled to a
+ * local file, the spilled runs are k-way merged while iterating. Memory usage is bounded by the
+ * buffer size and not by the number of records in the files.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class SortedAvroReader {
+
+  private static final CodecFactory SPILL_CODEC = CodecFactory.snappyCodec();
+
+  /**
+   * Read records sorted by {@link Record#getId()}, records with the same id are returned one after
+   * another in the order they were read
+   *
+   * @param clazz instance of {@link Record}
+   * @param path sting path, a wildcard can be used in the file name, like /a/b/c*.avro to read
+   *     multiple files
+   * @param spillDir local directory for sorted runs, the files are removed on close
+   * @param bufferSize max number of records kept in memory before a sorted run is spilled
+   */
+  public static <T extends Record> ClosableIterator<T> readSortedRecords(
+      String hdfsSiteConfig,
+      String coreSiteConfig,
+      Class<T> clazz,
+      String path,
+      java.nio.file.Path spillDir,
+      int bufferSize) {
+    return readSortedRecords(
+        hdfsSiteConfig, coreSiteConfig, clazz, path, spillDir, bufferSize, (r, c) -> c.accept(r));
+  }
+
+  /**
+   * Read records converted by the function sorted by {@link Record#getId()}, the function can
+   * return any number of records for a read record, like records from an occurrence extension. A
+   * file which doesn't exist is skipped with a warning
+   *
+   * @param clazz instance of {@link Record}
+   * @param path sting path, a wildcard can be used in the file name, like /a/b/c*.avro to read
+   *     multiple files
+   * @param spillDir local directory for sorted runs, the files are removed on close
+   * @param bufferSize max number of records kept in memory before a sorted run is spilled
+   * @param convertFn passes converted records of a read record to the consumer
+   */
+  @SneakyThrows
+  public static <T extends Record> ClosableIterator<T> readSortedRecords(
+      String hdfsSiteConfig,
+      String coreSiteConfig,
+      Class<T> clazz,
+      String path,
+      java.nio.file.Path spillDir,
+      int bufferSize,
+      BiConsumer<T, Consumer<T>> convertFn) {
+    FileSystem fs = FsUtils.getFileSystem(hdfsSiteConfig, coreSiteConfig, path);
+    List<Path> paths = AvroReader.parseWildcardPath(fs, path);
+
+    Sorter<T> sorter =
+        createSorter(clazz, Comparator.comparing(Record::getId), spillDir, bufferSize);
+
+    for (Path p : paths) {
+      if (!fs.exists(p)) {
+        log.warn("Avro file {} doesn't exist, it is skipped", p);
+        continue;
+      }
+      FileStatus status = fs.getFileStatus(p);
+      try (SeekableInput input = new AvroFSInput(fs.open(p), status.getLen());
+          DataFileReader<T> dataFileReader =
+              new DataFileReader<>(input, new SpecificDatumReader<>(clazz))) {
+        while (dataFileReader.hasNext()) {
+          convertFn.accept(dataFileReader.next(), sorter::add);
+        }
+      }
+    }
+
+    return sorter.sorted();
+  }
+
+  /**
+   * Read {@link Record#getId()} unique records sorted by id, the same rules as {@link
+   * AvroReader#readUniqueRecords} are applied: equal duplicates are returned once, ids with
+   * different duplicates are skipped
+   *
+   * @param clazz instance of {@link Record}
+   * @param path sting path, a wildcard can be used in the file name, like /a/b/c*.avro to read
+   *     multiple files
+   * @param spillDir local directory for sorted runs, the files are removed on close
+   * @param bufferSize max number of records kept in memory before a sorted run is spilled
+   */
+  public static <T extends Record> ClosableIterator<T> readSortedUniqueRecords(
+      String hdfsSiteConfig,
+      String coreSiteConfig,
+      Class<T> clazz,
+      String path,
+      java.nio.file.Path spillDir,
+      int bufferSize) {
+    return new UniqueIterator<>(
+        readSortedRecords(hdfsSiteConfig, coreSiteConfig, clazz, path, spillDir, bufferSize));
+  }
+
+  /**
+   * Read {@link Record#getId()} unique records converted by the function sorted by id, the same
+   * rules as {@link AvroReader#readUniqueRecords} are applied to the converted records
+   *
+   * @param clazz instance of {@link Record}
+   * @param path sting path, a wildcard can be used in the file name, like /a/b/c*.avro to read
+   *     multiple files
+   * @param spillDir local directory for sorted runs, the files are removed on close
+   * @param bufferSize max number of records kept in memory before a sorted run is spilled
+   * @param convertFn passes converted records of a read record to the consumer
+   */
+  public static <T extends Record> ClosableIterator<T> readSortedUniqueRecords(
+      String hdfsSiteConfig,
+      String coreSiteConfig,
+      Class<T> clazz,
+      String path,
+      java.nio.file.Path spillDir,
+      int bufferSize,
+      BiConsumer<T, Consumer<T>> convertFn) {
+    return new UniqueIterator<>(
+        readSortedRecords(
+            hdfsSiteConfig, coreSiteConfig, clazz, path, spillDir, bufferSize, convertFn));
+  }
+
+  /**
+   * Creates an external sorter, records added to the sorter are returned in the comparator order
+   *
+   * @param clazz avro generated class, used to spill records
+   * @param comparator records order, records with equal keys are returned in the added order
+   * @param spillDir local directory for sorted runs, the files are removed on close
+   * @param bufferSize max number of records kept in memory before a sorted run is spilled
+   */
+  public static <T> Sorter<T> createSorter(
+      Class<T> clazz,
+      Comparator<? super T> comparator,
+      java.nio.file.Path spillDir,
+      int bufferSize) {
+    return new Sorter<>(clazz, comparator, spillDir, bufferSize);
+  }
+
+  /** Accumulates records and spills sorted runs to the local disk */
+  public static class Sorter<T> {
+
+    private final Class<T> clazz;
+    private final Schema schema;
+    private final Comparator<? super T> comparator;
+    private final java.nio.file.Path spillDir;
+    private final int bufferSize;
+    private final List<File> runs = new ArrayList<>();
+    private List<T> buffer = new ArrayList<>();
+
+    private Sorter(
+        Class<T> clazz,
+        Comparator<? super T> comparator,
+        java.nio.file.Path spillDir,
+        int bufferSize) {
+      this.clazz = clazz;
+      this.schema = SpecificData.get().getSchema(clazz);
+      this.comparator = comparator;
+      this.spillDir = spillDir;
+      this.bufferSize = bufferSize;
+    }
+
+    @SneakyThrows
+    public void add(T record) {
+      buffer.add(record);
+      if (buffer.size() >= bufferSize) {
+        spill();
+      }
+    }
+
+    /** Finishes accumulation and returns all added records in the sorted order */
+    @SneakyThrows
+    public ClosableIterator<T> sorted() {
+      // Everything fits into the buffer, no need to touch the disk
+      if (runs.isEmpty()) {
+        buffer.sort(comparator);
+        return new BufferIterator<>(buffer.iterator());
+      }
+
+      if (!buffer.isEmpty()) {
+        spill();
+      }
+
+      log.info("{} records were spilled into {} sorted runs", clazz.getSimpleName(), runs.size());
+      return new MergeIterator<>(clazz, comparator, runs);
+    }
+
+    /** Sorts the buffer and writes it into a local avro file */
+    private void spill() throws IOException {
+      buffer.sort(comparator);
+      File file =
+          Files.createTempFile(spillDir, clazz.getSimpleName() + "-" + runs.size() + "-", ".avro")
+              .toFile();
+      try (DataFileWriter<T> writer = new DataFileWriter<>(new SpecificDatumWriter<>(clazz))) {
+        writer.setCodec(SPILL_CODEC);
+        writer.create(schema, file);
+        for (T t : buffer) {
+          writer.append(t);
+        }
+      }
+      runs.add(file);
+      buffer = new ArrayList<>();
+    }
+  }
+
+  /** Iterates over the in-memory sorted buffer */
+  private static class BufferIterator<T> implements ClosableIterator<T> {
+
+    private final Iterator<T> iterator;
+
+    private BufferIterator(Iterator<T> iterator) {
+      this.iterator = iterator;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return iterator.hasNext();
+    }
+
+    @Override
+    public T next() {
+      return iterator.next();
+    }
+
+    @Override
+    public void close() {
+      // NOP
+    }
+  }
+
+  /** K-way merge of the sorted runs, the run files are deleted on close */
+  private static class MergeIterator<T> implements ClosableIterator<T> {
+
+    private final List<File> runs;
+    private final List<DataFileReader<T>> readers = new ArrayList<>();
+    private final PriorityQueue<Head<T>> queue;
+
+    @SneakyThrows
+    private MergeIterator(Class<T> clazz, Comparator<? super T> comparator, List<File> runs) {
+      this.runs = runs;
+      this.queue =
+          new PriorityQueue<>(
+              Comparator.<Head<T>, T>comparing(h -> h.value, comparator)
+                  .thenComparingInt(h -> h.run));
+      for (int i = 0; i < runs.size(); i++) {
+        DataFileReader<T> reader =
+            new DataFileReader<>(runs.get(i), new SpecificDatumReader<>(clazz));
+        readers.add(reader);
+        if (reader.hasNext()) {
+          queue.add(new Head<>(reader.next(), i));
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !queue.isEmpty();
+    }
+
+    @Override
+    public T next() {
+      Head<T> head = queue.poll();
+      if (head == null) {
+        throw new NoSuchElementException();
+      }
+      DataFileReader<T> reader = readers.get(head.run);
+      if (reader.hasNext()) {
+        queue.add(new Head<>(reader.next(), head.run));
+      }
+      return head.value;
+    }
+
+    @Override
+    public void close() throws IOException {
+      for (DataFileReader<T> reader : readers) {
+        reader.close();
+      }
+      for (File run : runs) {
+        Files.deleteIfExists(run.toPath());
+      }
+    }
+  }
+
+  /** Skips ids with different duplicates in an id sorted iterator */
+  private static class UniqueIterator<T extends Record> implements ClosableIterator<T> {
+
+    private final ClosableIterator<T> iterator;
+    private T head;
+    private T next;
+
+    private UniqueIterator(ClosableIterator<T> iterator) {
+      this.iterator = iterator;
+      this.head = iterator.hasNext() ? iterator.next() : null;
+      this.next = advance();
+    }
+
+    private T advance() {
+      while (head != null) {
+        T saved = head;
+        boolean isDuplicate = false;
+        head = iterator.hasNext() ? iterator.next() : null;
+        while (head != null && head.getId().equals(saved.getId())) {
+          isDuplicate = isDuplicate || !head.equals(saved);
+          head = iterator.hasNext() ? iterator.next() : null;
+        }
+        if (!isDuplicate) {
+          return saved;
+        }
+        log.warn("occurrenceId = {}, duplicates were found", saved.getId());
+      }
+      return null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public T next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      T result = next;
+      next = advance();
+      return result;
+    }
+
+    @Override
+    public void close() throws Exception {
+      iterator.close();
+    }
+  }
+
+  /** Current value of a sorted run */
+  private static class Head<T> {
+
+    private final T value;
+    private final int run;
+
+    private Head(T value, int run) {
+      this.value = value;
+      this.run = run;
+    }
+  }
+}
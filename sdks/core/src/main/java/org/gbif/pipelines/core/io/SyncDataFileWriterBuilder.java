@@ -4,8 +4,11 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
 import lombok.Builder;
 import lombok.NonNull;
+import lombok.SneakyThrows;
 import org.apache.avro.Schema;
 import org.apache.avro.file.CodecFactory;
 import org.apache.avro.file.DataFileWriter;
@@ -19,15 +22,39 @@ public class SyncDataFileWriterBuilder {
   @NonNull private final OutputStream outputStream;
   private final Integer syncInterval;
   private final Boolean flushOnEveryBlock;
+  // Records the time of writing a block to the output stream in nanoseconds
+  private final BiConsumer<String, Long> timerFn;
 
   public <T> SyncDataFileWriter<T> createSyncDataFileWriter() throws IOException {
+    return new SyncDataFileWriter<>(createDataFileWriter(outputStream));
+  }
+
+  /**
+   * Creates a lock free {@link ShardedDataFileWriter}, the main file uses the outputStream
+   *
+   * @param shardOutputStreamFn creates an output stream for a part file by the part number
+   */
+  public <T> SyncDataFileWriter<T> createShardedDataFileWriter(
+      IntFunction<OutputStream> shardOutputStreamFn) throws IOException {
+    return new ShardedDataFileWriter<>(
+        createDataFileWriter(outputStream),
+        shard -> createShardDataFileWriter(shardOutputStreamFn.apply(shard)));
+  }
+
+  @SneakyThrows
+  private <T> DataFileWriter<T> createShardDataFileWriter(OutputStream output) {
+    return createDataFileWriter(output);
+  }
+
+  private <T> DataFileWriter<T> createDataFileWriter(OutputStream output) throws IOException {
     DataFileWriter<T> dataFileWriter = new DataFileWriter<>(new SpecificDatumWriter<>(schema));
 
     dataFileWriter.setCodec(CodecFactory.fromString(codec));
     Optional.ofNullable(flushOnEveryBlock).ifPresent(dataFileWriter::setFlushOnEveryBlock);
     Optional.ofNullable(syncInterval).ifPresent(dataFileWriter::setSyncInterval);
-    dataFileWriter.create(schema, new BufferedOutputStream(outputStream));
+    OutputStream out = timerFn == null ? output : new TimedOutputStream(output, timerFn);
+    dataFileWriter.create(schema, new BufferedOutputStream(out));
 
-    return new SyncDataFileWriter<>(dataFileWriter);
+    return dataFileWriter;
   }
 }
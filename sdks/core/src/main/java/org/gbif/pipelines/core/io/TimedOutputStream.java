@@ -0,0 +1,30 @@
+package org.gbif.pipelines.core.io;
+
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.AVRO_BLOCK_WRITE_TIME;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.BiConsumer;
+
+/**
+ * Records the time of writes to the underlying stream. {@link org.apache.avro.file.DataFileWriter}
+ * and {@link java.io.BufferedOutputStream} buffer compressed blocks, so a write is a buffered chunk
+ * of blocks, about a block for the default sync interval
+ */
+class TimedOutputStream extends FilterOutputStream {
+
+  private final BiConsumer<String, Long> timerFn;
+
+  TimedOutputStream(OutputStream out, BiConsumer<String, Long> timerFn) {
+    super(out);
+    this.timerFn = timerFn;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    long start = System.nanoTime();
+    out.write(b, off, len);
+    timerFn.accept(AVRO_BLOCK_WRITE_TIME, System.nanoTime() - start);
+  }
+}
@@ -2,8 +2,7 @@ package org.gbif.pipelines.core.parsers.location.cache;
 
 import java.awt.image.BufferedImage;
 import java.util.Collections;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.NonNull;
@@ -13,19 +12,25 @@ import org.gbif.kvs.geocode.LatLng;
 import org.gbif.rest.client.geocode.GeocodeResponse;
 import org.gbif.rest.client.geocode.Location;
 
-/** A cache which uses a bitmap to cache coordinate lookups. */
+/**
+ * A cache which uses a bitmap to cache coordinate lookups. The bitmap is converted into a {@link
+ * PaletteBitmap} once, responses are kept in an array by palette index, so a lookup of a known
+ * colour doesn't allocate or take locks.
+ */
 @Slf4j
 public class GeocodeBitmapCache {
 
   private final Function<LatLng, GeocodeResponse> loadFn;
 
   // World map image lookup
-  private final BufferedImage img;
+  private final PaletteBitmap bitmap;
   private static final int BORDER = 0x000000;
   private static final int NOTHING = 0xFFFFFF;
+  private static final GeocodeResponse EMPTY_RESPONSE =
+      new GeocodeResponse(Collections.emptyList());
   private final int imgWidth;
   private final int imgHeight;
-  private final Map<Integer, GeocodeResponse> colourKey = new ConcurrentHashMap<>();
+  private final AtomicReferenceArray<GeocodeResponse> colourKey;
   public static final String DEFAULT_KV_STORE = "COUNTRY";
   private String kvStoreType;
   private boolean missEqualsFail = true;
@@ -37,9 +42,10 @@ public class GeocodeBitmapCache {
       String kvStoreType,
       boolean missEqualsFail) {
     this.loadFn = loadFn;
-    this.img = img;
-    this.imgHeight = img != null ? img.getHeight() : -1;
-    this.imgWidth = img != null ? img.getWidth() : -1;
+    this.bitmap = PaletteBitmap.create(img);
+    this.imgHeight = bitmap.getHeight();
+    this.imgWidth = bitmap.getWidth();
+    this.colourKey = new AtomicReferenceArray<>(bitmap.getPaletteSize());
     this.kvStoreType = kvStoreType;
     this.missEqualsFail = missEqualsFail;
   }
@@ -72,35 +78,39 @@ public class GeocodeBitmapCache {
     int x = (int) Math.round((lng + 180d) / 360d * (imgWidth - 1));
     int y = imgHeight - 1 - (int) Math.round((lat + 90d) / 180d * (imgHeight - 1));
 
-    int colour = img.getRGB(x, y) & 0x00FFFFFF; // Ignore possible transparency.
+    int index = bitmap.getIndex(x, y);
+    int colour = bitmap.getColour(index);
 
-    String hex = String.format("#%06x", colour);
-    log.debug(
-        "[{}] LatLong {},{} has pixel {},{} with colour {}", kvStoreType, lat, lng, x, y, hex);
+    if (log.isDebugEnabled()) {
+      log.debug(
+          "[{}] LatLong {},{} has pixel {},{} with colour {}",
+          kvStoreType,
+          lat,
+          lng,
+          x,
+          y,
+          toHex(colour));
+    }
 
     switch (colour) {
       case BORDER:
         return null;
 
       case NOTHING:
-        return new GeocodeResponse(Collections.emptyList());
+        return EMPTY_RESPONSE;
 
       default:
-        return getDefaultGeocodeResponse(lat, lng, x, y, colour, hex);
+        GeocodeResponse locations = colourKey.get(index);
+        return locations != null ? locations : getDefaultGeocodeResponse(lat, lng, x, y, index);
     }
   }
 
   private GeocodeResponse getDefaultGeocodeResponse(
-      double lat, double lng, int x, int y, int colour, String hex) {
-
-    GeocodeResponse locations;
-    if (colourKey.containsKey(colour)) {
-      locations = colourKey.get(colour);
-      log.debug("[{}] Known colour {} (LL {},{}; pixel {},{})", kvStoreType, hex, lat, lng, x, y);
-      return locations;
-    }
+      double lat, double lng, int x, int y, int index) {
 
-    locations = loadFn.apply(LatLng.builder().withLatitude(lat).withLongitude(lng).build());
+    String hex = toHex(bitmap.getColour(index));
+    GeocodeResponse locations =
+        loadFn.apply(LatLng.builder().withLatitude(lat).withLongitude(lng).build());
     // Don't store this if there aren't any locations.
     if (locations.getLocations().isEmpty()) {
       if (missEqualsFail) {
@@ -122,7 +132,6 @@ public class GeocodeBitmapCache {
             x,
             y);
       }
-      colourKey.put(colour, locations);
     } else {
       log.debug(
           "[{}] New colour {} (LL {},{}; pixel {},{}); remembering as {}",
@@ -133,10 +142,15 @@ public class GeocodeBitmapCache {
           x,
           y,
           joinLocations(locations));
-      colourKey.put(colour, locations);
     }
 
-    return locations;
+    // Concurrent misses of the same colour keep the first stored response
+    colourKey.compareAndSet(index, null, locations);
+    return colourKey.get(index);
+  }
+
+  private static String toHex(int colour) {
+    return String.format("#%06x", colour);
   }
 
   private String joinLocations(GeocodeResponse loc) {
@@ -0,0 +1,118 @@
+package org.gbif.pipelines.core.parsers.location.cache;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.NonNull;
+
+/**
+ * Immutable palette-indexed copy of a bitmap. Every pixel is stored as an index into the palette
+ * of distinct colours, so a pixel can be resolved without calling {@link BufferedImage#getRGB(int,
+ * int)}, which goes through the colour model and allocates for some image types.
+ *
+ * <p>Indexes are packed into a short array while the palette has at most 65536 colours, which is
+ * always the case for the geocode bitmaps, and into an int array otherwise.
+ */
+final class PaletteBitmap {
+
+  private static final int MAX_SHORT_PALETTE = 1 << 16;
+
+  private final int width;
+  private final int height;
+  private final int[] palette;
+  private final short[] shortIndexes;
+  private final int[] intIndexes;
+
+  private PaletteBitmap(
+      int width, int height, int[] palette, short[] shortIndexes, int[] intIndexes) {
+    this.width = width;
+    this.height = height;
+    this.palette = palette;
+    this.shortIndexes = shortIndexes;
+    this.intIndexes = intIndexes;
+  }
+
+  /** Reads the image row by row and builds the palette, transparency is ignored */
+  static PaletteBitmap create(@NonNull BufferedImage img) {
+    int width = img.getWidth();
+    int height = img.getHeight();
+
+    Map<Integer, Integer> colourIndex = new HashMap<>();
+    int[] palette = new int[16];
+    short[] shortIndexes = new short[width * height];
+    int[] intIndexes = null;
+
+    int[] row = new int[width];
+    int lastColour = -1;
+    int lastIndex = -1;
+    for (int y = 0; y < height; y++) {
+      img.getRGB(0, y, width, 1, row, 0, width);
+      for (int x = 0; x < width; x++) {
+        int colour = row[x] & 0x00FFFFFF;
+        // Neighbouring pixels usually have the same colour
+        if (colour != lastColour) {
+          Integer index = colourIndex.get(colour);
+          if (index == null) {
+            index = colourIndex.size();
+            colourIndex.put(colour, index);
+            if (index == palette.length) {
+              palette = Arrays.copyOf(palette, palette.length * 2);
+            }
+            palette[index] = colour;
+            if (index == MAX_SHORT_PALETTE) {
+              intIndexes = toIntIndexes(shortIndexes);
+              shortIndexes = null;
+            }
+          }
+          lastColour = colour;
+          lastIndex = index;
+        }
+        int offset = y * width + x;
+        if (intIndexes != null) {
+          intIndexes[offset] = lastIndex;
+        } else {
+          shortIndexes[offset] = (short) lastIndex;
+        }
+      }
+    }
+
+    palette = Arrays.copyOf(palette, colourIndex.size());
+    return new PaletteBitmap(width, height, palette, shortIndexes, intIndexes);
+  }
+
+  private static int[] toIntIndexes(short[] shortIndexes) {
+    int[] intIndexes = new int[shortIndexes.length];
+    for (int i = 0; i < shortIndexes.length; i++) {
+      intIndexes[i] = shortIndexes[i] & 0xFFFF;
+    }
+    return intIndexes;
+  }
+
+  int getWidth() {
+    return width;
+  }
+
+  int getHeight() {
+    return height;
+  }
+
+  /** Number of distinct colours */
+  int getPaletteSize() {
+    return palette.length;
+  }
+
+  /** Palette index of the pixel, bounds are checked the same way as in {@link BufferedImage} */
+  int getIndex(int x, int y) {
+    if (x < 0 || x >= width || y < 0 || y >= height) {
+      throw new ArrayIndexOutOfBoundsException("Coordinate out of bounds!");
+    }
+    int offset = y * width + x;
+    return shortIndexes != null ? shortIndexes[offset] & 0xFFFF : intIndexes[offset];
+  }
+
+  /** RGB colour of the palette index */
+  int getColour(int index) {
+    return palette[index];
+  }
+}
@@ -1,6 +1,7 @@
 package org.gbif.pipelines.core.parsers.vertnet;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -26,36 +27,39 @@ class DynamicParser {
   private final Pattern unitsFromKey;
   private final Map<String, String> keyMap;
   private final String fieldName;
+  private final boolean digitRequired;
 
   private DynamicParser(
       List<PatternDefault> patternList,
       Pattern unitsFromKey,
       Map<String, String> keyMap,
-      String fieldName) {
+      String fieldName,
+      boolean digitRequired) {
     this.patternList = patternList;
     this.unitsFromKey = unitsFromKey;
     this.keyMap = keyMap;
     this.fieldName = fieldName;
+    this.digitRequired = digitRequired;
   }
 
   protected static DynamicParserBuilder builder() {
     return new DynamicParserBuilder();
   }
 
-  protected Optional<DynamicProperty> parse(String source) {
-    if (source == null || source.isEmpty()) {
+  protected Optional<DynamicProperty> parse(DynamicPropertiesText text) {
+    if (text.isEmpty() || (digitRequired && !text.hasDigit())) {
       return Optional.empty();
     }
 
     try {
       for (PatternDefault p : patternList) {
 
-        Matcher matcher = p.pattern.matcher(source.toLowerCase());
+        Matcher matcher = p.pattern.matcher(text.getLowerCase());
 
         if (matcher.find()) {
-          String key = getGroup(matcher, p.defaultKey, KEY_GROUP);
-          String value = getGroup(matcher, null, VALUE_GROUP, VALUE_1_GROUP, VALUE_2_GROUP);
-          String units = getGroup(matcher, p.defaulType, UNITS_GROUP, UNITS_1_GROUP, UNITS_2_GROUP);
+          String key = getGroup(matcher, p.defaultKey, p.keyGroups);
+          String value = getGroup(matcher, null, p.valueGroups);
+          String units = getGroup(matcher, p.defaulType, p.unitsGroups);
           if (key != null && units == null) {
             Matcher km = unitsFromKey.matcher(key);
             units = km.find() ? km.group() : null;
@@ -80,16 +84,14 @@ class DynamicParser {
     return Optional.empty();
   }
 
-  private String getGroup(Matcher matcher, String value, String... group) {
+  private String getGroup(Matcher matcher, String value, String[] groups) {
     String result = null;
-    for (String g : group) {
-      if (matcher.pattern().pattern().contains("<" + g + ">")) {
-        String s = matcher.group(g);
-        if (result == null) {
-          result = s;
-        } else {
-          result = String.join(", ", result, s);
-        }
+    for (String g : groups) {
+      String s = matcher.group(g);
+      if (result == null) {
+        result = s;
+      } else {
+        result = String.join(", ", result, s);
       }
     }
     return result == null ? value : result;
@@ -102,6 +104,7 @@ class DynamicParser {
 
     private Pattern unitsFromKey;
     private String fieldName;
+    private boolean digitRequired;
 
     protected DynamicParserBuilder addUnitsFromKeyRegex(String regex) {
       this.unitsFromKey = Pattern.compile(regex);
@@ -119,6 +122,12 @@ class DynamicParser {
       return this;
     }
 
+    /** Skips the regex patterns for a text without digits, use when every pattern needs a number */
+    protected DynamicParserBuilder digitRequired() {
+      this.digitRequired = true;
+      return this;
+    }
+
     protected DynamicParserBuilder addRegexTemplate(String key, String value) {
       String result = value;
       for (Map.Entry<String, String> entry : RegexDefaultTemplates.get().entrySet()) {
@@ -165,12 +174,22 @@ class DynamicParser {
         }
         p.pattern = Pattern.compile(result);
         p.stringPattern = null;
+        p.keyGroups = presentGroups(result, KEY_GROUP);
+        p.valueGroups = presentGroups(result, VALUE_GROUP, VALUE_1_GROUP, VALUE_2_GROUP);
+        p.unitsGroups = presentGroups(result, UNITS_GROUP, UNITS_1_GROUP, UNITS_2_GROUP);
       }
     }
 
+    /** Resolves once which of the named groups the pattern has, instead of checking every match */
+    private static String[] presentGroups(String pattern, String... groups) {
+      return Arrays.stream(groups)
+          .filter(g -> pattern.contains("<" + g + ">"))
+          .toArray(String[]::new);
+    }
+
     public DynamicParser build() {
       initParser();
-      return new DynamicParser(patternList, unitsFromKey, keyMap, fieldName);
+      return new DynamicParser(patternList, unitsFromKey, keyMap, fieldName, digitRequired);
     }
   }
 
@@ -178,6 +197,9 @@ class DynamicParser {
   private static final class PatternDefault {
     private Pattern pattern;
     private String stringPattern;
+    private String[] keyGroups;
+    private String[] valueGroups;
+    private String[] unitsGroups;
     private final String defaultKey;
     private final String defaulType;
   }
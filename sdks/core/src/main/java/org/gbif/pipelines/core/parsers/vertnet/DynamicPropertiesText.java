@@ -0,0 +1,71 @@
+package org.gbif.pipelines.core.parsers.vertnet;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * A dynamicProperties value prepared once for all vertnet parsers: lowercased, checked for digits
+ * and scanned for the parser keywords in a single pass, so a parser can reject a text without
+ * running any regex. Create it once per record and pass it to every parser which reads the same
+ * value.
+ */
+public final class DynamicPropertiesText {
+
+  static final int SEX = 1;
+  static final int LIFE_STAGE = 1 << 1;
+  static final int LIFE_STAGE_EXCLUDE = 1 << 2;
+
+  private static final KeywordMatcher KEYWORDS = createKeywordMatcher();
+
+  private static final DynamicPropertiesText EMPTY =
+      new DynamicPropertiesText(null, null, false, 0);
+
+  @Getter private final String source;
+  @Getter private final String lowerCase;
+  private final boolean digit;
+  private final int keywords;
+
+  private DynamicPropertiesText(String source, String lowerCase, boolean digit, int keywords) {
+    this.source = source;
+    this.lowerCase = lowerCase;
+    this.digit = digit;
+    this.keywords = keywords;
+  }
+
+  public static DynamicPropertiesText of(String source) {
+    if (source == null || source.isEmpty()) {
+      return EMPTY;
+    }
+
+    String lowerCase = source.toLowerCase();
+    boolean digit = false;
+    for (int i = 0; i < lowerCase.length() && !digit; i++) {
+      char c = lowerCase.charAt(i);
+      digit = c >= '0' && c <= '9';
+    }
+    return new DynamicPropertiesText(source, lowerCase, digit, KEYWORDS.scan(lowerCase));
+  }
+
+  public boolean isEmpty() {
+    return source == null;
+  }
+
+  /** Regex \d without UNICODE_CHARACTER_CLASS only matches ASCII digits */
+  boolean hasDigit() {
+    return digit;
+  }
+
+  boolean hasKeyword(int group) {
+    return (keywords & group) != 0;
+  }
+
+  private static KeywordMatcher createKeywordMatcher() {
+    Map<String, Integer> map = new HashMap<>();
+    SexParser.KEYWORDS.forEach(k -> map.merge(k, SEX, (a, b) -> a | b));
+    LifeStageParser.KEYWORDS.forEach(k -> map.merge(k, LIFE_STAGE, (a, b) -> a | b));
+    LifeStageParser.EXCLUDE_KEYWORDS.forEach(
+        k -> map.merge(k, LIFE_STAGE_EXCLUDE, (a, b) -> a | b));
+    return KeywordMatcher.create(map);
+  }
+}
@@ -0,0 +1,105 @@
+package org.gbif.pipelines.core.parsers.vertnet;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton over a fixed set of Latin-1 keywords. Each keyword belongs to a group bit,
+ * {@link #scan(String)} returns in one pass over a text the bits of all groups with at least one
+ * keyword in the text. Used as a cheap prefilter before running the regex patterns.
+ */
+final class KeywordMatcher {
+
+  private static final int ALPHABET = 256;
+
+  // Maps a char to its column in the transitions table, 0 is used for chars not in any keyword
+  private final int[] classes;
+  private final int columns;
+  // Complete DFA, transitions[state * columns + class] is the next state, 0 is the root
+  private final int[] transitions;
+  // Group bits of the keywords ending in the state, including the ones found by failure links
+  private final int[] output;
+
+  private KeywordMatcher(int[] classes, int columns, int[] transitions, int[] output) {
+    this.classes = classes;
+    this.columns = columns;
+    this.transitions = transitions;
+    this.output = output;
+  }
+
+  /** @param keywords keyword to its group bit */
+  static KeywordMatcher create(Map<String, Integer> keywords) {
+    int[] classes = new int[ALPHABET];
+    int columns = 1;
+    int maxStates = 1;
+    for (String keyword : keywords.keySet()) {
+      for (char c : keyword.toCharArray()) {
+        if (c >= ALPHABET) {
+          throw new IllegalArgumentException("Only Latin-1 keywords are supported: " + keyword);
+        }
+        if (classes[c] == 0) {
+          classes[c] = columns++;
+        }
+      }
+      maxStates += keyword.length();
+    }
+
+    // Trie, 0 means no transition since the root is never a target
+    int[] transitions = new int[maxStates * columns];
+    int[] output = new int[maxStates];
+    int states = 1;
+    for (Map.Entry<String, Integer> entry : keywords.entrySet()) {
+      int state = 0;
+      for (char c : entry.getKey().toCharArray()) {
+        int idx = state * columns + classes[c];
+        if (transitions[idx] == 0) {
+          transitions[idx] = states++;
+        }
+        state = transitions[idx];
+      }
+      output[state] |= entry.getValue();
+    }
+
+    // Breadth-first, resolves failure links into the transitions table
+    int[] fail = new int[states];
+    int[] queue = new int[states];
+    int head = 0;
+    int tail = 0;
+    for (int a = 1; a < columns; a++) {
+      if (transitions[a] != 0) {
+        queue[tail++] = transitions[a];
+      }
+    }
+    while (head < tail) {
+      int state = queue[head++];
+      output[state] |= output[fail[state]];
+      for (int a = 1; a < columns; a++) {
+        int idx = state * columns + a;
+        int fallback = transitions[fail[state] * columns + a];
+        if (transitions[idx] != 0) {
+          fail[transitions[idx]] = fallback;
+          queue[tail++] = transitions[idx];
+        } else {
+          transitions[idx] = fallback;
+        }
+      }
+    }
+
+    return new KeywordMatcher(
+        classes,
+        columns,
+        Arrays.copyOf(transitions, states * columns),
+        Arrays.copyOf(output, states));
+  }
+
+  int scan(String text) {
+    int state = 0;
+    int found = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      state = transitions[state * columns + (c < ALPHABET ? classes[c] : 0)];
+      found |= output[state];
+    }
+    return found;
+  }
+}
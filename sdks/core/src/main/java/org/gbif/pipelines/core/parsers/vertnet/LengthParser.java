@@ -24,6 +24,8 @@ public class LengthParser {
   private static final DynamicParser PARSER =
       DynamicParser.builder()
           .parserName(Parser.LENGTH)
+          // Every pattern captures a number
+          .digitRequired()
 
           // Add all replacement values for regex <key> group
           .replaceRegexKeyGroupResultWith(ENGLISH, TOTAL_LENGTH)
@@ -227,6 +229,10 @@ public class LengthParser {
           .build();
 
   public static Optional<DynamicProperty> parse(String source) {
-    return PARSER.parse(source);
+    return parse(DynamicPropertiesText.of(source));
+  }
+
+  public static Optional<DynamicProperty> parse(DynamicPropertiesText text) {
+    return PARSER.parse(text);
   }
 }
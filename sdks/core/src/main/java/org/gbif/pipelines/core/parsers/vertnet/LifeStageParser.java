@@ -1,6 +1,7 @@
 package org.gbif.pipelines.core.parsers.vertnet;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.regex.Matcher;
@@ -15,7 +16,6 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class LifeStageParser {
 
-  private static final Pattern EXCLUDE_PATTERN = Pattern.compile("determin");
   private static final Pattern LIFE_STAGE_KEY_VALUE_DELIMITED =
       Pattern.compile(
           "\\b(?<key>(?:life\\s*stage(?:\\s*remarks)?|age(?:\\s*class)?))\\W+(?<value>[\\w?./\\-]+(?:\\s+[\\w?./\\-]+){0,4})\\s*(?:[:;,\"]|$)");
@@ -40,18 +40,52 @@ public class LifeStageParser {
           LIFE_STAGE_YOLK_SAC,
           LIFE_STAGE_UNKEYED);
 
+  static final List<String> EXCLUDE_KEYWORDS = Collections.singletonList("determin");
+
+  /** Every pattern needs one of these literals, the shortest form of each alternative is used */
+  static final List<String> KEYWORDS =
+      Arrays.asList(
+          "life",
+          "age",
+          "year",
+          "yolk",
+          "larv",
+          "imago",
+          "neonate",
+          "hatch",
+          "fr",
+          "metamorph",
+          "tadpole",
+          "têtar",
+          "youn",
+          "leptocephal",
+          "imm",
+          "jeune",
+          "yg",
+          "flegling",
+          "fledgeling",
+          "chick",
+          "nestling",
+          "juv",
+          "subad",
+          "sub-adult",
+          "mature",
+          "ad");
+
   public static Optional<String> parse(String source) {
-    if (source == null || source.isEmpty()) {
+    return parse(DynamicPropertiesText.of(source));
+  }
+
+  public static Optional<String> parse(DynamicPropertiesText text) {
+    if (text.isEmpty()
+        || !text.hasKeyword(DynamicPropertiesText.LIFE_STAGE)
+        || text.hasKeyword(DynamicPropertiesText.LIFE_STAGE_EXCLUDE)) {
       return Optional.empty();
     }
 
     try {
-      Matcher exclude = EXCLUDE_PATTERN.matcher(source.toLowerCase());
-      if (exclude.find()) {
-        return Optional.empty();
-      }
       for (Pattern p : PATTERNS) {
-        Matcher matcher = p.matcher(source.toLowerCase());
+        Matcher matcher = p.matcher(text.getLowerCase());
         if (matcher.find()) {
           return Optional.ofNullable(matcher.group("value"));
         }
@@ -24,6 +24,8 @@ public class MassParser {
   private static final DynamicParser PARSER =
       DynamicParser.builder()
           .parserName(Parser.MASS)
+          // Every pattern captures a number
+          .digitRequired()
 
           // Add all replacement values for regex <key> group
           .replaceRegexKeyGroupResultWith(ENGLISH, TOTAL_WEIGHT)
@@ -188,6 +190,10 @@ public class MassParser {
           .build();
 
   public static Optional<DynamicProperty> parse(String source) {
-    return PARSER.parse(source);
+    return parse(DynamicPropertiesText.of(source));
+  }
+
+  public static Optional<DynamicProperty> parse(DynamicPropertiesText text) {
+    return PARSER.parse(text);
   }
 }
@@ -25,14 +25,21 @@ public class SexParser {
   private static final List<Pattern> PATTERNS =
       Arrays.asList(SEX_KEY_VALUE_DELIMITED, SEX_KEY_VALUE_UNDELIMITED, SEX_UNKEYED);
 
+  /** Every pattern needs one of these words, "male" is also a part of "female" */
+  static final List<String> KEYWORDS = Arrays.asList("sex", "male");
+
   public static Optional<String> parse(String source) {
-    if (source == null || source.isEmpty()) {
+    return parse(DynamicPropertiesText.of(source));
+  }
+
+  public static Optional<String> parse(DynamicPropertiesText text) {
+    if (text.isEmpty() || !text.hasKeyword(DynamicPropertiesText.SEX)) {
       return Optional.empty();
     }
 
     try {
       for (Pattern p : PATTERNS) {
-        Matcher matcher = p.matcher(source.toLowerCase());
+        Matcher matcher = p.matcher(text.getLowerCase());
         String result = matcher.find() ? matcher.group("value") : null;
         if (result != null) {
           while (matcher.find()) {
@@ -3,6 +3,8 @@ package org.gbif.pipelines.core.parsers.vertnet;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -43,10 +45,14 @@ public class TissueParser {
               "cor",
               "teixit"));
 
+  private static final KeywordMatcher MATCHER =
+      KeywordMatcher.create(
+          TISSUE_TOKENS.stream().collect(Collectors.toMap(Function.identity(), t -> 1)));
+
   public static boolean hasTissue(String source) {
     if (source == null || source.isEmpty()) {
       return false;
     }
-    return TISSUE_TOKENS.stream().anyMatch(source::contains);
+    return MATCHER.scan(source) != 0;
   }
 }
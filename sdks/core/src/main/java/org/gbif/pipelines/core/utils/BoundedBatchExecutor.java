@@ -0,0 +1,95 @@
+package org.gbif.pipelines.core.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+
+/**
+ * Splits a stream of elements into batches and processes the batches on an executor. At most
+ * maxInFlight batches are submitted at the same time, so the memory usage is bounded by batchSize *
+ * maxInFlight elements and doesn't depend on the number of elements.
+ *
+ * <p>Batch results are passed to the resultConsumer on the caller thread in the submission order.
+ *
+ * <pre>{@code
+ * BoundedBatchExecutor<ExtendedRecord, List<BasicRecord>> batchExecutor =
+ *     BoundedBatchExecutor.<ExtendedRecord, List<BasicRecord>>builder()
+ *         .executor(executor)
+ *         .batchFn(batch -> interpret(batch))
+ *         .resultConsumer((batch, result) -> result.forEach(writer::append))
+ *         .build();
+ *
+ * iterator.forEachRemaining(batchExecutor::accept);
+ * batchExecutor.flush();
+ * }</pre>
+ */
+@Builder
+public class BoundedBatchExecutor<T, R> {
+
+  private final Deque<Batch<T, R>> inFlight = new ArrayDeque<>();
+  private final List<T> current = new ArrayList<>();
+
+  @NonNull private final ExecutorService executor;
+
+  @NonNull private final Function<List<T>, R> batchFn;
+
+  @Builder.Default private final BiConsumer<List<T>, R> resultConsumer = (batch, result) -> {};
+
+  @Builder.Default private final int batchSize = 1_000;
+
+  @Builder.Default private final int maxInFlight = Runtime.getRuntime().availableProcessors() * 2;
+
+  /** Adds an element to the current batch, blocks if maxInFlight batches are already submitted */
+  public void accept(T element) {
+    current.add(element);
+    if (current.size() >= batchSize) {
+      submit();
+    }
+  }
+
+  /** Submits the last batch and waits until all submitted batches are processed */
+  public void flush() {
+    if (!current.isEmpty()) {
+      submit();
+    }
+    while (!inFlight.isEmpty()) {
+      complete();
+    }
+  }
+
+  private void submit() {
+    if (inFlight.size() >= maxInFlight) {
+      complete();
+    }
+    List<T> batch = new ArrayList<>(current);
+    current.clear();
+    CompletableFuture<R> future =
+        CompletableFuture.supplyAsync(() -> batchFn.apply(batch), executor);
+    inFlight.add(new Batch<>(batch, future));
+  }
+
+  @SneakyThrows
+  private void complete() {
+    Batch<T, R> batch = inFlight.poll();
+    resultConsumer.accept(batch.elements, batch.future.get());
+  }
+
+  private static class Batch<T, R> {
+
+    private final List<T> elements;
+    private final CompletableFuture<R> future;
+
+    private Batch(List<T> elements, CompletableFuture<R> future) {
+      this.elements = elements;
+      this.future = future;
+    }
+  }
+}
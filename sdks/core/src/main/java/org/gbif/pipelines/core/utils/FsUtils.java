@@ -19,6 +19,8 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.avro.file.DataFileStream;
+import org.apache.avro.generic.GenericDatumReader;
 import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.fs.*;
 import org.apache.hadoop.fs.FileSystem;
@@ -165,6 +167,37 @@ public final class FsUtils {
     }
   }
 
+  /**
+   * Deletes avro files that match against a glob filter and contain no records, a writer with a
+   * fixed number of shards produces such files for an empty output.
+   *
+   * @param hdfsSiteConfig path to hdfs-site.xml config file
+   * @param globFilter filter used to filter files and paths
+   */
+  public static void deleteAvroFilesWithoutRecords(
+      String hdfsSiteConfig, String coreSiteConfig, String directoryPath, String globFilter) {
+    FileSystem fs = getFileSystem(hdfsSiteConfig, coreSiteConfig, directoryPath);
+    try {
+      FileStatus[] status = fs.globStatus(new Path(globFilter));
+      Path[] paths = FileUtil.stat2Paths(status);
+      for (Path path : paths) {
+        if (!hasAvroRecords(fs, path)) {
+          boolean delete = fs.delete(path, Boolean.FALSE);
+          log.info("Avro file {} without records deleted status - {}", path, delete);
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Can't delete avro files without records using filter - {}", globFilter);
+    }
+  }
+
+  private static boolean hasAvroRecords(FileSystem fs, Path path) throws IOException {
+    try (InputStream is = fs.open(path);
+        DataFileStream<Object> stream = new DataFileStream<>(is, new GenericDatumReader<>())) {
+      return stream.hasNext();
+    }
+  }
+
   private static void deleteDirectoryByPrefix(FileSystem fs, Path directoryPath, String filePrefix)
       throws IOException {
     FileStatus[] status = fs.listStatus(directoryPath);
@@ -0,0 +1,136 @@
+package org.gbif.pipelines.core.converters;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.specific.SpecificRecordBase;
+import org.gbif.api.vocabulary.License;
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.pipelines.io.avro.BasicRecord;
+import org.gbif.pipelines.io.avro.EventDate;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.pipelines.io.avro.LocationRecord;
+import org.gbif.pipelines.io.avro.MetadataRecord;
+import org.gbif.pipelines.io.avro.Rank;
+import org.gbif.pipelines.io.avro.RankedName;
+import org.gbif.pipelines.io.avro.TaxonRecord;
+import org.gbif.pipelines.io.avro.TemporalRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link GbifJsonConverter#toJsonBytes(SpecificRecordBase...)} with {@link
+ * GbifJsonConverter#toStringJson(SpecificRecordBase...)} plus the String to UTF-8 copy done for an
+ * ES IndexRequest, on a typical set of interpreted records.
+ *
+ * <p>Run from the IDE or with {@code java -cp <test classpath>
+ * org.gbif.pipelines.core.converters.GbifJsonConverterBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class GbifJsonConverterBenchmark {
+
+  private SpecificRecordBase[] records;
+
+  @Setup
+  public void setup() {
+    Map<String, String> core = new HashMap<>();
+    for (DwcTerm term : DwcTerm.values()) {
+      if (!term.isClass()) {
+        core.put(term.qualifiedName(), term.simpleName() + " value");
+      }
+    }
+    ExtendedRecord er = ExtendedRecord.newBuilder().setId("777").setCoreTerms(core).build();
+
+    MetadataRecord mdr =
+        MetadataRecord.newBuilder()
+            .setId("777")
+            .setCrawlId(1)
+            .setDatasetKey("e2e717bf-551a-4917-bdc9-4fa0f342c530")
+            .setLicense(License.CC0_1_0.name())
+            .build();
+
+    BasicRecord br =
+        BasicRecord.newBuilder()
+            .setId("777")
+            .setGbifId(111L)
+            .setBasisOfRecord("PRESERVED_SPECIMEN")
+            .setLicense(License.CC_BY_4_0.name())
+            .build();
+
+    LocationRecord lr =
+        LocationRecord.newBuilder()
+            .setId("777")
+            .setCountryCode("DK")
+            .setDecimalLatitude(55.7)
+            .setDecimalLongitude(12.6)
+            .setHasCoordinate(true)
+            .build();
+
+    TemporalRecord tr =
+        TemporalRecord.newBuilder()
+            .setId("777")
+            .setYear(2018)
+            .setMonth(5)
+            .setDay(12)
+            .setEventDate(EventDate.newBuilder().setGte("2018-05-12").build())
+            .build();
+
+    List<RankedName> classification =
+        Arrays.asList(
+            RankedName.newBuilder().setKey(1).setName("Animalia").setRank(Rank.KINGDOM).build(),
+            RankedName.newBuilder().setKey(44).setName("Chordata").setRank(Rank.PHYLUM).build(),
+            RankedName.newBuilder().setKey(212).setName("Aves").setRank(Rank.CLASS).build(),
+            RankedName.newBuilder()
+                .setKey(2481714)
+                .setName("Cygnus olor")
+                .setRank(Rank.SPECIES)
+                .build());
+    TaxonRecord txr =
+        TaxonRecord.newBuilder()
+            .setId("777")
+            .setClassification(classification)
+            .setUsage(classification.get(3))
+            .build();
+
+    records = new SpecificRecordBase[] {mdr, br, tr, lr, txr, er};
+  }
+
+  @Benchmark
+  public byte[] toStringJson() {
+    return GbifJsonConverter.toStringJson(records).getBytes(UTF_8);
+  }
+
+  @Benchmark
+  public byte[] toJsonBytes() {
+    return GbifJsonConverter.toJsonBytes(records);
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(
+            new OptionsBuilder()
+                .include(GbifJsonConverterBenchmark.class.getSimpleName())
+                .build())
+        .run();
+  }
+}
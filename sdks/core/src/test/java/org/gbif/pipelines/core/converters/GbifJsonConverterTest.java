@@ -1,5 +1,6 @@
 package org.gbif.pipelines.core.converters;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.*;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -866,4 +867,30 @@ public class GbifJsonConverterTest {
     assertFalse(result.has("month"));
     assertFalse(result.has("day"));
   }
+
+  @Test
+  public void jsonBytesTest() {
+    // State
+    Map<String, String> erMap = new HashMap<>(2);
+    erMap.put(DwcTerm.recordedBy.qualifiedName(), "Jeremia garde \u001Eà elfutsone \"quoted\"");
+    erMap.put(DwcTerm.locality.qualifiedName(), "Øresund\n\tKøbenhavn");
+    ExtendedRecord er = ExtendedRecord.newBuilder().setId("777").setCoreTerms(erMap).build();
+    BasicRecord br = BasicRecord.newBuilder().setId("777").setGbifId(111L).build();
+    LocationRecord lr =
+        LocationRecord.newBuilder()
+            .setId("777")
+            .setDecimalLatitude(55.7)
+            .setDecimalLongitude(12.6)
+            .setCountryCode("DK")
+            .build();
+    TemporalRecord tr = TemporalRecord.newBuilder().setId("777").setYear(2018).build();
+
+    // When
+    byte[] result = GbifJsonConverter.toJsonBytes(br, lr, tr, er);
+    byte[] partial = GbifJsonConverter.toPartialJsonBytes(lr);
+
+    // Should
+    assertEquals(GbifJsonConverter.toStringJson(br, lr, tr, er), new String(result, UTF_8));
+    assertEquals(GbifJsonConverter.toStringPartialJson(lr), new String(partial, UTF_8));
+  }
 }
@@ -153,6 +153,22 @@ public class DynamicPropertiesInterpreterTest {
     Assert.assertTrue(br.getLifeStageLineage().isEmpty());
   }
 
+  @Test
+  public void sexAndLifeStageTest() {
+    // State
+    ExtendedRecord er =
+        erDynamicPropertiesFn.apply(
+            "sex=female;age class=adult;total length=495 mm;tail length=210 mm;");
+    BasicRecord br = brFn.get();
+
+    // When
+    DynamicPropertiesInterpreter.interpretSexAndLifeStage(vocabularyLookupFn).accept(er, br);
+
+    // Should
+    Assert.assertEquals("FEMALE", br.getSex());
+    Assert.assertEquals("Adult", br.getLifeStage());
+  }
+
   @Test
   public void lifeStageNotNullTest() {
     // State
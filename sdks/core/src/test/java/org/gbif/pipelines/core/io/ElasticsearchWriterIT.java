@@ -1,6 +1,8 @@
 package org.gbif.pipelines.core.io;
 
 import static org.elasticsearch.common.xcontent.XContentType.JSON;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ES_BULK_DOCUMENTS_COUNT;
+import static org.gbif.pipelines.common.PipelinesVariables.Metrics.ES_BULK_REQUESTS_COUNT;
 import static org.gbif.pipelines.estools.common.SettingsType.INDEXING;
 import static org.gbif.pipelines.estools.service.EsService.buildEndpoint;
 import static org.junit.Assert.assertEquals;
@@ -11,6 +13,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -205,6 +209,60 @@ public class ElasticsearchWriterIT {
         basicRecordList.size(), EsService.countIndexDocuments(ES_SERVER.getEsClient(), idxName));
   }
 
+  @Test
+  public void thirtyRecordsPipelinedTest() {
+    // State
+    String idxName = "thirty-record-pipelined-test";
+    List<BasicRecord> basicRecordList = generateBrList(29);
+    createIndex(idxName, MAPPINGS_PATH);
+    Map<String, Long> metrics = new ConcurrentHashMap<>();
+
+    // When
+    ElasticsearchWriter.<BasicRecord>builder()
+        .esHosts(ES_SERVER.getEsConfig().getRawHosts())
+        .esMaxBatchSize(10L)
+        .esMaxBatchSizeBytes(250_000L)
+        .executor(Executors.newSingleThreadExecutor())
+        .syncModeThreshold(0)
+        .indexRequestFn(createindexRequestFn(idxName))
+        .records(basicRecordList)
+        .pipelinedMode(true)
+        .maxInFlight(2)
+        .metricsFn((name, value) -> metrics.merge(name, value, Long::sum))
+        .build()
+        .write();
+
+    EsService.refreshIndex(ES_SERVER.getEsClient(), idxName);
+
+    // Should
+    assertTrue(EsService.existsIndex(ES_SERVER.getEsClient(), idxName));
+    assertEquals(
+        basicRecordList.size(), EsService.countIndexDocuments(ES_SERVER.getEsClient(), idxName));
+    assertEquals(Long.valueOf(basicRecordList.size()), metrics.get(ES_BULK_DOCUMENTS_COUNT));
+    assertEquals(Long.valueOf(3L), metrics.get(ES_BULK_REQUESTS_COUNT));
+  }
+
+  @Test(expected = ElasticsearchException.class)
+  public void wrongMappingPipelinedTest() {
+    // State
+    String idxName = "wrong-mapping-pipelined-test";
+    List<BasicRecord> basicRecordList = generateBrList(0);
+    createIndex(idxName, WRONG_MAPPINGS_PATH);
+
+    // When
+    ElasticsearchWriter.<BasicRecord>builder()
+        .esHosts(ES_SERVER.getEsConfig().getRawHosts())
+        .esMaxBatchSize(10L)
+        .esMaxBatchSizeBytes(250L)
+        .executor(Executors.newSingleThreadExecutor())
+        .syncModeThreshold(0)
+        .indexRequestFn(createindexRequestFn(idxName))
+        .records(basicRecordList)
+        .pipelinedMode(true)
+        .build()
+        .write();
+  }
+
   @Test
   public void zeroRecordsSyncBigBatchTest() {
     // State
@@ -0,0 +1,170 @@
+package org.gbif.pipelines.core.io;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.SneakyThrows;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.gbif.pipelines.core.utils.FsUtils;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParallelAvroReaderTest {
+
+  private final Path verbatimPath1 = new Path("target/parallel/verbatim1.avro");
+  private final Path verbatimPath2 = new Path("target/parallel/verbatim2.avro");
+  private final FileSystem verbatimFs = FsUtils.createParentDirectories(null, null, verbatimPath1);
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @After
+  public void after() throws Exception {
+    executor.shutdown();
+    Files.deleteIfExists(Paths.get(verbatimPath1.toString()));
+    Files.deleteIfExists(Paths.get(verbatimPath2.toString()));
+  }
+
+  @Test
+  public void forEachSplitsTest() {
+
+    // State
+    writeExtendedRecords(verbatimPath1, 0, 500);
+    writeExtendedRecords(verbatimPath2, 500, 1_000);
+
+    // When
+    ParallelAvroReader<ExtendedRecord> reader = createReader(512L);
+    Set<String> result = ConcurrentHashMap.newKeySet();
+    List<String> duplicates = Collections.synchronizedList(new ArrayList<>());
+    reader.forEach(
+        er -> {
+          if (!result.add(er.getId())) {
+            duplicates.add(er.getId());
+          }
+        });
+
+    // Should
+    Assert.assertTrue(reader.createSplits(verbatimFs).size() > 2);
+    Assert.assertEquals(expectedIds(1_000), result);
+    Assert.assertTrue(duplicates.isEmpty());
+  }
+
+  @Test
+  public void readSplitsOrderTest() {
+
+    // State
+    writeExtendedRecords(verbatimPath1, 0, 300);
+    writeExtendedRecords(verbatimPath2, 300, 700);
+
+    // When
+    List<String> result = new ArrayList<>();
+    createReader(1_024L).readSplits().forEach(s -> s.forEach(er -> result.add(er.getId())));
+
+    // Should
+    List<String> expected =
+        IntStream.range(0, 700).mapToObj(String::valueOf).collect(Collectors.toList());
+    Assert.assertEquals(expected, result);
+  }
+
+  @Test
+  public void streamOrderTest() {
+
+    // State
+    writeExtendedRecords(verbatimPath1, 0, 300);
+    writeExtendedRecords(verbatimPath2, 300, 700);
+
+    // When
+    List<String> result =
+        createReader(1_024L).stream().map(ExtendedRecord::getId).collect(Collectors.toList());
+
+    // Should
+    List<String> expected =
+        IntStream.range(0, 700).mapToObj(String::valueOf).collect(Collectors.toList());
+    Assert.assertEquals(expected, result);
+  }
+
+  @Test
+  public void readRecordsTest() {
+
+    // State
+    writeExtendedRecords(verbatimPath1, 0, 100);
+    writeExtendedRecords(verbatimPath2, 100, 200);
+
+    // When
+    Map<String, ExtendedRecord> result =
+        AvroReader.readRecords(
+            "", "", ExtendedRecord.class, "target/parallel/verbatim*.avro", executor);
+
+    // Should
+    Assert.assertEquals(expectedIds(200), result.keySet());
+  }
+
+  @Test
+  public void readRecordsLastWinsTest() {
+
+    // State
+    writeExtendedRecords(verbatimPath1, 0, 500, "first");
+    writeExtendedRecords(verbatimPath2, 0, 500, "second");
+
+    // When
+    Map<String, ExtendedRecord> result =
+        AvroReader.readRecords(
+            "", "", ExtendedRecord.class, "target/parallel/verbatim*.avro", executor);
+    Map<String, ExtendedRecord> expected =
+        AvroReader.readRecords("", "", ExtendedRecord.class, "target/parallel/verbatim*.avro");
+
+    // Should
+    Assert.assertEquals(expectedIds(500), result.keySet());
+    Assert.assertEquals(expected, result);
+  }
+
+  private ParallelAvroReader<ExtendedRecord> createReader(long splitSize) {
+    return ParallelAvroReader.<ExtendedRecord>builder()
+        .hdfsSiteConfig("")
+        .coreSiteConfig("")
+        .clazz(ExtendedRecord.class)
+        .path("target/parallel/verbatim*.avro")
+        .executor(executor)
+        .splitSize(splitSize)
+        .build();
+  }
+
+  private Set<String> expectedIds(int to) {
+    return IntStream.range(0, to).mapToObj(String::valueOf).collect(Collectors.toSet());
+  }
+
+  private void writeExtendedRecords(Path path, int from, int to) {
+    writeExtendedRecords(path, from, to, "");
+  }
+
+  @SneakyThrows
+  private void writeExtendedRecords(Path path, int from, int to, String file) {
+    try (SyncDataFileWriter<ExtendedRecord> verbatimWriter =
+        SyncDataFileWriterBuilder.builder()
+            .schema(ExtendedRecord.getClassSchema())
+            .codec("snappy")
+            .outputStream(verbatimFs.create(path))
+            .syncInterval(64)
+            .build()
+            .createSyncDataFileWriter()) {
+      IntStream.range(from, to)
+          .mapToObj(
+              i ->
+                  ExtendedRecord.newBuilder()
+                      .setId(String.valueOf(i))
+                      .setCoreTerms(Collections.singletonMap("file", file))
+                      .build())
+          .forEach(verbatimWriter::append);
+    }
+  }
+}
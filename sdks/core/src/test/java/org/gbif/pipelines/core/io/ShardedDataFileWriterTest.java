@@ -0,0 +1,97 @@
+package org.gbif.pipelines.core.io;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.gbif.pipelines.core.utils.FsUtils;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ShardedDataFileWriterTest {
+
+  private final Path verbatimPath = new Path("target/sharded/verbatim.avro");
+  private final FileSystem verbatimFs = FsUtils.createParentDirectories(null, null, verbatimPath);
+
+  @Test
+  public void shardPathTest() {
+    Assert.assertEquals("/a/b/c_1.avro", ShardedDataFileWriter.shardPath("/a/b/c.avro", 1));
+    Assert.assertEquals("/a/b/c_2.avro", ShardedDataFileWriter.shardPath("/a/b/c", 2));
+  }
+
+  @Test
+  public void multiThreadWriteTest() throws Exception {
+
+    // State
+    int threads = 4;
+    int records = 1_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    // When
+    try (SyncDataFileWriter<ExtendedRecord> writer =
+        SyncDataFileWriterBuilder.builder()
+            .schema(ExtendedRecord.getClassSchema())
+            .codec("snappy")
+            .outputStream(verbatimFs.create(verbatimPath))
+            .build()
+            .createShardedDataFileWriter(
+                ShardedDataFileWriter.shardOutputStreamFn(verbatimFs, verbatimPath))) {
+
+      CompletableFuture<?>[] futures =
+          IntStream.range(0, records)
+              .mapToObj(
+                  i ->
+                      CompletableFuture.runAsync(
+                          () ->
+                              writer.append(
+                                  ExtendedRecord.newBuilder().setId(String.valueOf(i)).build()),
+                          executor))
+              .toArray(CompletableFuture[]::new);
+      CompletableFuture.allOf(futures).get();
+    }
+    executor.shutdown();
+
+    Map<String, ExtendedRecord> result =
+        AvroReader.readRecords("", "", ExtendedRecord.class, "target/sharded/*.avro");
+
+    // Should
+    Assert.assertEquals(records, result.size());
+    Assert.assertTrue(new File("target/sharded/verbatim.avro").exists());
+    Assert.assertTrue(new File("target/sharded").list().length <= threads);
+
+    // Post
+    FileUtils.deleteQuietly(new File("target/sharded"));
+  }
+
+  @Test
+  public void emptyWriterTest() throws Exception {
+
+    // When
+    try (SyncDataFileWriter<ExtendedRecord> writer =
+        SyncDataFileWriterBuilder.builder()
+            .schema(ExtendedRecord.getClassSchema())
+            .codec("snappy")
+            .outputStream(verbatimFs.create(verbatimPath))
+            .build()
+            .createShardedDataFileWriter(
+                ShardedDataFileWriter.shardOutputStreamFn(verbatimFs, verbatimPath))) {
+      // NOP
+    }
+
+    Map<String, ExtendedRecord> result =
+        AvroReader.readRecords("", "", ExtendedRecord.class, "target/sharded/*.avro");
+
+    // Should
+    Assert.assertTrue(result.isEmpty());
+    Assert.assertTrue(new File("target/sharded/verbatim.avro").exists());
+
+    // Post
+    FileUtils.deleteQuietly(new File("target/sharded"));
+  }
+}
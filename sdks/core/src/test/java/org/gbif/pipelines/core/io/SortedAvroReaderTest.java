@@ -0,0 +1,201 @@
+package org.gbif.pipelines.core.io;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import lombok.SneakyThrows;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.gbif.pipelines.core.utils.FsUtils;
+import org.gbif.pipelines.io.avro.ExtendedRecord;
+import org.gbif.utils.file.ClosableIterator;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SortedAvroReaderTest {
+
+  private final Path verbatimPath1 = new Path("target/sorted/verbatim1.avro");
+  private final Path verbatimPath2 = new Path("target/sorted/verbatim2.avro");
+  private final FileSystem verbatimFs = FsUtils.createParentDirectories(null, null, verbatimPath1);
+
+  @Test
+  public void inMemorySortTest() throws Exception {
+
+    // State
+    writeExtendedRecords(verbatimPath1, er("3"), er("1"), er("2"));
+
+    // When
+    List<String> result = readIds("target/sorted/verbatim1.avro", 10);
+
+    // Should
+    Assert.assertEquals(Arrays.asList("1", "2", "3"), result);
+
+    // Post
+    Files.deleteIfExists(Paths.get(verbatimPath1.toString()));
+  }
+
+  @Test
+  public void spilledSortWildcardTest() throws Exception {
+
+    // State
+    writeExtendedRecords(verbatimPath1, er("5"), er("1"), er("4"), er("9"));
+    writeExtendedRecords(verbatimPath2, er("2"), er("8"), er("3"), er("7"), er("6"));
+
+    // When
+    List<String> result = readIds("target/sorted/verbatim*.avro", 2);
+
+    // Should
+    Assert.assertEquals(Arrays.asList("1", "2", "3", "4", "5", "6", "7", "8", "9"), result);
+    Assert.assertEquals(0, spillDir().list().length);
+
+    // Post
+    Files.deleteIfExists(Paths.get(verbatimPath1.toString()));
+    Files.deleteIfExists(Paths.get(verbatimPath2.toString()));
+  }
+
+  @Test
+  public void duplicatesKeepReadOrderTest() throws Exception {
+
+    // State
+    ExtendedRecord first =
+        ExtendedRecord.newBuilder()
+            .setId("1")
+            .setCoreTerms(Collections.singletonMap("key", "first"))
+            .build();
+    ExtendedRecord second =
+        ExtendedRecord.newBuilder()
+            .setId("1")
+            .setCoreTerms(Collections.singletonMap("key", "second"))
+            .build();
+    writeExtendedRecords(verbatimPath1, first, er("2"), er("0"), second);
+
+    // When
+    List<ExtendedRecord> result = new ArrayList<>();
+    try (ClosableIterator<ExtendedRecord> iterator =
+        SortedAvroReader.readSortedRecords(
+            "",
+            "",
+            ExtendedRecord.class,
+            verbatimPath1.toString(),
+            spillDir().toPath(),
+            1)) {
+      iterator.forEachRemaining(result::add);
+    }
+
+    // Should
+    Assert.assertEquals(4, result.size());
+    Assert.assertEquals("0", result.get(0).getId());
+    Assert.assertEquals(first, result.get(1));
+    Assert.assertEquals(second, result.get(2));
+    Assert.assertEquals("2", result.get(3).getId());
+
+    // Post
+    Files.deleteIfExists(Paths.get(verbatimPath1.toString()));
+  }
+
+  @Test
+  public void uniqueRecordsTest() throws Exception {
+
+    // State
+    ExtendedRecord notEqual =
+        ExtendedRecord.newBuilder()
+            .setId("2")
+            .setCoreTerms(Collections.singletonMap("key", "value"))
+            .build();
+    writeExtendedRecords(verbatimPath1, er("3"), er("1"), er("2"), er("1"));
+    writeExtendedRecords(verbatimPath2, notEqual, er("4"));
+
+    // When
+    List<String> result = new ArrayList<>();
+    try (ClosableIterator<ExtendedRecord> iterator =
+        SortedAvroReader.readSortedUniqueRecords(
+            "", "", ExtendedRecord.class, "target/sorted/verbatim*.avro", spillDir().toPath(), 2)) {
+      iterator.forEachRemaining(r -> result.add(r.getId()));
+    }
+
+    // Should
+    Assert.assertEquals(Arrays.asList("1", "3", "4"), result);
+
+    // Post
+    Files.deleteIfExists(Paths.get(verbatimPath1.toString()));
+    Files.deleteIfExists(Paths.get(verbatimPath2.toString()));
+  }
+
+  @Test
+  public void uniqueConvertedRecordsTest() throws Exception {
+
+    // State
+    writeExtendedRecords(verbatimPath1, er("1"), er("2"), er("3"));
+
+    // When
+    List<String> result = new ArrayList<>();
+    try (ClosableIterator<ExtendedRecord> iterator =
+        SortedAvroReader.readSortedUniqueRecords(
+            "",
+            "",
+            ExtendedRecord.class,
+            verbatimPath1.toString(),
+            spillDir().toPath(),
+            2,
+            (er, consumer) -> {
+              // Record 1 is converted into two equal records, 2 and 3 into different records 4
+              if (er.getId().equals("1")) {
+                consumer.accept(er("5"));
+                consumer.accept(er("5"));
+              } else {
+                consumer.accept(
+                    ExtendedRecord.newBuilder()
+                        .setId("4")
+                        .setCoreTerms(Collections.singletonMap("key", er.getId()))
+                        .build());
+              }
+              consumer.accept(er);
+            })) {
+      iterator.forEachRemaining(r -> result.add(r.getId()));
+    }
+
+    // Should
+    Assert.assertEquals(Arrays.asList("1", "2", "3", "5"), result);
+
+    // Post
+    Files.deleteIfExists(Paths.get(verbatimPath1.toString()));
+  }
+
+  private List<String> readIds(String path, int bufferSize) throws Exception {
+    List<String> ids = new ArrayList<>();
+    try (ClosableIterator<ExtendedRecord> iterator =
+        SortedAvroReader.readSortedRecords(
+            "", "", ExtendedRecord.class, path, spillDir().toPath(), bufferSize)) {
+      iterator.forEachRemaining(r -> ids.add(r.getId()));
+    }
+    return ids;
+  }
+
+  private File spillDir() {
+    File dir = new File("target/sorted-spill");
+    dir.mkdirs();
+    return dir;
+  }
+
+  private ExtendedRecord er(String id) {
+    return ExtendedRecord.newBuilder().setId(id).build();
+  }
+
+  @SneakyThrows
+  private void writeExtendedRecords(Path path, ExtendedRecord... records) {
+    try (SyncDataFileWriter<ExtendedRecord> verbatimWriter =
+        SyncDataFileWriterBuilder.builder()
+            .schema(ExtendedRecord.getClassSchema())
+            .codec("snappy")
+            .outputStream(verbatimFs.create(path))
+            .syncInterval(2_097_152)
+            .build()
+            .createSyncDataFileWriter()) {
+      Arrays.stream(records).forEach(verbatimWriter::append);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package org.gbif.pipelines.core.parsers.location.cache;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.gbif.kvs.geocode.LatLng;
+import org.gbif.rest.client.geocode.GeocodeResponse;
+import org.gbif.rest.client.geocode.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link GeocodeBitmapCache} with the previous {@link BufferedImage#getRGB(int, int)} and
+ * {@link ConcurrentHashMap} based lookup, on a synthetic image of the production bitmap size.
+ *
+ * <p>Run from the IDE or with {@code java -cp <test classpath>
+ * org.gbif.pipelines.core.parsers.location.cache.GeocodeBitmapCacheBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class GeocodeBitmapCacheBenchmark {
+
+  private static final int WIDTH = 7200;
+  private static final int HEIGHT = 3600;
+  private static final int POINTS = 1 << 16;
+
+  private GeocodeBitmapCache paletteCache;
+  private RgbBitmapCache rgbCache;
+  private LatLng[] points;
+
+  @Setup
+  public void setup() {
+    BufferedImage img = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+    // 20x10 grid of countries with black borders, the rest of the image is white
+    for (int y = 0; y < HEIGHT; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        int colour;
+        if (x % 360 == 0 || y % 360 == 0) {
+          colour = 0x000000;
+        } else if (y > HEIGHT * 3 / 4) {
+          colour = 0xFFFFFF;
+        } else {
+          colour = 0x010101 * (1 + (y / 360) * 20 + x / 360);
+        }
+        img.setRGB(x, y, colour);
+      }
+    }
+
+    Location location = new Location();
+    location.setId("XX");
+    GeocodeResponse response = new GeocodeResponse(Collections.singletonList(location));
+    paletteCache = GeocodeBitmapCache.create(img, latLng -> response);
+    rgbCache = new RgbBitmapCache(img, latLng -> response);
+
+    Random random = new Random(42);
+    points = new LatLng[POINTS];
+    for (int i = 0; i < POINTS; i++) {
+      points[i] = new LatLng(random.nextDouble() * 180d - 90d, random.nextDouble() * 360d - 180d);
+    }
+  }
+
+  @Benchmark
+  public void paletteLookup(Blackhole bh) {
+    for (LatLng point : points) {
+      bh.consume(paletteCache.getFromBitmap(point));
+    }
+  }
+
+  @Benchmark
+  public void rgbLookup(Blackhole bh) {
+    for (LatLng point : points) {
+      bh.consume(rgbCache.getFromBitmap(point));
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(
+            new OptionsBuilder()
+                .include(GeocodeBitmapCacheBenchmark.class.getSimpleName())
+                .build())
+        .run();
+  }
+
+  /** Hot path of the previous implementation, logging is left out */
+  private static class RgbBitmapCache {
+
+    private final BufferedImage img;
+    private final Function<LatLng, GeocodeResponse> loadFn;
+    private final Map<Integer, GeocodeResponse> colourKey = new ConcurrentHashMap<>();
+
+    private RgbBitmapCache(BufferedImage img, Function<LatLng, GeocodeResponse> loadFn) {
+      this.img = img;
+      this.loadFn = loadFn;
+    }
+
+    private GeocodeResponse getFromBitmap(LatLng latLng) {
+      double lat = latLng.getLatitude();
+      double lng = latLng.getLongitude();
+      int x = (int) Math.round((lng + 180d) / 360d * (img.getWidth() - 1));
+      int y = img.getHeight() - 1 - (int) Math.round((lat + 90d) / 180d * (img.getHeight() - 1));
+
+      int colour = img.getRGB(x, y) & 0x00FFFFFF;
+      // The previous implementation formatted the colour for debug logging on every call
+      String.format("#%06x", colour);
+
+      switch (colour) {
+        case 0x000000:
+          return null;
+        case 0xFFFFFF:
+          return new GeocodeResponse(Collections.emptyList());
+        default:
+          if (colourKey.containsKey(colour)) {
+            return colourKey.get(colour);
+          }
+          GeocodeResponse locations = loadFn.apply(latLng);
+          colourKey.put(colour, locations);
+          return locations;
+      }
+    }
+  }
+}
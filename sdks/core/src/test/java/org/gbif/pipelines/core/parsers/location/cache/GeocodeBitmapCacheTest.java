@@ -0,0 +1,98 @@
+package org.gbif.pipelines.core.parsers.location.cache;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.gbif.kvs.geocode.LatLng;
+import org.gbif.rest.client.geocode.GeocodeResponse;
+import org.gbif.rest.client.geocode.Location;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GeocodeBitmapCacheTest {
+
+  @Test
+  public void paletteTest() {
+
+    // State
+    BufferedImage img = new BufferedImage(4, 2, BufferedImage.TYPE_INT_ARGB);
+    img.setRGB(0, 0, 0xFF123456);
+    img.setRGB(1, 0, 0x00123456);
+    img.setRGB(2, 1, 0xFFFFFFFF);
+
+    // When
+    PaletteBitmap bitmap = PaletteBitmap.create(img);
+
+    // Should
+    Assert.assertEquals(4, bitmap.getWidth());
+    Assert.assertEquals(2, bitmap.getHeight());
+    Assert.assertEquals(3, bitmap.getPaletteSize());
+    Assert.assertEquals(bitmap.getIndex(0, 0), bitmap.getIndex(1, 0));
+    Assert.assertEquals(0x123456, bitmap.getColour(bitmap.getIndex(1, 0)));
+    Assert.assertEquals(0x000000, bitmap.getColour(bitmap.getIndex(3, 1)));
+    Assert.assertEquals(0xFFFFFF, bitmap.getColour(bitmap.getIndex(2, 1)));
+  }
+
+  @Test(expected = ArrayIndexOutOfBoundsException.class)
+  public void paletteOutOfBoundsTest() {
+    PaletteBitmap.create(new BufferedImage(4, 2, BufferedImage.TYPE_INT_RGB)).getIndex(4, 0);
+  }
+
+  @Test
+  public void largePaletteTest() {
+
+    // State
+    BufferedImage img = new BufferedImage(300, 300, BufferedImage.TYPE_INT_RGB);
+    for (int y = 0; y < 300; y++) {
+      for (int x = 0; x < 300; x++) {
+        img.setRGB(x, y, y * 300 + x);
+      }
+    }
+
+    // When
+    PaletteBitmap bitmap = PaletteBitmap.create(img);
+
+    // Should
+    Assert.assertEquals(90_000, bitmap.getPaletteSize());
+    Assert.assertEquals(299 * 300 + 299, bitmap.getColour(bitmap.getIndex(299, 299)));
+    Assert.assertEquals(5, bitmap.getColour(bitmap.getIndex(5, 0)));
+  }
+
+  @Test
+  public void getFromBitmapTest() {
+
+    // State
+    // Left half is a country, right top is the border, right bottom is nothing
+    BufferedImage img = new BufferedImage(4, 2, BufferedImage.TYPE_INT_RGB);
+    img.setRGB(0, 0, 0x123456);
+    img.setRGB(1, 0, 0x123456);
+    img.setRGB(0, 1, 0x123456);
+    img.setRGB(1, 1, 0x123456);
+    img.setRGB(2, 1, 0xFFFFFF);
+    img.setRGB(3, 1, 0xFFFFFF);
+
+    Location location = new Location();
+    location.setId("DK");
+    AtomicInteger calls = new AtomicInteger();
+    GeocodeBitmapCache cache =
+        GeocodeBitmapCache.create(
+            img,
+            latLng -> {
+              calls.incrementAndGet();
+              return new GeocodeResponse(Collections.singletonList(location));
+            });
+
+    // When
+    GeocodeResponse country1 = cache.getFromBitmap(new LatLng(80d, -170d));
+    GeocodeResponse country2 = cache.getFromBitmap(new LatLng(-80d, -10d));
+    GeocodeResponse border = cache.getFromBitmap(new LatLng(80d, 170d));
+    GeocodeResponse nothing = cache.getFromBitmap(new LatLng(-80d, 170d));
+
+    // Should
+    Assert.assertEquals("DK", country1.getLocations().get(0).getId());
+    Assert.assertSame(country1, country2);
+    Assert.assertEquals(1, calls.get());
+    Assert.assertNull(border);
+    Assert.assertTrue(nothing.getLocations().isEmpty());
+  }
+}
@@ -0,0 +1,56 @@
+package org.gbif.pipelines.core.parsers.vertnet;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class KeywordMatcherTest {
+
+  private static final KeywordMatcher MATCHER = createMatcher();
+
+  @Test
+  public void noKeywordTest() {
+    // When
+    int result = MATCHER.scan("total length=495 mm");
+
+    // Should
+    Assert.assertEquals(0, result);
+  }
+
+  @Test
+  public void overlappingKeywordsTest() {
+    // When
+    int result = MATCHER.scan("juv. female");
+
+    // Should
+    Assert.assertEquals(1 | 2, result);
+  }
+
+  @Test
+  public void suffixKeywordTest() {
+    // When
+    int result = MATCHER.scan("age undetermined");
+
+    // Should
+    Assert.assertEquals(4, result);
+  }
+
+  @Test
+  public void nonLatinTextTest() {
+    // When
+    int result = MATCHER.scan("性别 male");
+
+    // Should
+    Assert.assertEquals(1, result);
+  }
+
+  private static KeywordMatcher createMatcher() {
+    Map<String, Integer> map = new HashMap<>();
+    map.put("male", 1);
+    map.put("female", 2);
+    map.put("determin", 4);
+    map.put("terminal", 8);
+    return KeywordMatcher.create(map);
+  }
+}
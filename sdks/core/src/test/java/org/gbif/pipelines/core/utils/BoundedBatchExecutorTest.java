@@ -0,0 +1,77 @@
+package org.gbif.pipelines.core.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BoundedBatchExecutorTest {
+
+  @Test
+  public void orderedResultsTest() {
+    // State
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Integer> input = IntStream.range(0, 1_001).boxed().collect(Collectors.toList());
+    List<Integer> result = new ArrayList<>();
+    AtomicInteger batches = new AtomicInteger();
+
+    BoundedBatchExecutor<Integer, List<Integer>> batchExecutor =
+        BoundedBatchExecutor.<Integer, List<Integer>>builder()
+            .executor(executor)
+            .batchSize(10)
+            .maxInFlight(3)
+            .batchFn(batch -> batch.stream().map(x -> x * 2).collect(Collectors.toList()))
+            .resultConsumer(
+                (batch, r) -> {
+                  batches.incrementAndGet();
+                  result.addAll(r);
+                })
+            .build();
+
+    // When
+    input.forEach(batchExecutor::accept);
+    batchExecutor.flush();
+    executor.shutdown();
+
+    // Should
+    Assert.assertEquals(101, batches.get());
+    Assert.assertEquals(input.stream().map(x -> x * 2).collect(Collectors.toList()), result);
+  }
+
+  @Test
+  public void batchFailureTest() {
+    // State
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    BoundedBatchExecutor<Integer, Integer> batchExecutor =
+        BoundedBatchExecutor.<Integer, Integer>builder()
+            .executor(executor)
+            .batchSize(2)
+            .batchFn(
+                batch -> {
+                  throw new IllegalStateException("Batch failed");
+                })
+            .build();
+
+    // When
+    Exception result = null;
+    try {
+      batchExecutor.accept(1);
+      batchExecutor.accept(2);
+      batchExecutor.flush();
+    } catch (Exception ex) {
+      result = ex;
+    } finally {
+      executor.shutdown();
+    }
+
+    // Should
+    Assert.assertNotNull(result);
+    Assert.assertTrue(result.getCause() instanceof IllegalStateException);
+  }
+}
@@ -158,6 +158,7 @@ public class PipelinesVariables {
 
     public static final String AVRO_TO_JSON_COUNT = "avroToJsonCount";
     public static final String ARCHIVE_TO_ER_COUNT = "archiveToErCount";
+    public static final String ARCHIVE_TO_EXTENSION_ROWS_COUNT = "archiveToExtensionRowsCount";
     public static final String AVRO_TO_HDFS_COUNT = "avroToHdfsCount";
 
     public static final String UNIQUE_IDS_COUNT = "uniqueIdsCount";
@@ -223,8 +224,17 @@ public class PipelinesVariables {
     public static final String HDFS_VIEW_RECORDS_COUNT = "hdfsViewRecordsCount";
     // Fragmenter
     public static final String FRAGMENTER_COUNT = "fragmenterRecordsCount";
+    // Elasticsearch bulk
+    public static final String ES_BULK_REQUESTS_COUNT = "esBulkRequestsCount";
+    public static final String ES_BULK_DOCUMENTS_COUNT = "esBulkDocumentsCount";
+    public static final String ES_BULK_REJECTED_COUNT = "esBulkRejectedCount";
+    public static final String ES_UNCHANGED_DOCUMENTS_COUNT = "esUnchangedDocumentsCount";
+    public static final String ES_DELETED_DOCUMENTS_COUNT = "esDeletedDocumentsCount";
     // Specific
     public static final String LOCATION_FEATURE_RECORDS_COUNT = "locationFeatureRecordsCount";
+    // Timers
+    public static final String ES_BULK_REQUEST_TIME = "esBulkRequest";
+    public static final String AVRO_BLOCK_WRITE_TIME = "avroBlockWrite";
   }
 
   @NoArgsConstructor(access = AccessLevel.PRIVATE)
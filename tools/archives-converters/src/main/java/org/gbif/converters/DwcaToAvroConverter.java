@@ -2,7 +2,8 @@ package org.gbif.converters;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import lombok.Builder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.gbif.converters.converter.ConverterToVerbatim;
@@ -14,9 +15,27 @@ import org.gbif.pipelines.io.avro.ExtendedRecord;
 /** Converts DWC archive into {@link ExtendedRecord} AVRO file */
 @Slf4j
 @NoArgsConstructor(staticName = "create")
-@Builder
 public class DwcaToAvroConverter extends ConverterToVerbatim {
 
+  private ExecutorService executor;
+  private int converterParallelism = Runtime.getRuntime().availableProcessors();
+  private long extensionRowsNumber;
+
+  /** @param executor to use provided ExecutorService for record conversion */
+  public DwcaToAvroConverter executor(ExecutorService executor) {
+    this.executor = executor;
+    return this;
+  }
+
+  /**
+   * @param converterParallelism number of threads converting records, 1 reads and converts records
+   *     on the calling thread if an executor is not provided
+   */
+  public DwcaToAvroConverter converterParallelism(int converterParallelism) {
+    this.converterParallelism = converterParallelism;
+    return this;
+  }
+
   public static void main(String... args) {
     if (args.length < 2) {
       throw new IllegalArgumentException("You must specify input and output paths");
@@ -29,7 +48,8 @@ public class DwcaToAvroConverter extends ConverterToVerbatim {
   }
 
   /**
-   * Converts DWC archive into {@link ExtendedRecord} AVRO file
+   * Converts DWC archive into {@link ExtendedRecord} AVRO file. Records are read on the calling
+   * thread, converted on the executor and appended in the archive order.
    *
    * @param inputPath Path to DWCA file
    * @param dataFileWriter AVRO data writer for {@link ExtendedRecord}
@@ -40,15 +60,39 @@ public class DwcaToAvroConverter extends ConverterToVerbatim {
     DwcaReader reader = DwcaReader.fromLocation(inputPath.toString());
     log.info("Exporting the DwC Archive to Avro started {}", inputPath);
 
-    // Read all records
-    while (reader.advance()) {
-      ExtendedRecord record = reader.getCurrent();
-      if (!record.getId().equals(ExtendedRecordConverter.getRecordIdError())) {
-        dataFileWriter.append(record);
+    boolean ownExecutor = executor == null && converterParallelism > 1;
+    ExecutorService ex =
+        ownExecutor ? Executors.newFixedThreadPool(converterParallelism) : executor;
+    try {
+      if (ex == null) {
+        // Read all records
+        while (reader.advance()) {
+          append(reader.getCurrent(), dataFileWriter);
+        }
+      } else {
+        // Two batches per thread keep converters busy while the reader fills the next batch
+        reader.readAll(ex, converterParallelism * 2, r -> append(r, dataFileWriter));
+      }
+    } finally {
+      reader.close();
+      if (ownExecutor) {
+        ex.shutdown();
       }
     }
-    reader.close();
 
     return reader.getRecordsReturned();
   }
+
+  @Override
+  protected long getExtensionRowsNumber() {
+    return extensionRowsNumber;
+  }
+
+  /** Is called on one thread in the archive order, see {@link DwcaReader#readAll} */
+  private void append(ExtendedRecord record, SyncDataFileWriter<ExtendedRecord> writer) {
+    if (!record.getId().equals(ExtendedRecordConverter.getRecordIdError())) {
+      writer.append(record);
+      record.getExtensions().values().forEach(rows -> extensionRowsNumber += rows.size());
+    }
+  }
 }
@@ -120,10 +120,19 @@ public abstract class ConverterToVerbatim {
       throws IOException {
     if (metaPath != null) {
       String info = Metrics.ARCHIVE_TO_ER_COUNT + ": " + numberOfRecords + "\n";
+      long extensionRowsNumber = getExtensionRowsNumber();
+      if (extensionRowsNumber > 0) {
+        info += Metrics.ARCHIVE_TO_EXTENSION_ROWS_COUNT + ": " + extensionRowsNumber + "\n";
+      }
       createFile(fs, metaPath, info);
     }
   }
 
+  /** Number of extension rows of the converted records, is called after the conversion */
+  protected long getExtensionRowsNumber() {
+    return 0L;
+  }
+
   protected abstract long convert(
       java.nio.file.Path inputPath, SyncDataFileWriter<ExtendedRecord> dataFileWriter)
       throws IOException;
@@ -2,10 +2,17 @@ package org.gbif.converters;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.apache.avro.file.DataFileReader;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.specific.SpecificDatumReader;
+import org.gbif.dwc.terms.DwcTerm;
+import org.gbif.pipelines.common.PipelinesVariables.Metrics;
 import org.gbif.pipelines.io.avro.ExtendedRecord;
 import org.junit.Assert;
 import org.junit.Test;
@@ -41,4 +48,97 @@ public class DwcaToAvroConverterTest {
 
     Files.deleteIfExists(verbatim.toPath());
   }
+
+  @Test
+  public void parallelConversionKeepsOrderTest() throws IOException {
+
+    // State
+    String sequentialPath = inpPath + "sequential.avro";
+    String parallelPath = inpPath + "parallel.avro";
+
+    // When
+    DwcaToAvroConverter.create()
+        .converterParallelism(1)
+        .inputPath(inpPath)
+        .outputPath(sequentialPath)
+        .convert();
+    DwcaToAvroConverter.create()
+        .converterParallelism(4)
+        .inputPath(inpPath)
+        .outputPath(parallelPath)
+        .convert();
+
+    // Should
+    Map<String, String[]> rows = readCore(new File(inpPath, "occurrence.txt"));
+    List<ExtendedRecord> sequential = read(new File(sequentialPath));
+    List<ExtendedRecord> parallel = read(new File(parallelPath));
+    Assert.assertEquals(rows.size(), sequential.size());
+    Assert.assertEquals(rows.size(), parallel.size());
+
+    for (int i = 0; i < parallel.size(); i++) {
+      ExtendedRecord record = parallel.get(i);
+      Assert.assertEquals(sequential.get(i), record);
+
+      String[] row = rows.get(record.getId());
+      Assert.assertNotNull("Unknown id " + record.getId(), row);
+      Map<String, String> terms = record.getCoreTerms();
+      Assert.assertEquals(row[1], terms.get(DwcTerm.kingdom.qualifiedName()));
+      Assert.assertEquals(row[2], terms.get(DwcTerm.institutionCode.qualifiedName()));
+      Assert.assertEquals(row[3], terms.get(DwcTerm.basisOfRecord.qualifiedName()));
+      Assert.assertEquals(row[4], terms.get(DwcTerm.scientificName.qualifiedName()));
+      Assert.assertEquals(row[5], terms.get(DwcTerm.collectionCode.qualifiedName()));
+      Assert.assertEquals(row[6], terms.get(DwcTerm.family.qualifiedName()));
+    }
+
+    Files.deleteIfExists(new File(sequentialPath).toPath());
+    Files.deleteIfExists(new File(parallelPath).toPath());
+  }
+
+  @Test
+  public void extensionRowsMetricTest() throws IOException {
+
+    // State
+    String metaPath = inpPath + "archive-to-verbatim.yml";
+
+    // When
+    DwcaToAvroConverter.create()
+        .inputPath(inpPath)
+        .outputPath(outPath)
+        .metaPath(metaPath)
+        .convert();
+
+    // Should
+    long expected =
+        read(new File(outPath)).stream()
+            .flatMap(er -> er.getExtensions().values().stream())
+            .mapToLong(List::size)
+            .sum();
+    List<String> lines = Files.readAllLines(new File(metaPath).toPath(), StandardCharsets.UTF_8);
+    Assert.assertTrue(expected > 0);
+    Assert.assertTrue(lines.contains(Metrics.ARCHIVE_TO_EXTENSION_ROWS_COUNT + ": " + expected));
+
+    Files.deleteIfExists(new File(outPath).toPath());
+    Files.deleteIfExists(new File(metaPath).toPath());
+  }
+
+  /** Reads the core file directly, id to columns */
+  private static Map<String, String[]> readCore(File file) throws IOException {
+    Map<String, String[]> rows = new HashMap<>();
+    for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+      if (!line.isEmpty()) {
+        String[] row = line.split("\t", -1);
+        rows.put(row[0], row);
+      }
+    }
+    return rows;
+  }
+
+  private static List<ExtendedRecord> read(File file) throws IOException {
+    List<ExtendedRecord> records = new ArrayList<>();
+    DatumReader<ExtendedRecord> datumReader = new SpecificDatumReader<>(ExtendedRecord.class);
+    try (DataFileReader<ExtendedRecord> dataFileReader = new DataFileReader<>(file, datumReader)) {
+      dataFileReader.forEach(records::add);
+    }
+    return records;
+  }
 }
@@ -167,6 +167,22 @@ public class EsIndex {
     }
   }
 
+  /**
+   * Counts the number of documents of a dataset in an index.
+   *
+   * @param config configuration of the ES instance.
+   * @param index index to count the elements from.
+   * @param datasetKey dataset whose documents are counted.
+   * @return number of documents of the dataset.
+   */
+  public static long countDatasetDocuments(EsConfig config, String index, String datasetKey) {
+    Preconditions.checkArgument(!Strings.isNullOrEmpty(index), "index is required");
+    log.info("Counting documents of dataset {} from index {}", datasetKey, index);
+    try (EsClient esClient = EsClient.from(config)) {
+      return EsService.countDatasetDocuments(esClient, index, datasetKey);
+    }
+  }
+
   /**
    * Connects to Elasticsearch instance and deletes records in an index by datasetId and returns the
    * indexes where the dataset was present.
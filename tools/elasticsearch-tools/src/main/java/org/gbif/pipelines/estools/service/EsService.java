@@ -187,6 +187,24 @@ public class EsService {
     return HttpResponseParser.parseIndexCountResponse(response.getEntity());
   }
 
+  /**
+   * Counts the documents of a dataset in an index.
+   *
+   * @param esClient client to call ES. It is required.
+   * @param idxName index to get the count from.
+   * @param datasetKey dataset whose documents are counted.
+   * @return number of documents of the dataset.
+   */
+  @SneakyThrows
+  public static long countDatasetDocuments(
+      @NonNull EsClient esClient, String idxName, String datasetKey) {
+    String endpoint = buildEndpoint(idxName, "_count");
+    HttpEntity body =
+        createBodyFromString(String.format(EsQueries.DELETE_BY_DATASET_QUERY, datasetKey));
+    Response response = esClient.performPostRequest(endpoint, Collections.emptyMap(), body);
+    return HttpResponseParser.parseIndexCountResponse(response.getEntity());
+  }
+
   /**
    * Indexes a document in an index.
    *